@@ -0,0 +1,46 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Connects benchmarks to the database started by startDb.sh. The defaults can be overridden with the
+ * ST_BENCHMARK_PG_URL, ST_BENCHMARK_PG_USER and ST_BENCHMARK_PG_PASSWORD system properties or environment variables.
+ */
+class BenchmarkDatabase {
+
+    private static String getValue(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            value = System.getenv(name);
+        }
+        return value == null ? defaultValue : value;
+    }
+
+    static Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", getValue("ST_BENCHMARK_PG_USER", "root"));
+        properties.setProperty("password", getValue("ST_BENCHMARK_PG_PASSWORD", "root"));
+        return DriverManager.getConnection(
+                getValue("ST_BENCHMARK_PG_URL", "jdbc:postgresql://localhost:5432/supertokens"), properties);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql;
+
+import com.google.gson.Gson;
+import io.supertokens.storage.postgresql.config.PostgreSQLConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.update;
+
+/**
+ * The cost that QueryExecutorTemplate adds to a query, against a connection that does no I/O (see {@link StubJdbc}),
+ * with and without the query statistics of the storage being recorded (see postgresql_query_statistics_enabled).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class QueryExecutorTemplateBenchmark {
+
+    private static final String SELECT_QUERY = "SELECT user_id FROM all_auth_recipe_users WHERE app_id = ? AND "
+            + "primary_or_recipe_user_id = ?";
+    private static final String UPDATE_QUERY = "UPDATE session_info SET expires_at = ? WHERE app_id = ? AND "
+            + "tenant_id = ? AND session_handle = ?";
+
+    @Param({"1", "100"})
+    public int rows;
+
+    @Param({"false", "true"})
+    public boolean recordStatistics;
+
+    private Connection connection;
+
+    @Setup
+    public void setup() {
+        connection = StubJdbc.connection(rows, "4b9f2a3e-71c2-4a8e-b1d5-6c0e9f8a7b21");
+        Start start = new Start();
+        PostgreSQLConfig config = new Gson().fromJson("{\"postgresql_query_statistics_enabled\": true}",
+                PostgreSQLConfig.class);
+        start.queryStatistics = new QueryStatistics(start, config, null);
+        if (recordStatistics) {
+            connection = new QueryStatisticsConnection(connection, start.queryStatistics);
+        }
+    }
+
+    @Benchmark
+    public List<String> executeQuery() throws Exception {
+        return execute(connection, SELECT_QUERY, pst -> {
+            pst.setString(1, "public");
+            pst.setString(2, "4b9f2a3e-71c2-4a8e-b1d5-6c0e9f8a7b21");
+        }, result -> {
+            List<String> userIds = new ArrayList<>();
+            while (result.next()) {
+                userIds.add(result.getString("user_id"));
+            }
+            return userIds;
+        });
+    }
+
+    @Benchmark
+    public int executeUpdate() throws Exception {
+        return update(connection, UPDATE_QUERY, pst -> {
+            pst.setLong(1, 1760000000000L);
+            pst.setString(2, "public");
+            pst.setString(3, "public");
+            pst.setString(4, "a3c1f1a4-5ef2-4b6f-9d7c-1d0b5d2f7e11");
+        });
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
+
+/**
+ * Runs a transaction that looks up the same query many times (like the per user loops of the backfill), once on a
+ * plain connection and once on a {@link StatementCachingConnection}, as Start.startTransactionHelper does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class StatementReuseBenchmark {
+
+    private static final String TABLE = "benchmark_statement_reuse";
+    private static final int ROWS = 1000;
+
+    @Param({"1", "10", "50"})
+    public int lookupsPerTransaction;
+
+    private Connection connection;
+    private int nextId = 0;
+
+    @Setup
+    public void setup() throws Exception {
+        connection = BenchmarkDatabase.connect();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE " + TABLE + " (id INT PRIMARY KEY, email VARCHAR(256) NOT NULL)");
+            statement.execute("INSERT INTO " + TABLE + " SELECT i, 'user' || i || '@example.com'"
+                    + " FROM generate_series(0, " + (ROWS - 1) + ") AS i");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+        }
+        connection.close();
+    }
+
+    private String runTransaction(Connection con) throws Exception {
+        String QUERY = "SELECT email FROM " + TABLE + " WHERE id = ?";
+        String last = null;
+        con.setAutoCommit(false);
+        try {
+            for (int i = 0; i < lookupsPerTransaction; i++) {
+                int id = nextId++ % ROWS;
+                last = execute(con, QUERY, pst -> pst.setInt(1, id), result -> {
+                    if (result.next()) {
+                        return result.getString("email");
+                    }
+                    return null;
+                });
+            }
+            con.commit();
+        } finally {
+            con.setAutoCommit(true);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public String prepareEveryStatement() throws Exception {
+        return runTransaction(connection);
+    }
+
+    @Benchmark
+    public String reuseStatementsWithinTransaction() throws Exception {
+        // not closed, since that would close the shared benchmark connection. Commit closes the cached statements.
+        return runTransaction(new StatementCachingConnection(connection));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql;
+
+import io.supertokens.pluginInterface.exceptions.StorageQueryException;
+import io.supertokens.pluginInterface.exceptions.StorageTransactionLogicException;
+import io.supertokens.storage.postgresql.config.PostgreSQLConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classifies the failures that Start.startTransaction sees, wrapped the way they reach it: a retryable failure
+ * thrown from within the transaction logic, a failed batch whose state is on its next exception, and a failure that
+ * is not retried, for which the whole cause chain is searched.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TransactionRetryPolicyBenchmark {
+
+    private final TransactionRetryPolicy policy = new TransactionRetryPolicy(
+            new PostgreSQLConfig().getTransactionRetryTimeBudget());
+
+    private Exception serializationFailure;
+    private Exception failedBatch;
+    private Exception uniqueViolation;
+
+    @Setup
+    public void setup() {
+        serializationFailure = new StorageTransactionLogicException(new StorageQueryException(
+                new SQLException("could not serialize access due to concurrent update", "40001")));
+
+        BatchUpdateException batch = new BatchUpdateException("Batch entry 3 was aborted", new int[0]);
+        batch.setNextException(new SQLException("deadlock detected", "40P01"));
+        failedBatch = new StorageQueryException(batch);
+
+        uniqueViolation = new StorageTransactionLogicException(new StorageQueryException(
+                new SQLException("duplicate key value violates unique constraint", "23505")));
+    }
+
+    @Benchmark
+    public TransactionRetryPolicy.FailureClass serializationFailure() {
+        return policy.classify(serializationFailure);
+    }
+
+    @Benchmark
+    public TransactionRetryPolicy.FailureClass failedBatch() {
+        return policy.classify(failedBatch);
+    }
+
+    @Benchmark
+    public TransactionRetryPolicy.FailureClass notRetried() {
+        return policy.classify(uniqueViolation);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.config;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gets table names from the config, as every query that is not in the QueryRegistry does. Some table names are
+ * stored with their schema by validateAndNormalise, and the others are built on every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PostgreSQLConfigBenchmark {
+
+    @Param({"public", "auth"})
+    public String tableSchema;
+
+    private PostgreSQLConfig config;
+
+    @Setup
+    public void setup() throws Exception {
+        config = new Gson().fromJson("{\"postgresql_table_schema\": \"" + tableSchema
+                + "\", \"postgresql_table_names_prefix\": \"st\"}", PostgreSQLConfig.class);
+        config.validateAndNormalise();
+    }
+
+    @Benchmark
+    public String storedTableName() {
+        return config.getSessionInfoTable();
+    }
+
+    @Benchmark
+    public String builtTableName() {
+        return config.getUsersTable();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.output;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formats a log message as the JSON that is written to the log files, with and without the stack trace of an
+ * exception, which is split into one array element per line.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LoggingBenchmark {
+
+    private static final String MESSAGE = "Slow query SessionQueries.getSession_impl took 312 ms, parameters: "
+            + "[String(6), String(6), String(36)]";
+
+    private Exception exception;
+
+    @Setup
+    public void setup() {
+        exception = new SQLException("could not serialize access due to concurrent update", "40001");
+    }
+
+    @Benchmark
+    public String message() {
+        return Logging.getFormattedMessage(MESSAGE, null);
+    }
+
+    @Benchmark
+    public String messageWithException() {
+        return Logging.getFormattedMessage(MESSAGE, exception);
+    }
+}
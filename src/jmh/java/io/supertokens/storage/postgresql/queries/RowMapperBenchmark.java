@@ -0,0 +1,122 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.queries;
+
+import com.google.gson.JsonParser;
+import io.supertokens.pluginInterface.session.SessionInfo;
+import io.supertokens.pluginInterface.totp.TOTPDevice;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a row with the ColumnOrdinalRowMapper based mappers, and with the same mapping done by column name as the
+ * mappers did before. Every invocation gets a new result set, like every query does, so the by name variant pays for
+ * building the name to position map like it does with the driver.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RowMapperBenchmark {
+
+    private static final String[] SESSION_COLUMNS = {"session_handle", "user_id", "refresh_token_hash_2",
+            "session_data", "expires_at", "created_at_time", "jwt_user_payload", "use_static_key"};
+    private static final Object[] SESSION_ROW = {"a3c1f1a4-5ef2-4b6f-9d7c-1d0b5d2f7e11",
+            "4b9f2a3e-71c2-4a8e-b1d5-6c0e9f8a7b21", "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08",
+            "{}", 1760000000000L, 1750000000000L, "{\"role\":\"admin\"}", false};
+
+    private static final String[] TOTP_DEVICE_COLUMNS = {"user_id", "device_name", "secret_key", "period", "skew",
+            "verified", "created_at"};
+    private static final Object[] TOTP_DEVICE_ROW = {"4b9f2a3e-71c2-4a8e-b1d5-6c0e9f8a7b21", "phone",
+            "JBSWY3DPEHPK3PXP", 30, 1, true, 1750000000000L};
+
+    @Benchmark
+    public SessionInfo sessionInfoByName() throws Exception {
+        ResultSet result = stubResultSet(SESSION_COLUMNS, SESSION_ROW);
+        JsonParser jp = new JsonParser();
+        return new SessionInfo(result.getString("session_handle"), result.getString("user_id"),
+                result.getString("user_id"), result.getString("refresh_token_hash_2"),
+                jp.parse(result.getString("session_data")).getAsJsonObject(), result.getLong("expires_at"),
+                jp.parse(result.getString("jwt_user_payload")).getAsJsonObject(),
+                result.getLong("created_at_time"), result.getBoolean("use_static_key"));
+    }
+
+    @Benchmark
+    public SessionInfo sessionInfoByOrdinal() throws Exception {
+        return SessionQueries.SessionInfoRowMapper.getInstance()
+                .map(stubResultSet(SESSION_COLUMNS, SESSION_ROW));
+    }
+
+    @Benchmark
+    public TOTPDevice totpDeviceByName() throws Exception {
+        ResultSet result = stubResultSet(TOTP_DEVICE_COLUMNS, TOTP_DEVICE_ROW);
+        return new TOTPDevice(result.getString("user_id"), result.getString("device_name"),
+                result.getString("secret_key"), result.getInt("period"), result.getInt("skew"),
+                result.getBoolean("verified"), result.getLong("created_at"));
+    }
+
+    @Benchmark
+    public TOTPDevice totpDeviceByOrdinal() throws Exception {
+        return TOTPQueries.TOTPDeviceRowMapper.getInstance().map(stubResultSet(TOTP_DEVICE_COLUMNS, TOTP_DEVICE_ROW));
+    }
+
+    /**
+     * A result set positioned on a single row. Like the driver's, it resolves column names with a map that it builds
+     * on the first lookup, and retries a miss with the lower cased name.
+     */
+    @SuppressWarnings("unchecked")
+    private static ResultSet stubResultSet(String[] columns, Object[] row) {
+        Map<String, Integer>[] columnIndexes = new Map[1];
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (args == null || args.length != 1) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    int index;
+                    if (args[0] instanceof Integer) {
+                        index = (Integer) args[0];
+                    } else {
+                        if (columnIndexes[0] == null) {
+                            columnIndexes[0] = new HashMap<>();
+                            for (int i = columns.length - 1; i >= 0; i--) {
+                                columnIndexes[0].put(columns[i], i + 1);
+                            }
+                        }
+                        String column = (String) args[0];
+                        Integer found = columnIndexes[0].get(column);
+                        if (found == null) {
+                            found = columnIndexes[0].get(column.toLowerCase(Locale.US));
+                        }
+                        if (found == null) {
+                            throw new SQLException("The column name " + column + " was not found in this ResultSet.");
+                        }
+                        index = found;
+                    }
+                    return row[index - 1];
+                });
+    }
+}
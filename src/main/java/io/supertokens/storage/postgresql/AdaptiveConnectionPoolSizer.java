@@ -0,0 +1,212 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.supertokens.pluginInterface.exceptions.StorageQueryException;
+import io.supertokens.storage.postgresql.output.Logging;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resizes a storage's connection pool at runtime (see postgresql_adaptive_connection_pool), between a minimum size
+ * and postgresql_connection_pool_size. The pool grows quickly while threads wait for connections, and shrinks one
+ * connection at a time while the peak number of connections in use stays well below the pool size. It never grows
+ * while the database is close to max_connections. The sizers of all storages run on one shared scheduler thread.
+ */
+public class AdaptiveConnectionPoolSizer {
+
+    // average acquisition wait in an interval at or above which the pool grows
+    static final double GROW_WAIT_THRESHOLD_MILLIS = 5;
+    // ratio of client backends to max_connections on the database at or above which the pool does not grow
+    static final double DATABASE_BUSY_RATIO = 0.9;
+
+    /**
+     * What was observed about the pool and the database during one interval.
+     */
+    public static class Sample {
+        public final int pendingThreads;
+        public final long timeouts;
+        public final double averageWaitMillis;
+        public final int peakInUse;
+        // client backends / max_connections on the database, or a negative value if it could not be queried
+        public final double databaseConnectionsRatio;
+
+        public Sample(int pendingThreads, long timeouts, double averageWaitMillis, int peakInUse,
+                      double databaseConnectionsRatio) {
+            this.pendingThreads = pendingThreads;
+            this.timeouts = timeouts;
+            this.averageWaitMillis = averageWaitMillis;
+            this.peakInUse = peakInUse;
+            this.databaseConnectionsRatio = databaseConnectionsRatio;
+        }
+    }
+
+    public static int getNextPoolSize(int currentSize, int minSize, int maxSize, Sample sample) {
+        boolean isDatabaseBusy = sample.databaseConnectionsRatio >= DATABASE_BUSY_RATIO;
+        boolean isStarved = sample.pendingThreads > 0 || sample.timeouts > 0
+                || sample.averageWaitMillis >= GROW_WAIT_THRESHOLD_MILLIS;
+
+        int nextSize = currentSize;
+        if (isDatabaseBusy) {
+            // back off to give the database some room, even if this pool is starved
+            nextSize = currentSize - 1;
+        } else if (isStarved) {
+            nextSize = currentSize + Math.max(1, currentSize / 2);
+        } else if (sample.peakInUse + 1 < currentSize) {
+            // keep one spare connection above the peak, and shrink gradually in case the load comes back
+            nextSize = currentSize - 1;
+        }
+        return Math.max(minSize, Math.min(maxSize, nextSize));
+    }
+
+    private final Start start;
+    private final HikariDataSource dataSource;
+    private final ConnectionPoolMetrics metrics;
+    private final int minSize;
+    private final int maxSize;
+    private final Integer configuredMinimumIdle;
+    // shared by the sizers of all storages, guarded by AdaptiveConnectionPoolSizer.class
+    private static ScheduledExecutorService executor;
+    private static int numberOfStartedSizers = 0;
+
+    private ScheduledFuture<?> scheduledAdjustment;
+    // reused while the database cannot be sampled (the pool has no idle connection, or the query fails), so that a
+    // starved pool does not grow past max_connections
+    private double lastDatabaseConnectionsRatio = -1;
+    private long lastAcquisitionCount = 0;
+    private long lastAcquisitionWaitSum = 0;
+    private long lastTimeouts = 0;
+
+    AdaptiveConnectionPoolSizer(Start start, HikariDataSource dataSource, ConnectionPoolMetrics metrics, int minSize,
+                                int maxSize, Integer configuredMinimumIdle) {
+        this.start = start;
+        this.dataSource = dataSource;
+        this.metrics = metrics;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.configuredMinimumIdle = configuredMinimumIdle;
+    }
+
+    void start(long intervalMillis) {
+        synchronized (AdaptiveConnectionPoolSizer.class) {
+            if (scheduledAdjustment != null) {
+                return;
+            }
+            if (executor == null) {
+                executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "supertokens-postgresql-adaptive-pool-sizer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            numberOfStartedSizers++;
+            scheduledAdjustment = executor.scheduleWithFixedDelay(this::adjust, intervalMillis, intervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void stop() {
+        synchronized (AdaptiveConnectionPoolSizer.class) {
+            if (scheduledAdjustment == null) {
+                return;
+            }
+            scheduledAdjustment.cancel(false);
+            scheduledAdjustment = null;
+            numberOfStartedSizers--;
+            if (numberOfStartedSizers == 0) {
+                executor.shutdown();
+                executor = null;
+            }
+        }
+    }
+
+    private synchronized void adjust() {
+        try {
+            HikariPoolMXBean poolMXBean = dataSource.getHikariPoolMXBean();
+            if (poolMXBean == null || dataSource.isClosed()) {
+                return;
+            }
+            long acquisitionCount = metrics.getAcquisitionWaitMillis().getCount();
+            long acquisitionWaitSum = metrics.getAcquisitionWaitMillis().getSum();
+            long timeouts = metrics.getTimeouts();
+            long acquisitions = acquisitionCount - lastAcquisitionCount;
+            double averageWaitMillis = acquisitions == 0 ? 0
+                    : (acquisitionWaitSum - lastAcquisitionWaitSum) / (double) acquisitions;
+            int pendingThreads = poolMXBean.getThreadsAwaitingConnection();
+            int peakInUse = metrics.getAndResetPeakInUse();
+            Sample sample = new Sample(pendingThreads, timeouts - lastTimeouts, averageWaitMillis, peakInUse,
+                    getDatabaseConnectionsRatio(poolMXBean));
+            // the connection borrowed for the sample is not part of the next interval's load
+            lastAcquisitionCount = metrics.getAcquisitionWaitMillis().getCount();
+            lastAcquisitionWaitSum = metrics.getAcquisitionWaitMillis().getSum();
+            lastTimeouts = timeouts;
+            metrics.getAndResetPeakInUse();
+
+            int currentSize = dataSource.getMaximumPoolSize();
+            int nextSize = getNextPoolSize(currentSize, minSize, maxSize, sample);
+            if (nextSize == currentSize) {
+                return;
+            }
+            int minimumIdle = configuredMinimumIdle == null ? nextSize : Math.min(configuredMinimumIdle, nextSize);
+            HikariConfigMXBean configMXBean = dataSource.getHikariConfigMXBean();
+            // minimum idle must never be above the maximum pool size, so the order depends on the direction
+            if (nextSize > currentSize) {
+                configMXBean.setMaximumPoolSize(nextSize);
+                configMXBean.setMinimumIdle(minimumIdle);
+            } else {
+                configMXBean.setMinimumIdle(minimumIdle);
+                configMXBean.setMaximumPoolSize(nextSize);
+            }
+            Logging.debug(start, "Resized connection pool from " + currentSize + " to " + nextSize
+                    + " (pending threads: " + sample.pendingThreads + ", timeouts: " + sample.timeouts
+                    + ", average wait: " + sample.averageWaitMillis + " ms, peak in use: " + sample.peakInUse
+                    + ", database connections ratio: " + sample.databaseConnectionsRatio + ")");
+        } catch (RuntimeException e) {
+            // the sizer must keep running even if one round fails
+            Logging.debug(start, "Failed to adjust connection pool size: " + e.getMessage());
+        }
+    }
+
+    private double getDatabaseConnectionsRatio(HikariPoolMXBean poolMXBean) {
+        if (poolMXBean.getIdleConnections() == 0) {
+            // borrowing a connection now would make the sizer wait behind, or take the place of, a request
+            return lastDatabaseConnectionsRatio;
+        }
+        String QUERY = "SELECT COUNT(*) AS c, current_setting('max_connections')::int AS m FROM pg_stat_activity"
+                + " WHERE backend_type = 'client backend'";
+        try (Connection con = dataSource.getConnection()) {
+            lastDatabaseConnectionsRatio = QueryExecutorTemplate.execute(con, QUERY, null, result -> {
+                if (result.next() && result.getInt("m") > 0) {
+                    return result.getInt("c") / (double) result.getInt("m");
+                }
+                return -1.0;
+            });
+        } catch (SQLException | StorageQueryException e) {
+            Logging.debug(start, "Unable to query database connections for adaptive pool sizing: " + e.getMessage());
+        }
+        return lastDatabaseConnectionsRatio;
+    }
+}
@@ -32,6 +32,8 @@ import java.util.concurrent.Executor;
 
 public class BulkImportProxyConnection implements Connection {
     private Connection con = null;
+    // incremented whenever the underlying transaction ends, see ImportSavepoint
+    private long transactionNumber = 0;
 
     public BulkImportProxyConnection(Connection con) {
         this.con = con;
@@ -55,17 +57,53 @@ public class BulkImportProxyConnection implements Connection {
     }
 
     public void closeForBulkImportProxyStorage() throws SQLException {
+        this.transactionNumber++;
         this.con.close();
     }
 
     public void commitForBulkImportProxyStorage() throws SQLException {
+        this.transactionNumber++;
         this.con.commit();
     }
 
     public void rollbackForBulkImportProxyStorage() throws SQLException {
+        this.transactionNumber++;
         this.con.rollback();
     }
 
+    /*
+     * Savepoints let a part of the import (for example, the queries for one user) be undone without aborting the
+     * whole import transaction. A savepoint no longer exists once the import transaction it was created in is
+     * committed or rolled back (which can happen from within the logic of a transaction), so releasing or rolling
+     * back to such a savepoint is skipped, instead of failing and aborting the next import transaction.
+     */
+
+    public static class ImportSavepoint {
+        private final Savepoint savepoint;
+        private final long transactionNumber;
+
+        private ImportSavepoint(Savepoint savepoint, long transactionNumber) {
+            this.savepoint = savepoint;
+            this.transactionNumber = transactionNumber;
+        }
+    }
+
+    public ImportSavepoint setSavepointForBulkImportProxyStorage() throws SQLException {
+        return new ImportSavepoint(this.con.setSavepoint(), this.transactionNumber);
+    }
+
+    public void releaseSavepointForBulkImportProxyStorage(ImportSavepoint savepoint) throws SQLException {
+        if (savepoint.transactionNumber == this.transactionNumber) {
+            this.con.releaseSavepoint(savepoint.savepoint);
+        }
+    }
+
+    public void rollbackToSavepointForBulkImportProxyStorage(ImportSavepoint savepoint) throws SQLException {
+        if (savepoint.transactionNumber == this.transactionNumber) {
+            this.con.rollback(savepoint.savepoint);
+        }
+    }
+
     /* Following methods are unchaged */
 
     @Override
@@ -53,7 +53,31 @@ public class BulkImportProxyStorage extends Start {
     @Override
     protected <T> T startTransactionHelper(TransactionLogic<T> logic, TransactionIsolationLevel isolationLevel)
             throws StorageQueryException, StorageTransactionLogicException, SQLException, TenantOrAppNotFoundException {
-        return logic.mainLogicAndCommit(new TransactionConnection(getTransactionConnection()));
+        // Each transaction runs within a savepoint of the import transaction. If it fails, only its own changes are
+        // rolled back, and the import transaction stays usable for the rest of the batch, instead of being aborted
+        // as a whole.
+        BulkImportProxyConnection con = (BulkImportProxyConnection) getTransactionConnection();
+        BulkImportProxyConnection.ImportSavepoint savepoint = con.setSavepointForBulkImportProxyStorage();
+        T result;
+        try {
+            result = logic.mainLogicAndCommit(new TransactionConnection(con));
+        } catch (Exception e) {
+            try {
+                con.rollbackToSavepointForBulkImportProxyStorage(savepoint);
+            } catch (SQLException rollbackFailure) {
+                e.addSuppressed(rollbackFailure);
+            }
+            throw e;
+        }
+        con.releaseSavepointForBulkImportProxyStorage(savepoint);
+        return result;
+    }
+
+    @Override
+    protected <T> T startReadOnlyTransactionHelper(TransactionLogic<T> logic, boolean allowStaleReads)
+            throws StorageQueryException, StorageTransactionLogicException, SQLException, TenantOrAppNotFoundException {
+        // reads during a bulk import must see what was imported so far in the (uncommitted) import transaction
+        return startTransactionHelper(logic, TransactionIsolationLevel.READ_COMMITTED);
     }
 
     @Override
@@ -17,27 +17,72 @@
 
 package io.supertokens.storage.postgresql;
 
+import com.google.gson.JsonObject;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import io.supertokens.pluginInterface.exceptions.DbInitException;
 import io.supertokens.pluginInterface.exceptions.StorageQueryException;
 import io.supertokens.storage.postgresql.config.Config;
 import io.supertokens.storage.postgresql.config.PostgreSQLConfig;
 import io.supertokens.storage.postgresql.output.Logging;
 
+import org.postgresql.PGConnection;
+
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ConnectionPool extends ResourceDistributor.SingletonResource {
 
     private static final String RESOURCE_KEY = "io.supertokens.storage.postgresql.ConnectionPool";
     private HikariDataSource hikariDataSource;
+    private HikariDataSource readReplicaHikariDataSource;
+    private ConnectionPoolMetrics metrics;
+    private ConnectionPoolMetrics readReplicaMetrics;
+    private AdaptiveConnectionPoolSizer adaptiveConnectionPoolSizer;
+    private SigningKeyCache signingKeyCache;
     private final Start start;
     private PostConnectCallback postConnectCallback;
 
+    // The replica lag is checked at most once per interval. Until the next check, the last observed
+    // result decides whether reads go to the replica pool or fall back to the primary.
+    private static final long READ_REPLICA_LAG_CHECK_INTERVAL_MILLIS = 1000;
+    private final AtomicBoolean isCheckingReadReplicaLag = new AtomicBoolean(false);
+    private volatile long readReplicaLagCheckedAt = 0;
+    private volatile boolean isReadReplicaUsable = false;
+
+    // Physical pools shared by all storages that have postgresql_shared_connection_pool enabled and connect
+    // with the same JDBC url and credentials, keyed by getSharedPoolKey. Guarded by the class lock.
+    private static final Map<String, SharedPool> sharedPools = new HashMap<>();
+    private SharedPool sharedPool;
+    // limits how many connections of the shared pool this storage can hold at a time, so that one busy storage
+    // cannot starve the others sharing the pool
+    private Semaphore sharedPoolPermits;
+    private String searchPath;
+
+    private static class SharedPool {
+        private final String key;
+        private final HikariDataSource dataSource;
+        private final Set<ConnectionPool> members = new HashSet<>();
+        // search_path last set on each physical connection, so that it is only set again when the connection
+        // was last used by a storage with a different schema
+        private final Map<PGConnection, String> searchPathOfConnection =
+                Collections.synchronizedMap(new WeakHashMap<>());
+
+        private SharedPool(String key, HikariDataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+    }
+
     private ConnectionPool(Start start, PostConnectCallback postConnectCallback) {
         this.start = start;
         this.postConnectCallback = postConnectCallback;
@@ -51,11 +96,7 @@ public class ConnectionPool extends ResourceDistributor.SingletonResource {
             throw new RuntimeException("Connection to refused"); // emulates exception thrown by Hikari
         }
 
-        HikariConfig config = new HikariConfig();
         PostgreSQLConfig userConfig = Config.getConfig(start);
-        config.setDriverClassName("org.postgresql.Driver");
-
-        String scheme = userConfig.getConnectionScheme();
 
         String hostName = userConfig.getHostName();
 
@@ -66,6 +107,212 @@ public class ConnectionPool extends ResourceDistributor.SingletonResource {
             port = "";
         }
 
+        HikariConfig config = createHikariConfig(userConfig, hostName + port, userConfig.getConnectionPoolSize());
+        // TODO: set maxLifetimeValue to lesser than 10 mins so that the following error doesnt happen:
+        // io.supertokens.storage.postgresql.HikariLoggingAppender.doAppend(HikariLoggingAppender.java:117) |
+        // SuperTokens
+        // - Failed to validate connection org.mariadb.jdbc.MariaDbConnection@79af83ae (Connection.setNetworkTimeout
+        // cannot be called on a closed connection). Possibly consider using a shorter maxLifetime value.
+        if (userConfig.isSharedConnectionPoolEnabled()) {
+            config.setMaximumPoolSize(userConfig.getSharedConnectionPoolSize());
+            joinSharedPool(userConfig, config);
+        } else {
+            config.setPoolName(start.getUserPoolId() + "~" + start.getConnectionPoolId());
+            metrics = new ConnectionPoolMetrics(start, config.getPoolName());
+            config.setMetricsTrackerFactory(metrics);
+            if (userConfig.isAdaptiveConnectionPoolEnabled()) {
+                // the pool starts small, and the sizer grows it up to postgresql_connection_pool_size as needed
+                config.setMaximumPoolSize(userConfig.getAdaptiveConnectionPoolMinSize());
+                if (config.getMinimumIdle() > config.getMaximumPoolSize()) {
+                    config.setMinimumIdle(config.getMaximumPoolSize());
+                }
+            }
+            try {
+                hikariDataSource = new HikariDataSource(config);
+            } catch (Exception e) {
+                throw new SQLException(e);
+            }
+        }
+
+        try {
+            try (Connection con = getConnectionFromDataSource()) {
+                this.postConnectCallback.apply(con);
+            }
+        } catch (StorageQueryException e) {
+            // if an exception happens here, we want to set the hikariDataSource to null once again so that
+            // whenever the getConnection is called again, we want to re-attempt creation of tables and tenant
+            // entries for this storage
+            closeHikariDataSource();
+            throw e;
+        }
+
+        if (userConfig.isReadReplicaEnabled()) {
+            initialiseReadReplicaHikariDataSource(userConfig);
+        }
+
+        if (userConfig.isAdaptiveConnectionPoolEnabled() && sharedPool == null) {
+            adaptiveConnectionPoolSizer = new AdaptiveConnectionPoolSizer(start, hikariDataSource, metrics,
+                    userConfig.getAdaptiveConnectionPoolMinSize(), userConfig.getConnectionPoolSize(),
+                    userConfig.getMinimumIdleConnections());
+            adaptiveConnectionPoolSizer.start(getAdaptivePoolSizingInterval(start));
+        }
+
+        if (userConfig.getSigningKeyCacheTtl() != null) {
+            // LISTEN needs a session of its own, which pgbouncer's transaction pooling does not give. The storages on
+            // the same database share one listening connection
+            signingKeyCache = new SigningKeyCache(start, hikariDataSource, userConfig.getTableSchema(),
+                    userConfig.getSigningKeyCacheTtl(), !userConfig.isPgBouncerModeEnabled());
+            signingKeyCache.start();
+        }
+    }
+
+    private void joinSharedPool(PostgreSQLConfig userConfig, HikariConfig config) throws SQLException {
+        String key = getSharedPoolKey(config);
+        synchronized (ConnectionPool.class) {
+            SharedPool pool = sharedPools.get(key);
+            if (pool == null) {
+                // the pool name must not contain the password, unlike the connection pool id
+                config.setPoolName("shared~" + config.getJdbcUrl() + "~" + config.getUsername());
+                try {
+                    pool = new SharedPool(key, new HikariDataSource(config));
+                } catch (Exception e) {
+                    throw new SQLException(e);
+                }
+                sharedPools.put(key, pool);
+            } else if (pool.dataSource.getMaximumPoolSize() < config.getMaximumPoolSize()) {
+                // the pool only ever grows, so that storages that joined earlier keep their capacity
+                pool.dataSource.getHikariConfigMXBean().setMaximumPoolSize(config.getMaximumPoolSize());
+            }
+            pool.members.add(this);
+            this.sharedPool = pool;
+            this.hikariDataSource = pool.dataSource;
+        }
+        // the physical pool's own statistics mix all the storages sharing it, so this storage's acquisitions and
+        // usage are recorded in getConnectionFromDataSource instead
+        this.metrics = new ConnectionPoolMetrics(start,
+                start.getUserPoolId() + "~" + start.getConnectionPoolId() + "~shared");
+        this.sharedPoolPermits = new Semaphore(userConfig.getConnectionPoolSize(), true);
+        this.searchPath = userConfig.getTableSchema().equals("public") ? "\"$user\", public"
+                : userConfig.getTableSchema() + ", public";
+    }
+
+    static String getSharedPoolKey(HikariConfig config) {
+        // everything that decides what a physical connection looks like has to be part of the key, since the
+        // connections are handed out to any storage that shares the pool
+        return config.getJdbcUrl() + "|" + config.getUsername() + "|" + config.getPassword() + "|"
+                + config.getConnectionInitSql() + "|" + new TreeMap<>(config.getDataSourceProperties());
+    }
+
+    private Connection getConnectionFromDataSource() throws SQLException {
+        if (sharedPool == null) {
+            return hikariDataSource.getConnection();
+        }
+        long acquisitionStartNanos = System.nanoTime();
+        try {
+            if (!sharedPoolPermits.tryAcquire(hikariDataSource.getConnectionTimeout(), TimeUnit.MILLISECONDS)) {
+                metrics.recordConnectionTimeout();
+                throw new SQLTransientConnectionException(
+                        hikariDataSource.getPoolName() + " - Connection is not available, request timed out after "
+                                + hikariDataSource.getConnectionTimeout() + "ms (storage fair share exhausted).");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(e);
+        }
+        Connection con = null;
+        try {
+            con = hikariDataSource.getConnection();
+            PGConnection physicalConnection = con.unwrap(PGConnection.class);
+            if (!searchPath.equals(sharedPool.searchPathOfConnection.get(physicalConnection))) {
+                try (Statement statement = con.createStatement()) {
+                    statement.execute("SET search_path TO " + searchPath);
+                }
+                sharedPool.searchPathOfConnection.put(physicalConnection, searchPath);
+            }
+            metrics.recordConnectionAcquired(System.nanoTime() - acquisitionStartNanos);
+            long checkedOutAt = System.currentTimeMillis();
+            return new SharedPoolConnection(con, () -> {
+                metrics.recordConnectionUsage(System.currentTimeMillis() - checkedOutAt);
+                sharedPoolPermits.release();
+            });
+        } catch (SQLException | RuntimeException e) {
+            if (e instanceof SQLTransientConnectionException) {
+                metrics.recordConnectionTimeout();
+            }
+            if (con != null) {
+                con.close();
+            }
+            sharedPoolPermits.release();
+            throw e;
+        }
+    }
+
+    private void closeHikariDataSource() {
+        if (hikariDataSource == null) {
+            return;
+        }
+        if (adaptiveConnectionPoolSizer != null) {
+            adaptiveConnectionPoolSizer.stop();
+            adaptiveConnectionPoolSizer = null;
+        }
+        if (signingKeyCache != null) {
+            signingKeyCache.stop();
+            signingKeyCache = null;
+        }
+        try {
+            if (sharedPool == null) {
+                hikariDataSource.close();
+                return;
+            }
+            synchronized (ConnectionPool.class) {
+                // the physical pool is closed once the last storage that uses it is closed
+                sharedPool.members.remove(this);
+                if (sharedPool.members.isEmpty()) {
+                    sharedPools.remove(sharedPool.key);
+                    sharedPool.dataSource.close();
+                }
+            }
+        } finally {
+            sharedPool = null;
+            hikariDataSource = null;
+        }
+    }
+
+    private void initialiseReadReplicaHikariDataSource(PostgreSQLConfig userConfig) {
+        // the driver accepts a comma separated host list and, with loadBalanceHosts, spreads new connections
+        // across all of them. Hosts without an explicit port use the primary's port.
+        StringBuilder hosts = new StringBuilder();
+        for (String host : userConfig.getReadReplicaHosts().split(",")) {
+            if (hosts.length() > 0) {
+                hosts.append(",");
+            }
+            hosts.append(host);
+            if (!host.contains(":") && userConfig.getPort() != -1) {
+                hosts.append(":").append(userConfig.getPort());
+            }
+        }
+        HikariConfig config = createHikariConfig(userConfig, hosts.toString(),
+                userConfig.getReadReplicaConnectionPoolSize());
+        config.addDataSourceProperty("loadBalanceHosts", "true");
+        config.setReadOnly(true);
+        // A replica that is down must not stop the storage from starting up. Reads will fall back to the
+        // primary until the replica pool is able to hand out connections.
+        config.setInitializationFailTimeout(-1);
+        config.setPoolName(start.getUserPoolId() + "~" + start.getConnectionPoolId() + "~replica");
+        readReplicaMetrics = new ConnectionPoolMetrics(start, config.getPoolName());
+        config.setMetricsTrackerFactory(readReplicaMetrics);
+        readReplicaHikariDataSource = new HikariDataSource(config);
+        readReplicaLagCheckedAt = 0;
+        isReadReplicaUsable = false;
+    }
+
+    private static HikariConfig createHikariConfig(PostgreSQLConfig userConfig, String hostsAndPorts,
+                                                   int maximumPoolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName("org.postgresql.Driver");
+
+        String scheme = userConfig.getConnectionScheme();
+
         String databaseName = userConfig.getDatabaseName();
 
         String attributes = userConfig.getConnectionAttributes();
@@ -73,7 +320,7 @@ public class ConnectionPool extends ResourceDistributor.SingletonResource {
             attributes = "?" + attributes;
         }
 
-        String jdbcUrl = "jdbc:" + scheme + "://" + hostName + port + "/" + databaseName + attributes;
+        String jdbcUrl = "jdbc:" + scheme + "://" + hostsAndPorts + "/" + databaseName + attributes;
         config.setJdbcUrl(jdbcUrl);
 
         if (userConfig.getUser() != null) {
@@ -83,42 +330,78 @@ public class ConnectionPool extends ResourceDistributor.SingletonResource {
         if (userConfig.getPassword() != null && !userConfig.getPassword().equals("")) {
             config.setPassword(userConfig.getPassword());
         }
-        config.setMaximumPoolSize(userConfig.getConnectionPoolSize());
+        config.setMaximumPoolSize(maximumPoolSize);
         config.setConnectionTimeout(5000);
         if (userConfig.getMinimumIdleConnections() != null) {
-            config.setMinimumIdle(userConfig.getMinimumIdleConnections());
+            config.setMinimumIdle(Math.min(userConfig.getMinimumIdleConnections(), maximumPoolSize));
             config.setIdleTimeout(userConfig.getIdleConnectionTimeout());
         }
-        config.addDataSourceProperty("cachePrepStmts", "true");
-        config.addDataSourceProperty("prepStmtCacheSize", "250");
-        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
         config.addDataSourceProperty("tcpKeepAlive", "true");
         config.addDataSourceProperty("socketTimeout", "60");
-        config.setConnectionInitSql(
-                "SET SESSION CHARACTERISTICS AS TRANSACTION ISOLATION LEVEL READ COMMITTED");
-        // TODO: set maxLifetimeValue to lesser than 10 mins so that the following error doesnt happen:
-        // io.supertokens.storage.postgresql.HikariLoggingAppender.doAppend(HikariLoggingAppender.java:117) |
-        // SuperTokens
-        // - Failed to validate connection org.mariadb.jdbc.MariaDbConnection@79af83ae (Connection.setNetworkTimeout
-        // cannot be called on a closed connection). Possibly consider using a shorter maxLifetime value.
-        config.setPoolName(start.getUserPoolId() + "~" + start.getConnectionPoolId());
-        try {
-            hikariDataSource = new HikariDataSource(config);
-        } catch (Exception e) {
-            throw new SQLException(e);
+        if (userConfig.isPgBouncerModeEnabled()) {
+            // In transaction pooling mode, consecutive transactions on the same connection can run on different
+            // server backends. So nothing may rely on session state: named server side prepared statements are
+            // disabled, and the isolation level is set per transaction in Start.startTransactionHelper.
+            config.addDataSourceProperty("prepareThreshold", "0");
+            config.addDataSourceProperty("preparedStatementCacheQueries", "0");
+        } else {
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", "250");
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+            config.setConnectionInitSql(
+                    "SET SESSION CHARACTERISTICS AS TRANSACTION ISOLATION LEVEL READ COMMITTED");
         }
+        return config;
+    }
 
+    private boolean isReadReplicaWithinMaxLag() {
+        long now = System.currentTimeMillis();
+        if (now - readReplicaLagCheckedAt < READ_REPLICA_LAG_CHECK_INTERVAL_MILLIS) {
+            return isReadReplicaUsable;
+        }
+        // only one thread refreshes the lag; the others keep using the last observed result meanwhile
+        if (!isCheckingReadReplicaLag.compareAndSet(false, true)) {
+            return isReadReplicaUsable;
+        }
         try {
-            try (Connection con = hikariDataSource.getConnection()) {
-                this.postConnectCallback.apply(con);
+            boolean usable;
+            try (Connection con = readReplicaHikariDataSource.getConnection()) {
+                // A replica is only used while it streams from the primary, and has heard from it within
+                // wal_receiver_timeout (an idle primary still sends keepalives within half of it). The details of
+                // pg_stat_wal_receiver are only visible to roles with pg_read_all_stats, and without them, or on a
+                // server that is not a standby, the replica is not used.
+                // When the replica has replayed everything it has received, there is no lag even if the last replayed
+                // transaction is old (for example, if the primary has been idle).
+                String QUERY = "SELECT pg_is_in_recovery() AND r.status = 'streaming'"
+                        + " AND now() - r.last_msg_receipt_time <= COALESCE(NULLIF(current_setting("
+                        + "'wal_receiver_timeout'), '0'), '1min')::interval AS streaming,"
+                        + " CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+                        + " ELSE EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000 END AS lag"
+                        + " FROM (SELECT 1) AS d LEFT JOIN pg_stat_wal_receiver AS r ON true";
+                double lag = QueryExecutorTemplate.execute(con, QUERY, null, result -> {
+                    if (result.next() && result.getBoolean("streaming")) {
+                        double value = result.getDouble("lag");
+                        return result.wasNull() ? Double.MAX_VALUE : value;
+                    }
+                    return Double.MAX_VALUE;
+                });
+                usable = lag <= Config.getConfig(start).getReadReplicaMaxLag();
+                if (!usable) {
+                    Logging.debug(start, lag == Double.MAX_VALUE
+                            ? "Read replica is not streaming from the primary, reading from the primary"
+                            : "Read replica lag of " + (long) lag
+                                    + " ms is above the configured maximum, reading from the primary");
+                }
+            } catch (SQLException | StorageQueryException e) {
+                Logging.debug(start, "Unable to check read replica lag, reading from the primary: "
+                        + e.getMessage());
+                usable = false;
             }
-        } catch (StorageQueryException e) {
-            // if an exception happens here, we want to set the hikariDataSource to null once again so that
-            // whenever the getConnection is called again, we want to re-attempt creation of tables and tenant
-            // entries for this storage
-            hikariDataSource.close();
-            hikariDataSource = null;
-            throw e;
+            isReadReplicaUsable = usable;
+            readReplicaLagCheckedAt = System.currentTimeMillis();
+            return usable;
+        } finally {
+            isCheckingReadReplicaLag.set(false);
         }
     }
 
@@ -132,6 +415,16 @@ public class ConnectionPool extends ResourceDistributor.SingletonResource {
         return actualValue;
     }
 
+    private static int getAdaptivePoolSizingInterval(Start start) {
+        int actualValue = 10 * 1000;
+        if (Start.isTesting) {
+            Integer testValue = ConnectionPoolTestContent.getInstance(start)
+                    .getValue(ConnectionPoolTestContent.ADAPTIVE_POOL_SIZING_INTERVAL);
+            return Objects.requireNonNullElse(testValue, actualValue);
+        }
+        return actualValue;
+    }
+
     private static int getRetryIntervalIfInitFails(Start start) {
         int actualValue = 10 * 1000;
         if (Start.isTesting) {
@@ -221,30 +514,120 @@ public class ConnectionPool extends ResourceDistributor.SingletonResource {
         if (getInstance(start).hikariDataSource == null) {
             getInstance(start).initialiseHikariDataSource();
         }
-        return getInstance(start).hikariDataSource.getConnection();
+        return getInstance(start).getConnectionFromDataSource();
+    }
+
+    // the queries run on the connection are recorded into the statistics of the storage, if it records any
+    private static Connection withQueryStatistics(Start start, Connection con) {
+        QueryStatistics queryStatistics = start.queryStatistics;
+        if (queryStatistics == null || !queryStatistics.isRecording()) {
+            return con;
+        }
+        return new QueryStatisticsConnection(con, queryStatistics);
     }
 
     public static Connection getConnectionForProxyStorage(Start start) throws SQLException, StorageQueryException {
-        return getNewConnection(start);
+        return withQueryStatistics(start, getNewConnection(start));
     }
 
     public static Connection getConnection(Start start) throws SQLException, StorageQueryException {
         if (start instanceof BulkImportProxyStorage) {
-            return ((BulkImportProxyStorage) start).getTransactionConnection();
+            return withQueryStatistics(start, ((BulkImportProxyStorage) start).getTransactionConnection());
+        }
+        return withQueryStatistics(start, getNewConnection(start));
+    }
+
+    /**
+     * Returns a connection for a non-transactional read. If read replicas are configured and are within the
+     * configured maximum lag, the connection comes from the replica pool, otherwise it comes from the primary.
+     */
+    public static Connection getReadConnection(Start start) throws SQLException, StorageQueryException {
+        if (start instanceof BulkImportProxyStorage) {
+            return withQueryStatistics(start, ((BulkImportProxyStorage) start).getTransactionConnection());
+        }
+        ConnectionPool instance = getInstance(start);
+        if (instance != null && start.enabled && instance.readReplicaHikariDataSource != null
+                && instance.isReadReplicaWithinMaxLag()) {
+            try {
+                return withQueryStatistics(start, instance.readReplicaHikariDataSource.getConnection());
+            } catch (SQLException e) {
+                instance.isReadReplicaUsable = false;
+                Logging.debug(start, "Unable to get a read replica connection, reading from the primary: "
+                        + e.getMessage());
+            }
+        }
+        return withQueryStatistics(start, getNewConnection(start));
+    }
+
+    /**
+     * Returns the signing key cache of this storage, or null if postgresql_signing_key_cache_ttl is not set or the
+     * pool has not been initialised yet. The keys read and changed by a bulk import are never cached, as its
+     * transaction can still be rolled back.
+     */
+    static SigningKeyCache getSigningKeyCache(Start start) {
+        if (start instanceof BulkImportProxyStorage) {
+            return null;
+        }
+        ConnectionPool instance = getInstance(start);
+        return instance == null ? null : instance.signingKeyCache;
+    }
+
+    /**
+     * Returns the current saturation (active, idle and pending) and the acquisition wait, usage and timeout
+     * statistics of this storage's connection pools, or null if the pool has not been initialised yet.
+     */
+    public static JsonObject getMetrics(Start start) {
+        ConnectionPool instance = getInstance(start);
+        if (instance == null || instance.hikariDataSource == null) {
+            return null;
+        }
+        JsonObject result = instance.metrics.toJson();
+        result.addProperty("shared", instance.sharedPool != null);
+        addPoolStats(result, instance.hikariDataSource);
+        if (instance.sharedPool != null) {
+            // connections of the shared pool held by and waited for by this storage
+            result.addProperty("storageMaximumConnections", Config.getConfig(start).getConnectionPoolSize());
+            result.addProperty("storageActiveConnections",
+                    Config.getConfig(start).getConnectionPoolSize() - instance.sharedPoolPermits.availablePermits());
+            result.addProperty("storagePendingThreads", instance.sharedPoolPermits.getQueueLength());
+        }
+        if (instance.readReplicaHikariDataSource != null) {
+            JsonObject readReplica = instance.readReplicaMetrics.toJson();
+            addPoolStats(readReplica, instance.readReplicaHikariDataSource);
+            readReplica.addProperty("usable", instance.isReadReplicaUsable);
+            result.add("readReplica", readReplica);
+        }
+        return result;
+    }
+
+    private static void addPoolStats(JsonObject result, HikariDataSource dataSource) {
+        result.addProperty("maximumPoolSize", dataSource.getMaximumPoolSize());
+        HikariPoolMXBean poolMXBean = dataSource.getHikariPoolMXBean();
+        if (poolMXBean != null) {
+            result.addProperty("activeConnections", poolMXBean.getActiveConnections());
+            result.addProperty("idleConnections", poolMXBean.getIdleConnections());
+            result.addProperty("totalConnections", poolMXBean.getTotalConnections());
+            result.addProperty("pendingThreads", poolMXBean.getThreadsAwaitingConnection());
         }
-        return getNewConnection(start);
     }
 
     static void close(Start start) {
         if (getInstance(start) == null) {
             return;
         }
+        if (getInstance(start).readReplicaHikariDataSource != null) {
+            try {
+                getInstance(start).readReplicaHikariDataSource.close();
+            } finally {
+                getInstance(start).readReplicaHikariDataSource = null;
+            }
+        }
         if (getInstance(start).hikariDataSource != null) {
             try {
-                getInstance(start).hikariDataSource.close();
+                // this marks the data source as null so that next time it's being initialised, it will be
+                // initialised again
+                getInstance(start).closeHikariDataSource();
             } finally {
-                // we mark it as null so that next time it's being initialised, it will be initialised again
-                getInstance(start).hikariDataSource = null;
                 removeInstance(start);
             }
         }
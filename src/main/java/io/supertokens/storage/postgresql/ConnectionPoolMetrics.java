@@ -0,0 +1,111 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql;
+
+import com.google.gson.JsonObject;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import io.supertokens.storage.postgresql.output.Logging;
+import io.supertokens.storage.postgresql.utils.Histogram;
+import io.supertokens.storage.postgresql.utils.Utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection acquisition and usage statistics of one connection pool of a storage. For pools owned by the storage,
+ * Hikari feeds these through the {@link MetricsTrackerFactory} interface. For a shared physical pool (see
+ * postgresql_shared_connection_pool), {@link ConnectionPool} records them itself on checkout and close, so that the
+ * numbers stay attributable to the storage rather than to the physical pool.
+ */
+class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+    private final Start start;
+    private final String poolName;
+    private final Histogram acquisitionWaitMillis = new Histogram();
+    private final Histogram usageMillis = new Histogram();
+    private final LongAdder timeouts = new LongAdder();
+    private final AtomicInteger inUse = new AtomicInteger(0);
+    // highest number of connections in use since the last call to getAndResetPeakInUse
+    private final AtomicInteger peakInUse = new AtomicInteger(0);
+
+    ConnectionPoolMetrics(Start start, String poolName) {
+        this.start = start;
+        this.poolName = poolName;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                recordConnectionAcquired(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                recordConnectionUsage(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                ConnectionPoolMetrics.this.recordConnectionTimeout();
+            }
+        };
+    }
+
+    void recordConnectionAcquired(long elapsedNanos) {
+        acquisitionWaitMillis.record(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        peakInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+    }
+
+    void recordConnectionUsage(long elapsedMillis) {
+        usageMillis.record(elapsedMillis);
+        inUse.decrementAndGet();
+    }
+
+    Histogram getAcquisitionWaitMillis() {
+        return acquisitionWaitMillis;
+    }
+
+    long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    int getAndResetPeakInUse() {
+        return peakInUse.getAndSet(inUse.get());
+    }
+
+    void recordConnectionTimeout() {
+        timeouts.increment();
+        Logging.warn(start, "Timed out waiting for a connection from pool " + Utils.maskDBPassword(poolName)
+                + ". Slowest acquisition so far took " + acquisitionWaitMillis.getMax() + " ms, and "
+                + timeouts.sum() + " acquisitions have timed out in total.");
+    }
+
+    JsonObject toJson() {
+        JsonObject result = new JsonObject();
+        result.addProperty("poolName", Utils.maskDBPassword(poolName));
+        result.addProperty("connectionTimeouts", timeouts.sum());
+        result.add("connectionAcquisitionWaitMillis", acquisitionWaitMillis.toJson());
+        result.add("connectionUsageMillis", usageMillis.toJson());
+        return result;
+    }
+}
@@ -24,6 +24,7 @@ public class ConnectionPoolTestContent extends ResourceDistributor.SingletonReso
 
     public static final String TIME_TO_WAIT_TO_INIT = "timeToWaitToInit";
     public static final String RETRY_INTERVAL_IF_INIT_FAILS = "retryIntervalIfInitFails";
+    public static final String ADAPTIVE_POOL_SIZING_INTERVAL = "adaptivePoolSizingInterval";
     private static final String RESOURCE_ID = "io.supertokens.storage.postgresql.ConnectionPoolTestContent";
     private Map<String, Object> keyValue = new HashMap<String, Object>();
 
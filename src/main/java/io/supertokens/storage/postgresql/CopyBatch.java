@@ -0,0 +1,168 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ */
+
+package io.supertokens.storage.postgresql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns a batch of a plain multi-row INSERT (INSERT INTO table(columns) VALUES(?, ...)) into the input of a
+ * COPY table(columns) FROM STDIN in text format, see QueryExecutorTemplate.executeCopy. The rows are taken from the
+ * same PreparedStatementValueSetters that executeBatch uses, by running them against a PreparedStatement that only
+ * records the values.
+ */
+class CopyBatch {
+
+    private static final Pattern INSERT_VALUES = Pattern.compile(
+            "^\\s*INSERT\\s+INTO\\s+([^\\s(]+)\\s*(\\([^)]*\\))\\s*VALUES\\s*\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)\\s*;?\\s*$",
+            Pattern.CASE_INSENSITIVE);
+
+    final String copySql;
+    final String data;
+
+    private CopyBatch(String copySql, String data) {
+        this.copySql = copySql;
+        this.data = data;
+    }
+
+    /**
+     * Returns null if the query is not a plain INSERT ... VALUES, or if a setter uses a type that is not supported
+     * here. The batch must then be executed as is.
+     */
+    static CopyBatch of(String QUERY, List<PreparedStatementValueSetter> setters) throws SQLException {
+        Matcher matcher = INSERT_VALUES.matcher(QUERY);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String copySql = "COPY " + matcher.group(1) + " " + matcher.group(2) + " FROM STDIN";
+        int numberOfColumns = matcher.group(2).split(",").length;
+
+        RowRecorder recorder = new RowRecorder(numberOfColumns);
+        PreparedStatement pst = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, recorder);
+        StringBuilder data = new StringBuilder();
+        try {
+            for (PreparedStatementValueSetter setter : setters) {
+                recorder.clear();
+                setter.setValues(pst);
+                recorder.appendRow(data);
+            }
+        } catch (SQLFeatureNotSupportedException e) {
+            return null;
+        }
+        return new CopyBatch(copySql, data.toString());
+    }
+
+    private static class RowRecorder implements InvocationHandler {
+        private final Object[] values;
+        private final boolean[] isSet;
+
+        private RowRecorder(int numberOfColumns) {
+            this.values = new Object[numberOfColumns];
+            this.isSet = new boolean[numberOfColumns];
+        }
+
+        private void clear() {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = null;
+                isSet[i] = false;
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("clearParameters")) {
+                clear();
+                return null;
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                int index = (Integer) args[0] - 1;
+                if (index < 0 || index >= values.length) {
+                    throw new SQLException("Parameter index out of range: " + (index + 1));
+                }
+                values[index] = name.equals("setNull") ? null : args[1];
+                isSet[index] = true;
+                return null;
+            }
+            throw new SQLFeatureNotSupportedException(name);
+        }
+
+        private void appendRow(StringBuilder data) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (!isSet[i]) {
+                    // let the INSERT report the missing value
+                    throw new SQLFeatureNotSupportedException("No value specified for parameter " + (i + 1));
+                }
+                if (i > 0) {
+                    data.append('\t');
+                }
+                appendValue(data, values[i]);
+            }
+            data.append('\n');
+        }
+
+        private static void appendValue(StringBuilder data, Object value) throws SQLException {
+            if (value == null) {
+                data.append("\\N");
+            } else if (value instanceof String) {
+                appendEscaped(data, (String) value);
+            } else if (value instanceof Boolean) {
+                data.append((Boolean) value ? 't' : 'f');
+            } else if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+                data.append(value);
+            } else if (value instanceof byte[]) {
+                // bytea hex format, with its backslash escaped for COPY
+                data.append("\\\\x");
+                for (byte b : (byte[]) value) {
+                    data.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+                }
+            } else {
+                throw new SQLFeatureNotSupportedException(value.getClass().getName());
+            }
+        }
+
+        private static void appendEscaped(StringBuilder data, String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\':
+                        data.append("\\\\");
+                        break;
+                    case '\n':
+                        data.append("\\n");
+                        break;
+                    case '\r':
+                        data.append("\\r");
+                        break;
+                    case '\t':
+                        data.append("\\t");
+                        break;
+                    default:
+                        data.append(c);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ */
+
+package io.supertokens.storage.postgresql;
+
+import com.google.gson.JsonObject;
+import io.supertokens.pluginInterface.exceptions.StorageQueryException;
+import io.supertokens.storage.postgresql.config.Config;
+import io.supertokens.storage.postgresql.config.PostgreSQLConfig;
+import io.supertokens.storage.postgresql.utils.Histogram;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deletes the expired rows of a table in batches of postgresql_expiry_sweep_batch_size rows, each in its own
+ * statement, with a pause of postgresql_expiry_sweep_pause between them. A run stops once it has run for
+ * postgresql_expiry_sweep_max_runtime, and the rest is deleted by the next run of the cron. Unlike a single DELETE
+ * of every expired row, this keeps the locks, the WAL and the I/O of each statement small, so the queries of signing
+ * in and refreshing sessions are not held up by the crons.
+ *
+ * A batch finds its rows by ctid, with ctid = ANY(ARRAY(SELECT ctid ... LIMIT n)), which is read with a TID scan. If
+ * a row is updated after it was found, its ctid changes and it is not deleted. ctids are only unique within one
+ * table, so a partitioned table is swept one partition at a time.
+ *
+ * The number of deleted rows and batches, and the latency of the batches, are recorded per table, see
+ * {@link Start#getExpirySweeperMetrics()}.
+ */
+public class ExpirySweeper {
+
+    private final Map<String, Statistics> statisticsByTable = new ConcurrentHashMap<>();
+
+    private static class Statistics {
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder runsStoppedAtMaxRuntime = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder deletedRows = new LongAdder();
+        private final Histogram batchLatency = new Histogram();
+    }
+
+    /**
+     * Deletes the rows of the table that match the condition.
+     *
+     * @param condition the WHERE clause that matches the expired rows, without WHERE
+     * @param setter    the setter of the condition's parameters
+     * @return the number of deleted rows
+     */
+    public static int sweep(Start start, String tableName, String condition, PreparedStatementValueSetter setter)
+            throws SQLException, StorageQueryException {
+        return sweep(start, tableName, tableName, condition, setter);
+    }
+
+    /**
+     * Like {@link #sweep(Start, String, String, PreparedStatementValueSetter)}, for one partition of a partitioned
+     * table. The metrics are recorded for the partitioned table.
+     */
+    public static int sweep(Start start, String tableName, String partitionName, String condition,
+                            PreparedStatementValueSetter setter) throws SQLException, StorageQueryException {
+        PostgreSQLConfig config = Config.getConfig(start);
+        int batchSize = config.getExpirySweepBatchSize();
+        long pauseMillis = config.getExpirySweepPause();
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getExpirySweepMaxRuntime());
+        Statistics statistics = start.getExpirySweeper().statisticsByTable
+                .computeIfAbsent(tableName, table -> new Statistics());
+
+        String QUERY = "DELETE FROM " + partitionName + " WHERE ctid = ANY(ARRAY(SELECT ctid FROM " + partitionName
+                + " WHERE " + condition + " LIMIT " + batchSize + "))";
+
+        statistics.runs.increment();
+        int deletedRows = 0;
+        while (true) {
+            long batchStartNanos = System.nanoTime();
+            int deleted = QueryExecutorTemplate.update(start, QUERY, setter);
+            statistics.batchLatency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batchStartNanos));
+            statistics.batches.increment();
+            statistics.deletedRows.add(deleted);
+            deletedRows += deleted;
+
+            if (deleted < batchSize) {
+                return deletedRows;
+            }
+            if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pauseMillis) >= deadlineNanos) {
+                statistics.runsStoppedAtMaxRuntime.increment();
+                return deletedRows;
+            }
+            if (pauseMillis > 0) {
+                try {
+                    Thread.sleep(pauseMillis);
+                } catch (InterruptedException e) {
+                    // the cron is being stopped
+                    Thread.currentThread().interrupt();
+                    return deletedRows;
+                }
+            }
+        }
+    }
+
+    JsonObject toJson() {
+        JsonObject result = new JsonObject();
+        // sorted, so that the output is stable
+        new TreeMap<>(statisticsByTable).forEach((tableName, statistics) -> {
+            JsonObject table = new JsonObject();
+            table.addProperty("runs", statistics.runs.sum());
+            table.addProperty("runsStoppedAtMaxRuntime", statistics.runsStoppedAtMaxRuntime.sum());
+            table.addProperty("batches", statistics.batches.sum());
+            table.addProperty("deletedRows", statistics.deletedRows.sum());
+            table.add("batchLatencyMillis", statistics.batchLatency.toJson());
+            result.add(tableName, table);
+        });
+        return result;
+    }
+}
@@ -17,11 +17,15 @@
 package io.supertokens.storage.postgresql;
 
 import io.supertokens.pluginInterface.exceptions.StorageQueryException;
+import org.postgresql.PGConnection;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.util.List;
 
 public interface QueryExecutorTemplate {
@@ -33,15 +37,89 @@ public interface QueryExecutorTemplate {
         }
     }
 
+    /**
+     * Same as {@link #execute(Start, String, PreparedStatementValueSetter, ResultSetValueExtractor)}, but the query
+     * may be served by a read replica. Only use this for reads that tolerate the configured replication lag.
+     */
+    static <T> T executeRead(Start start, String QUERY, PreparedStatementValueSetter setter,
+                             ResultSetValueExtractor<T> mapper) throws SQLException, StorageQueryException {
+        try (Connection con = ConnectionPool.getReadConnection(start)) {
+            return execute(con, QUERY, setter, mapper);
+        }
+    }
+
     static <T> T execute(Connection con, String QUERY, PreparedStatementValueSetter setter,
                          ResultSetValueExtractor<T> mapper) throws SQLException, StorageQueryException {
         if (setter == null)
             setter = PreparedStatementValueSetter.NO_OP_SETTER;
+        QueryStatistics.Recording recording = QueryStatistics.startRecording(con, QUERY, setter);
+        try (PreparedStatement pst = con.prepareStatement(QUERY)) {
+            setter.setValues(pst);
+            try (ResultSet result = pst.executeQuery()) {
+                T value = mapper.extract(recording.countRows(result));
+                recording.succeeded();
+                return value;
+            }
+        } catch (SQLException | StorageQueryException | RuntimeException e) {
+            recording.failed();
+            throw e;
+        }
+    }
+
+    // rows fetched per round trip by executeStreaming
+    int STREAMING_FETCH_SIZE = 1000;
+
+    /**
+     * Same as {@link #execute(Start, String, PreparedStatementValueSetter, ResultSetValueExtractor)}, but the rows
+     * are read through a cursor, fetchSize at a time, and handed to the handler one by one. So neither the driver nor
+     * the caller has to hold the whole result in memory. The driver only uses a cursor within a transaction, so the
+     * query runs in one.
+     */
+    static void executeStreaming(Start start, String QUERY, PreparedStatementValueSetter setter, int fetchSize,
+                                 ResultSetRowHandler handler) throws SQLException, StorageQueryException {
+        try (Connection con = ConnectionPool.getConnection(start)) {
+            boolean autoCommit = con.getAutoCommit();
+            if (autoCommit) {
+                con.setAutoCommit(false);
+            }
+            try {
+                executeStreaming(con, QUERY, setter, fetchSize, handler);
+            } catch (SQLException | StorageQueryException e) {
+                if (autoCommit) {
+                    con.rollback();
+                }
+                throw e;
+            } finally {
+                if (autoCommit) {
+                    con.setAutoCommit(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #executeStreaming(Start, String, PreparedStatementValueSetter, int, ResultSetRowHandler)}, on
+     * the given connection. If the connection is in auto-commit mode, the driver ignores the fetch size and reads the
+     * whole result at once.
+     */
+    static void executeStreaming(Connection con, String QUERY, PreparedStatementValueSetter setter, int fetchSize,
+                                 ResultSetRowHandler handler) throws SQLException, StorageQueryException {
+        if (setter == null)
+            setter = PreparedStatementValueSetter.NO_OP_SETTER;
+        QueryStatistics.Recording recording = QueryStatistics.startRecording(con, QUERY, setter);
         try (PreparedStatement pst = con.prepareStatement(QUERY)) {
+            pst.setFetchSize(fetchSize);
             setter.setValues(pst);
             try (ResultSet result = pst.executeQuery()) {
-                return mapper.extract(result);
+                while (result.next()) {
+                    recording.addRows(1);
+                    handler.handle(result);
+                }
             }
+            recording.succeeded();
+        } catch (SQLException | StorageQueryException | RuntimeException e) {
+            recording.failed();
+            throw e;
         }
     }
 
@@ -50,6 +128,7 @@ public interface QueryExecutorTemplate {
         if(setters == null || setters.isEmpty()) {
             return;
         }
+        QueryStatistics.Recording recording = QueryStatistics.startRecording(connection, QUERY, setters.get(0));
         try (PreparedStatement pst = connection.prepareStatement(QUERY)) {
             int counter = 0;
             for(PreparedStatementValueSetter setter: setters) {
@@ -58,13 +137,65 @@ public interface QueryExecutorTemplate {
                 counter++;
 
                 if(counter % 100 == 0) {
-                    pst.executeBatch();
+                    addUpdateCounts(recording, pst.executeBatch());
                 }
             }
-            pst.executeBatch(); //for the possible remaining ones
+            addUpdateCounts(recording, pst.executeBatch()); //for the possible remaining ones
+            recording.succeeded();
+        } catch (SQLException | StorageQueryException | RuntimeException e) {
+            recording.failed();
+            throw e;
+        }
+    }
+
+    private static void addUpdateCounts(QueryStatistics.Recording recording, int[] updateCounts) {
+        for (int updateCount : updateCounts) {
+            // Statement.SUCCESS_NO_INFO is negative, and is not counted
+            recording.addRows(updateCount);
         }
     }
 
+    // below this, a single JDBC batch costs fewer round trips than the savepoint and COPY of executeCopy
+    int MIN_ROWS_FOR_COPY = 100;
+
+    /**
+     * Same as {@link #executeBatch}, for a plain INSERT INTO table(columns) VALUES(?, ...), but the rows are sent with
+     * a single COPY FROM STDIN, which is much faster for large imports.
+     *
+     * If the COPY fails, the changes are rolled back to a savepoint taken before it, and the rows are inserted with
+     * executeBatch instead. Callers therefore see the same BatchUpdateException (naming the failing batch entry) as
+     * before, which is what they use to find the failing user.
+     */
+    static void executeCopy(Connection connection, String QUERY, List<PreparedStatementValueSetter> setters)
+            throws SQLException, StorageQueryException {
+        if (setters == null || setters.size() < MIN_ROWS_FOR_COPY) {
+            executeBatch(connection, QUERY, setters);
+            return;
+        }
+        CopyBatch copyBatch = CopyBatch.of(QUERY, setters);
+        if (copyBatch == null) {
+            executeBatch(connection, QUERY, setters);
+            return;
+        }
+        QueryStatistics.Recording recording = QueryStatistics.startRecording(connection, QUERY, setters.get(0));
+        Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+        try {
+            recording.addRows(connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn(copyBatch.copySql, new StringReader(copyBatch.data)));
+        } catch (SQLException | IOException e) {
+            if (savepoint != null) {
+                connection.rollback(savepoint);
+            }
+            // recorded by executeBatch, which reports the failure, if any
+            executeBatch(connection, QUERY, setters);
+            return;
+        }
+        if (savepoint != null) {
+            connection.releaseSavepoint(savepoint);
+        }
+        recording.succeeded();
+    }
+
     static int update(Start start, String QUERY, PreparedStatementValueSetter setter)
             throws SQLException, StorageQueryException {
         try (Connection con = ConnectionPool.getConnection(start)) {
@@ -73,21 +204,23 @@ public interface QueryExecutorTemplate {
     }
 
     static int update(Connection con, String QUERY, PreparedStatementValueSetter setter) throws SQLException {
+        QueryStatistics.Recording recording = QueryStatistics.startRecording(con, QUERY, setter);
         try (PreparedStatement pst = con.prepareStatement(QUERY)) {
             setter.setValues(pst);
-            return pst.executeUpdate();
+            int rows = pst.executeUpdate();
+            recording.addRows(rows);
+            recording.succeeded();
+            return rows;
+        } catch (SQLException | RuntimeException e) {
+            recording.failed();
+            throw e;
         }
     }
 
     static <T> T update(Start start, String QUERY, PreparedStatementValueSetter setter, ResultSetValueExtractor<T> mapper)
             throws SQLException, StorageQueryException {
         try (Connection con = ConnectionPool.getConnection(start)) {
-            try (PreparedStatement pst = con.prepareStatement(QUERY)) {
-                setter.setValues(pst);
-                try (ResultSet result = pst.executeQuery()) {
-                    return mapper.extract(result);
-                }
-            }
+            return execute(con, QUERY, setter, mapper);
         }
     }
 }
@@ -0,0 +1,260 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ */
+
+package io.supertokens.storage.postgresql;
+
+import com.google.gson.JsonObject;
+import io.supertokens.pluginInterface.multitenancy.TenantIdentifier;
+import io.supertokens.pluginInterface.opentelemetry.OtelProvider;
+import io.supertokens.storage.postgresql.config.PostgreSQLConfig;
+import io.supertokens.storage.postgresql.queries.QueryId;
+import io.supertokens.storage.postgresql.queries.QueryRegistry;
+import io.supertokens.storage.postgresql.utils.Histogram;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, row and error counts of the queries that a storage runs through {@link QueryExecutorTemplate} (see
+ * postgresql_query_statistics_enabled). A query of the storage's {@link QueryRegistry} is keyed by its QueryId, for
+ * example "SESSION_GET". Any other query is keyed by the method that ran it, for example
+ * "SessionQueries.getSession_impl", which is found by walking the stack.
+ *
+ * The methods of QueryExecutorTemplate that take a Connection record into the statistics of the storage that checked
+ * the connection out of ConnectionPool, which are carried by the connection (see {@link QueryStatisticsConnection}).
+ * Queries run on any other connection are not recorded.
+ *
+ * Queries slower than postgresql_slow_query_threshold are also logged from here, see {@link SlowQueryLog}.
+ */
+class QueryStatistics {
+
+    static final long[] LATENCY_BUCKET_UPPER_BOUNDS_MICROS =
+            new long[]{100, 250, 500, 1000, 2500, 5000, 10000, 25000, 50000, 100000, 250000, 1000000, 5000000};
+
+    // how often, at most, a summary of the statistics is sent to the OtelProvider
+    static final long OTEL_SUMMARY_INTERVAL_MILLIS = 60000;
+
+    private static final StackWalker stackWalker = StackWalker.getInstance();
+    // frames to skip when looking for the method that ran a query
+    private static final Set<String> TEMPLATE_CLASSES = Set.of(QueryExecutorTemplate.class.getName(),
+            QueryStatistics.class.getName(), Recording.class.getName());
+
+    private final Start start;
+    // null if the storage has none, in which case every query is keyed by the method that ran it
+    private final QueryRegistry queryRegistry;
+    private final boolean enabled;
+    // null if slow queries are not logged
+    private final Long slowQueryThresholdMillis;
+    private final boolean explainSlowQueries;
+    private final Map<String, Statistics> statisticsByQuery = new ConcurrentHashMap<>();
+    private final AtomicLong lastOtelSummaryMillis = new AtomicLong(System.currentTimeMillis());
+    private volatile OtelProvider otelProvider = null;
+
+    private static class Statistics {
+        private final Histogram latencyMicros = new Histogram(LATENCY_BUCKET_UPPER_BOUNDS_MICROS, "Micros");
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+    }
+
+    QueryStatistics(Start start, PostgreSQLConfig config, QueryRegistry queryRegistry) {
+        this.start = start;
+        this.queryRegistry = queryRegistry;
+        this.enabled = config.isQueryStatisticsEnabled();
+        this.slowQueryThresholdMillis = config.getSlowQueryThreshold();
+        this.explainSlowQueries = config.isSlowQueryExplainEnabled();
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    // whether the queries are recorded at all, either into the statistics or into the slow query log
+    boolean isRecording() {
+        return enabled || slowQueryThresholdMillis != null;
+    }
+
+    void setOtelProvider(OtelProvider otelProvider) {
+        this.otelProvider = otelProvider;
+    }
+
+    /**
+     * Starts timing a query run on the given connection. If the connection has no statistics to record into, and no
+     * slow query log to write to, the returned recording does nothing.
+     *
+     * @param setter the setter of the query's parameters, or of the first row of a batch. It is run again if the
+     *               query is slow, to log the shapes of the parameters.
+     */
+    static Recording startRecording(Connection con, String QUERY, PreparedStatementValueSetter setter)
+            throws SQLException {
+        QueryStatistics statistics = of(con);
+        if (statistics == null || !statistics.isRecording()) {
+            return Recording.NONE;
+        }
+        return new Recording(statistics, con, QUERY, setter, System.nanoTime());
+    }
+
+    // null if the connection was not checked out of ConnectionPool
+    private static QueryStatistics of(Connection con) throws SQLException {
+        if (con instanceof QueryStatisticsConnection) {
+            return ((QueryStatisticsConnection) con).getStatistics();
+        }
+        if (con.isWrapperFor(QueryStatisticsConnection.class)) {
+            return con.unwrap(QueryStatisticsConnection.class).getStatistics();
+        }
+        return null;
+    }
+
+    static class Recording {
+        private static final Recording NONE = new Recording(null, null, null, null, 0);
+
+        private final QueryStatistics statistics;
+        private final Connection con;
+        private final String QUERY;
+        private final PreparedStatementValueSetter setter;
+        private final long startNanos;
+        private long rows = 0;
+        private RowCountingResultSet countedResult = null;
+
+        private Recording(QueryStatistics statistics, Connection con, String QUERY,
+                          PreparedStatementValueSetter setter, long startNanos) {
+            this.statistics = statistics;
+            this.con = con;
+            this.QUERY = QUERY;
+            this.setter = setter;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Returns the result set, wrapped so that the rows read from it are counted, if the statistics are enabled.
+         */
+        ResultSet countRows(ResultSet result) {
+            if (statistics == null || !statistics.enabled) {
+                return result;
+            }
+            countedResult = new RowCountingResultSet(result);
+            return countedResult;
+        }
+
+        private long getRows() {
+            return countedResult == null ? rows : rows + countedResult.getRows();
+        }
+
+        void addRows(long rows) {
+            if (rows > 0) {
+                this.rows += rows;
+            }
+        }
+
+        void succeeded() {
+            if (statistics != null) {
+                statistics.record(this, System.nanoTime() - startNanos, false);
+            }
+        }
+
+        void failed() {
+            if (statistics != null) {
+                statistics.record(this, System.nanoTime() - startNanos, true);
+            }
+        }
+    }
+
+    private void record(Recording recording, long elapsedNanos, boolean failed) {
+        boolean isSlow = slowQueryThresholdMillis != null
+                && TimeUnit.NANOSECONDS.toMillis(elapsedNanos) >= slowQueryThresholdMillis;
+        if (!enabled && !isSlow) {
+            return;
+        }
+        String queryId = getQueryId(recording.QUERY);
+        if (enabled) {
+            Statistics statistics = statisticsByQuery.computeIfAbsent(queryId, id -> new Statistics());
+            statistics.latencyMicros.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+            statistics.rows.add(recording.getRows());
+            if (failed) {
+                statistics.errors.increment();
+            }
+            sendOtelSummaryIfDue();
+        }
+        if (isSlow) {
+            // the plan of a failed query cannot be captured, as its transaction may be aborted
+            SlowQueryLog.log(start, queryId, recording.con, recording.QUERY, recording.setter,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), failed, explainSlowQueries && !failed);
+        }
+    }
+
+    private String getQueryId(String QUERY) {
+        QueryId id = queryRegistry == null ? null : queryRegistry.getId(QUERY);
+        return id != null ? id.name() : getCallerQueryId();
+    }
+
+    private static String getCallerQueryId() {
+        return stackWalker.walk(frames -> frames
+                .filter(frame -> !TEMPLATE_CLASSES.contains(frame.getClassName()))
+                .findFirst()
+                .map(frame -> {
+                    String className = frame.getClassName();
+                    String methodName = frame.getMethodName();
+                    // queries run from a lambda are attributed to the method that declares it: lambda$<method>$<n>
+                    if (methodName.startsWith("lambda$")) {
+                        int end = methodName.indexOf('$', "lambda$".length());
+                        methodName = methodName.substring("lambda$".length(),
+                                end == -1 ? methodName.length() : end);
+                    }
+                    return className.substring(className.lastIndexOf('.') + 1) + "." + methodName;
+                })
+                .orElse("unknown"));
+    }
+
+    private void sendOtelSummaryIfDue() {
+        OtelProvider otelProvider = this.otelProvider;
+        if (otelProvider == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long last = lastOtelSummaryMillis.get();
+        if (now - last < OTEL_SUMMARY_INTERVAL_MILLIS || !lastOtelSummaryMillis.compareAndSet(last, now)) {
+            return;
+        }
+        statisticsByQuery.forEach((queryId, statistics) -> otelProvider.createLogEvent(TenantIdentifier.BASE_TENANT,
+                "Query statistics of " + queryId, "INFO",
+                Map.of("queryId", queryId,
+                        "calls", String.valueOf(statistics.latencyMicros.getCount()),
+                        "rows", String.valueOf(statistics.rows.sum()),
+                        "errors", String.valueOf(statistics.errors.sum()),
+                        "sumMicros", String.valueOf(statistics.latencyMicros.getSum()),
+                        "maxMicros", String.valueOf(statistics.latencyMicros.getMax()))));
+    }
+
+    JsonObject toJson() {
+        JsonObject result = new JsonObject();
+        // sorted, so that the output is stable
+        new TreeMap<>(statisticsByQuery).forEach((queryId, statistics) -> {
+            JsonObject query = new JsonObject();
+            query.addProperty("rows", statistics.rows.sum());
+            query.addProperty("errors", statistics.errors.sum());
+            query.add("latencyMicros", statistics.latencyMicros.toJson());
+            result.add(queryId, query);
+        });
+        return result;
+    }
+}
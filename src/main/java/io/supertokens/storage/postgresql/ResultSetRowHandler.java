@@ -0,0 +1,30 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ */
+
+package io.supertokens.storage.postgresql;
+
+import io.supertokens.pluginInterface.exceptions.StorageQueryException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Handles a single row of a streamed query, see QueryExecutorTemplate.executeStreaming. The result set is already
+ * positioned on the row, and must not be moved by the handler.
+ */
+public interface ResultSetRowHandler {
+    void handle(ResultSet row) throws SQLException, StorageQueryException;
+}
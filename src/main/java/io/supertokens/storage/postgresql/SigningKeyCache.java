@@ -0,0 +1,425 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ */
+
+package io.supertokens.storage.postgresql;
+
+import com.google.gson.JsonObject;
+import com.zaxxer.hikari.HikariDataSource;
+import io.supertokens.pluginInterface.exceptions.StorageQueryException;
+import io.supertokens.storage.postgresql.output.Logging;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the access token signing keys, the JWT signing keys and the refresh token signing key of each app (see
+ * postgresql_signing_key_cache_ttl), so that the _Transaction reads of these keys do not lock their rows while the
+ * keys do not change.
+ *
+ * Every change to the keys of an app sends a notification on {@link #CHANNEL} in the transaction that makes it, which
+ * the database delivers when the transaction commits. The caches of all the storages that connect to the same database
+ * (keyed like the shared connection pools, see {@link ConnectionPool}) share one {@link Listener}, which listens for
+ * these on a connection of its own, outside the pools, and has every cache drop the keys of the app. An entry is also
+ * dropped once it is older than the TTL, which bounds how long a notification that was missed can leave stale keys in
+ * the cache. Nothing is cached while the listening connection is down, and the whole cache is dropped when it comes
+ * back. In pgbouncer mode, LISTEN does not work, so the TTL is the only bound.
+ *
+ * Empty results are never cached, so the first key of an app is still created under the row and advisory locks. A
+ * key that is due for rotation can however be seen by several cores at once, which may then each add a new key.
+ * These are all valid keys, and the newest is used for signing.
+ */
+class SigningKeyCache {
+
+    static final String CHANNEL = "supertokens_signing_keys";
+
+    private static final long POLL_INTERVAL_MILLIS = 10000;
+    private static final long MAX_RECONNECT_BACKOFF_MILLIS = 30000;
+
+    enum Kind {
+        ACCESS_TOKEN_SIGNING_KEYS, JWT_SIGNING_KEYS, REFRESH_TOKEN_SIGNING_KEY
+    }
+
+    @FunctionalInterface
+    interface Loader<T> {
+        T load() throws SQLException, StorageQueryException;
+    }
+
+    private static class Entry {
+        private final Object value;
+        private final long expiresAt;
+
+        private Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // the listeners of the databases that caches listen to, keyed by ConnectionPool.getSharedPoolKey. Guarded by the
+    // class lock.
+    private static final Map<String, Listener> listeners = new HashMap<>();
+
+    private final Start start;
+    private final HikariDataSource dataSource;
+    private final String schema;
+    private final long ttlMillis;
+    private final boolean isListenerEnabled;
+    private final Map<String, Map<Kind, Entry>> entriesByApp = new ConcurrentHashMap<>();
+    // bumped on every invalidation, so that a read that started before it does not fill the cache with what it read
+    private final AtomicLong generation = new AtomicLong();
+    // connections that changed keys in their current checkout, which must not fill the cache with what they have
+    // not committed yet
+    private final Set<Connection> writers =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile boolean stopped = false;
+    private volatile Listener listener;
+
+    SigningKeyCache(Start start, HikariDataSource dataSource, String schema, long ttlMillis,
+                    boolean isListenerEnabled) {
+        this.start = start;
+        this.dataSource = dataSource;
+        this.schema = schema;
+        this.ttlMillis = ttlMillis;
+        this.isListenerEnabled = isListenerEnabled;
+    }
+
+    void start() {
+        if (!isListenerEnabled) {
+            return;
+        }
+        synchronized (SigningKeyCache.class) {
+            if (listener != null) {
+                return;
+            }
+            String key = ConnectionPool.getSharedPoolKey(dataSource);
+            Listener databaseListener = listeners.get(key);
+            if (databaseListener == null) {
+                databaseListener = new Listener(key, dataSource);
+                listeners.put(key, databaseListener);
+            }
+            databaseListener.caches.add(this);
+            listener = databaseListener;
+            databaseListener.start();
+        }
+    }
+
+    void stop() {
+        stopped = true;
+        synchronized (SigningKeyCache.class) {
+            Listener databaseListener = listener;
+            listener = null;
+            // the listening connection is closed once the last cache that uses it is stopped
+            if (databaseListener != null && databaseListener.caches.remove(this)
+                    && databaseListener.caches.isEmpty()) {
+                listeners.remove(databaseListener.key);
+                databaseListener.stop();
+            }
+        }
+        invalidateAll();
+    }
+
+    private boolean isListening() {
+        Listener databaseListener = listener;
+        return databaseListener != null && databaseListener.isListening;
+    }
+
+    /**
+     * Returns the keys of the given kind for the app from the storage's cache, or loads them with the given loader, on
+     * the given connection, and caches them. If the storage does not cache signing keys, they are always loaded.
+     */
+    static <T> T getOrLoad(Start start, Kind kind, String appId, Connection con, Loader<T> loader)
+            throws SQLException, StorageQueryException {
+        SigningKeyCache cache = ConnectionPool.getSigningKeyCache(start);
+        if (cache == null) {
+            return loader.load();
+        }
+        T cached = cache.get(kind, appId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.getGeneration();
+        T value = loader.load();
+        cache.put(kind, appId, value, con, generation);
+        return value;
+    }
+
+    /**
+     * Called on the connection of the transaction that changes the signing keys of an app, before it commits.
+     */
+    static void keysChanged(Start start, Connection con, String appId) throws SQLException, StorageQueryException {
+        SigningKeyCache cache = ConnectionPool.getSigningKeyCache(start);
+        if (cache != null) {
+            cache.invalidateAndNotify(con, appId);
+        }
+    }
+
+    /**
+     * Called after a change to the signing keys of an app that was not made in a transaction, such as deleting the
+     * app.
+     */
+    static void keysChanged(Start start, String appId) throws SQLException, StorageQueryException {
+        SigningKeyCache cache = ConnectionPool.getSigningKeyCache(start);
+        if (cache != null) {
+            cache.invalidateAndNotify(appId);
+        }
+    }
+
+    /**
+     * Returns the cached value of the given kind for the app, or null if it is not cached. Arrays and lists are
+     * returned as copies.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(Kind kind, String appId) {
+        Map<Kind, Entry> entries = entriesByApp.get(appId);
+        Entry entry = entries == null ? null : entries.get(kind);
+        if (entry == null || entry.expiresAt <= System.currentTimeMillis()) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return (T) copy(entry.value);
+    }
+
+    /**
+     * Returns the generation to pass to {@link #put}, to be taken before the keys are read from the database.
+     */
+    long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Caches what was read on the given connection, unless the keys may have changed since the read started.
+     */
+    void put(Kind kind, String appId, Object value, Connection con, long generationBeforeRead) {
+        if (value == null || isEmpty(value) || stopped || (isListenerEnabled && !isListening())
+                || writers.contains(con)) {
+            return;
+        }
+        Entry entry = new Entry(copy(value), System.currentTimeMillis() + ttlMillis);
+        synchronized (this) {
+            // taken together with the invalidations, so that one cannot land between the check and the put
+            if (generation.get() != generationBeforeRead) {
+                return;
+            }
+            entriesByApp.computeIfAbsent(appId, id -> new ConcurrentHashMap<>()).put(kind, entry);
+        }
+    }
+
+    /**
+     * Drops the cached keys of the app, and notifies the other cores from within the transaction of the given
+     * connection, which must be the one that changes the keys.
+     */
+    void invalidateAndNotify(Connection con, String appId) throws SQLException, StorageQueryException {
+        writers.add(con);
+        invalidate(appId);
+        notifyChanged(con, appId);
+    }
+
+    /**
+     * Drops the cached keys of the app, and notifies the other cores, for a change that was made outside of a
+     * transaction (for example, deleting the app).
+     */
+    void invalidateAndNotify(String appId) throws SQLException, StorageQueryException {
+        invalidate(appId);
+        try (Connection con = ConnectionPool.getConnection(start)) {
+            notifyChanged(con, appId);
+        }
+    }
+
+    private void notifyChanged(Connection con, String appId) throws SQLException, StorageQueryException {
+        String QUERY = "SELECT pg_notify(?, ?)";
+        QueryExecutorTemplate.execute(con, QUERY, pst -> {
+            pst.setString(1, CHANNEL);
+            pst.setString(2, schema + "|" + appId);
+        }, result -> null);
+    }
+
+    private synchronized void invalidate(String appId) {
+        generation.incrementAndGet();
+        entriesByApp.remove(appId);
+    }
+
+    private synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        entriesByApp.clear();
+    }
+
+    JsonObject toJson() {
+        JsonObject result = new JsonObject();
+        result.addProperty("hits", hits.get());
+        result.addProperty("misses", misses.get());
+        result.addProperty("cachedApps", entriesByApp.size());
+        result.addProperty("listening", isListening());
+        return result;
+    }
+
+    private void handle(String payload) {
+        // schema|appId. The keys of other schemas are cached by the storages of those schemas.
+        int separator = payload.indexOf('|');
+        if (separator == -1 || !payload.substring(0, separator).equals(schema)) {
+            return;
+        }
+        invalidate(payload.substring(separator + 1));
+    }
+
+    /**
+     * Listens on {@link #CHANNEL} for the caches of all the storages that connect to one database, on a connection
+     * of its own, and hands every notification to each of them.
+     */
+    private static class Listener {
+        private final String key;
+        private final String jdbcUrl;
+        private final Properties properties = new Properties();
+        private final Set<SigningKeyCache> caches = ConcurrentHashMap.newKeySet();
+        private volatile boolean isListening = false;
+        private volatile boolean stopped = false;
+        private Thread thread;
+        private volatile Connection connection;
+
+        private Listener(String key, HikariDataSource dataSource) {
+            this.key = key;
+            // copied, as the pool of the storage that created the listener may be closed before the listener is
+            this.jdbcUrl = dataSource.getJdbcUrl();
+            this.properties.putAll(dataSource.getDataSourceProperties());
+            if (dataSource.getUsername() != null) {
+                this.properties.setProperty("user", dataSource.getUsername());
+            }
+            if (dataSource.getPassword() != null) {
+                this.properties.setProperty("password", dataSource.getPassword());
+            }
+        }
+
+        private void start() {
+            if (thread != null) {
+                return;
+            }
+            thread = new Thread(this::listen, "supertokens-postgresql-signing-key-listener");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void stop() {
+            stopped = true;
+            if (thread != null) {
+                thread.interrupt();
+                thread = null;
+            }
+            Connection con = connection;
+            if (con != null) {
+                // wakes the listener up from waiting for notifications
+                try {
+                    con.close();
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+
+        private void listen() {
+            long backoffMillis = 1000;
+            while (!stopped) {
+                try (Connection con = connect()) {
+                    connection = con;
+                    if (stopped) {
+                        break;
+                    }
+                    QueryExecutorTemplate.update(con, "LISTEN " + CHANNEL, null);
+                    // notifications sent while this connection was down are lost
+                    invalidateAll();
+                    isListening = true;
+                    backoffMillis = 1000;
+                    PGConnection pgConnection = con.unwrap(PGConnection.class);
+                    while (!stopped) {
+                        PGNotification[] notifications = pgConnection.getNotifications((int) POLL_INTERVAL_MILLIS);
+                        if (notifications == null) {
+                            continue;
+                        }
+                        for (PGNotification notification : notifications) {
+                            for (SigningKeyCache cache : caches) {
+                                cache.handle(notification.getParameter());
+                            }
+                        }
+                    }
+                } catch (SQLException | RuntimeException e) {
+                    if (stopped) {
+                        break;
+                    }
+                    SigningKeyCache cache = caches.stream().findFirst().orElse(null);
+                    if (cache != null) {
+                        Logging.debug(cache.start, "Signing key cache lost its LISTEN connection, retrying in "
+                                + backoffMillis + " ms: " + e.getMessage());
+                    }
+                } finally {
+                    connection = null;
+                    isListening = false;
+                    invalidateAll();
+                }
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, MAX_RECONNECT_BACKOFF_MILLIS);
+            }
+        }
+
+        private void invalidateAll() {
+            for (SigningKeyCache cache : caches) {
+                cache.invalidateAll();
+            }
+        }
+
+        private Connection connect() throws SQLException {
+            Connection con = new org.postgresql.Driver().connect(jdbcUrl, properties);
+            if (con == null) {
+                throw new SQLException("Unable to connect to " + jdbcUrl);
+            }
+            return con;
+        }
+    }
+
+    private static boolean isEmpty(Object value) {
+        if (value instanceof Object[]) {
+            return ((Object[]) value).length == 0;
+        }
+        if (value instanceof List) {
+            return ((List<?>) value).isEmpty();
+        }
+        return false;
+    }
+
+    private static Object copy(Object value) {
+        if (value instanceof Object[]) {
+            return ((Object[]) value).clone();
+        }
+        if (value instanceof List) {
+            return new ArrayList<>((List<?>) value);
+        }
+        return value;
+    }
+}
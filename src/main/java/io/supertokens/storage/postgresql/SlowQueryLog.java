@@ -0,0 +1,137 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ */
+
+package io.supertokens.storage.postgresql;
+
+import io.supertokens.storage.postgresql.output.Logging;
+
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Logs a query that took longer than postgresql_slow_query_threshold, as a warning, with the method that ran it (see
+ * {@link QueryStatistics}) and the shapes of its parameters. The values of the parameters are never logged. The
+ * shapes are taken by running the query's PreparedStatementValueSetter again, against a PreparedStatement that only
+ * records the types (and lengths) of the values, so fast queries pay nothing for this.
+ *
+ * If postgresql_slow_query_explain is enabled, the plan that the database picks for the query with the same
+ * parameters is captured with EXPLAIN (FORMAT JSON) on the query's connection, which plans the query without running
+ * it. This is the custom plan for those parameters: a statement that the driver has prepared on the server may have
+ * been run with a generic plan instead.
+ */
+class SlowQueryLog {
+
+    // the statements that EXPLAIN accepts
+    private static final Pattern EXPLAINABLE = Pattern.compile(
+            "^\\s*\\(?\\s*(SELECT|INSERT|UPDATE|DELETE|WITH|VALUES)\\b", Pattern.CASE_INSENSITIVE);
+
+    static void log(Start start, String queryId, Connection con, String QUERY, PreparedStatementValueSetter setter,
+                    long elapsedMillis, boolean failed, boolean explain) {
+        StringBuilder message = new StringBuilder("Slow query ").append(queryId)
+                .append(failed ? " failed after " : " took ").append(elapsedMillis).append(" ms")
+                .append(", parameters: ").append(getParameterShapes(con, setter))
+                .append(", query: ").append(QUERY);
+        if (explain) {
+            message.append(", plan: ").append(explain(con, QUERY, setter));
+        }
+        Logging.warn(start, message.toString());
+    }
+
+    /**
+     * Returns the shapes of the values the setter sets, in order, for example [String(36), Long, null].
+     */
+    static String getParameterShapes(Connection con, PreparedStatementValueSetter setter) {
+        if (setter == null) {
+            return "[]";
+        }
+        List<String> shapes = new ArrayList<>();
+        PreparedStatement recorder = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("getConnection")) {
+                        // for setters that create arrays
+                        return con;
+                    }
+                    if (!name.startsWith("set") || args == null || args.length < 2 || !(args[0] instanceof Integer)) {
+                        throw new SQLFeatureNotSupportedException(name);
+                    }
+                    int index = (Integer) args[0] - 1;
+                    while (shapes.size() <= index) {
+                        shapes.add("?");
+                    }
+                    shapes.set(index, getShape(name.substring("set".length()), args[1]));
+                    return null;
+                });
+        try {
+            setter.setValues(recorder);
+        } catch (SQLException | RuntimeException e) {
+            return "unavailable (" + e.getMessage() + ")";
+        }
+        return shapes.toString();
+    }
+
+    private static String getShape(String type, Object value) {
+        if (type.equals("Null") || value == null) {
+            return "null";
+        }
+        if (value instanceof String) {
+            return "String(" + ((String) value).length() + ")";
+        }
+        if (value instanceof byte[]) {
+            return "byte[" + ((byte[]) value).length + "]";
+        }
+        if (type.equals("Object")) {
+            return value.getClass().getSimpleName();
+        }
+        return type;
+    }
+
+    private static String explain(Connection con, String QUERY, PreparedStatementValueSetter setter) {
+        if (!EXPLAINABLE.matcher(QUERY).find()) {
+            return "unavailable (not a query that EXPLAIN accepts)";
+        }
+        try {
+            // a failed EXPLAIN must not abort the caller's transaction
+            Savepoint savepoint = con.getAutoCommit() ? null : con.setSavepoint();
+            try (PreparedStatement pst = con.prepareStatement("EXPLAIN (FORMAT JSON) " + QUERY)) {
+                if (setter != null) {
+                    setter.setValues(pst);
+                }
+                try (ResultSet result = pst.executeQuery()) {
+                    result.next();
+                    return result.getString(1);
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (savepoint != null) {
+                    con.rollback(savepoint);
+                }
+                // the message of the error may contain the values of the parameters
+                return "unavailable (" + (e instanceof SQLException ? "SQLSTATE " + ((SQLException) e).getSQLState()
+                        : e.getClass().getSimpleName()) + ")";
+            } finally {
+                if (savepoint != null) {
+                    con.releaseSavepoint(savepoint);
+                }
+            }
+        } catch (SQLException e) {
+            return "unavailable (SQLSTATE " + e.getSQLState() + ")";
+        }
+    }
+}
@@ -151,7 +151,15 @@ public class Start
             "postgresql_connection_uri", "postgresql_host", "postgresql_port", "postgresql_user", "postgresql_password",
             "postgresql_database_name", "postgresql_table_schema", "postgresql_idle_connection_timeout",
             "postgresql_minimum_idle_connections", "postgresql_connection_attributes", "postgresql_connection_scheme",
-            "postgresql_table_names_prefix"
+            "postgresql_table_names_prefix", "postgresql_read_replica_hosts",
+            "postgresql_read_replica_connection_pool_size", "postgresql_read_replica_max_lag",
+            "postgresql_shared_connection_pool", "postgresql_shared_connection_pool_size",
+            "postgresql_pgbouncer_mode", "postgresql_adaptive_connection_pool",
+            "postgresql_adaptive_connection_pool_min_size", "postgresql_transaction_retry_time_budget",
+            "postgresql_query_statistics_enabled", "postgresql_slow_query_threshold", "postgresql_slow_query_explain",
+            "postgresql_session_info_partitioned", "postgresql_expiry_sweep_batch_size",
+            "postgresql_expiry_sweep_pause", "postgresql_expiry_sweep_max_runtime",
+            "postgresql_signing_key_cache_ttl", "postgresql_session_info_hot_updates"
     };
     private static final Object appenderLock = new Object();
     public static boolean silent = false;
@@ -166,11 +174,23 @@ public class Start
     private Thread shutdownHook;
 
     private boolean isBaseTenant = false;
+    private volatile TransactionRetryPolicy transactionRetryPolicy = null;
+    private volatile QueryRegistry queryRegistry = null;
+    volatile QueryStatistics queryStatistics = null;
+    private final ExpirySweeper expirySweeper = new ExpirySweeper();
 
     public ResourceDistributor getResourceDistributor() {
         return resourceDistributor;
     }
 
+    public QueryRegistry getQueryRegistry() {
+        QueryRegistry queryRegistry = this.queryRegistry;
+        if (queryRegistry == null) {
+            throw new IllegalStateException("Please call loadConfig() before calling getQueryRegistry()");
+        }
+        return queryRegistry;
+    }
+
     public String getProcessId() {
         return this.processId;
     }
@@ -214,6 +234,12 @@ public class Start
     public void loadConfig(JsonObject configJson, Set<LOG_LEVEL> logLevels, TenantIdentifier tenantIdentifier)
             throws InvalidConfigException {
         Config.loadConfig(this, configJson, logLevels, tenantIdentifier);
+        if (this.queryRegistry == null) {
+            this.queryRegistry = new QueryRegistry(Config.getConfig(this));
+        }
+        if (this.queryStatistics == null) {
+            this.queryStatistics = new QueryStatistics(this, Config.getConfig(this), this.queryRegistry);
+        }
     }
 
     @Override
@@ -233,6 +259,10 @@ public class Start
 
     @Override
     public void initFileLogging(String infoLogPath, String errorLogPath, OtelProvider otelProvider) {
+        QueryStatistics queryStatistics = this.queryStatistics;
+        if (queryStatistics != null) {
+            queryStatistics.setOtelProvider(otelProvider);
+        }
         if (Logging.isAlreadyInitialised(this)) {
             return;
         }
@@ -315,71 +345,84 @@ public class Start
     @Override
     public <T> T startTransaction(TransactionLogic<T> logic, TransactionIsolationLevel isolationLevel)
             throws StorageTransactionLogicException, StorageQueryException {
-        final int NUM_TRIES = 50;
-        int tries = 0;
+        return startTransaction(logic, isolationLevel, false, false);
+    }
+
+    /**
+     * Runs the logic in a READ ONLY, READ COMMITTED transaction on the primary, with the same retries as
+     * startTransaction. Postgres does not assign a transaction id to such a transaction. It sees every write that was
+     * committed before it started, so it can be used for checks that follow the caller's own writes.
+     */
+    public <T> T startReadOnlyTransaction(TransactionLogic<T> logic)
+            throws StorageTransactionLogicException, StorageQueryException {
+        return startTransaction(logic, TransactionIsolationLevel.READ_COMMITTED, true, false);
+    }
+
+    /**
+     * Like startReadOnlyTransaction, but the transaction may run on a read replica (see
+     * ConnectionPool.getReadConnection), which can miss writes committed on the primary within
+     * postgresql_read_replica_max_lag. It should only be used by callers that accept such stale reads.
+     */
+    public <T> T startReplicaReadOnlyTransaction(TransactionLogic<T> logic)
+            throws StorageTransactionLogicException, StorageQueryException {
+        return startTransaction(logic, TransactionIsolationLevel.READ_COMMITTED, true, true);
+    }
+
+    private <T> T startTransaction(TransactionLogic<T> logic, TransactionIsolationLevel isolationLevel,
+                                   boolean readOnly, boolean allowStaleReads)
+            throws StorageTransactionLogicException, StorageQueryException {
+        TransactionRetryPolicy retryPolicy = getTransactionRetryPolicy();
+        long deadline = System.currentTimeMillis() + retryPolicy.getTimeBudgetMillis();
+        long backoffMillis = 0;
         while (true) {
-            tries++;
             try {
+                if (readOnly) {
+                    return startReadOnlyTransactionHelper(logic, allowStaleReads);
+                }
                 return startTransactionHelper(logic, isolationLevel);
             } catch (SQLException | StorageQueryException | StorageTransactionLogicException |
                      TenantOrAppNotFoundException e) {
                 Throwable actualException = e;
-                if (e instanceof StorageQueryException) {
-                    actualException = e.getCause();
-                } else if (e instanceof StorageTransactionLogicException) {
+                if (e instanceof StorageTransactionLogicException) {
                     actualException = ((StorageTransactionLogicException) e).actualException;
                 }
-                String exceptionMessage = actualException.getMessage();
-                if (exceptionMessage == null) {
-                    exceptionMessage = "";
-                }
 
                 // see: https://github.com/supertokens/supertokens-postgresql-plugin/pull/3
-
-                // We set this variable to the current (or cause) exception casted to
-                // PSQLException if we can safely cast it
-                PSQLException psqlException = actualException instanceof PSQLException ? (PSQLException) actualException
-                        : null;
-
-                // PSQL error class 40 is transaction rollback. See:
-                // https://www.postgresql.org/docs/12/errcodes-appendix.html
-                boolean isPSQLRollbackException = psqlException != null
-                        && psqlException.getServerErrorMessage() != null
-                        && psqlException.getServerErrorMessage().getSQLState().startsWith("40");
-
-                // We keep the old exception detection logic to ensure backwards compatibility.
-                // We could get here if the new logic hits a false negative,
-                // e.g., in case someone renamed constraints/tables
-                boolean isDeadlockException = actualException instanceof SQLTransactionRollbackException
-                        || actualException instanceof LockFailure
-                        || exceptionMessage.toLowerCase().contains("concurrent update")
-                        || exceptionMessage.toLowerCase().contains("concurrent delete")
-                        || exceptionMessage.toLowerCase().contains("the transaction might succeed if retried") ||
-
-                        // we have deadlock as well due to the DeadlockTest.java
-                        exceptionMessage.toLowerCase().contains("deadlock");
-
-                if ((isPSQLRollbackException || isDeadlockException) && tries < NUM_TRIES) {
-                    try {
-                        if(this instanceof BulkImportProxyStorage){
-                            throw new StorageTransactionLogicException(new BulkImportTransactionRolledBackException(e));
-                            // if the current instance is of BulkImportProxyStorage, that means we are doing a bulk import
-                            // which uses nested transactions. With MySQL this retry logic doesn't going to work, we have
-                            // to retry the whole "big" transaction, not just the innermost, current one.
-                            // @see BulkImportTransactionRolledBackException for more explanation.
+                // Retryable failures (deadlocks, serialization failures, lock timeouts...) are recognised by their
+                // SQLSTATE, see TransactionRetryPolicy.
+                TransactionRetryPolicy.FailureClass failureClass = retryPolicy.classify(actualException);
+
+                if (failureClass != null) {
+                    if (this instanceof BulkImportProxyStorage
+                            && !retryPolicy.isRetryableWithinSavepoint(failureClass)) {
+                        throw new StorageTransactionLogicException(new BulkImportTransactionRolledBackException(e));
+                        // if the current instance is of BulkImportProxyStorage, that means we are doing a bulk import
+                        // which uses nested transactions. With MySQL this retry logic doesn't going to work, we have
+                        // to retry the whole "big" transaction, not just the innermost, current one.
+                        // @see BulkImportTransactionRolledBackException for more explanation.
+                        // Failures caused only by locks are the exception: the failed transaction was rolled back to
+                        // its savepoint (see BulkImportProxyStorage.startTransactionHelper), which released the
+                        // locks it took, so it can be retried on its own.
+                    }
+                    backoffMillis = retryPolicy.getNextBackoffMillis(backoffMillis);
+                    if (System.currentTimeMillis() + backoffMillis < deadline) {
+                        retryPolicy.recordRetry(failureClass);
+                        ProcessState.getInstance(this).addState(ProcessState.PROCESS_STATE.DEADLOCK_FOUND, e);
+                        // this because deadlocks are not necessarily a result of faulty logic. They can
+                        // happen
+                        try {
+                            Thread.sleep(backoffMillis);
+                            continue;
+                        } catch (InterruptedException ignored) {
+                            // the caller no longer wants to wait, so we give up with the original failure
+                            Thread.currentThread().interrupt();
                         }
-                        Thread.sleep((long) (10 + (250 + Math.min(Math.pow(2, tries), 3000)) * Math.random()));
-                    } catch (InterruptedException ignored) {
+                    } else {
+                        retryPolicy.recordExhausted(failureClass);
+                        ProcessState.getInstance(this).addState(ProcessState.PROCESS_STATE.DEADLOCK_NOT_RESOLVED, e);
                     }
-                    ProcessState.getInstance(this).addState(ProcessState.PROCESS_STATE.DEADLOCK_FOUND, e);
-                    // this because deadlocks are not necessarily a result of faulty logic. They can
-                    // happen
-                    continue;
                 }
 
-                if ((isPSQLRollbackException || isDeadlockException) && tries == NUM_TRIES) {
-                    ProcessState.getInstance(this).addState(ProcessState.PROCESS_STATE.DEADLOCK_NOT_RESOLVED, e);
-                }
                 if (e instanceof StorageQueryException) {
                     throw (StorageQueryException) e;
                 } else if (e instanceof StorageTransactionLogicException) {
@@ -392,47 +435,110 @@ public class Start
         }
     }
 
+    private TransactionRetryPolicy getTransactionRetryPolicy() {
+        TransactionRetryPolicy retryPolicy = this.transactionRetryPolicy;
+        if (retryPolicy == null) {
+            synchronized (this) {
+                if (this.transactionRetryPolicy == null) {
+                    this.transactionRetryPolicy = new TransactionRetryPolicy(
+                            Config.getConfig(this).getTransactionRetryTimeBudget());
+                }
+                retryPolicy = this.transactionRetryPolicy;
+            }
+        }
+        return retryPolicy;
+    }
+
+    /**
+     * Replaces the policy that decides which failed transactions are retried by startTransaction, and how.
+     */
+    public void setTransactionRetryPolicy(TransactionRetryPolicy transactionRetryPolicy) {
+        this.transactionRetryPolicy = transactionRetryPolicy;
+    }
+
+    /**
+     * Returns the number of transaction retries, and of transactions that ran out of their retry time budget, per
+     * class of failure.
+     */
+    public JsonObject getTransactionRetryMetrics() {
+        return getTransactionRetryPolicy().toJson();
+    }
+
     protected <T> T startTransactionHelper(TransactionLogic<T> logic, TransactionIsolationLevel isolationLevel)
             throws StorageQueryException, StorageTransactionLogicException, SQLException, TenantOrAppNotFoundException {
-        Connection con = null;
-        Integer defaultTransactionIsolation = null;
-        try {
-            con = ConnectionPool.getConnection(this);
-            defaultTransactionIsolation = con.getTransactionIsolation();
-            int libIsolationLevel = Connection.TRANSACTION_SERIALIZABLE;
-            switch (isolationLevel) {
-                case SERIALIZABLE:
-                    libIsolationLevel = Connection.TRANSACTION_SERIALIZABLE;
-                    break;
-                case REPEATABLE_READ:
-                    libIsolationLevel = Connection.TRANSACTION_REPEATABLE_READ;
-                    break;
-                case READ_COMMITTED:
-                    libIsolationLevel = Connection.TRANSACTION_READ_COMMITTED;
-                    break;
-                case READ_UNCOMMITTED:
-                    libIsolationLevel = Connection.TRANSACTION_READ_UNCOMMITTED;
-                    break;
-                case NONE:
-                    libIsolationLevel = Connection.TRANSACTION_NONE;
-                    break;
-            }
-            con.setTransactionIsolation(libIsolationLevel);
+        String isolationLevelSQL = null;
+        switch (isolationLevel) {
+            case SERIALIZABLE:
+                isolationLevelSQL = "SERIALIZABLE";
+                break;
+            case REPEATABLE_READ:
+                isolationLevelSQL = "REPEATABLE READ";
+                break;
+            case READ_COMMITTED:
+                isolationLevelSQL = "READ COMMITTED";
+                break;
+            case READ_UNCOMMITTED:
+                isolationLevelSQL = "READ UNCOMMITTED";
+                break;
+            case NONE:
+                break;
+        }
+        // Pooled connections are handed out in auto-commit mode, and the pool's connectionInitSql makes READ
+        // COMMITTED their session default. So a READ_COMMITTED transaction needs no isolation statement at all. Any
+        // other level is set as the first statement of the transaction, which scopes it to that transaction only and
+        // saves changing and then restoring the session's level (each a round trip).
+        //
+        // Behind PgBouncer in transaction pooling mode, there is no connectionInitSql, and the session state may
+        // belong to a different server backend on every transaction, so the level is always set explicitly.
+        boolean pgBouncerMode = Config.getConfig(this).isPgBouncerModeEnabled();
+        boolean setIsolationLevel = isolationLevelSQL != null
+                && (pgBouncerMode || isolationLevel != TransactionIsolationLevel.READ_COMMITTED);
+        return runTransaction(logic, ConnectionPool.getConnection(this),
+                setIsolationLevel ? "ISOLATION LEVEL " + isolationLevelSQL : null);
+    }
+
+    protected <T> T startReadOnlyTransactionHelper(TransactionLogic<T> logic, boolean allowStaleReads)
+            throws StorageQueryException, StorageTransactionLogicException, SQLException, TenantOrAppNotFoundException {
+        Connection con = allowStaleReads ? ConnectionPool.getReadConnection(this) : ConnectionPool.getConnection(this);
+        List<String> transactionModes = new ArrayList<>();
+        if (Config.getConfig(this).isPgBouncerModeEnabled()) {
+            transactionModes.add("ISOLATION LEVEL READ COMMITTED");
+        }
+        // connections of the read replica pool are read only, and the driver already begins their transactions with
+        // BEGIN READ ONLY
+        if (!con.isReadOnly()) {
+            transactionModes.add("READ ONLY");
+        }
+        return runTransaction(logic, con, transactionModes.isEmpty() ? null : String.join(", ", transactionModes));
+    }
+
+    /**
+     * Runs the logic in a transaction on the given pooled connection, closing it at the end.
+     *
+     * @param transactionModes if not null, set with SET TRANSACTION as the first statement of the transaction
+     */
+    private <T> T runTransaction(TransactionLogic<T> logic, Connection pooledCon, String transactionModes)
+            throws StorageQueryException, StorageTransactionLogicException, SQLException, TenantOrAppNotFoundException {
+        // statements prepared by the transaction logic are reused until the transaction ends. The connection is only
+        // known to be in READ COMMITTED if the transaction does not set its own level
+        boolean isReadCommitted = !Config.getConfig(this).isPgBouncerModeEnabled()
+                && (transactionModes == null || !transactionModes.contains("ISOLATION LEVEL"));
+        Connection con = new StatementCachingConnection(pooledCon, true,
+                isReadCommitted ? Connection.TRANSACTION_READ_COMMITTED : null);
+        try {
             con.setAutoCommit(false);
+            if (transactionModes != null) {
+                try (Statement statement = con.createStatement()) {
+                    statement.execute("SET TRANSACTION " + transactionModes);
+                }
+            }
             return logic.mainLogicAndCommit(new TransactionConnection(con));
         } catch (Exception e) {
-            if (con != null) {
-                con.rollback();
-            }
+            con.rollback();
             throw e;
         } finally {
-            if (con != null) {
-                con.setAutoCommit(true);
-                if (defaultTransactionIsolation != null) {
-                    con.setTransactionIsolation(defaultTransactionIsolation);
-                }
-                con.close();
-            }
+            con.setAutoCommit(true);
+            con.close();
         }
     }
 
@@ -478,7 +584,9 @@ public class Start
             throws StorageQueryException {
         Connection sqlCon = (Connection) con.getConnection();
         try {
-            return SessionQueries.getAccessTokenSigningKeys_Transaction(this, sqlCon, appIdentifier);
+            return SigningKeyCache.getOrLoad(this, SigningKeyCache.Kind.ACCESS_TOKEN_SIGNING_KEYS,
+                    appIdentifier.getAppId(), sqlCon,
+                    () -> SessionQueries.getAccessTokenSigningKeys_Transaction(this, sqlCon, appIdentifier));
         } catch (SQLException e) {
             throw new StorageQueryException(e);
         }
@@ -492,6 +600,7 @@ public class Start
         try {
             SessionQueries.addAccessTokenSigningKey_Transaction(this, sqlCon, appIdentifier, info.createdAtTime,
                     info.value);
+            SigningKeyCache.keysChanged(this, sqlCon, appIdentifier.getAppId());
         } catch (SQLException e) {
             if (e instanceof PSQLException) {
                 PostgreSQLConfig config = Config.getConfig(this);
@@ -509,7 +618,9 @@ public class Start
     public void removeAccessTokenSigningKeysBefore(AppIdentifier appIdentifier, long time)
             throws StorageQueryException {
         try {
-            SessionQueries.removeAccessTokenSigningKeysBefore(this, appIdentifier, time);
+            if (SessionQueries.removeAccessTokenSigningKeysBefore(this, appIdentifier, time) > 0) {
+                SigningKeyCache.keysChanged(this, appIdentifier.getAppId());
+            }
         } catch (SQLException e) {
             throw new StorageQueryException(e);
         }
@@ -520,8 +631,9 @@ public class Start
                                                               TransactionConnection con) throws StorageQueryException {
         Connection sqlCon = (Connection) con.getConnection();
         try {
-            return GeneralQueries.getKeyValue_Transaction(this, sqlCon,
-                    appIdentifier.getAsPublicTenantIdentifier(), REFRESH_TOKEN_KEY_NAME);
+            return SigningKeyCache.getOrLoad(this, SigningKeyCache.Kind.REFRESH_TOKEN_SIGNING_KEY,
+                    appIdentifier.getAppId(), sqlCon, () -> GeneralQueries.getKeyValue_Transaction(this, sqlCon,
+                            appIdentifier.getAsPublicTenantIdentifier(), REFRESH_TOKEN_KEY_NAME));
         } catch (SQLException e) {
             throw new StorageQueryException(e);
         }
@@ -535,6 +647,7 @@ public class Start
         try {
             GeneralQueries.setKeyValue_Transaction(this, sqlCon,
                     appIdentifier.getAsPublicTenantIdentifier(), REFRESH_TOKEN_KEY_NAME, info);
+            SigningKeyCache.keysChanged(this, sqlCon, appIdentifier.getAppId());
         } catch (SQLException e) {
             throw new StorageQueryException(e);
         }
@@ -1160,6 +1273,45 @@ public class Start
         return PROTECTED_DB_CONFIG;
     }
 
+    /**
+     * Returns the saturation and wait time statistics of this storage's connection pools as JSON, or null if the
+     * connection pool has not been initialised yet.
+     */
+    public JsonObject getConnectionPoolMetrics() {
+        return ConnectionPool.getMetrics(this);
+    }
+
+    /**
+     * Returns the latency histogram (in microseconds), and the number of rows and of errors, of the queries run by
+     * this storage as JSON, keyed by their QueryId, or by the method that ran them if they have none (see
+     * {@link QueryStatistics}). Returns null if postgresql_query_statistics_enabled is false.
+     */
+    public JsonObject getQueryStatistics() {
+        QueryStatistics queryStatistics = this.queryStatistics;
+        return queryStatistics == null || !queryStatistics.isEnabled() ? null : queryStatistics.toJson();
+    }
+
+    ExpirySweeper getExpirySweeper() {
+        return expirySweeper;
+    }
+
+    /**
+     * Returns the number of runs, batches and deleted rows, and the latency histogram of the batches, of the deletes
+     * of expired rows (see {@link ExpirySweeper}) as JSON, keyed by table.
+     */
+    public JsonObject getExpirySweeperMetrics() {
+        return expirySweeper.toJson();
+    }
+
+    /**
+     * Returns the hits and misses of the signing key cache (see {@link SigningKeyCache}), and whether it is listening
+     * for changes, as JSON, or null if postgresql_signing_key_cache_ttl is not set.
+     */
+    public JsonObject getSigningKeyCacheMetrics() {
+        SigningKeyCache cache = ConnectionPool.getSigningKeyCache(this);
+        return cache == null ? null : cache.toJson();
+    }
+
     @Override
     public AuthRecipeUserInfo signUp(TenantIdentifier tenantIdentifier, String id, String email, String passwordHash,
                                      long timeJoined)
@@ -1999,7 +2151,8 @@ public class Start
             throws StorageQueryException {
         Connection sqlCon = (Connection) con.getConnection();
         try {
-            return JWTSigningQueries.getJWTSigningKeys_Transaction(this, sqlCon, appIdentifier);
+            return SigningKeyCache.getOrLoad(this, SigningKeyCache.Kind.JWT_SIGNING_KEYS, appIdentifier.getAppId(),
+                    sqlCon, () -> JWTSigningQueries.getJWTSigningKeys_Transaction(this, sqlCon, appIdentifier));
         } catch (SQLException e) {
             throw new StorageQueryException(e);
         }
@@ -2012,6 +2165,7 @@ public class Start
         Connection sqlCon = (Connection) con.getConnection();
         try {
             JWTSigningQueries.setJWTSigningKeyInfo_Transaction(this, sqlCon, appIdentifier, info);
+            SigningKeyCache.keysChanged(this, sqlCon, appIdentifier.getAppId());
         } catch (SQLException e) {
 
             if (e instanceof PSQLException) {
@@ -3126,6 +3280,14 @@ public class Start
     @Override
     public void deleteTenantIdInTargetStorage(TenantIdentifier tenantIdentifier) throws StorageQueryException {
         MultitenancyQueries.deleteTenantIdInTargetStorage(this, tenantIdentifier);
+        if (tenantIdentifier.getTenantId().equals(TenantIdentifier.DEFAULT_TENANT_ID)) {
+            // the keys of the app were deleted with it
+            try {
+                SigningKeyCache.keysChanged(this, tenantIdentifier.getAppId());
+            } catch (SQLException e) {
+                throw new StorageQueryException(e);
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,172 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql;
+
+import com.google.gson.JsonObject;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides which failed transactions {@link Start#startTransaction} retries, and how long it waits in between.
+ * Failures are classified by the SQLSTATE of the underlying SQLException (see
+ * https://www.postgresql.org/docs/current/errcodes-appendix.html). Retries are spread with decorrelated jitter
+ * backoff, and stop once the overall time budget of the call would be exceeded. Subclasses can change any of these
+ * decisions, and an instance can be plugged in with {@link Start#setTransactionRetryPolicy}.
+ */
+public class TransactionRetryPolicy {
+
+    public enum FailureClass {
+        // 40001
+        SERIALIZATION_FAILURE,
+        // 40P01
+        DEADLOCK_DETECTED,
+        // 55P03, for example from FOR UPDATE NOWAIT or lock_timeout
+        LOCK_NOT_AVAILABLE,
+        // any other class 40 error, except 40003 (statement completion unknown), for which a retry is not safe
+        TRANSACTION_ROLLBACK,
+        // a LockFailure thrown by our own locking helpers
+        LOCK_FAILURE
+    }
+
+    static final long BASE_BACKOFF_MILLIS = 10;
+    static final long MAX_BACKOFF_MILLIS = 1000;
+
+    private final long timeBudgetMillis;
+    private final Map<FailureClass, LongAdder> retries = new EnumMap<>(FailureClass.class);
+    private final Map<FailureClass, LongAdder> exhausted = new EnumMap<>(FailureClass.class);
+
+    public TransactionRetryPolicy(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+        for (FailureClass failureClass : FailureClass.values()) {
+            retries.put(failureClass, new LongAdder());
+            exhausted.put(failureClass, new LongAdder());
+        }
+    }
+
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    /**
+     * Returns the class of a failure that is worth retrying, or null if the transaction must not be retried. The
+     * whole cause chain is searched, since the SQLException is often wrapped (for example in a StorageQueryException
+     * thrown from within the transaction logic).
+     */
+    public FailureClass classify(Throwable failure) {
+        Throwable current = failure;
+        // bounded, in case of a cycle in the cause chain
+        for (int depth = 0; current != null && depth < 10; depth++) {
+            if (current instanceof LockFailure) {
+                return FailureClass.LOCK_FAILURE;
+            }
+            if (current instanceof SQLException) {
+                FailureClass failureClass = classifySQLState(((SQLException) current).getSQLState());
+                if (failureClass == null && current instanceof BatchUpdateException) {
+                    // the batch exception itself carries no useful state, the failed statement's exception does
+                    SQLException next = ((SQLException) current).getNextException();
+                    failureClass = next == null ? null : classifySQLState(next.getSQLState());
+                }
+                if (failureClass != null) {
+                    return failureClass;
+                }
+            }
+            current = current.getCause();
+        }
+        return null;
+    }
+
+    protected FailureClass classifySQLState(String sqlState) {
+        if (sqlState == null) {
+            return null;
+        }
+        switch (sqlState) {
+            case "40001":
+                return FailureClass.SERIALIZATION_FAILURE;
+            case "40P01":
+                return FailureClass.DEADLOCK_DETECTED;
+            case "55P03":
+                return FailureClass.LOCK_NOT_AVAILABLE;
+            case "40003":
+                return null;
+        }
+        if (sqlState.startsWith("40")) {
+            return FailureClass.TRANSACTION_ROLLBACK;
+        }
+        return null;
+    }
+
+    /**
+     * Whether a failed transaction that was rolled back to a savepoint of an enclosing transaction (as in a bulk
+     * import) can be retried on its own. That is the case for failures caused by locks, since rolling back to the
+     * savepoint releases the locks taken after it. Serialization failures are not retryable this way, because the
+     * enclosing transaction keeps its snapshot, and so would fail the same way again.
+     */
+    public boolean isRetryableWithinSavepoint(FailureClass failureClass) {
+        switch (failureClass) {
+            case DEADLOCK_DETECTED:
+            case LOCK_NOT_AVAILABLE:
+            case LOCK_FAILURE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Decorrelated jitter: the next wait is random between the base and three times the previous wait, capped.
+     * Compared to exponential backoff, this keeps competing retries from synchronising with each other.
+     */
+    public long getNextBackoffMillis(long previousBackoffMillis) {
+        long upperBound = Math.max(BASE_BACKOFF_MILLIS, previousBackoffMillis) * 3;
+        long backoff = ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MILLIS, upperBound + 1);
+        return Math.min(MAX_BACKOFF_MILLIS, backoff);
+    }
+
+    void recordRetry(FailureClass failureClass) {
+        retries.get(failureClass).increment();
+    }
+
+    void recordExhausted(FailureClass failureClass) {
+        exhausted.get(failureClass).increment();
+    }
+
+    public long getRetryCount(FailureClass failureClass) {
+        return retries.get(failureClass).sum();
+    }
+
+    public long getExhaustedCount(FailureClass failureClass) {
+        return exhausted.get(failureClass).sum();
+    }
+
+    public JsonObject toJson() {
+        JsonObject result = new JsonObject();
+        result.addProperty("timeBudgetMillis", timeBudgetMillis);
+        for (FailureClass failureClass : FailureClass.values()) {
+            JsonObject counts = new JsonObject();
+            counts.addProperty("retries", getRetryCount(failureClass));
+            counts.addProperty("exhausted", getExhaustedCount(failureClass));
+            result.add(failureClass.name(), counts);
+        }
+        return result;
+    }
+}
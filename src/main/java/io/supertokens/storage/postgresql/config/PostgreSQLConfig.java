@@ -200,6 +200,186 @@ public class PostgreSQLConfig {
             defaultValue = "null", isOptional = true, isEditable = true)
     private Integer postgresql_minimum_idle_connections = null;
 
+    @EnvName("POSTGRESQL_READ_REPLICA_HOSTS")
+    @JsonProperty
+    @ConnectionPoolProperty
+    @DashboardInfo(
+            description = "Comma separated list of read replica hosts (\"host\" or \"host:port\") used for " +
+                    "non-transactional reads such as session, user, role and metadata lookups. Replicas are " +
+                    "connected to with the same database name, credentials and connection attributes as the primary, " +
+                    "and are only used while they stream from the primary, which the user can only see with the " +
+                    "pg_read_all_stats role. If not set, all reads go to the primary.",
+            defaultValue = "null", isOptional = true)
+    private String postgresql_read_replica_hosts = null;
+
+    @EnvName("POSTGRESQL_READ_REPLICA_CONNECTION_POOL_SIZE")
+    @JsonProperty
+    @ConnectionPoolProperty
+    @DashboardInfo(
+            description = "Defines the connection pool size to the read replicas. If not set, it will be the same as " +
+                    "postgresql_connection_pool_size.",
+            defaultValue = "null", isOptional = true, isEditable = true)
+    private Integer postgresql_read_replica_connection_pool_size = null;
+
+    @EnvName("POSTGRESQL_READ_REPLICA_MAX_LAG")
+    @JsonProperty
+    @ConnectionPoolProperty
+    @DashboardInfo(
+            description = "Maximum replication lag in milliseconds that is tolerated for reads served from the read " +
+                    "replicas. If the replicas fall further behind than this, or cannot be reached, reads fall back to " +
+                    "the primary.",
+            defaultValue = "1000", isOptional = true, isEditable = true)
+    private long postgresql_read_replica_max_lag = 1000;
+
+    @EnvName("POSTGRESQL_SHARED_CONNECTION_POOL")
+    @JsonProperty
+    @ConnectionPoolProperty
+    @DashboardInfo(
+            description = "If true, storages that connect to the same database with the same credentials share one " +
+                    "physical connection pool, even if they use different table schemas or prefixes. Each storage " +
+                    "can hold at most postgresql_connection_pool_size connections of the shared pool at a time. " +
+                    "This cannot be used with postgresql_pgbouncer_mode.",
+            defaultValue = "false", isOptional = true, isEditable = true)
+    private boolean postgresql_shared_connection_pool = false;
+
+    @EnvName("POSTGRESQL_SHARED_CONNECTION_POOL_SIZE")
+    @JsonProperty
+    @ConnectionPoolProperty
+    @DashboardInfo(
+            description = "Defines the size of the shared physical connection pool. If not set, it will be the " +
+                    "largest postgresql_connection_pool_size among the storages that share the pool.",
+            defaultValue = "null", isOptional = true, isEditable = true)
+    private Integer postgresql_shared_connection_pool_size = null;
+
+    @EnvName("POSTGRESQL_PGBOUNCER_MODE")
+    @JsonProperty
+    @ConnectionPoolProperty
+    @DashboardInfo(
+            description = "Set this to true if the database is accessed through PgBouncer (or a similar pooler) in " +
+                    "transaction pooling mode. This disables server side prepared statements and any session level " +
+                    "state on connections, and sets the transaction isolation level per transaction instead.",
+            defaultValue = "false", isOptional = true, isEditable = true)
+    private boolean postgresql_pgbouncer_mode = false;
+
+    @EnvName("POSTGRESQL_ADAPTIVE_CONNECTION_POOL")
+    @JsonProperty
+    @ConnectionPoolProperty
+    @DashboardInfo(
+            description = "If true, the connection pool starts at postgresql_adaptive_connection_pool_min_size " +
+                    "connections and is resized at runtime, up to postgresql_connection_pool_size, based on how long " +
+                    "requests wait for a connection and on the number of connections open on the database. This " +
+                    "has no effect if postgresql_shared_connection_pool is enabled.",
+            defaultValue = "false", isOptional = true, isEditable = true)
+    private boolean postgresql_adaptive_connection_pool = false;
+
+    @EnvName("POSTGRESQL_ADAPTIVE_CONNECTION_POOL_MIN_SIZE")
+    @JsonProperty
+    @ConnectionPoolProperty
+    @DashboardInfo(
+            description = "The size below which an adaptive connection pool is never shrunk. If not set, it will be " +
+                    "postgresql_minimum_idle_connections, or 1 if that is not set either.",
+            defaultValue = "null", isOptional = true, isEditable = true)
+    private Integer postgresql_adaptive_connection_pool_min_size = null;
+
+    @EnvName("POSTGRESQL_TRANSACTION_RETRY_TIME_BUDGET")
+    @JsonProperty
+    @ConnectionPoolProperty
+    @DashboardInfo(
+            description = "Time in milliseconds within which a transaction that failed due to a deadlock, a " +
+                    "serialization failure or a lock timeout is retried. Once this is used up, the failure is " +
+                    "returned to the caller.",
+            defaultValue = "10000", isOptional = true, isEditable = true)
+    private long postgresql_transaction_retry_time_budget = 10000;
+
+    @EnvName("POSTGRESQL_QUERY_STATISTICS_ENABLED")
+    @JsonProperty
+    @ConnectionPoolProperty
+    @DashboardInfo(
+            description = "If true, the latency, the number of rows and the number of errors of every query are " +
+                    "recorded per query, and can be read from the storage's getQueryStatistics. This adds some CPU " +
+                    "time to every query.",
+            defaultValue = "false", isOptional = true, isEditable = true)
+    private boolean postgresql_query_statistics_enabled = false;
+
+    @EnvName("POSTGRESQL_SLOW_QUERY_THRESHOLD")
+    @JsonProperty
+    @ConnectionPoolProperty
+    @DashboardInfo(
+            description = "Time in milliseconds above which a query is logged as slow, with the shapes (but not the " +
+                    "values) of its parameters. If not set, slow queries are not logged.",
+            defaultValue = "null", isOptional = true, isEditable = true)
+    private Long postgresql_slow_query_threshold = null;
+
+    @EnvName("POSTGRESQL_SLOW_QUERY_EXPLAIN")
+    @JsonProperty
+    @ConnectionPoolProperty
+    @DashboardInfo(
+            description = "If true, the plan of a successful slow query (see postgresql_slow_query_threshold) is " +
+                    "captured with EXPLAIN, without running the query again, and logged with it.",
+            defaultValue = "false", isOptional = true, isEditable = true)
+    private boolean postgresql_slow_query_explain = false;
+
+    @EnvName("POSTGRESQL_SESSION_INFO_PARTITIONED")
+    @JsonProperty
+    @NotConflictingWithinUserPool
+    @DashboardInfo(
+            description = "If true, the session_info table is partitioned by month on expires_at, and expired " +
+                    "sessions are removed by dropping the partitions in which every session has expired. An " +
+                    "existing session_info table is migrated, without copying it, by the next run of the cron that " +
+                    "deletes expired sessions. Requires PostgreSQL 11 or later.",
+            defaultValue = "false", isOptional = true)
+    private boolean postgresql_session_info_partitioned = false;
+
+    @EnvName("POSTGRESQL_SESSION_INFO_HOT_UPDATES")
+    @JsonProperty
+    @NotConflictingWithinUserPool
+    @DashboardInfo(
+            description = "If true, the session_info table is laid out so that most session refreshes are HOT " +
+                    "updates, which do not write to the table's indexes: expires_at is not indexed, expired " +
+                    "sessions are found by the day in which they expire instead, and the table's pages are left " +
+                    "30% free. An existing session_info table is converted by the next run of the cron that " +
+                    "deletes expired sessions. Cannot be used with postgresql_session_info_partitioned.",
+            defaultValue = "false", isOptional = true)
+    private boolean postgresql_session_info_hot_updates = false;
+
+    @EnvName("POSTGRESQL_EXPIRY_SWEEP_BATCH_SIZE")
+    @JsonProperty
+    @ConnectionPoolProperty
+    @DashboardInfo(
+            description = "The number of expired rows (of sessions, tokens, codes and the like) that the crons " +
+                    "delete per statement.",
+            defaultValue = "1000", isOptional = true, isEditable = true)
+    private int postgresql_expiry_sweep_batch_size = 1000;
+
+    @EnvName("POSTGRESQL_EXPIRY_SWEEP_PAUSE")
+    @JsonProperty
+    @ConnectionPoolProperty
+    @DashboardInfo(
+            description = "Time in milliseconds that the crons wait between two statements that delete expired rows " +
+                    "(see postgresql_expiry_sweep_batch_size).",
+            defaultValue = "50", isOptional = true, isEditable = true)
+    private long postgresql_expiry_sweep_pause = 50;
+
+    @EnvName("POSTGRESQL_EXPIRY_SWEEP_MAX_RUNTIME")
+    @JsonProperty
+    @ConnectionPoolProperty
+    @DashboardInfo(
+            description = "Time in milliseconds after which a cron stops deleting the expired rows of a table. The " +
+                    "rest are deleted by its next run.",
+            defaultValue = "60000", isOptional = true, isEditable = true)
+    private long postgresql_expiry_sweep_max_runtime = 60000;
+
+    @EnvName("POSTGRESQL_SIGNING_KEY_CACHE_TTL")
+    @JsonProperty
+    @ConnectionPoolProperty
+    @DashboardInfo(
+            description = "Time in milliseconds for which the access token, JWT and refresh token signing keys of an " +
+                    "app are cached, so that reading them does not lock their rows. Changes to the keys are sent to " +
+                    "every core with LISTEN/NOTIFY, and this is the longest that a core keeps keys that it missed a " +
+                    "change to. If not set, the keys are not cached.",
+            defaultValue = "null", isOptional = true, isEditable = true)
+    private Long postgresql_signing_key_cache_ttl = null;
+
 
     @EnvName("SUPERTOKENS_MIGRATION_MODE")
     @JsonProperty
@@ -455,6 +635,94 @@ public class PostgreSQLConfig {
         return postgresql_minimum_idle_connections;
     }
 
+    public String getReadReplicaHosts() {
+        return postgresql_read_replica_hosts;
+    }
+
+    public boolean isReadReplicaEnabled() {
+        return postgresql_read_replica_hosts != null;
+    }
+
+    public int getReadReplicaConnectionPoolSize() {
+        if (postgresql_read_replica_connection_pool_size == null) {
+            return postgresql_connection_pool_size;
+        }
+        return postgresql_read_replica_connection_pool_size;
+    }
+
+    public long getReadReplicaMaxLag() {
+        return postgresql_read_replica_max_lag;
+    }
+
+    public boolean isSharedConnectionPoolEnabled() {
+        return postgresql_shared_connection_pool;
+    }
+
+    public boolean isAdaptiveConnectionPoolEnabled() {
+        return postgresql_adaptive_connection_pool;
+    }
+
+    public int getAdaptiveConnectionPoolMinSize() {
+        if (postgresql_adaptive_connection_pool_min_size != null) {
+            return postgresql_adaptive_connection_pool_min_size;
+        }
+        if (postgresql_minimum_idle_connections != null && postgresql_minimum_idle_connections > 0) {
+            return postgresql_minimum_idle_connections;
+        }
+        return 1;
+    }
+
+    public long getTransactionRetryTimeBudget() {
+        return postgresql_transaction_retry_time_budget;
+    }
+
+    public boolean isPgBouncerModeEnabled() {
+        return postgresql_pgbouncer_mode;
+    }
+
+    public boolean isQueryStatisticsEnabled() {
+        return postgresql_query_statistics_enabled;
+    }
+
+    public Long getSlowQueryThreshold() {
+        return postgresql_slow_query_threshold;
+    }
+
+    public boolean isSlowQueryExplainEnabled() {
+        return postgresql_slow_query_explain;
+    }
+
+    public boolean isSessionInfoPartitioned() {
+        return postgresql_session_info_partitioned;
+    }
+
+    public boolean isSessionInfoHotUpdatesEnabled() {
+        return postgresql_session_info_hot_updates;
+    }
+
+    public int getExpirySweepBatchSize() {
+        return postgresql_expiry_sweep_batch_size;
+    }
+
+    public long getExpirySweepPause() {
+        return postgresql_expiry_sweep_pause;
+    }
+
+    public long getExpirySweepMaxRuntime() {
+        return postgresql_expiry_sweep_max_runtime;
+    }
+
+    public Long getSigningKeyCacheTtl() {
+        return postgresql_signing_key_cache_ttl;
+    }
+
+    public int getSharedConnectionPoolSize() {
+        if (postgresql_shared_connection_pool_size == null) {
+            return postgresql_connection_pool_size;
+        }
+        return postgresql_shared_connection_pool_size;
+    }
+
 
     public String getThirdPartyUserToTenantTable() {
         return addSchemaAndPrefixToTableName("thirdparty_user_to_tenant");
@@ -633,6 +901,79 @@ public class PostgreSQLConfig {
                 }
             }
 
+            if (postgresql_read_replica_hosts != null) {
+                for (String host : postgresql_read_replica_hosts.split(",")) {
+                    if (host.trim().isEmpty()) {
+                        throw new InvalidConfigException(
+                                "'postgresql_read_replica_hosts' must be a comma separated list of non empty hosts");
+                    }
+                }
+            }
+
+            if (postgresql_read_replica_connection_pool_size != null &&
+                    postgresql_read_replica_connection_pool_size <= 0) {
+                throw new InvalidConfigException(
+                        "'postgresql_read_replica_connection_pool_size' in the config.yaml file must be > 0");
+            }
+
+            if (postgresql_read_replica_max_lag < 0) {
+                throw new InvalidConfigException("'postgresql_read_replica_max_lag' must be >= 0");
+            }
+
+            if (postgresql_adaptive_connection_pool_min_size != null) {
+                if (postgresql_adaptive_connection_pool_min_size <= 0) {
+                    throw new InvalidConfigException(
+                            "'postgresql_adaptive_connection_pool_min_size' must be > 0");
+                }
+
+                if (postgresql_adaptive_connection_pool_min_size > postgresql_connection_pool_size) {
+                    throw new InvalidConfigException(
+                            "'postgresql_adaptive_connection_pool_min_size' must be less than or equal to "
+                                    + "'postgresql_connection_pool_size'");
+                }
+            }
+
+            if (postgresql_transaction_retry_time_budget < 0) {
+                throw new InvalidConfigException("'postgresql_transaction_retry_time_budget' must be >= 0");
+            }
+
+            if (postgresql_slow_query_threshold != null && postgresql_slow_query_threshold < 0) {
+                throw new InvalidConfigException("'postgresql_slow_query_threshold' must be >= 0");
+            }
+
+            if (postgresql_session_info_hot_updates && postgresql_session_info_partitioned) {
+                throw new InvalidConfigException("'postgresql_session_info_hot_updates' cannot be used with "
+                        + "'postgresql_session_info_partitioned'");
+            }
+
+            if (postgresql_expiry_sweep_batch_size <= 0) {
+                throw new InvalidConfigException("'postgresql_expiry_sweep_batch_size' must be > 0");
+            }
+
+            if (postgresql_expiry_sweep_pause < 0) {
+                throw new InvalidConfigException("'postgresql_expiry_sweep_pause' must be >= 0");
+            }
+
+            if (postgresql_expiry_sweep_max_runtime <= 0) {
+                throw new InvalidConfigException("'postgresql_expiry_sweep_max_runtime' must be > 0");
+            }
+
+            if (postgresql_signing_key_cache_ttl != null && postgresql_signing_key_cache_ttl <= 0) {
+                throw new InvalidConfigException("'postgresql_signing_key_cache_ttl' must be > 0");
+            }
+
+            if (postgresql_shared_connection_pool_size != null && postgresql_shared_connection_pool_size <= 0) {
+                throw new InvalidConfigException(
+                        "'postgresql_shared_connection_pool_size' in the config.yaml file must be > 0");
+            }
+
+            // a shared pool sets each storage's search_path on the session, which behind PgBouncer belongs to
+            // whichever server backend runs the next transaction
+            if (postgresql_shared_connection_pool && postgresql_pgbouncer_mode) {
+                throw new InvalidConfigException("'postgresql_shared_connection_pool' cannot be used with "
+                        + "'postgresql_pgbouncer_mode'");
+            }
+
             if (migration_mode != null) {
                 try {
                     MigrationMode.valueOf(migration_mode.toUpperCase());
@@ -780,6 +1121,15 @@ public class PostgreSQLConfig {
             postgresql_database_name = postgresql_database_name.trim();
         }
 
+        { // postgresql_read_replica_hosts
+            if (postgresql_read_replica_hosts != null) {
+                postgresql_read_replica_hosts = postgresql_read_replica_hosts.replace(" ", "");
+                if (postgresql_read_replica_hosts.isEmpty()) {
+                    postgresql_read_replica_hosts = null;
+                }
+            }
+        }
+
         if (postgresql_key_value_table_name != null) {
             postgresql_key_value_table_name = addSchemaToTableName(postgresql_key_value_table_name);
         } else {
@@ -88,7 +88,7 @@ public class Logging extends ResourceDistributor.SingletonResource {
         return baos.toString();
     }
 
-    private static String getFormattedMessage(String msg, Exception e) {
+    static String getFormattedMessage(String msg, Exception e) {
         JsonObject msgObj = new JsonObject();
         msgObj.addProperty("message", msg);
 
@@ -34,6 +34,7 @@ import io.supertokens.pluginInterface.useridmapping.LockedUser;
 import io.supertokens.storage.postgresql.PreparedStatementValueSetter;
 import io.supertokens.storage.postgresql.Start;
 import io.supertokens.storage.postgresql.config.Config;
+import io.supertokens.storage.postgresql.config.PostgreSQLConfig;
 import io.supertokens.storage.postgresql.utils.Utils;
 import org.postgresql.util.PSQLException;
 import org.postgresql.util.ServerErrorMessage;
@@ -45,6 +46,7 @@ import java.util.List;
 
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.*;
 import static io.supertokens.storage.postgresql.config.Config.getConfig;
+import static io.supertokens.storage.postgresql.queries.QueryRegistry.getQuery;
 
 public class AccountInfoQueries {
 
@@ -386,10 +388,24 @@ public class AccountInfoQueries {
         }
     }
 
+    static String getConflictingPrimaryUserQuery(PostgreSQLConfig config) {
+        return "SELECT p.primary_user_id, p.account_info_type"
+                + " FROM " + config.getPrimaryUserTenantsTable() + " p"
+                + " INNER JOIN " + config.getRecipeUserTenantsTable() + " r"
+                + "   ON p.app_id = r.app_id"
+                + "   AND p.tenant_id = r.tenant_id"
+                + "   AND p.account_info_type = r.account_info_type"
+                + "   AND p.account_info_value = r.account_info_value"
+                + " WHERE r.app_id = ?"
+                + "   AND r.recipe_user_id = ?"
+                + "   AND p.primary_user_id != ?"
+                + " LIMIT 1";
+    }
+
     public static CanBecomePrimaryResult checkIfLoginMethodCanBecomePrimary(Start start, AppIdentifier appIdentifier, String recipeUserId)
             throws StorageQueryException, UnknownUserIdException {
         try {
-            return start.startTransaction(con -> {
+            return start.startReadOnlyTransaction(con -> {
                 Connection sqlCon = (Connection) con.getConnection();
                 
                 String QUERY = "SELECT primary_user_id FROM " + getConfig(start).getRecipeUserAccountInfosTable()
@@ -420,23 +436,9 @@ public class AccountInfoQueries {
                 }
 
                 // now we need to check if the user can become primary by checking if there are conflicting account info
-                // Get all tenant IDs and account info for this recipe user
-                String recipeUserTenantsTable = getConfig(start).getRecipeUserTenantsTable();
-                String primaryUserTenantsTable = getConfig(start).getPrimaryUserTenantsTable();
-                
                 // Query to find conflicts: check if any account info of this recipe user
                 // is already associated with a different primary_user_id in primary_user_tenants
-                String CONFLICT_QUERY = "SELECT p.primary_user_id, p.account_info_type"
-                        + " FROM " + primaryUserTenantsTable + " p"
-                        + " INNER JOIN " + recipeUserTenantsTable + " r"
-                        + "   ON p.app_id = r.app_id"
-                        + "   AND p.tenant_id = r.tenant_id"
-                        + "   AND p.account_info_type = r.account_info_type"
-                        + "   AND p.account_info_value = r.account_info_value"
-                        + " WHERE r.app_id = ?"
-                        + "   AND r.recipe_user_id = ?"
-                        + "   AND p.primary_user_id != ?"
-                        + " LIMIT 1";
+                String CONFLICT_QUERY = getQuery(start, QueryId.ACCOUNT_INFO_GET_CONFLICTING_PRIMARY_USER);
                 
                 String[] conflict = execute(sqlCon, CONFLICT_QUERY, pst -> {
                     pst.setString(1, appIdentifier.getAppId());
@@ -488,7 +490,7 @@ public class AccountInfoQueries {
             throws StorageQueryException, UnknownUserIdException {
         try {
 
-            return start.startTransaction(con -> {
+            return start.startReadOnlyTransaction(con -> {
 
                 String primaryUserId;
 
@@ -1427,18 +1429,22 @@ public class AccountInfoQueries {
      * Find all primary_or_recipe_user_ids that have a matching email in the given tenant.
      * Replaces 4 separate per-recipe queries (emailpassword, passwordless, thirdparty, webauthn).
      */
-    public static List<String> listPrimaryUserIdsByEmail(Start start, TenantIdentifier tenantIdentifier,
-                                                          String email)
-            throws SQLException, StorageQueryException {
-        String QUERY = "SELECT DISTINCT auid.primary_or_recipe_user_id"
-                + " FROM " + getConfig(start).getRecipeUserTenantsTable() + " rut"
-                + " JOIN " + getConfig(start).getAppIdToUserIdTable() + " auid"
+    static String listPrimaryUserIdsByEmailQuery(PostgreSQLConfig config) {
+        return "SELECT DISTINCT auid.primary_or_recipe_user_id"
+                + " FROM " + config.getRecipeUserTenantsTable() + " rut"
+                + " JOIN " + config.getAppIdToUserIdTable() + " auid"
                 + " ON rut.app_id = auid.app_id AND rut.recipe_user_id = auid.user_id"
                 + " WHERE rut.app_id = ? AND rut.tenant_id = ?"
                 + " AND rut.account_info_type = ?"
                 + " AND rut.account_info_value = ?";
+    }
 
-        return execute(start, QUERY, pst -> {
+    public static List<String> listPrimaryUserIdsByEmail(Start start, TenantIdentifier tenantIdentifier,
+                                                          String email)
+            throws SQLException, StorageQueryException {
+        String QUERY = getQuery(start, QueryId.ACCOUNT_INFO_LIST_PRIMARY_USER_IDS_BY_EMAIL);
+
+        return executeRead(start, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
             pst.setString(2, tenantIdentifier.getTenantId());
             pst.setString(3, ACCOUNT_INFO_TYPE.EMAIL.toString());
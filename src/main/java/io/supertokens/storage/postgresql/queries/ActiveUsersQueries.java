@@ -141,14 +141,12 @@ public class ActiveUsersQueries {
             return new HashMap<>();
         }
         String QUERY = "SELECT user_id, last_active_time FROM " + Config.getConfig(start).getUserLastActiveTable()
-                + " WHERE app_id = ? AND user_id IN ( " + Utils.generateCommaSeperatedQuestionMarks(userIds.size())+ " )";
+                + " WHERE app_id = ? AND user_id = ANY(?)";
 
         try {
             return execute(start, QUERY, pst -> {
                 pst.setString(1, appIdentifier.getAppId());
-                for (int i = 0; i < userIds.size(); i++) {
-                    pst.setString(2+i, userIds.get(i));
-                }
+                Utils.setStringArray(pst, 2, userIds);
             }, res -> {
                 Map<String, Long> lastActiveByUserIds = new HashMap<>();
                 if (res.next()) {
@@ -16,7 +16,6 @@
 
 package io.supertokens.storage.postgresql.queries;
 
-import io.supertokens.pluginInterface.RowMapper;
 import io.supertokens.pluginInterface.bulkimport.BulkImportStorage.BULK_IMPORT_USER_STATUS;
 import io.supertokens.pluginInterface.bulkimport.BulkImportUser;
 import io.supertokens.pluginInterface.exceptions.StorageQueryException;
@@ -33,6 +32,7 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -94,7 +94,7 @@ public class BulkImportQueries {
             });
         }
 
-        executeBatch(connection, queryBuilder, valueSetters);
+        executeCopy(connection, queryBuilder, valueSetters);
     }
 
     public static void updateBulkImportUserStatus_Transaction(Start start, Connection con, AppIdentifier appIdentifier,
@@ -150,7 +150,8 @@ public class BulkImportQueries {
 
         // FOR UPDATE SKIP LOCKED: concurrent cron jobs on the same database atomically claim
         // disjoint row sets — no two workers can lock the same row simultaneously.
-        String selectQuery = "SELECT * FROM " + Config.getConfig(start).getBulkImportUsersTable()
+        String selectQuery = "SELECT " + BulkImportUserRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getBulkImportUsersTable()
                 + " WHERE app_id = ?"
                 + " AND (status = 'NEW' OR status = 'PROCESSING' )"
                 + " LIMIT ? FOR UPDATE SKIP LOCKED";
@@ -194,7 +195,8 @@ public class BulkImportQueries {
             @Nullable String bulkImportUserId, @Nullable Long createdAt)
             throws SQLException, StorageQueryException {
 
-        String baseQuery = "SELECT * FROM " + Config.getConfig(start).getBulkImportUsersTable();
+        String baseQuery = "SELECT " + BulkImportUserRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getBulkImportUsersTable();
 
         StringBuilder queryBuilder = new StringBuilder(baseQuery);
         List<Object> parameters = new ArrayList<>();
@@ -220,17 +222,16 @@ public class BulkImportQueries {
 
         String query = queryBuilder.toString();
 
-        return execute(start, query, pst -> {
+        // the raw data of each user can be large, so the rows are streamed instead of being buffered by the driver
+        List<BulkImportUser> bulkImportUsers = new ArrayList<>();
+        executeStreaming(start, query, pst -> {
             for (int i = 0; i < parameters.size(); i++) {
                 pst.setObject(i + 1, parameters.get(i));
             }
-        }, result -> {
-            List<BulkImportUser> bulkImportUsers = new ArrayList<>();
-            while (result.next()) {
-                bulkImportUsers.add(BulkImportUserRowMapper.getInstance().mapOrThrow(result));
-            }
-            return bulkImportUsers;
+        }, STREAMING_FETCH_SIZE, result -> {
+            bulkImportUsers.add(BulkImportUserRowMapper.getInstance().mapOrThrow(result));
         });
+        return bulkImportUsers;
     }
 
     public static List<String> deleteBulkImportUsers(Start start, AppIdentifier appIdentifier,
@@ -253,27 +254,12 @@ public class BulkImportQueries {
     private static List<String> deleteBulkImportUsers(Start start, AppIdentifier appIdentifier,
                                                       @Nonnull String[] bulkImportUserIds, Connection sqlCon)
             throws SQLException, StorageQueryException {
-        StringBuilder queryBuilder = new StringBuilder(
-                "DELETE FROM " + Config.getConfig(start).getBulkImportUsersTable());
+        String query = "DELETE FROM " + Config.getConfig(start).getBulkImportUsersTable()
+                + " WHERE app_id = ? AND id = ANY(?) RETURNING id";
 
-        List<Object> parameters = new ArrayList<>();
-        queryBuilder.append(" WHERE app_id = ?");
-        parameters.add(appIdentifier.getAppId());
-        queryBuilder.append(" AND id IN (");
-        for (int i = 0; i < bulkImportUserIds.length; i++) {
-            if (i != 0) {
-                queryBuilder.append(", ");
-            }
-            queryBuilder.append("?");
-            parameters.add(bulkImportUserIds[i]);
-        }
-        queryBuilder.append(") RETURNING id");
-
-        String query = queryBuilder.toString();
         PreparedStatementValueSetter setter = pst -> {
-            for (int i = 0; i < parameters.size(); i++) {
-                pst.setObject(i + 1, parameters.get(i));
-            }
+            pst.setString(1, appIdentifier.getAppId());
+            Utils.setStringArray(pst, 2, Arrays.asList(bulkImportUserIds));
         };
         ResultSetValueExtractor<List<String>> mapper = result -> {
             List<String> deletedIds = new ArrayList<>();
@@ -329,22 +315,31 @@ public class BulkImportQueries {
         });
     }
 
-    private static class BulkImportUserRowMapper implements RowMapper<BulkImportUser, ResultSet> {
+    static class BulkImportUserRowMapper extends ColumnOrdinalRowMapper<BulkImportUser> {
         private static final BulkImportUserRowMapper INSTANCE = new BulkImportUserRowMapper();
 
+        private final int id = ordinal("id");
+        private final int rawData = ordinal("raw_data");
+        private final int status = ordinal("status");
+        private final int primaryUserId = ordinal("primary_user_id");
+        private final int errorMsg = ordinal("error_msg");
+        private final int createdAt = ordinal("created_at");
+        private final int updatedAt = ordinal("updated_at");
+
         private BulkImportUserRowMapper() {
+            super("id", "raw_data", "status", "primary_user_id", "error_msg", "created_at", "updated_at");
         }
 
-        private static BulkImportUserRowMapper getInstance() {
+        static BulkImportUserRowMapper getInstance() {
             return INSTANCE;
         }
 
         @Override
         public BulkImportUser map(ResultSet result) throws Exception {
-            return BulkImportUser.fromRawDataFromDbStorage(result.getString("id"), result.getString("raw_data"),
-                    BULK_IMPORT_USER_STATUS.valueOf(result.getString("status")),
-                    result.getString("primary_user_id"), result.getString("error_msg"), result.getLong("created_at"),
-                    result.getLong("updated_at"));
+            return BulkImportUser.fromRawDataFromDbStorage(result.getString(id), result.getString(rawData),
+                    BULK_IMPORT_USER_STATUS.valueOf(result.getString(status)),
+                    result.getString(primaryUserId), result.getString(errorMsg), result.getLong(createdAt),
+                    result.getLong(updatedAt));
         }
     }
 }
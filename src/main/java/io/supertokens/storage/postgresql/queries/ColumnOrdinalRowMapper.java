@@ -0,0 +1,72 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ */
+
+package io.supertokens.storage.postgresql.queries;
+
+import io.supertokens.pluginInterface.RowMapper;
+
+import java.sql.ResultSet;
+
+/**
+ * A RowMapper that reads its columns by position instead of by name. The mapper declares the columns it reads, and
+ * the queries it maps select exactly those first, in that order, using {@link #columns()} (or
+ * {@link #columns(String)} if the table has an alias). Any other columns of the row follow from
+ * {@link #nextColumn()} on.
+ * <p>
+ * Reading a column by name makes the driver build a name to position map for every result set, and lower case the
+ * name on a miss. The positions here are resolved once, when the mapper is created.
+ */
+public abstract class ColumnOrdinalRowMapper<T> implements RowMapper<T, ResultSet> {
+
+    private final String[] columns;
+    private final String columnList;
+
+    protected ColumnOrdinalRowMapper(String... columns) {
+        this.columns = columns;
+        this.columnList = String.join(", ", columns);
+    }
+
+    /**
+     * The position of the column in the rows of this mapper, for the subclass to keep in a field.
+     */
+    protected final int ordinal(String column) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].equals(column)) {
+                return i + 1;
+            }
+        }
+        throw new IllegalArgumentException(column + " is not a column of " + getClass().getSimpleName());
+    }
+
+    public final String columns() {
+        return columnList;
+    }
+
+    public final String columns(String tableAlias) {
+        StringBuilder columnList = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                columnList.append(", ");
+            }
+            columnList.append(tableAlias).append('.').append(columns[i]);
+        }
+        return columnList.toString();
+    }
+
+    protected final int nextColumn() {
+        return columns.length + 1;
+    }
+}
@@ -22,11 +22,11 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
-import io.supertokens.pluginInterface.RowMapper;
 import io.supertokens.pluginInterface.dashboard.DashboardSessionInfo;
 import io.supertokens.pluginInterface.dashboard.DashboardUser;
 import io.supertokens.pluginInterface.exceptions.StorageQueryException;
 import io.supertokens.pluginInterface.multitenancy.AppIdentifier;
+import io.supertokens.storage.postgresql.ExpirySweeper;
 import io.supertokens.storage.postgresql.QueryExecutorTemplate;
 import io.supertokens.storage.postgresql.ResultSetValueExtractor;
 import io.supertokens.storage.postgresql.Start;
@@ -121,7 +121,7 @@ public class DashboardQueries {
 
     public static DashboardUser[] getAllDashBoardUsers(Start start, AppIdentifier appIdentifier)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM "
+        String QUERY = "SELECT " + DashboardInfoMapper.getInstance().columns() + " FROM "
                 + Config.getConfig(start).getDashboardUsersTable() + " WHERE app_id = ? ORDER BY time_joined ASC";
         return QueryExecutorTemplate.execute(start, QUERY,
                 pst -> pst.setString(1, appIdentifier.getAppId()),
@@ -130,7 +130,7 @@ public class DashboardQueries {
 
     public static DashboardUser getDashboardUserByUserId(Start start, AppIdentifier appIdentifier, String userId)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM "
+        String QUERY = "SELECT " + DashboardInfoMapper.getInstance().columns() + " FROM "
                 + Config.getConfig(start).getDashboardUsersTable() + " WHERE app_id = ? AND user_id = ?";
         return QueryExecutorTemplate.execute(start, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
@@ -190,7 +190,7 @@ public class DashboardQueries {
     public static DashboardSessionInfo getSessionInfoWithSessionId(Start start, AppIdentifier appIdentifier,
                                                                    String sessionId)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM "
+        String QUERY = "SELECT " + DashboardSessionInfoMapper.getInstance().columns() + " FROM "
                 + Config.getConfig(start).getDashboardSessionsTable() + " WHERE app_id = ? AND session_id = ?";
         return QueryExecutorTemplate.execute(start, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
@@ -206,7 +206,7 @@ public class DashboardQueries {
     public static DashboardSessionInfo[] getAllSessionsForUserId(Start start, AppIdentifier appIdentifier,
                                                                  String userId)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM "
+        String QUERY = "SELECT " + DashboardSessionInfoMapper.getInstance().columns() + " FROM "
                 + Config.getConfig(start).getDashboardSessionsTable() + " WHERE app_id = ? AND user_id = ?";
         return QueryExecutorTemplate.execute(start, QUERY, pst -> {
                     pst.setString(1, appIdentifier.getAppId());
@@ -217,15 +217,13 @@ public class DashboardQueries {
 
     public static void deleteExpiredSessions(Start start) throws SQLException, StorageQueryException {
         long currentTimeMillis = System.currentTimeMillis();
-        String QUERY = "DELETE FROM " + Config.getConfig(start).getDashboardSessionsTable()
-                + " WHERE expiry < ?";
-        // store the number of rows updated
-        QueryExecutorTemplate.update(start, QUERY, pst -> pst.setLong(1, currentTimeMillis));
+        ExpirySweeper.sweep(start, Config.getConfig(start).getDashboardSessionsTable(), "expiry < ?",
+                pst -> pst.setLong(1, currentTimeMillis));
     }
 
     public static DashboardUser getDashboardUserByEmail(Start start, AppIdentifier appIdentifier, String email)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM "
+        String QUERY = "SELECT " + DashboardInfoMapper.getInstance().columns() + " FROM "
                 + Config.getConfig(start).getDashboardUsersTable() + " WHERE app_id = ? AND email = ?";
         return QueryExecutorTemplate.execute(start, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
@@ -252,10 +250,16 @@ public class DashboardQueries {
         return rowUpdatedCount > 0;
     }
 
-    private static class DashboardInfoMapper implements RowMapper<DashboardUser, ResultSet> {
+    private static class DashboardInfoMapper extends ColumnOrdinalRowMapper<DashboardUser> {
         private static final DashboardInfoMapper INSTANCE = new DashboardInfoMapper();
 
+        private final int userId = ordinal("user_id");
+        private final int email = ordinal("email");
+        private final int passwordHash = ordinal("password_hash");
+        private final int timeJoined = ordinal("time_joined");
+
         private DashboardInfoMapper() {
+            super("user_id", "email", "password_hash", "time_joined");
         }
 
         private static DashboardInfoMapper getInstance() {
@@ -265,8 +269,8 @@ public class DashboardQueries {
         @Override
         public DashboardUser map(ResultSet rs) throws Exception {
 
-            return new DashboardUser(rs.getString("user_id"), rs.getString("email"), rs.getString("password_hash"),
-                    rs.getLong("time_joined"));
+            return new DashboardUser(rs.getString(userId), rs.getString(email), rs.getString(passwordHash),
+                    rs.getLong(timeJoined));
         }
     }
 
@@ -281,10 +285,16 @@ public class DashboardQueries {
         }
     }
 
-    private static class DashboardSessionInfoMapper implements RowMapper<DashboardSessionInfo, ResultSet> {
+    private static class DashboardSessionInfoMapper extends ColumnOrdinalRowMapper<DashboardSessionInfo> {
         private static final DashboardSessionInfoMapper INSTANCE = new DashboardSessionInfoMapper();
 
+        private final int userId = ordinal("user_id");
+        private final int sessionId = ordinal("session_id");
+        private final int timeCreated = ordinal("time_created");
+        private final int expiry = ordinal("expiry");
+
         private DashboardSessionInfoMapper() {
+            super("user_id", "session_id", "time_created", "expiry");
         }
 
         private static DashboardSessionInfoMapper getInstance() {
@@ -293,8 +303,8 @@ public class DashboardQueries {
 
         @Override
         public DashboardSessionInfo map(ResultSet rs) throws Exception {
-            return new DashboardSessionInfo(rs.getString("user_id"), rs.getString("session_id"),
-                    rs.getLong("time_created"), rs.getLong("expiry"));
+            return new DashboardSessionInfo(rs.getString(userId), rs.getString(sessionId),
+                    rs.getLong(timeCreated), rs.getLong(expiry));
         }
     }
 
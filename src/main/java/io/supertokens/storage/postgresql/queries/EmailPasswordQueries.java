@@ -31,7 +31,6 @@ import java.util.stream.Collectors;
 
 import static io.supertokens.pluginInterface.RECIPE_ID.EMAIL_PASSWORD;
 import io.supertokens.pluginInterface.MigrationMode;
-import io.supertokens.pluginInterface.RowMapper;
 import io.supertokens.pluginInterface.authRecipe.ACCOUNT_INFO_TYPE;
 import io.supertokens.pluginInterface.authRecipe.AuthRecipeUserInfo;
 import io.supertokens.pluginInterface.authRecipe.LoginMethod;
@@ -42,9 +41,11 @@ import io.supertokens.pluginInterface.exceptions.StorageQueryException;
 import io.supertokens.pluginInterface.exceptions.StorageTransactionLogicException;
 import io.supertokens.pluginInterface.multitenancy.AppIdentifier;
 import io.supertokens.pluginInterface.multitenancy.TenantIdentifier;
+import io.supertokens.storage.postgresql.ExpirySweeper;
 import io.supertokens.storage.postgresql.PreparedStatementValueSetter;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.executeBatch;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.executeCopy;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.update;
 import io.supertokens.storage.postgresql.Start;
 import io.supertokens.storage.postgresql.config.Config;
@@ -136,9 +137,9 @@ public class EmailPasswordQueries {
     }
 
     public static void deleteExpiredPasswordResetTokens(Start start) throws SQLException, StorageQueryException {
-        String QUERY = "DELETE FROM " + getConfig(start).getPasswordResetTokensTable() + " WHERE token_expiry < ?";
-
-        update(start, QUERY, pst -> pst.setLong(1, currentTimeMillis()));
+        long now = currentTimeMillis();
+        ExpirySweeper.sweep(start, getConfig(start).getPasswordResetTokensTable(), "token_expiry < ?",
+                pst -> pst.setLong(1, now));
     }
 
     public static void updateUsersPassword_Transaction(Start start, Connection con, AppIdentifier appIdentifier,
@@ -198,7 +199,8 @@ public class EmailPasswordQueries {
                                                                                String userId)
             throws StorageQueryException, SQLException {
         String QUERY =
-                "SELECT user_id, token, token_expiry, email FROM " + getConfig(start).getPasswordResetTokensTable()
+                "SELECT " + PasswordResetRowMapper.getInstance().columns() + " FROM "
+                        + getConfig(start).getPasswordResetTokensTable()
                         + " WHERE app_id = ? AND user_id = ?";
 
         return execute(start, QUERY, pst -> {
@@ -223,7 +225,8 @@ public class EmailPasswordQueries {
             throws SQLException, StorageQueryException {
 
         String QUERY =
-                "SELECT user_id, token, token_expiry, email FROM " + getConfig(start).getPasswordResetTokensTable()
+                "SELECT " + PasswordResetRowMapper.getInstance().columns() + " FROM "
+                        + getConfig(start).getPasswordResetTokensTable()
                         + " WHERE app_id = ? AND user_id = ? FOR UPDATE";
 
         return execute(con, QUERY, pst -> {
@@ -246,7 +249,8 @@ public class EmailPasswordQueries {
                                                                    String token)
             throws SQLException, StorageQueryException {
         String QUERY =
-                "SELECT user_id, token, token_expiry, email FROM " + getConfig(start).getPasswordResetTokensTable()
+                "SELECT " + PasswordResetRowMapper.getInstance().columns() + " FROM "
+                        + getConfig(start).getPasswordResetTokensTable()
                         + " WHERE app_id = ? AND token = ?";
         return execute(start, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
@@ -460,17 +464,17 @@ public class EmailPasswordQueries {
             }
 
             if (mode.writesToNewTables()) {
-                executeBatch(sqlCon, AccountInfoQueries.getRecipeUserAccountInfoBatchQuery(start), recipeUserAccountInfoBatch);
-                executeBatch(sqlCon, AccountInfoQueries.getRecipeUserTenantBatchQuery(start), recipeUserTenantsBatch);
+                executeCopy(sqlCon, AccountInfoQueries.getRecipeUserAccountInfoBatchQuery(start), recipeUserAccountInfoBatch);
+                executeCopy(sqlCon, AccountInfoQueries.getRecipeUserTenantBatchQuery(start), recipeUserTenantsBatch);
             }
 
-            executeBatch(sqlCon, app_id_to_user_id_QUERY, appIdToUserIdSetters);
+            executeCopy(sqlCon, app_id_to_user_id_QUERY, appIdToUserIdSetters);
             if (mode.writesToOldTables()) {
-                executeBatch(sqlCon, all_auth_recipe_users_QUERY, allAuthRecipeUsersSetters);
+                executeCopy(sqlCon, all_auth_recipe_users_QUERY, allAuthRecipeUsersSetters);
             }
-            executeBatch(sqlCon, emailpassword_users_QUERY, emailPasswordUsersSetters);
+            executeCopy(sqlCon, emailpassword_users_QUERY, emailPasswordUsersSetters);
             if (mode.writesToOldTables()) {
-                executeBatch(sqlCon, emailpassword_users_to_tenant_QUERY, emailPasswordUsersToTenantSetters);
+                executeCopy(sqlCon, emailpassword_users_to_tenant_QUERY, emailPasswordUsersToTenantSetters);
             }
             sqlCon.commit();
         } catch (SQLException throwables) {
@@ -528,7 +532,7 @@ public class EmailPasswordQueries {
             throws SQLException, StorageQueryException {
         // we don't need a FOR UPDATE here because this is already part of a transaction, and locked on
         // app_id_to_user_id table
-        String QUERY = "SELECT user_id, email, password_hash, time_joined FROM "
+        String QUERY = "SELECT " + UserInfoRowMapper.getInstance().columns() + " FROM "
                 + getConfig(start).getEmailPasswordUsersTable() + " WHERE app_id = ? AND user_id = ?";
 
         return execute(sqlCon, QUERY, pst -> {
@@ -547,18 +551,13 @@ public class EmailPasswordQueries {
             throws SQLException, StorageQueryException {
         if (ids.size() > 0) {
             // No need to filter based on tenantId because the id list is already filtered for a tenant
-            String QUERY = "SELECT user_id, email,  password_hash, time_joined "
-                    + "FROM " + getConfig(start).getEmailPasswordUsersTable()
-                    + " WHERE user_id IN (" + Utils.generateCommaSeperatedQuestionMarks(ids.size()) +
-                    " ) AND app_id = ?";
+            String QUERY = "SELECT " + UserInfoRowMapper.getInstance().columns()
+                    + " FROM " + getConfig(start).getEmailPasswordUsersTable()
+                    + " WHERE user_id = ANY(?) AND app_id = ?";
 
             List<UserInfoPartial> userInfos = execute(start, QUERY, pst -> {
-                int index = 1;
-                for (String id : ids) {
-                    pst.setString(index, id);
-                    index++;
-                }
-                pst.setString(index, appIdentifier.getAppId());
+                Utils.setStringArray(pst, 1, ids);
+                pst.setString(2, appIdentifier.getAppId());
             }, result -> {
                 List<UserInfoPartial> finalResult = new ArrayList<>();
                 while (result.next()) {
@@ -579,18 +578,13 @@ public class EmailPasswordQueries {
             throws SQLException, StorageQueryException {
         if (ids.size() > 0) {
             // No need to filter based on tenantId because the id list is already filtered for a tenant
-            String QUERY = "SELECT user_id, email,  password_hash, time_joined "
-                    + "FROM " + getConfig(start).getEmailPasswordUsersTable()
-                    + " WHERE user_id IN (" + Utils.generateCommaSeperatedQuestionMarks(ids.size()) +
-                    " ) AND app_id = ?";
+            String QUERY = "SELECT " + UserInfoRowMapper.getInstance().columns()
+                    + " FROM " + getConfig(start).getEmailPasswordUsersTable()
+                    + " WHERE user_id = ANY(?) AND app_id = ?";
 
             List<UserInfoPartial> userInfos = execute(con, QUERY, pst -> {
-                int index = 1;
-                for (String id : ids) {
-                    pst.setString(index, id);
-                    index++;
-                }
-                pst.setString(index, appIdentifier.getAppId());
+                Utils.setStringArray(pst, 1, ids);
+                pst.setString(2, appIdentifier.getAppId());
             }, result -> {
                 List<UserInfoPartial> finalResult = new ArrayList<>();
                 while (result.next()) {
@@ -892,10 +886,16 @@ public class EmailPasswordQueries {
         }
     }
 
-    private static class PasswordResetRowMapper implements RowMapper<PasswordResetTokenInfo, ResultSet> {
+    private static class PasswordResetRowMapper extends ColumnOrdinalRowMapper<PasswordResetTokenInfo> {
         public static final PasswordResetRowMapper INSTANCE = new PasswordResetRowMapper();
 
+        private final int userId = ordinal("user_id");
+        private final int token = ordinal("token");
+        private final int tokenExpiry = ordinal("token_expiry");
+        private final int email = ordinal("email");
+
         private PasswordResetRowMapper() {
+            super("user_id", "token", "token_expiry", "email");
         }
 
         private static PasswordResetRowMapper getInstance() {
@@ -905,18 +905,24 @@ public class EmailPasswordQueries {
         @Override
         public PasswordResetTokenInfo map(ResultSet result) throws StorageQueryException {
             try {
-                return new PasswordResetTokenInfo(result.getString("user_id"), result.getString("token"),
-                        result.getLong("token_expiry"), result.getString("email"));
+                return new PasswordResetTokenInfo(result.getString(userId), result.getString(token),
+                        result.getLong(tokenExpiry), result.getString(email));
             } catch (Exception e) {
                 throw new StorageQueryException(e);
             }
         }
     }
 
-    private static class UserInfoRowMapper implements RowMapper<UserInfoPartial, ResultSet> {
+    private static class UserInfoRowMapper extends ColumnOrdinalRowMapper<UserInfoPartial> {
         static final UserInfoRowMapper INSTANCE = new UserInfoRowMapper();
 
+        private final int userId = ordinal("user_id");
+        private final int email = ordinal("email");
+        private final int passwordHash = ordinal("password_hash");
+        private final int timeJoined = ordinal("time_joined");
+
         private UserInfoRowMapper() {
+            super("user_id", "email", "password_hash", "time_joined");
         }
 
         private static UserInfoRowMapper getInstance() {
@@ -924,9 +930,9 @@ public class EmailPasswordQueries {
         }
 
         @Override
-        public UserInfoPartial map(ResultSet result) throws Exception {
-            return new UserInfoPartial(result.getString("user_id"), result.getString("email"),
-                    result.getString("password_hash"), result.getLong("time_joined"));
+        public UserInfoPartial map(ResultSet result) throws SQLException {
+            return new UserInfoPartial(result.getString(userId), result.getString(email),
+                    result.getString(passwordHash), result.getLong(timeJoined));
         }
     }
 }
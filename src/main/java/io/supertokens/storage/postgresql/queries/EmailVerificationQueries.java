@@ -16,13 +16,13 @@
 
 package io.supertokens.storage.postgresql.queries;
 
-import io.supertokens.pluginInterface.RowMapper;
 import io.supertokens.pluginInterface.emailverification.EmailVerificationTokenInfo;
 import io.supertokens.pluginInterface.exceptions.StorageQueryException;
 import io.supertokens.pluginInterface.exceptions.StorageTransactionLogicException;
 import io.supertokens.pluginInterface.multitenancy.AppIdentifier;
 import io.supertokens.pluginInterface.multitenancy.TenantIdentifier;
 import io.supertokens.pluginInterface.sqlStorage.TransactionConnection;
+import io.supertokens.storage.postgresql.ExpirySweeper;
 import io.supertokens.storage.postgresql.PreparedStatementValueSetter;
 import io.supertokens.storage.postgresql.Start;
 import io.supertokens.storage.postgresql.config.Config;
@@ -98,9 +98,9 @@ public class EmailVerificationQueries {
     }
 
     public static void deleteExpiredEmailVerificationTokens(Start start) throws SQLException, StorageQueryException {
-        String QUERY = "DELETE FROM " + getConfig(start).getEmailVerificationTokensTable() + " WHERE token_expiry < ?";
-
-        update(start, QUERY, pst -> pst.setLong(1, currentTimeMillis()));
+        long now = currentTimeMillis();
+        ExpirySweeper.sweep(start, getConfig(start).getEmailVerificationTokensTable(), "token_expiry < ?",
+                pst -> pst.setLong(1, now));
     }
 
     public static void updateUsersIsEmailVerified_Transaction(Start start, Connection con, AppIdentifier appIdentifier,
@@ -175,7 +175,7 @@ public class EmailVerificationQueries {
                                                                            TenantIdentifier tenantIdentifier,
                                                                            String token)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT user_id, token, token_expiry, email FROM "
+        String QUERY = "SELECT " + EmailVerificationTokenInfoRowMapper.getInstance().columns() + " FROM "
                 + getConfig(start).getEmailVerificationTokensTable()
                 + " WHERE app_id = ? AND tenant_id = ? AND token = ?";
         return execute(start, QUERY, pst -> {
@@ -213,7 +213,7 @@ public class EmailVerificationQueries {
                                                                                                    String email)
             throws SQLException, StorageQueryException {
 
-        String QUERY = "SELECT user_id, token, token_expiry, email FROM "
+        String QUERY = "SELECT " + EmailVerificationTokenInfoRowMapper.getInstance().columns() + " FROM "
                 + getConfig(start).getEmailVerificationTokensTable() +
                 " WHERE app_id = ? AND tenant_id = ? AND user_id = ? AND email = ? FOR UPDATE";
 
@@ -240,7 +240,7 @@ public class EmailVerificationQueries {
                                                                                        String userId,
                                                                                        String email)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT user_id, token, token_expiry, email FROM "
+        String QUERY = "SELECT " + EmailVerificationTokenInfoRowMapper.getInstance().columns() + " FROM "
                 + getConfig(start).getEmailVerificationTokensTable() +
                 " WHERE app_id = ? AND tenant_id = ? AND user_id = ? AND email = ?";
 
@@ -264,7 +264,7 @@ public class EmailVerificationQueries {
 
     public static boolean isEmailVerified(Start start, AppIdentifier appIdentifier, String userId, String email)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM " + getConfig(start).getEmailVerificationTable()
+        String QUERY = "SELECT 1 FROM " + getConfig(start).getEmailVerificationTable()
                 + " WHERE app_id = ? AND user_id = ? AND email = ?";
 
         return execute(start, QUERY, pst -> {
@@ -330,20 +330,13 @@ public class EmailVerificationQueries {
             supertokensOrExternalUserIdToEmailMap.put(supertokensOrExternalUserId, ue.email);
         }
 
-        String QUERY = "SELECT * FROM " + getConfig(start).getEmailVerificationTable()
-                + " WHERE app_id = ? AND user_id IN (" +
-                Utils.generateCommaSeperatedQuestionMarks(supertokensOrExternalUserIdsToQuery.size()) +
-                ") AND email IN (" + Utils.generateCommaSeperatedQuestionMarks(emails.size()) + ")";
+        String QUERY = "SELECT user_id, email FROM " + getConfig(start).getEmailVerificationTable()
+                + " WHERE app_id = ? AND user_id = ANY(?) AND email = ANY(?)";
 
         return execute(sqlCon, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
-            int index = 2;
-            for (String userId : supertokensOrExternalUserIdsToQuery) {
-                pst.setString(index++, userId);
-            }
-            for (String email : emails) {
-                pst.setString(index++, email);
-            }
+            Utils.setStringArray(pst, 2, supertokensOrExternalUserIdsToQuery);
+            Utils.setStringArray(pst, 3, emails);
         }, result -> {
             List<String> res = new ArrayList<>();
             while (result.next()) {
@@ -399,19 +392,12 @@ public class EmailVerificationQueries {
             }
             supertokensOrExternalUserIdToEmailMap.put(supertokensOrExternalUserId, ue.email);
         }
-        String QUERY = "SELECT * FROM " + getConfig(start).getEmailVerificationTable()
-                + " WHERE app_id = ? AND user_id IN (" +
-                Utils.generateCommaSeperatedQuestionMarks(supertokensOrExternalUserIdsToQuery.size()) +
-                ") AND email IN (" + Utils.generateCommaSeperatedQuestionMarks(emails.size()) + ")";
+        String QUERY = "SELECT user_id, email FROM " + getConfig(start).getEmailVerificationTable()
+                + " WHERE app_id = ? AND user_id = ANY(?) AND email = ANY(?)";
         return execute(start, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
-            int index = 2;
-            for (String userId : supertokensOrExternalUserIdsToQuery) {
-                pst.setString(index++, userId);
-            }
-            for (String email : emails) {
-                pst.setString(index++, email);
-            }
+            Utils.setStringArray(pst, 2, supertokensOrExternalUserIdsToQuery);
+            Utils.setStringArray(pst, 3, emails);
         }, result -> {
             List<String> res = new ArrayList<>();
             while (result.next()) {
@@ -489,8 +475,8 @@ public class EmailVerificationQueries {
     public static boolean isUserIdBeingUsedForEmailVerification(Start start, AppIdentifier appIdentifier, String userId)
             throws SQLException, StorageQueryException {
         {
-            String QUERY = "SELECT * FROM " + getConfig(start).getEmailVerificationTokensTable()
-                    + " WHERE app_id = ? AND user_id = ?";
+            String QUERY = "SELECT 1 FROM " + getConfig(start).getEmailVerificationTokensTable()
+                    + " WHERE app_id = ? AND user_id = ? LIMIT 1";
 
             boolean isUsed = execute(start, QUERY, pst -> {
                 pst.setString(1, appIdentifier.getAppId());
@@ -502,8 +488,8 @@ public class EmailVerificationQueries {
         }
 
         {
-            String QUERY = "SELECT * FROM " + getConfig(start).getEmailVerificationTable()
-                    + " WHERE app_id = ? AND user_id = ?";
+            String QUERY = "SELECT 1 FROM " + getConfig(start).getEmailVerificationTable()
+                    + " WHERE app_id = ? AND user_id = ? LIMIT 1";
 
             return execute(start, QUERY, pst -> {
                 pst.setString(1, appIdentifier.getAppId());
@@ -521,14 +507,12 @@ public class EmailVerificationQueries {
 
         Set<String> foundUserIds = new HashSet<>();
 
-        String email_verificiation_tokens_QUERY = "SELECT * FROM " + getConfig(start).getEmailVerificationTokensTable()
-                + " WHERE app_id = ? AND user_id IN (" + Utils.generateCommaSeperatedQuestionMarks(userIds.size()) +")";
+        String email_verificiation_tokens_QUERY = "SELECT user_id FROM " + getConfig(start).getEmailVerificationTokensTable()
+                + " WHERE app_id = ? AND user_id = ANY(?)";
 
         foundUserIds.addAll(execute(start, email_verificiation_tokens_QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
-            for (int i = 0; i < userIds.size(); i++) {
-                pst.setString(2 + i, userIds.get(i));
-            }
+            Utils.setStringArray(pst, 2, userIds);
         }, result -> {
             Set<String> userIdsFound = new HashSet<>();
             while (result.next()) {
@@ -537,14 +521,12 @@ public class EmailVerificationQueries {
             return userIdsFound;
         }));
 
-        String email_verification_table_QUERY = "SELECT * FROM " + getConfig(start).getEmailVerificationTable()
-                + " WHERE app_id = ? AND user_id  IN (" + Utils.generateCommaSeperatedQuestionMarks(userIds.size()) +")";
+        String email_verification_table_QUERY = "SELECT user_id FROM " + getConfig(start).getEmailVerificationTable()
+                + " WHERE app_id = ? AND user_id = ANY(?)";
 
         foundUserIds.addAll(execute(start, email_verification_table_QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
-            for (int i = 0; i < userIds.size(); i++) {
-                pst.setString(2 + i, userIds.get(i));
-            }
+            Utils.setStringArray(pst, 2, userIds);
         }, result -> {
             Set<String> userIdsFound = new HashSet<>();
             while (result.next()) {
@@ -638,10 +620,16 @@ public class EmailVerificationQueries {
     }
 
     private static class EmailVerificationTokenInfoRowMapper
-            implements RowMapper<EmailVerificationTokenInfo, ResultSet> {
+            extends ColumnOrdinalRowMapper<EmailVerificationTokenInfo> {
         private static final EmailVerificationTokenInfoRowMapper INSTANCE = new EmailVerificationTokenInfoRowMapper();
 
+        private final int userId = ordinal("user_id");
+        private final int token = ordinal("token");
+        private final int tokenExpiry = ordinal("token_expiry");
+        private final int email = ordinal("email");
+
         private EmailVerificationTokenInfoRowMapper() {
+            super("user_id", "token", "token_expiry", "email");
         }
 
         private static EmailVerificationTokenInfoRowMapper getInstance() {
@@ -649,9 +637,9 @@ public class EmailVerificationQueries {
         }
 
         @Override
-        public EmailVerificationTokenInfo map(ResultSet result) throws Exception {
-            return new EmailVerificationTokenInfo(result.getString("user_id"), result.getString("token"),
-                    result.getLong("token_expiry"), result.getString("email"));
+        public EmailVerificationTokenInfo map(ResultSet result) throws SQLException {
+            return new EmailVerificationTokenInfo(result.getString(userId), result.getString(token),
+                    result.getLong(tokenExpiry), result.getString(email));
         }
     }
 }
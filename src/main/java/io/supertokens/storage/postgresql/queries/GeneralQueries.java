@@ -20,6 +20,7 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -35,7 +36,6 @@ import org.jetbrains.annotations.TestOnly;
 import io.supertokens.pluginInterface.KeyValueInfo;
 import io.supertokens.pluginInterface.MigrationMode;
 import io.supertokens.pluginInterface.RECIPE_ID;
-import io.supertokens.pluginInterface.RowMapper;
 import io.supertokens.pluginInterface.authRecipe.AuthRecipeUserInfo;
 import io.supertokens.pluginInterface.authRecipe.LoginMethod;
 import io.supertokens.pluginInterface.dashboard.DashboardSearchTags;
@@ -52,9 +52,11 @@ import static io.supertokens.storage.postgresql.ProcessState.PROCESS_STATE.CREAT
 import static io.supertokens.storage.postgresql.ProcessState.getInstance;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.executeBatch;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.executeRead;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.update;
 import io.supertokens.storage.postgresql.Start;
 import io.supertokens.storage.postgresql.config.Config;
+import io.supertokens.storage.postgresql.config.PostgreSQLConfig;
 import static io.supertokens.storage.postgresql.config.Config.getConfig;
 import static io.supertokens.storage.postgresql.queries.EmailPasswordQueries.getQueryToCreatePasswordResetTokenExpiryIndex;
 import static io.supertokens.storage.postgresql.queries.EmailPasswordQueries.getQueryToCreatePasswordResetTokensTable;
@@ -74,6 +76,7 @@ import static io.supertokens.storage.postgresql.queries.PasswordlessQueries.getQ
 import static io.supertokens.storage.postgresql.queries.PasswordlessQueries.getQueryToCreateDevicePhoneNumberIndex;
 import static io.supertokens.storage.postgresql.queries.PasswordlessQueries.getQueryToCreateDevicesTable;
 import static io.supertokens.storage.postgresql.queries.PasswordlessQueries.getQueryToCreateTenantIdIndexForDevicesTable;
+import static io.supertokens.storage.postgresql.queries.QueryRegistry.getQuery;
 import static io.supertokens.storage.postgresql.queries.SessionQueries.getQueryToCreateAccessTokenSigningKeysTable;
 import static io.supertokens.storage.postgresql.queries.SessionQueries.getQueryToCreateAppIdIndexForAccessTokenSigningKeysTable;
 import static io.supertokens.storage.postgresql.queries.SessionQueries.getQueryToCreateSessionAppIdUserIdIndex;
@@ -404,14 +407,24 @@ public class GeneralQueries {
                     ddl.add(getQueryToCreateAppIdIndexForAccessTokenSigningKeysTable(start));
                 }
 
-                if (!doesTableExists(existingTables, Config.getConfig(start).getSessionInfoTable())) {
+                boolean isSessionInfoTableNew = !doesTableExists(existingTables,
+                        Config.getConfig(start).getSessionInfoTable());
+                if (isSessionInfoTableNew) {
                     getInstance(start).addState(CREATING_NEW_TABLE, null);
                     ddl.add(getQueryToCreateSessionInfoTable(start));
 
                     // index
-                    ddl.add(getQueryToCreateSessionExpiryIndex(start));
+                    if (Config.getConfig(start).isSessionInfoHotUpdatesEnabled()) {
+                        ddl.add(SessionInfoHotUpdateQueries.getQueryToCreateExpiryBucketIndex(start));
+                    } else {
+                        ddl.add(getQueryToCreateSessionExpiryIndex(start));
+                    }
                     ddl.add(getQueryToCreateSessionAppIdUserIdIndex(start));
                     ddl.add(getQueryToCreateTenantIdIndexForSessionInfoTable(start));
+                    if (Config.getConfig(start).isSessionInfoPartitioned()) {
+                        ddl.add(SessionInfoPartitionQueries.getQueryToCreateDefaultPartition(start));
+                        ddl.addAll(SessionInfoPartitionQueries.getQueriesToCreateUpcomingMonthPartitions(start));
+                    }
                 }
 
                 if (!doesTableExists(existingTables, Config.getConfig(start).getTenantConfigsTable())) {
@@ -789,6 +802,12 @@ public class GeneralQueries {
 
                 executeDDLBatch(con, ddl);
 
+                if (!isSessionInfoTableNew && Config.getConfig(start).isSessionInfoHotUpdatesEnabled()) {
+                    // outside of the batch, as it gives up on a lock timeout. The indexes are changed by
+                    // deleteAllExpiredSessions, as they are built CONCURRENTLY
+                    SessionInfoHotUpdateQueries.prepareExistingTable(start, con);
+                }
+
             } catch (Exception e) {
                 if (e.getMessage().contains("schema") && e.getMessage().contains("does not exist")
                         && numberOfRetries < 1) {
@@ -944,12 +963,26 @@ public class GeneralQueries {
         }
     }
 
+    static String setKeyValueQuery(PostgreSQLConfig config) {
+        return "INSERT INTO " + config.getKeyValueTable()
+                + "(app_id, tenant_id, name, value, created_at_time) VALUES(?, ?, ?, ?, ?) "
+                + "ON CONFLICT (app_id, tenant_id, name) DO UPDATE SET value = ?, created_at_time = ?";
+    }
+
+    static String getKeyValueQuery(PostgreSQLConfig config) {
+        return "SELECT " + KeyValueInfoRowMapper.getInstance().columns() + " FROM " + config.getKeyValueTable()
+                + " WHERE app_id = ? AND tenant_id = ? AND name = ?";
+    }
+
+    static String deleteKeyValueQuery(PostgreSQLConfig config) {
+        return "DELETE FROM " + config.getKeyValueTable()
+                + " WHERE app_id = ? AND tenant_id = ? AND name = ?";
+    }
+
     public static void setKeyValue_Transaction(Start start, Connection con, TenantIdentifier tenantIdentifier,
                                                String key, KeyValueInfo info)
             throws SQLException, StorageQueryException {
-        String QUERY = "INSERT INTO " + getConfig(start).getKeyValueTable()
-                + "(app_id, tenant_id, name, value, created_at_time) VALUES(?, ?, ?, ?, ?) "
-                + "ON CONFLICT (app_id, tenant_id, name) DO UPDATE SET value = ?, created_at_time = ?";
+        String QUERY = getQuery(start, QueryId.KEY_VALUE_SET);
 
         update(con, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
@@ -972,8 +1005,7 @@ public class GeneralQueries {
     @WithinOtelSpan
     public static KeyValueInfo getKeyValue(Start start, TenantIdentifier tenantIdentifier, String key)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT value, created_at_time FROM " + getConfig(start).getKeyValueTable()
-                + " WHERE app_id = ? AND tenant_id = ? AND name = ?";
+        String QUERY = getQuery(start, QueryId.KEY_VALUE_GET);
 
         return execute(start, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
@@ -994,8 +1026,7 @@ public class GeneralQueries {
         io.supertokens.storage.postgresql.queries.Utils.takeAdvisoryLock(
                 con, tenantIdentifier.getAppId() + "~" + tenantIdentifier.getTenantId() + "~" + key);
 
-        String QUERY = "SELECT value, created_at_time FROM " + getConfig(start).getKeyValueTable()
-                + " WHERE app_id = ? AND tenant_id = ? AND name = ?";
+        String QUERY = getQuery(start, QueryId.KEY_VALUE_GET);
 
         return execute(con, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
@@ -1012,8 +1043,7 @@ public class GeneralQueries {
     public static void deleteKeyValue_Transaction(Start start, Connection con, TenantIdentifier tenantIdentifier,
                                                   String key)
             throws SQLException, StorageQueryException {
-        String QUERY = "DELETE FROM " + getConfig(start).getKeyValueTable()
-                + " WHERE app_id = ? AND tenant_id = ? AND name = ?";
+        String QUERY = getQuery(start, QueryId.KEY_VALUE_DELETE);
 
         update(con, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
@@ -1049,7 +1079,7 @@ public class GeneralQueries {
         }
         QUERY.append(" GROUP BY primary_or_recipe_user_id) AS uniq_users");
 
-        return execute(start, QUERY.toString(), pst -> {
+        return executeRead(start, QUERY.toString(), pst -> {
             pst.setString(1, appIdentifier.getAppId());
             if (includeRecipeIds != null) {
                 for (int i = 0; i < includeRecipeIds.length; i++) {
@@ -1084,7 +1114,7 @@ public class GeneralQueries {
         }
         QUERY.append(" GROUP BY primary_or_recipe_user_id) AS uniq_users");
 
-        return execute(start, QUERY.toString(), pst -> {
+        return executeRead(start, QUERY.toString(), pst -> {
             pst.setString(1, appIdentifier.getAppId());
             if (includeRecipeIds != null) {
                 for (int i = 0; i < includeRecipeIds.length; i++) {
@@ -1129,7 +1159,7 @@ public class GeneralQueries {
 
         QUERY.append(" GROUP BY auid.primary_or_recipe_user_id) AS uniq_users");
 
-        return execute(start, QUERY.toString(), pst -> {
+        return executeRead(start, QUERY.toString(), pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
             pst.setString(2, tenantIdentifier.getTenantId());
             if (includeRecipeIds != null) {
@@ -1166,7 +1196,7 @@ public class GeneralQueries {
 
         QUERY.append(" GROUP BY primary_or_recipe_user_id) AS uniq_users");
 
-        return execute(start, QUERY.toString(), pst -> {
+        return executeRead(start, QUERY.toString(), pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
             pst.setString(2, tenantIdentifier.getTenantId());
             if (includeRecipeIds != null) {
@@ -1258,12 +1288,10 @@ public class GeneralQueries {
             return new ArrayList<>();
         }
         String QUERY = "SELECT user_id FROM " + getConfig(start).getAppIdToUserIdTable()
-                + " WHERE app_id = ? AND user_id IN ("+ Utils.generateCommaSeperatedQuestionMarks(userIds.size()) +")";
+                + " WHERE app_id = ? AND user_id = ANY(?)";
         return execute(start, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
-            for(int i = 0; i<userIds.size(); i++) {
-                pst.setString(2 + i, userIds.get(i));
-            }
+            Utils.setStringArray(pst, 2, userIds);
         }, result -> {
             List<String> foundUserIds = new ArrayList<>();
             while(result.next()){
@@ -1287,6 +1315,39 @@ public class GeneralQueries {
                 dashboardSearchTags);
     }
 
+    /**
+     * A page of primary users of a tenant, from the reservation tables.
+     *
+     * @param recipeIdCondition a condition on auid.recipe_id, or "" for users of any recipe
+     * @param afterCursor       whether the page starts after a (time joined, user id) cursor
+     */
+    static String getUsersPageQuery(PostgreSQLConfig config, String recipeIdCondition, String timeJoinedOrder,
+                                    boolean afterCursor) {
+        // GROUP BY instead of DISTINCT so that a primary user whose linked recipe users
+        // have different primary_or_recipe_user_time_joined values still appears only once.
+        String QUERY = "SELECT auid.primary_or_recipe_user_id,"
+                + " MIN(auid.primary_or_recipe_user_time_joined) AS primary_or_recipe_user_time_joined"
+                + " FROM " + config.getAppIdToUserIdTable() + " auid"
+                + " JOIN " + config.getRecipeUserTenantsTable() + " rut"
+                + " ON auid.app_id = rut.app_id AND auid.user_id = rut.recipe_user_id"
+                + " WHERE " + (recipeIdCondition.isEmpty() ? "" : recipeIdCondition + " AND ")
+                + "auid.app_id = ? AND rut.tenant_id = ?"
+                + " GROUP BY auid.primary_or_recipe_user_id";
+        if (afterCursor) {
+            // Cursor filter moves to HAVING because it must operate on the aggregated MIN value.
+            String timeJoinedOrderSymbol = timeJoinedOrder.equals("ASC") ? ">" : "<";
+            QUERY += " HAVING (MIN(auid.primary_or_recipe_user_time_joined) " + timeJoinedOrderSymbol
+                    + " ? OR (MIN(auid.primary_or_recipe_user_time_joined) = ?"
+                    + " AND auid.primary_or_recipe_user_id <= ?))";
+        }
+        return QUERY + " ORDER BY MIN(auid.primary_or_recipe_user_time_joined) " + timeJoinedOrder
+                + ", auid.primary_or_recipe_user_id DESC LIMIT ?";
+    }
+
+    private static boolean isRegisteredOrder(String timeJoinedOrder) {
+        return timeJoinedOrder.equals("ASC") || timeJoinedOrder.equals("DESC");
+    }
+
     private static AuthRecipeUserInfo[] getUsers_new(Start start, TenantIdentifier tenantIdentifier,
                                                      @NotNull Integer limit,
                                                      @NotNull String timeJoinedOrder,
@@ -1426,7 +1487,7 @@ public class GeneralQueries {
                 query.append(" ORDER BY auid.primary_or_recipe_user_time_joined ").append(timeJoinedOrder)
                         .append(", auid.primary_or_recipe_user_id DESC LIMIT 1000");
 
-                usersFromQuery = execute(start, query.toString(), pst -> {
+                usersFromQuery = executeRead(start, query.toString(), pst -> {
                     for (int i = 0; i < queryParams.size(); i++) {
                         pst.setString(i + 1, queryParams.get(i));
                     }
@@ -1453,28 +1514,15 @@ public class GeneralQueries {
             }
 
             if (timeJoined != null && userId != null) {
-                String recipeIdCondition = RECIPE_ID_CONDITION.toString();
-                if (!recipeIdCondition.equals("")) {
-                    recipeIdCondition = recipeIdCondition + " AND";
+                String QUERY;
+                if (RECIPE_ID_CONDITION.length() == 0 && isRegisteredOrder(timeJoinedOrder)) {
+                    QUERY = getQuery(start, timeJoinedOrder.equals("ASC") ? QueryId.USERS_GET_PAGE_AFTER_CURSOR_ASC
+                            : QueryId.USERS_GET_PAGE_AFTER_CURSOR_DESC);
+                } else {
+                    QUERY = getUsersPageQuery(getConfig(start), RECIPE_ID_CONDITION.toString(), timeJoinedOrder,
+                            true);
                 }
-                String timeJoinedOrderSymbol = timeJoinedOrder.equals("ASC") ? ">" : "<";
-                // GROUP BY instead of DISTINCT so that a primary user whose linked recipe users
-                // have different primary_or_recipe_user_time_joined values still appears only once.
-                // Cursor filter moves to HAVING because it must operate on the aggregated MIN value.
-                String QUERY = "SELECT auid.primary_or_recipe_user_id,"
-                        + " MIN(auid.primary_or_recipe_user_time_joined) AS primary_or_recipe_user_time_joined"
-                        + " FROM " + getConfig(start).getAppIdToUserIdTable() + " auid"
-                        + " JOIN " + getConfig(start).getRecipeUserTenantsTable() + " rut"
-                        + " ON auid.app_id = rut.app_id AND auid.user_id = rut.recipe_user_id"
-                        + " WHERE " + recipeIdCondition
-                        + " auid.app_id = ? AND rut.tenant_id = ?"
-                        + " GROUP BY auid.primary_or_recipe_user_id"
-                        + " HAVING (MIN(auid.primary_or_recipe_user_time_joined) " + timeJoinedOrderSymbol
-                        + " ? OR (MIN(auid.primary_or_recipe_user_time_joined) = ?"
-                        + " AND auid.primary_or_recipe_user_id <= ?))"
-                        + " ORDER BY MIN(auid.primary_or_recipe_user_time_joined) " + timeJoinedOrder
-                        + ", auid.primary_or_recipe_user_id DESC LIMIT ?";
-                usersFromQuery = execute(start, QUERY, pst -> {
+                usersFromQuery = executeRead(start, QUERY, pst -> {
                     if (includeRecipeIds != null) {
                         for (int i = 0; i < includeRecipeIds.length; i++) {
                             pst.setString(i + 1, includeRecipeIds[i].toString());
@@ -1495,23 +1543,15 @@ public class GeneralQueries {
                     return temp;
                 });
             } else {
-                String recipeIdCondition = RECIPE_ID_CONDITION.toString();
-                // GROUP BY instead of DISTINCT so that a primary user whose linked recipe users
-                // have different primary_or_recipe_user_time_joined values still appears only once.
-                String QUERY = "SELECT auid.primary_or_recipe_user_id,"
-                        + " MIN(auid.primary_or_recipe_user_time_joined) AS primary_or_recipe_user_time_joined"
-                        + " FROM " + getConfig(start).getAppIdToUserIdTable() + " auid"
-                        + " JOIN " + getConfig(start).getRecipeUserTenantsTable() + " rut"
-                        + " ON auid.app_id = rut.app_id AND auid.user_id = rut.recipe_user_id"
-                        + " WHERE ";
-                if (!recipeIdCondition.equals("")) {
-                    QUERY += recipeIdCondition + " AND";
+                String QUERY;
+                if (RECIPE_ID_CONDITION.length() == 0 && isRegisteredOrder(timeJoinedOrder)) {
+                    QUERY = getQuery(start, timeJoinedOrder.equals("ASC") ? QueryId.USERS_GET_PAGE_ASC
+                            : QueryId.USERS_GET_PAGE_DESC);
+                } else {
+                    QUERY = getUsersPageQuery(getConfig(start), RECIPE_ID_CONDITION.toString(), timeJoinedOrder,
+                            false);
                 }
-                QUERY += " auid.app_id = ? AND rut.tenant_id = ?"
-                        + " GROUP BY auid.primary_or_recipe_user_id"
-                        + " ORDER BY MIN(auid.primary_or_recipe_user_time_joined) " + timeJoinedOrder
-                        + ", auid.primary_or_recipe_user_id DESC LIMIT ?";
-                usersFromQuery = execute(start, QUERY, pst -> {
+                usersFromQuery = executeRead(start, QUERY, pst -> {
                     if (includeRecipeIds != null) {
                         for (int i = 0; i < includeRecipeIds.length; i++) {
                             pst.setString(i + 1, includeRecipeIds[i].toString());
@@ -1742,7 +1782,7 @@ public class GeneralQueries {
                                     USER_SEARCH_TAG_CONDITION.toString() + " )"
                                     + " AS finalResultTable ORDER BY primary_or_recipe_user_time_joined " +
                                     timeJoinedOrder + ", primary_or_recipe_user_id DESC ";
-                    usersFromQuery = execute(start, finalQuery, pst -> {
+                    usersFromQuery = executeRead(start, finalQuery, pst -> {
                         for (int i = 1; i <= queryList.size(); i++) {
                             pst.setString(i, queryList.get(i - 1));
                         }
@@ -1785,7 +1825,7 @@ public class GeneralQueries {
                         "app_id = ? AND tenant_id = ?"
                         + " ORDER BY primary_or_recipe_user_time_joined " + timeJoinedOrder
                         + ", primary_or_recipe_user_id DESC LIMIT ?";
-                usersFromQuery = execute(start, QUERY, pst -> {
+                usersFromQuery = executeRead(start, QUERY, pst -> {
                     if (includeRecipeIds != null) {
                         for (int i = 0; i < includeRecipeIds.length; i++) {
                             // i+1 cause this starts with 1 and not 0
@@ -1815,7 +1855,7 @@ public class GeneralQueries {
                 }
                 QUERY += " app_id = ? AND tenant_id = ? ORDER BY primary_or_recipe_user_time_joined " + timeJoinedOrder
                         + ", primary_or_recipe_user_id DESC LIMIT ?";
-                usersFromQuery = execute(start, QUERY, pst -> {
+                usersFromQuery = executeRead(start, QUERY, pst -> {
                     if (includeRecipeIds != null) {
                         for (int i = 0; i < includeRecipeIds.length; i++) {
                             // i+1 cause this starts with 1 and not 0
@@ -2592,6 +2632,38 @@ public class GeneralQueries {
         return getPrimaryUserInfoForUserIds_legacy(start, appIdentifier, userIds);
     }
 
+    // We check both user_id and primary_or_recipe_user_id because the input may have a recipe userId which is linked
+    // to a primary user ID in which case it won't be in the primary_or_recipe_user_id column, or the input may have a
+    // primary user ID whose recipe user ID was removed, so it won't be in the user_id column
+    static String getPrimaryUserInfoForUserIdsQuery(PostgreSQLConfig config) {
+        return "SELECT au.user_id, au.primary_or_recipe_user_id, au.is_linked_or_is_a_primary_user, au.recipe_id, " +
+                "au.time_joined, rt.tenant_id FROM " + config.getAppIdToUserIdTable() + " as au " +
+                "LEFT JOIN " + config.getRecipeUserTenantsTable() +
+                " as rt ON au.app_id = rt.app_id AND au.user_id = rt.recipe_user_id" +
+                " WHERE au.primary_or_recipe_user_id IN (SELECT primary_or_recipe_user_id FROM " +
+                config.getAppIdToUserIdTable() +
+                " WHERE (user_id = ANY(?) OR primary_or_recipe_user_id = ANY(?)) AND app_id = ?) AND au.app_id = ?";
+    }
+
+    static String getPrimaryUserInfoForUserIdsLegacyQuery(PostgreSQLConfig config) {
+        return "SELECT au.user_id, au.primary_or_recipe_user_id, au.is_linked_or_is_a_primary_user, au.recipe_id, " +
+                "aaru.tenant_id, aaru.time_joined FROM " + config.getAppIdToUserIdTable() + " as au " +
+                "LEFT JOIN " + config.getUsersTable() +
+                " as aaru ON au.app_id = aaru.app_id AND au.user_id = aaru.user_id" +
+                " WHERE au.primary_or_recipe_user_id IN (SELECT primary_or_recipe_user_id FROM " +
+                config.getAppIdToUserIdTable() +
+                " WHERE (user_id = ANY(?) OR primary_or_recipe_user_id = ANY(?)) AND app_id = ?) AND au.app_id = ?";
+    }
+
+    static String getPrimaryUserInfoForUserIdsLegacyTransactionQuery(PostgreSQLConfig config) {
+        return "SELECT au.user_id, au.primary_or_recipe_user_id, au.is_linked_or_is_a_primary_user, au.recipe_id, " +
+                "au.time_joined, rt.tenant_id FROM " + config.getAppIdToUserIdTable() + " as au " +
+                "LEFT JOIN " + config.getUsersTable() + " as rt ON au.app_id = rt.app_id AND au.user_id = rt.user_id" +
+                " WHERE au.primary_or_recipe_user_id IN (SELECT primary_or_recipe_user_id FROM " +
+                config.getAppIdToUserIdTable() +
+                " WHERE (user_id = ANY(?) OR primary_or_recipe_user_id = ANY(?)) AND app_id = ?) AND au.app_id = ?";
+    }
+
     private static List<AuthRecipeUserInfo> getPrimaryUserInfoForUserIds_new(Start start,
                                                                              AppIdentifier appIdentifier,
                                                                              List<String> userIds)
@@ -2600,36 +2672,16 @@ public class GeneralQueries {
             return new ArrayList<>();
         }
 
-        // We check both user_id and primary_or_recipe_user_id because the input may have a recipe userId
-        // which is linked to a primary user ID in which case it won't be in the primary_or_recipe_user_id column,
-        // or the input may have a primary user ID whose recipe user ID was removed, so it won't be in the user_id
-        // column
-        String QUERY =
-                "SELECT au.user_id, au.primary_or_recipe_user_id, au.is_linked_or_is_a_primary_user, au.recipe_id, " +
-                        "au.time_joined, rt.tenant_id FROM " +
-                        getConfig(start).getAppIdToUserIdTable() + " as au " +
-                        "LEFT JOIN " + getConfig(start).getRecipeUserTenantsTable() +
-                        " as rt ON au.app_id = rt.app_id AND au.user_id = rt.recipe_user_id" +
-                        " WHERE au.primary_or_recipe_user_id IN (SELECT primary_or_recipe_user_id FROM " +
-                        getConfig(start).getAppIdToUserIdTable() + " WHERE (user_id IN ("
-                        + Utils.generateCommaSeperatedQuestionMarks(userIds.size()) +
-                        ") OR primary_or_recipe_user_id IN (" +
-                        Utils.generateCommaSeperatedQuestionMarks(userIds.size()) +
-                        ")) AND app_id = ?) AND au.app_id = ?";
+        String QUERY = getQuery(start, QueryId.USERS_GET_PRIMARY_USER_INFO_FOR_USER_IDS);
 
         List<AllAuthRecipeUsersResultHolder> allAuthUsersResult = execute(start, QUERY, pst -> {
-            // IN user_id
-            int index = 1;
-            for (int i = 0; i < userIds.size(); i++, index++) {
-                pst.setString(index, userIds.get(i));
-            }
-            // IN primary_or_recipe_user_id
-            for (int i = 0; i < userIds.size(); i++, index++) {
-                pst.setString(index, userIds.get(i));
-            }
+            // ANY user_id
+            Utils.setStringArray(pst, 1, userIds);
+            // ANY primary_or_recipe_user_id
+            Utils.setStringArray(pst, 2, userIds);
             // for app_id
-            pst.setString(index, appIdentifier.getAppId());
-            pst.setString(index + 1, appIdentifier.getAppId());
+            pst.setString(3, appIdentifier.getAppId());
+            pst.setString(4, appIdentifier.getAppId());
         }, result -> {
             List<AllAuthRecipeUsersResultHolder> parsedResult = new ArrayList<>();
             while (result.next()) {
@@ -2697,36 +2749,16 @@ public class GeneralQueries {
             return new ArrayList<>();
         }
 
-        // We check both user_id and primary_or_recipe_user_id because the input may have a recipe userId
-        // which is linked to a primary user ID in which case it won't be in the primary_or_recipe_user_id column,
-        // or the input may have a primary user ID whose recipe user ID was removed, so it won't be in the user_id
-        // column
-        String QUERY =
-                "SELECT au.user_id, au.primary_or_recipe_user_id, au.is_linked_or_is_a_primary_user, au.recipe_id, " +
-                        "aaru.tenant_id, aaru.time_joined FROM " +
-                        getConfig(start).getAppIdToUserIdTable() + " as au " +
-                        "LEFT JOIN " + getConfig(start).getUsersTable() +
-                        " as aaru ON au.app_id = aaru.app_id AND au.user_id = aaru.user_id" +
-                        " WHERE au.primary_or_recipe_user_id IN (SELECT primary_or_recipe_user_id FROM " +
-                        getConfig(start).getAppIdToUserIdTable() + " WHERE (user_id IN ("
-                        + Utils.generateCommaSeperatedQuestionMarks(userIds.size()) +
-                        ") OR primary_or_recipe_user_id IN (" +
-                        Utils.generateCommaSeperatedQuestionMarks(userIds.size()) +
-                        ")) AND app_id = ?) AND au.app_id = ?";
+        String QUERY = getQuery(start, QueryId.USERS_GET_PRIMARY_USER_INFO_FOR_USER_IDS_LEGACY);
 
         List<AllAuthRecipeUsersResultHolder> allAuthUsersResult = execute(start, QUERY, pst -> {
-            // IN user_id
-            int index = 1;
-            for (int i = 0; i < userIds.size(); i++, index++) {
-                pst.setString(index, userIds.get(i));
-            }
-            // IN primary_or_recipe_user_id
-            for (int i = 0; i < userIds.size(); i++, index++) {
-                pst.setString(index, userIds.get(i));
-            }
+            // ANY user_id
+            Utils.setStringArray(pst, 1, userIds);
+            // ANY primary_or_recipe_user_id
+            Utils.setStringArray(pst, 2, userIds);
             // for app_id
-            pst.setString(index, appIdentifier.getAppId());
-            pst.setString(index + 1, appIdentifier.getAppId());
+            pst.setString(3, appIdentifier.getAppId());
+            pst.setString(4, appIdentifier.getAppId());
         }, result -> {
             List<AllAuthRecipeUsersResultHolder> parsedResult = new ArrayList<>();
             while (result.next()) {
@@ -2794,45 +2826,18 @@ public class GeneralQueries {
             return new ArrayList<>();
         }
 
-        // We check both user_id and primary_or_recipe_user_id because the input may have a recipe userId
-        // which is linked to a primary user ID in which case it won't be in the primary_or_recipe_user_id column,
-        // or the input may have a primary user ID whose recipe user ID was removed, so it won't be in the user_id
-        // column
-        String tenantJoin;
-        if (Config.getConfig(start).getMigrationMode().readsFromNewTables()) {
-            tenantJoin = "    LEFT JOIN " + getConfig(start).getRecipeUserTenantsTable() +
-                    "    as rt ON au.app_id = rt.app_id AND au.user_id = rt.recipe_user_id";
-        } else {
-            tenantJoin = "    LEFT JOIN " + getConfig(start).getUsersTable() +
-                    "    as rt ON au.app_id = rt.app_id AND au.user_id = rt.user_id";
-        }
-        String QUERY =
-                "SELECT au.user_id, au.primary_or_recipe_user_id, au.is_linked_or_is_a_primary_user, au.recipe_id, " +
-                        "au.time_joined, rt.tenant_id " +
-                        "FROM " + getConfig(start).getAppIdToUserIdTable() + " as au" +
-                        tenantJoin +
-                        " WHERE au.primary_or_recipe_user_id IN " +
-                        "    (SELECT primary_or_recipe_user_id FROM " +
-                                getConfig(start).getAppIdToUserIdTable() +
-                                " WHERE (user_id IN ("
-                                 + Utils.generateCommaSeperatedQuestionMarks(userIds.size()) +") " +
-                        "         OR primary_or_recipe_user_id IN (" + Utils.generateCommaSeperatedQuestionMarks(userIds.size()) +")) " +
-                        "   AND app_id = ?) " +
-                        "AND au.app_id = ?";
+        String QUERY = getQuery(start, Config.getConfig(start).getMigrationMode().readsFromNewTables()
+                ? QueryId.USERS_GET_PRIMARY_USER_INFO_FOR_USER_IDS
+                : QueryId.USERS_GET_PRIMARY_USER_INFO_FOR_USER_IDS_LEGACY_TRANSACTION);
 
         List<AllAuthRecipeUsersResultHolder> allAuthUsersResult = execute(sqlCon, QUERY, pst -> {
-            // IN user_id
-            int index = 1;
-            for (int i = 0; i < userIds.size(); i++, index++) {
-                pst.setString(index, userIds.get(i));
-            }
-            // IN primary_or_recipe_user_id
-            for (int i = 0; i < userIds.size(); i++, index++) {
-                pst.setString(index, userIds.get(i));
-            }
+            // ANY user_id
+            Utils.setStringArray(pst, 1, userIds);
+            // ANY primary_or_recipe_user_id
+            Utils.setStringArray(pst, 2, userIds);
             // for app_id
-            pst.setString(index, appIdentifier.getAppId());
-            pst.setString(index+1, appIdentifier.getAppId());
+            pst.setString(3, appIdentifier.getAppId());
+            pst.setString(4, appIdentifier.getAppId());
         }, result -> {
             List<AllAuthRecipeUsersResultHolder> parsedResult = new ArrayList<>();
             while (result.next()) {
@@ -2920,25 +2925,12 @@ public class GeneralQueries {
                 table = getConfig(start).getUsersTable();
                 userIdColumn = "user_id";
             }
-            StringBuilder QUERY = new StringBuilder("SELECT DISTINCT " + userIdColumn + " AS user_id, tenant_id "
-                    + "FROM " + table);
-            QUERY.append(" WHERE " + userIdColumn + " IN (");
-            for (int i = 0; i < userIds.length; i++) {
+            String QUERY = "SELECT DISTINCT " + userIdColumn + " AS user_id, tenant_id "
+                    + "FROM " + table + " WHERE " + userIdColumn + " = ANY(?) AND app_id = ?";
 
-                QUERY.append("?");
-                if (i != userIds.length - 1) {
-                    // not the last element
-                    QUERY.append(",");
-                }
-            }
-            QUERY.append(") AND app_id = ?");
-
-            return execute(sqlCon, QUERY.toString(), pst -> {
-                for (int i = 0; i < userIds.length; i++) {
-                    // i+1 cause this starts with 1 and not 0, and 1 is appId
-                    pst.setString(i + 1, userIds[i]);
-                }
-                pst.setString(userIds.length + 1, appIdentifier.getAppId());
+            return execute(sqlCon, QUERY, pst -> {
+                Utils.setStringArray(pst, 1, Arrays.asList(userIds));
+                pst.setString(2, appIdentifier.getAppId());
             }, result -> {
                 Map<String, List<String>> finalResult = new HashMap<>();
                 for (String userId : userIds) {
@@ -2972,25 +2964,12 @@ public class GeneralQueries {
                 table = getConfig(start).getUsersTable();
                 userIdColumn = "user_id";
             }
-            StringBuilder QUERY = new StringBuilder("SELECT DISTINCT " + userIdColumn + " AS user_id, tenant_id "
-                    + "FROM " + table);
-            QUERY.append(" WHERE " + userIdColumn + " IN (");
-            for (int i = 0; i < userIds.length; i++) {
+            String QUERY = "SELECT DISTINCT " + userIdColumn + " AS user_id, tenant_id "
+                    + "FROM " + table + " WHERE " + userIdColumn + " = ANY(?) AND app_id = ?";
 
-                QUERY.append("?");
-                if (i != userIds.length - 1) {
-                    // not the last element
-                    QUERY.append(",");
-                }
-            }
-            QUERY.append(") AND app_id = ?");
-
-            return execute(start, QUERY.toString(), pst -> {
-                for (int i = 0; i < userIds.length; i++) {
-                    // i+1 cause this starts with 1 and not 0, and 1 is appId
-                    pst.setString(i + 1, userIds[i]);
-                }
-                pst.setString(userIds.length + 1, appIdentifier.getAppId());
+            return execute(start, QUERY, pst -> {
+                Utils.setStringArray(pst, 1, Arrays.asList(userIds));
+                pst.setString(2, appIdentifier.getAppId());
             }, result -> {
                 Map<String, List<String>> finalResult = new HashMap<>();
                 for (String userId : userIds) {
@@ -3205,10 +3184,14 @@ public class GeneralQueries {
         }
     }
 
-    private static class KeyValueInfoRowMapper implements RowMapper<KeyValueInfo, ResultSet> {
+    private static class KeyValueInfoRowMapper extends ColumnOrdinalRowMapper<KeyValueInfo> {
         public static final KeyValueInfoRowMapper INSTANCE = new KeyValueInfoRowMapper();
 
+        private final int value = ordinal("value");
+        private final int createdAtTime = ordinal("created_at_time");
+
         private KeyValueInfoRowMapper() {
+            super("value", "created_at_time");
         }
 
         private static KeyValueInfoRowMapper getInstance() {
@@ -3217,7 +3200,7 @@ public class GeneralQueries {
 
         @Override
         public KeyValueInfo map(ResultSet result) throws Exception {
-            return new KeyValueInfo(result.getString("value"), result.getLong("created_at_time"));
+            return new KeyValueInfo(result.getString(value), result.getLong(createdAtTime));
         }
     }
 
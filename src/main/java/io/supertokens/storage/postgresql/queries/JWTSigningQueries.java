@@ -16,7 +16,6 @@
 
 package io.supertokens.storage.postgresql.queries;
 
-import io.supertokens.pluginInterface.RowMapper;
 import io.supertokens.pluginInterface.exceptions.StorageQueryException;
 import io.supertokens.pluginInterface.jwt.JWTAsymmetricSigningKeyInfo;
 import io.supertokens.pluginInterface.jwt.JWTSigningKeyInfo;
@@ -72,7 +71,8 @@ public class JWTSigningQueries {
     public static List<JWTSigningKeyInfo> getJWTSigningKeys_Transaction(Start start, Connection con,
                                                                         AppIdentifier appIdentifier)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM " + getConfig(start).getJWTSigningKeysTable()
+        String QUERY = "SELECT " + JWTSigningKeyInfoRowMapper.getInstance().columns() + " FROM "
+                + getConfig(start).getJWTSigningKeysTable()
                 + " WHERE app_id = ? ORDER BY created_at DESC FOR UPDATE";
 
         return execute(con, QUERY, pst -> pst.setString(1, appIdentifier.getAppId()), result -> {
@@ -86,22 +86,28 @@ public class JWTSigningQueries {
         });
     }
 
-    private static class JWTSigningKeyInfoRowMapper implements RowMapper<JWTSigningKeyInfo, ResultSet> {
+    static class JWTSigningKeyInfoRowMapper extends ColumnOrdinalRowMapper<JWTSigningKeyInfo> {
         private static final JWTSigningKeyInfoRowMapper INSTANCE = new JWTSigningKeyInfoRowMapper();
 
+        private final int keyIdColumn = ordinal("key_id");
+        private final int keyStringColumn = ordinal("key_string");
+        private final int createdAtColumn = ordinal("created_at");
+        private final int algorithmColumn = ordinal("algorithm");
+
         private JWTSigningKeyInfoRowMapper() {
+            super("key_id", "key_string", "created_at", "algorithm");
         }
 
-        private static JWTSigningKeyInfoRowMapper getInstance() {
+        static JWTSigningKeyInfoRowMapper getInstance() {
             return INSTANCE;
         }
 
         @Override
         public JWTSigningKeyInfo map(ResultSet result) throws Exception {
-            String keyId = result.getString("key_id");
-            String keyString = result.getString("key_string");
-            long createdAt = result.getLong("created_at");
-            String algorithm = result.getString("algorithm");
+            String keyId = result.getString(keyIdColumn);
+            String keyString = result.getString(keyStringColumn);
+            long createdAt = result.getLong(createdAtColumn);
+            String algorithm = result.getString(algorithmColumn);
 
             if (keyString.contains("|") || keyString.contains(";")) {
                 return new JWTAsymmetricSigningKeyInfo(keyId, createdAt, algorithm, keyString);
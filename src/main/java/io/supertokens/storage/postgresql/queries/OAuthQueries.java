@@ -20,6 +20,7 @@ import io.supertokens.pluginInterface.exceptions.StorageQueryException;
 import io.supertokens.pluginInterface.multitenancy.AppIdentifier;
 import io.supertokens.pluginInterface.oauth.OAuthClient;
 import io.supertokens.pluginInterface.oauth.OAuthLogoutChallenge;
+import io.supertokens.storage.postgresql.ExpirySweeper;
 import io.supertokens.storage.postgresql.Start;
 import io.supertokens.storage.postgresql.config.Config;
 import io.supertokens.storage.postgresql.utils.Utils;
@@ -196,15 +197,12 @@ public class OAuthQueries {
         if(clientIds.isEmpty()){
             return Collections.emptyList();
         }
-        String QUERY = "SELECT * FROM " + Config.getConfig(start).getOAuthClientsTable()
-                + " WHERE app_id = ? AND client_id IN ( "
-                + Utils.generateCommaSeperatedQuestionMarks(clientIds.size())
-                + " );";
+        String QUERY = "SELECT client_id, client_secret, is_client_credentials_only, enable_refresh_token_rotation"
+                + " FROM " + Config.getConfig(start).getOAuthClientsTable()
+                + " WHERE app_id = ? AND client_id = ANY(?);";
         return execute(start, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
-            for (int i = 0; i < clientIds.size(); i++) {
-                pst.setString(i + 2, clientIds.get(i));
-            }
+            Utils.setStringArray(pst, 2, clientIds);
         }, (result) -> {
             List<OAuthClient> res = new ArrayList<>();
             while (result.next()) {
@@ -479,20 +477,14 @@ public class OAuthQueries {
     }
 
     public static void deleteExpiredOAuthSessions(Start start, long exp) throws SQLException, StorageQueryException {
-        // delete expired M2M tokens
-        String QUERY = "DELETE FROM " + Config.getConfig(start).getOAuthSessionsTable() +
-                " WHERE exp < ?";
-
-        update(start, QUERY, pst -> {
+        ExpirySweeper.sweep(start, Config.getConfig(start).getOAuthSessionsTable(), "exp < ?", pst -> {
             pst.setLong(1, exp);
         });
     }
 
     public static void deleteExpiredOAuthM2MTokens(Start start, long exp) throws SQLException, StorageQueryException {
         // delete expired M2M tokens
-        String QUERY = "DELETE FROM " + Config.getConfig(start).getOAuthM2MTokensTable() +
-                " WHERE exp < ?";
-        update(start, QUERY, pst -> {
+        ExpirySweeper.sweep(start, Config.getConfig(start).getOAuthM2MTokensTable(), "exp < ?", pst -> {
             pst.setLong(1, exp);
         });
     }
@@ -33,7 +33,6 @@ import javax.annotation.Nullable;
 
 import static io.supertokens.pluginInterface.RECIPE_ID.PASSWORDLESS;
 import io.supertokens.pluginInterface.MigrationMode;
-import io.supertokens.pluginInterface.RowMapper;
 import io.supertokens.pluginInterface.authRecipe.ACCOUNT_INFO_TYPE;
 import io.supertokens.pluginInterface.authRecipe.AuthRecipeUserInfo;
 import io.supertokens.pluginInterface.authRecipe.LoginMethod;
@@ -50,6 +49,7 @@ import io.supertokens.storage.postgresql.ConnectionPool;
 import io.supertokens.storage.postgresql.PreparedStatementValueSetter;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.executeBatch;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.executeCopy;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.update;
 import io.supertokens.storage.postgresql.Start;
 import io.supertokens.storage.postgresql.config.Config;
@@ -221,7 +221,7 @@ public class PasswordlessQueries {
                                                            TenantIdentifier tenantIdentifier, String deviceIdHash)
             throws StorageQueryException, SQLException {
 
-        String QUERY = "SELECT device_id_hash, email, phone_number, link_code_salt, failed_attempts FROM "
+        String QUERY = "SELECT " + PasswordlessDeviceRowMapper.getInstance().columns() + " FROM "
                 + getConfig(start).getPasswordlessDevicesTable()
                 + " WHERE app_id = ? AND tenant_id = ? AND device_id_hash = ? FOR UPDATE";
         return execute(con, QUERY, pst -> {
@@ -374,7 +374,7 @@ public class PasswordlessQueries {
                                                                   String deviceIdHash)
             throws StorageQueryException, SQLException {
         // We do not lock here, since the device is already locked earlier in the transaction.
-        String QUERY = "SELECT code_id, device_id_hash, link_code_hash, created_at FROM "
+        String QUERY = "SELECT " + PasswordlessCodeRowMapper.getInstance().columns() + " FROM "
                 + getConfig(start).getPasswordlessCodesTable()
                 + " WHERE app_id = ? AND tenant_id = ? AND device_id_hash = ?";
 
@@ -400,7 +400,7 @@ public class PasswordlessQueries {
                                                                      String linkCodeHash)
             throws StorageQueryException, SQLException {
         // We do not lock here, since the device is already locked earlier in the transaction.
-        String QUERY = "SELECT code_id, device_id_hash, link_code_hash, created_at FROM "
+        String QUERY = "SELECT " + PasswordlessCodeRowMapper.getInstance().columns() + " FROM "
                 + getConfig(start).getPasswordlessCodesTable()
                 + " WHERE app_id = ? AND tenant_id = ? AND link_code_hash = ?";
 
@@ -701,7 +701,7 @@ public class PasswordlessQueries {
     public static PasswordlessDevice getDevice(Start start, TenantIdentifier tenantIdentifier, String deviceIdHash)
             throws StorageQueryException, SQLException {
         try (Connection con = ConnectionPool.getConnection(start)) {
-            String QUERY = "SELECT device_id_hash, email, phone_number, link_code_salt, failed_attempts FROM "
+            String QUERY = "SELECT " + PasswordlessDeviceRowMapper.getInstance().columns() + " FROM "
                     + getConfig(start).getPasswordlessDevicesTable()
                     + " WHERE app_id = ? AND tenant_id = ? AND device_id_hash = ?";
             return execute(con, QUERY, pst -> {
@@ -720,7 +720,7 @@ public class PasswordlessQueries {
     public static PasswordlessDevice[] getDevicesByEmail(Start start, TenantIdentifier tenantIdentifier,
                                                          @Nonnull String email)
             throws StorageQueryException, SQLException {
-        String QUERY = "SELECT device_id_hash, email, phone_number, link_code_salt, failed_attempts FROM "
+        String QUERY = "SELECT " + PasswordlessDeviceRowMapper.getInstance().columns() + " FROM "
                 + getConfig(start).getPasswordlessDevicesTable()
                 + " WHERE app_id = ? AND tenant_id = ? AND email = ?";
 
@@ -744,7 +744,7 @@ public class PasswordlessQueries {
     public static PasswordlessDevice[] getDevicesByPhoneNumber(Start start, TenantIdentifier tenantIdentifier,
                                                                @Nonnull String phoneNumber)
             throws StorageQueryException, SQLException {
-        String QUERY = "SELECT device_id_hash, email, phone_number, link_code_salt, failed_attempts FROM "
+        String QUERY = "SELECT " + PasswordlessDeviceRowMapper.getInstance().columns() + " FROM "
                 + getConfig(start).getPasswordlessDevicesTable()
                 + " WHERE app_id = ? AND tenant_id = ? AND phone_number = ?";
 
@@ -776,7 +776,7 @@ public class PasswordlessQueries {
 
     public static PasswordlessCode[] getCodesBefore(Start start, TenantIdentifier tenantIdentifier, long time)
             throws StorageQueryException, SQLException {
-        String QUERY = "SELECT code_id, device_id_hash, link_code_hash, created_at FROM "
+        String QUERY = "SELECT " + PasswordlessCodeRowMapper.getInstance().columns() + " FROM "
                 + getConfig(start).getPasswordlessCodesTable()
                 + " WHERE app_id = ? AND tenant_id = ? AND created_at < ?";
 
@@ -799,7 +799,7 @@ public class PasswordlessQueries {
 
     public static PasswordlessCode getCode(Start start, TenantIdentifier tenantIdentifier, String codeId)
             throws StorageQueryException, SQLException {
-        String QUERY = "SELECT code_id, device_id_hash, link_code_hash, created_at FROM "
+        String QUERY = "SELECT " + PasswordlessCodeRowMapper.getInstance().columns() + " FROM "
                 + getConfig(start).getPasswordlessCodesTable()
                 + " WHERE app_id = ? AND tenant_id = ? AND code_id = ?";
 
@@ -829,17 +829,12 @@ public class PasswordlessQueries {
             throws SQLException, StorageQueryException {
         if (ids != null && !ids.isEmpty()) {
             // No need to filter based on tenantId because the id list is already filtered for a tenant
-            String QUERY = "SELECT user_id, email, phone_number, time_joined "
-                    + "FROM " + getConfig(start).getPasswordlessUsersTable() + " WHERE user_id IN (" +
-                    Utils.generateCommaSeperatedQuestionMarks(ids.size()) + ") AND app_id = ?";
+            String QUERY = "SELECT " + UserInfoRowMapper.getInstance().columns() + " FROM "
+                    + getConfig(start).getPasswordlessUsersTable() + " WHERE user_id = ANY(?) AND app_id = ?";
 
             List<UserInfoPartial> userInfos = execute(start, QUERY, pst -> {
-                int index = 1;
-                for (String id : ids) {
-                    pst.setString(index, id);
-                    index++;
-                }
-                pst.setString(index, appIdentifier.getAppId());
+                Utils.setStringArray(pst, 1, ids);
+                pst.setString(2, appIdentifier.getAppId());
             }, result -> {
                 List<UserInfoPartial> finalResult = new ArrayList<>();
                 while (result.next()) {
@@ -859,17 +854,12 @@ public class PasswordlessQueries {
             throws SQLException, StorageQueryException {
         if (ids != null && !ids.isEmpty()) {
             // No need to filter based on tenantId because the id list is already filtered for a tenant
-            String QUERY = "SELECT user_id, email, phone_number, time_joined "
-                    + "FROM " + getConfig(start).getPasswordlessUsersTable() + " WHERE user_id IN (" +
-                    Utils.generateCommaSeperatedQuestionMarks(ids.size()) + ") AND app_id = ?";
+            String QUERY = "SELECT " + UserInfoRowMapper.getInstance().columns() + " FROM "
+                    + getConfig(start).getPasswordlessUsersTable() + " WHERE user_id = ANY(?) AND app_id = ?";
 
             List<UserInfoPartial> userInfos = execute(con, QUERY, pst -> {
-                int index = 1;
-                for (String id : ids) {
-                    pst.setString(index, id);
-                    index++;
-                }
-                pst.setString(index, appIdentifier.getAppId());
+                Utils.setStringArray(pst, 1, ids);
+                pst.setString(2, appIdentifier.getAppId());
             }, result -> {
                 List<UserInfoPartial> finalResult = new ArrayList<>();
                 while (result.next()) {
@@ -889,7 +879,7 @@ public class PasswordlessQueries {
             throws StorageQueryException, SQLException {
         // we don't need a LOCK here because this is already part of a transaction, and locked on app_id_to_user_id
         // table
-        String QUERY = "SELECT user_id, email, phone_number, time_joined FROM "
+        String QUERY = "SELECT " + UserInfoRowMapper.getInstance().columns() + " FROM "
                 + getConfig(start).getPasswordlessUsersTable() + " WHERE app_id = ? AND user_id = ?";
 
         return execute(sqlCon, QUERY, pst -> {
@@ -1355,24 +1345,31 @@ public class PasswordlessQueries {
         }
 
         if (mode.writesToNewTables()) {
-            executeBatch(sqlCon, AccountInfoQueries.getRecipeUserAccountInfoBatchQuery(start), recipeUserAccountInfoBatch);
-            executeBatch(sqlCon, AccountInfoQueries.getRecipeUserTenantBatchQuery(start), recipeUserTenantsBatch);
+            executeCopy(sqlCon, AccountInfoQueries.getRecipeUserAccountInfoBatchQuery(start), recipeUserAccountInfoBatch);
+            executeCopy(sqlCon, AccountInfoQueries.getRecipeUserTenantBatchQuery(start), recipeUserTenantsBatch);
         }
 
-        executeBatch(sqlCon, app_id_to_user_id_QUERY, appIdToUserIdBatch);
+        executeCopy(sqlCon, app_id_to_user_id_QUERY, appIdToUserIdBatch);
         if (mode.writesToOldTables()) {
-            executeBatch(sqlCon, all_auth_recipe_users_QUERY, allAuthRecipeUsersBatch);
+            executeCopy(sqlCon, all_auth_recipe_users_QUERY, allAuthRecipeUsersBatch);
         }
-        executeBatch(sqlCon, passwordless_users_QUERY, passwordlessUsersBatch);
+        executeCopy(sqlCon, passwordless_users_QUERY, passwordlessUsersBatch);
         if (mode.writesToOldTables()) {
-            executeBatch(sqlCon, passwordless_user_to_tenant_QUERY, passwordlessUserToTenantBatch);
+            executeCopy(sqlCon, passwordless_user_to_tenant_QUERY, passwordlessUserToTenantBatch);
         }
     }
 
-    private static class PasswordlessDeviceRowMapper implements RowMapper<PasswordlessDevice, ResultSet> {
+    private static class PasswordlessDeviceRowMapper extends ColumnOrdinalRowMapper<PasswordlessDevice> {
         private static final PasswordlessDeviceRowMapper INSTANCE = new PasswordlessDeviceRowMapper();
 
+        private final int deviceIdHash = ordinal("device_id_hash");
+        private final int email = ordinal("email");
+        private final int phoneNumber = ordinal("phone_number");
+        private final int linkCodeSalt = ordinal("link_code_salt");
+        private final int failedAttempts = ordinal("failed_attempts");
+
         private PasswordlessDeviceRowMapper() {
+            super("device_id_hash", "email", "phone_number", "link_code_salt", "failed_attempts");
         }
 
         private static PasswordlessDeviceRowMapper getInstance() {
@@ -1380,17 +1377,22 @@ public class PasswordlessQueries {
         }
 
         @Override
-        public PasswordlessDevice map(ResultSet result) throws Exception {
-            return new PasswordlessDevice(result.getString("device_id_hash").trim(), result.getString("email"),
-                    result.getString("phone_number"), result.getString("link_code_salt"),
-                    result.getInt("failed_attempts"));
+        public PasswordlessDevice map(ResultSet result) throws SQLException {
+            return new PasswordlessDevice(result.getString(deviceIdHash).trim(), result.getString(email),
+                    result.getString(phoneNumber), result.getString(linkCodeSalt), result.getInt(failedAttempts));
         }
     }
 
-    private static class PasswordlessCodeRowMapper implements RowMapper<PasswordlessCode, ResultSet> {
+    private static class PasswordlessCodeRowMapper extends ColumnOrdinalRowMapper<PasswordlessCode> {
         private static final PasswordlessCodeRowMapper INSTANCE = new PasswordlessCodeRowMapper();
 
+        private final int codeId = ordinal("code_id");
+        private final int deviceIdHash = ordinal("device_id_hash");
+        private final int linkCodeHash = ordinal("link_code_hash");
+        private final int createdAt = ordinal("created_at");
+
         private PasswordlessCodeRowMapper() {
+            super("code_id", "device_id_hash", "link_code_hash", "created_at");
         }
 
         private static PasswordlessCodeRowMapper getInstance() {
@@ -1398,9 +1400,9 @@ public class PasswordlessQueries {
         }
 
         @Override
-        public PasswordlessCode map(ResultSet result) throws Exception {
-            return new PasswordlessCode(result.getString("code_id"), result.getString("device_id_hash").trim(),
-                    result.getString("link_code_hash"), result.getLong("created_at"));
+        public PasswordlessCode map(ResultSet result) throws SQLException {
+            return new PasswordlessCode(result.getString(codeId), result.getString(deviceIdHash).trim(),
+                    result.getString(linkCodeHash), result.getLong(createdAt));
         }
     }
 
@@ -1433,10 +1435,16 @@ public class PasswordlessQueries {
         }
     }
 
-    private static class UserInfoRowMapper implements RowMapper<UserInfoPartial, ResultSet> {
+    private static class UserInfoRowMapper extends ColumnOrdinalRowMapper<UserInfoPartial> {
         private static final UserInfoRowMapper INSTANCE = new UserInfoRowMapper();
 
+        private final int userId = ordinal("user_id");
+        private final int email = ordinal("email");
+        private final int phoneNumber = ordinal("phone_number");
+        private final int timeJoined = ordinal("time_joined");
+
         private UserInfoRowMapper() {
+            super("user_id", "email", "phone_number", "time_joined");
         }
 
         private static UserInfoRowMapper getInstance() {
@@ -1444,9 +1452,9 @@ public class PasswordlessQueries {
         }
 
         @Override
-        public UserInfoPartial map(ResultSet result) throws Exception {
-            return new UserInfoPartial(result.getString("user_id"), result.getString("email"),
-                    result.getString("phone_number"), result.getLong("time_joined"));
+        public UserInfoPartial map(ResultSet result) throws SQLException {
+            return new UserInfoPartial(result.getString(userId), result.getString(email),
+                    result.getString(phoneNumber), result.getLong(timeJoined));
         }
     }
 
@@ -0,0 +1,76 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ */
+
+package io.supertokens.storage.postgresql.queries;
+
+import io.supertokens.storage.postgresql.config.PostgreSQLConfig;
+
+import java.util.function.Function;
+
+/**
+ * The queries whose SQL only depends on the config, and is therefore built once per storage by the QueryRegistry.
+ * The SQL itself is built by the query class that runs it.
+ */
+public enum QueryId {
+    SESSION_CREATE(config -> SessionQueries.createNewSessionQuery(config, false)),
+    SESSION_CREATE_WITH_EXPIRY_BUCKET(config -> SessionQueries.createNewSessionQuery(config, true)),
+    SESSION_GET_INFO_FOR_UPDATE_LEGACY(config -> SessionQueries.getSessionInfoForUpdateQuery(config,
+            config.getUsersTable())),
+    SESSION_GET_INFO_FOR_UPDATE(config -> SessionQueries.getSessionInfoForUpdateQuery(config,
+            config.getAppIdToUserIdTable())),
+    SESSION_UPDATE_INFO(config -> SessionQueries.updateSessionInfoQuery(config, false)),
+    SESSION_UPDATE_INFO_WITH_EXPIRY_BUCKET(config -> SessionQueries.updateSessionInfoQuery(config, true)),
+    SESSION_COUNT(SessionQueries::getNumberOfSessionsQuery),
+    SESSION_DELETE(SessionQueries::deleteSessionsQuery),
+    SESSION_DELETE_OF_USER_IN_APP(SessionQueries::deleteSessionsOfUserInAppQuery),
+    SESSION_DELETE_OF_USER_IN_TENANT(SessionQueries::deleteSessionsOfUserInTenantQuery),
+    SESSION_GET_NON_EXPIRED_HANDLES_OF_USER_IN_TENANT(SessionQueries::getNonExpiredSessionHandlesOfUserInTenantQuery),
+    SESSION_GET_NON_EXPIRED_HANDLES_OF_USER_IN_APP(SessionQueries::getNonExpiredSessionHandlesOfUserInAppQuery),
+    SESSION_UPDATE_DATA(config -> SessionQueries.updateSessionQuery(config, true, false)),
+    SESSION_UPDATE_JWT_PAYLOAD(config -> SessionQueries.updateSessionQuery(config, false, true)),
+    SESSION_UPDATE_DATA_AND_JWT_PAYLOAD(config -> SessionQueries.updateSessionQuery(config, true, true)),
+    SESSION_GET_LEGACY(config -> SessionQueries.getSessionQuery(config, config.getUsersTable())),
+    SESSION_GET(config -> SessionQueries.getSessionQuery(config, config.getAppIdToUserIdTable())),
+    ACCESS_TOKEN_SIGNING_KEY_ADD(SessionQueries::addAccessTokenSigningKeyQuery),
+    ACCESS_TOKEN_SIGNING_KEY_GET_ALL_FOR_UPDATE(SessionQueries::getAccessTokenSigningKeysForUpdateQuery),
+    ACCESS_TOKEN_SIGNING_KEY_REMOVE_BEFORE(SessionQueries::removeAccessTokenSigningKeysBeforeQuery),
+    KEY_VALUE_SET(GeneralQueries::setKeyValueQuery),
+    KEY_VALUE_GET(GeneralQueries::getKeyValueQuery),
+    KEY_VALUE_DELETE(GeneralQueries::deleteKeyValueQuery),
+    USERS_GET_PAGE_ASC(config -> GeneralQueries.getUsersPageQuery(config, "", "ASC", false)),
+    USERS_GET_PAGE_DESC(config -> GeneralQueries.getUsersPageQuery(config, "", "DESC", false)),
+    USERS_GET_PAGE_AFTER_CURSOR_ASC(config -> GeneralQueries.getUsersPageQuery(config, "", "ASC", true)),
+    USERS_GET_PAGE_AFTER_CURSOR_DESC(config -> GeneralQueries.getUsersPageQuery(config, "", "DESC", true)),
+    USERS_GET_PRIMARY_USER_INFO_FOR_USER_IDS(GeneralQueries::getPrimaryUserInfoForUserIdsQuery),
+    USERS_GET_PRIMARY_USER_INFO_FOR_USER_IDS_LEGACY(GeneralQueries::getPrimaryUserInfoForUserIdsLegacyQuery),
+    USERS_GET_PRIMARY_USER_INFO_FOR_USER_IDS_LEGACY_TRANSACTION(
+            GeneralQueries::getPrimaryUserInfoForUserIdsLegacyTransactionQuery),
+    SESSION_GET_NON_EXPIRED_HANDLES_OF_USERS(SessionQueries::getAllNonExpiredSessionHandlesForUsersQuery),
+    USER_LOCKING_FIND_PRIMARY_USER_IDS(UserLockingQueries::findPrimaryUserIdsQuery),
+    USER_LOCKING_LOCK_USERS(UserLockingQueries::lockUsersQuery),
+    ACCOUNT_INFO_LIST_PRIMARY_USER_IDS_BY_EMAIL(AccountInfoQueries::listPrimaryUserIdsByEmailQuery),
+    ACCOUNT_INFO_GET_CONFLICTING_PRIMARY_USER(AccountInfoQueries::getConflictingPrimaryUserQuery);
+
+    private final Function<PostgreSQLConfig, String> builder;
+
+    QueryId(Function<PostgreSQLConfig, String> builder) {
+        this.builder = builder;
+    }
+
+    String build(PostgreSQLConfig config) {
+        return builder.apply(config);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ */
+
+package io.supertokens.storage.postgresql.queries;
+
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storage.postgresql.config.PostgreSQLConfig;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The SQL of every QueryId, built from a storage's config when the config is loaded. Looking a query up is an array
+ * read, instead of concatenating the (schema and prefix qualified) table names on every call.
+ */
+public final class QueryRegistry {
+
+    private final String[] queries;
+    // by the identity of the registered strings, so that a lookup does not compare the SQL
+    private final Map<String, QueryId> idsByQuery = new IdentityHashMap<>();
+
+    public QueryRegistry(PostgreSQLConfig config) {
+        QueryId[] ids = QueryId.values();
+        this.queries = new String[ids.length];
+        for (QueryId id : ids) {
+            this.queries[id.ordinal()] = id.build(config);
+            this.idsByQuery.put(this.queries[id.ordinal()], id);
+        }
+    }
+
+    public String get(QueryId id) {
+        return queries[id.ordinal()];
+    }
+
+    /**
+     * Returns the QueryId of a query string returned by {@link #get}, or null for any other string, even one with
+     * the same SQL.
+     */
+    public QueryId getId(String query) {
+        return idsByQuery.get(query);
+    }
+
+    static String getQuery(Start start, QueryId id) {
+        return start.getQueryRegistry().get(id);
+    }
+}
@@ -32,6 +32,7 @@ import io.supertokens.pluginInterface.saml.SAMLClient;
 import io.supertokens.pluginInterface.saml.SAMLRelayStateInfo;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.update;
+import io.supertokens.storage.postgresql.ExpirySweeper;
 import io.supertokens.storage.postgresql.Start;
 import io.supertokens.storage.postgresql.config.Config;
 import static io.supertokens.storage.postgresql.config.Config.getConfig;
@@ -411,16 +412,12 @@ public class SAMLQueries {
         long now = System.currentTimeMillis();
 
         // Remove expired relay states
-        String RELAY_STATE_QUERY = "DELETE FROM " + getConfig(start).getSAMLRelayStateTable()
-                + " WHERE expires_at <= ?";
-        update(start, RELAY_STATE_QUERY, pst -> {
+        ExpirySweeper.sweep(start, getConfig(start).getSAMLRelayStateTable(), "expires_at <= ?", pst -> {
             pst.setLong(1, now);
         });
 
         // Remove expired claims
-        String CLAIMS_QUERY = "DELETE FROM " + getConfig(start).getSAMLClaimsTable()
-                + " WHERE expires_at <= ?";
-        update(start, CLAIMS_QUERY, pst -> {
+        ExpirySweeper.sweep(start, getConfig(start).getSAMLClaimsTable(), "expires_at <= ?", pst -> {
             pst.setLong(1, now);
         });
     }
@@ -0,0 +1,255 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ */
+
+package io.supertokens.storage.postgresql.queries;
+
+import io.supertokens.pluginInterface.exceptions.StorageQueryException;
+import io.supertokens.storage.postgresql.ConnectionPool;
+import io.supertokens.storage.postgresql.ResourceDistributor;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storage.postgresql.config.Config;
+import io.supertokens.storage.postgresql.config.PostgreSQLConfig;
+import io.supertokens.storage.postgresql.output.Logging;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static io.supertokens.storage.postgresql.PreparedStatementValueSetter.NO_OP_SETTER;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.update;
+import static java.lang.System.currentTimeMillis;
+
+/**
+ * The layout of the session_info table if postgresql_session_info_hot_updates is enabled.
+ *
+ * A refresh (see SessionQueries.updateSessionInfo_Transaction) changes refresh_token_hash_2 and expires_at. PostgreSQL
+ * only updates a row without adding entries for the new version to every index of the table (a HOT update) if none of
+ * the indexed columns change, and if the new version fits on the same page. expires_at is indexed by
+ * session_expiry_index, so that deleteAllExpiredSessions can find the expired sessions, which makes no refresh HOT.
+ *
+ * In this layout, expires_at is not indexed. A session also stores the day (since the epoch, in UTC) in which it
+ * expires, in expiry_bucket, which is indexed instead, and the expired sessions are found by their day. A refresh only
+ * changes expiry_bucket if it moves the expiry to another day, so all but the first refresh of a session in a day can
+ * be HOT. The table's pages are filled to {@link #FILLFACTOR}%, to leave room for the new versions of their rows.
+ *
+ * For an existing table, expiry_bucket is added and the fillfactor is set at startup, which only change the catalog.
+ * The fillfactor only applies to the pages written from then on. If that times out on the table's lock, the sessions
+ * are written without expiry_bucket until a run of deleteAllExpiredSessions adds it, see
+ * {@link #prepareExistingTable}. The next run of deleteAllExpiredSessions builds the index of expiry_bucket, fills it
+ * in for the sessions that do not have it yet, and then drops session_expiry_index. If the config is disabled again,
+ * that run only rebuilds session_expiry_index. expiry_bucket is left in place, as cores that still have the config
+ * enabled keep writing it during a rolling change. Sessions refreshed meanwhile keep an earlier bucket than their
+ * expiry, which only makes a later enable look at them before they expire. Dropping the column, its index and the
+ * fillfactor is a manual step, once no core has the config enabled. The indexes are built as described in
+ * {@link SessionInfoPartitionQueries#createIndexConcurrently}.
+ */
+public class SessionInfoHotUpdateQueries {
+
+    static final int FILLFACTOR = 70;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private static final String EXPIRY_INDEX_NAME = "session_expiry_index";
+
+    private static final String EXPIRY_BUCKET_INDEX_NAME = "session_info_expiry_bucket_index";
+
+    private static final String MISSING_EXPIRY_BUCKET_RESOURCE_KEY =
+            "io.supertokens.storage.postgresql.queries.SessionInfoHotUpdateQueries.MissingExpiryBucket";
+
+    /** Set for a storage whose table could not be given expiry_bucket yet. */
+    private static class MissingExpiryBucket extends ResourceDistributor.SingletonResource {
+    }
+
+    private static class Layout {
+        private final boolean hasExpiryBucketColumn;
+        private final boolean hasFillfactor;
+        private final boolean hasExpiryIndex;
+        private final boolean hasExpiryBucketIndex;
+
+        private Layout(boolean hasExpiryBucketColumn, boolean hasFillfactor, boolean hasExpiryIndex,
+                       boolean hasExpiryBucketIndex) {
+            this.hasExpiryBucketColumn = hasExpiryBucketColumn;
+            this.hasFillfactor = hasFillfactor;
+            this.hasExpiryIndex = hasExpiryIndex;
+            this.hasExpiryBucketIndex = hasExpiryBucketIndex;
+        }
+    }
+
+    public static long getExpiryBucket(long expiresAt) {
+        return Math.floorDiv(expiresAt, MILLIS_PER_DAY);
+    }
+
+    /**
+     * Whether the sessions' inserts and refreshes set expiry_bucket, which they do if
+     * postgresql_session_info_hot_updates is enabled, unless {@link #prepareExistingTable} could not add it yet.
+     */
+    static boolean isExpiryBucketWritten(Start start) {
+        return Config.getConfig(start).isSessionInfoHotUpdatesEnabled()
+                && start.getResourceDistributor().getResource(MISSING_EXPIRY_BUCKET_RESOURCE_KEY) == null;
+    }
+
+    static String getQueryToCreateExpiryBucketIndex(Start start) {
+        return "CREATE INDEX IF NOT EXISTS " + EXPIRY_BUCKET_INDEX_NAME + " ON "
+                + Config.getConfig(start).getSessionInfoTable() + "(expiry_bucket);";
+    }
+
+    /**
+     * The condition, for deleteAllExpiredSessions, of the sessions that expired at or before the given time, which
+     * takes its two parameters from {@link #setExpiredParameters}. The sessions that do not have an expiry_bucket
+     * yet are found until the next run fills it in.
+     */
+    static String getExpiredCondition() {
+        return "expires_at <= ? AND (expiry_bucket <= ? OR expiry_bucket IS NULL)";
+    }
+
+    static void setExpiredParameters(PreparedStatement pst, long now) throws SQLException {
+        pst.setLong(1, now);
+        pst.setLong(2, getExpiryBucket(now));
+    }
+
+    /**
+     * Adds expiry_bucket to an existing table and sets its fillfactor, if that is not done yet, at startup (from
+     * createTablesIfNotExists) and in every run of deleteAllExpiredSessions until it is. Both only change the
+     * catalog, but ALTER TABLE has to wait for the transactions that use the table, and the sessions' queries would
+     * queue behind it, so it gives up after {@link SessionInfoPartitionQueries#MIGRATION_LOCK_TIMEOUT}. Until the
+     * column is added, the sessions are written without it, see {@link #isExpiryBucketWritten}.
+     */
+    static void prepareExistingTable(Start start, Connection con) throws SQLException, StorageQueryException {
+        Layout layout = getLayout(start, con);
+        if (!layout.hasExpiryBucketColumn || !layout.hasFillfactor) {
+            boolean previousAutoCommit = con.getAutoCommit();
+            con.setAutoCommit(false);
+            try {
+                update(con, "SET LOCAL lock_timeout = '" + SessionInfoPartitionQueries.MIGRATION_LOCK_TIMEOUT + "'",
+                        NO_OP_SETTER);
+                update(con, "ALTER TABLE " + Config.getConfig(start).getSessionInfoTable()
+                        + " ADD COLUMN IF NOT EXISTS expiry_bucket BIGINT, SET (fillfactor = " + FILLFACTOR + ");",
+                        NO_OP_SETTER);
+                con.commit();
+            } catch (SQLException e) {
+                con.rollback();
+                if (!SessionInfoPartitionQueries.isLockNotAvailable(e)) {
+                    throw e;
+                }
+                Logging.warn(start, "Timed out waiting to add expiry_bucket to the session_info table, leaving it"
+                        + " to the next run of the cron that deletes expired sessions");
+                if (!layout.hasExpiryBucketColumn) {
+                    start.getResourceDistributor().setResource(MISSING_EXPIRY_BUCKET_RESOURCE_KEY,
+                            new MissingExpiryBucket());
+                }
+                return;
+            } finally {
+                con.setAutoCommit(previousAutoCommit);
+            }
+        }
+        start.getResourceDistributor().removeResource(MISSING_EXPIRY_BUCKET_RESOURCE_KEY);
+    }
+
+    /**
+     * Brings the indexes of the table in line with the config, as described in the class comment. Called by every
+     * run of deleteAllExpiredSessions on a table that is not partitioned, and does nothing once they are.
+     */
+    static void updateIndexes(Start start) throws SQLException, StorageQueryException {
+        PostgreSQLConfig config = Config.getConfig(start);
+        String schema = config.getTableSchema();
+        String tableName = config.getSessionInfoTable();
+        Layout layout;
+        try (Connection con = ConnectionPool.getConnection(start)) {
+            if (config.isSessionInfoHotUpdatesEnabled()) {
+                prepareExistingTable(start, con);
+            }
+            layout = getLayout(start, con);
+        }
+
+        if (config.isSessionInfoHotUpdatesEnabled()) {
+            if (!layout.hasExpiryBucketColumn) {
+                return;
+            }
+            if (!layout.hasExpiryBucketIndex && !SessionInfoPartitionQueries.createIndexConcurrently(start, schema,
+                    EXPIRY_BUCKET_INDEX_NAME, "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + EXPIRY_BUCKET_INDEX_NAME
+                            + " ON " + tableName + "(expiry_bucket);")) {
+                // still being built by an earlier run
+                return;
+            }
+            boolean isFilledIn = fillInExpiryBuckets(start);
+            // until then, the sessions without an expiry_bucket are found through session_expiry_index
+            if (isFilledIn && layout.hasExpiryIndex) {
+                SessionInfoPartitionQueries.updateWithoutNetworkTimeout(start,
+                        "DROP INDEX CONCURRENTLY IF EXISTS " + schema + "." + EXPIRY_INDEX_NAME + ";");
+            }
+        } else if (layout.hasExpiryBucketColumn && !layout.hasExpiryIndex) {
+            SessionInfoPartitionQueries.createIndexConcurrently(start, schema, EXPIRY_INDEX_NAME,
+                    "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + EXPIRY_INDEX_NAME + " ON " + tableName
+                            + "(expires_at);");
+        }
+    }
+
+    /**
+     * Fills in expiry_bucket for the sessions that do not have it, in batches of postgresql_expiry_sweep_batch_size,
+     * with postgresql_expiry_sweep_pause between them. Returns false if postgresql_expiry_sweep_max_runtime passed
+     * before every session had it, in which case the next run continues.
+     */
+    private static boolean fillInExpiryBuckets(Start start) throws SQLException, StorageQueryException {
+        PostgreSQLConfig config = Config.getConfig(start);
+        String tableName = config.getSessionInfoTable();
+        String QUERY = "UPDATE " + tableName + " SET expiry_bucket = floor(expires_at / " + MILLIS_PER_DAY + ".0)"
+                + " WHERE ctid = ANY(ARRAY(SELECT ctid FROM " + tableName + " WHERE expiry_bucket IS NULL LIMIT "
+                + config.getExpirySweepBatchSize() + "))";
+        long deadline = currentTimeMillis() + config.getExpirySweepMaxRuntime();
+        while (true) {
+            int updated = update(start, QUERY, NO_OP_SETTER);
+            if (updated < config.getExpirySweepBatchSize()) {
+                return true;
+            }
+            if (currentTimeMillis() >= deadline) {
+                return false;
+            }
+            if (config.getExpirySweepPause() > 0) {
+                try {
+                    Thread.sleep(config.getExpirySweepPause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+    }
+
+    private static Layout getLayout(Start start, Connection con) throws SQLException, StorageQueryException {
+        String schema = Config.getConfig(start).getTableSchema();
+        String QUERY = "SELECT"
+                + " EXISTS (SELECT 1 FROM pg_attribute WHERE attrelid = to_regclass(?) AND attname = 'expiry_bucket'"
+                + " AND NOT attisdropped) AS has_expiry_bucket_column,"
+                + " COALESCE((SELECT ? = ANY(reloptions) FROM pg_class WHERE oid = to_regclass(?)), FALSE)"
+                + " AS has_fillfactor,"
+                + " to_regclass(?) IS NOT NULL AS has_expiry_index,"
+                + " COALESCE((SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)), FALSE)"
+                + " AS has_expiry_bucket_index";
+        return execute(con, QUERY, pst -> {
+            String tableName = Config.getConfig(start).getSessionInfoTable();
+            pst.setString(1, tableName);
+            pst.setString(2, "fillfactor=" + FILLFACTOR);
+            pst.setString(3, tableName);
+            pst.setString(4, schema + "." + EXPIRY_INDEX_NAME);
+            pst.setString(5, schema + "." + EXPIRY_BUCKET_INDEX_NAME);
+        }, result -> {
+            result.next();
+            return new Layout(result.getBoolean("has_expiry_bucket_column"), result.getBoolean("has_fillfactor"),
+                    result.getBoolean("has_expiry_index"), result.getBoolean("has_expiry_bucket_index"));
+        });
+    }
+}
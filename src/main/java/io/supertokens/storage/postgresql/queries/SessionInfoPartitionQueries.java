@@ -0,0 +1,529 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ */
+
+package io.supertokens.storage.postgresql.queries;
+
+import io.supertokens.pluginInterface.exceptions.StorageQueryException;
+import io.supertokens.storage.postgresql.ConnectionPool;
+import io.supertokens.storage.postgresql.ExpirySweeper;
+import io.supertokens.storage.postgresql.PreparedStatementValueSetter;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storage.postgresql.config.Config;
+import io.supertokens.storage.postgresql.config.PostgreSQLConfig;
+import io.supertokens.storage.postgresql.output.Logging;
+import io.supertokens.storage.postgresql.utils.Utils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.supertokens.storage.postgresql.PreparedStatementValueSetter.NO_OP_SETTER;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.update;
+import static java.lang.System.currentTimeMillis;
+
+/**
+ * The session_info table, if postgresql_session_info_partitioned is enabled.
+ *
+ * The table is range partitioned by {@code expires_at} (epoch millis) into one partition per UTC calendar month, like
+ * the activity log (see {@link ActivityLogQueries}). Expired sessions are removed by dropping the partitions whose
+ * whole month has passed, so only the expired sessions of the current month are deleted row by row. The partitions of
+ * the current and the next {@link #PREMAKE_MONTHS} months are pre-created at table creation and by every run of
+ * deleteAllExpiredSessions. A DEFAULT partition holds the sessions that expire after them, and its rows are moved to
+ * their month's partition when that partition is created.
+ *
+ * The primary key of a partitioned table must include its partition key, so the primary key is
+ * (app_id, tenant_id, session_handle, expires_at). Session handles are random UUIDs, so they stay unique. A refresh
+ * that moves expires_at to another month moves the session to that month's partition.
+ *
+ * An existing session_info table is migrated by the first run of deleteAllExpiredSessions after the config is
+ * enabled, see {@link #migrateToPartitionedTable}. Requires PostgreSQL 11+.
+ *
+ * The partitions are dropped and created with {@link #MIGRATION_LOCK_TIMEOUT}, as they lock the whole table. If a
+ * lock is not given in time, because of a long transaction on the table, that is left to the next run.
+ */
+public class SessionInfoPartitionQueries {
+
+    /** Number of future months (beyond the current one) to pre-create partitions for: 100 day refresh tokens fit. */
+    private static final int PREMAKE_MONTHS = 4;
+
+    /**
+     * How long the migration waits for the locks of its short catalog changes. If it times out, because of a long
+     * transaction on the table, it is retried by the next run of deleteAllExpiredSessions, instead of making the
+     * sessions' queries queue behind it.
+     */
+    static final String MIGRATION_LOCK_TIMEOUT = "5s";
+
+    /**
+     * How many months after the later of the latest expiry and the current month the migration's CHECK constraint
+     * bounds expires_at at. It has to be beyond any expiry that a session can get while the constraint is on the
+     * table, since it applies to the sessions' inserts and refreshes too. The default refresh token validity is 100
+     * days.
+     */
+    private static final int MIGRATION_CUTOFF_MONTHS = 13;
+
+    /** pgjdbc applies a network timeout to the socket right away, so it needs no executor. */
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private static final DateTimeFormatter MONTH_SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /** Matches the bounds of a range partition, as printed by pg_get_expr. The DEFAULT partition won't match. */
+    private static final Pattern PARTITION_BOUND_PATTERN = Pattern.compile(
+            "FROM \\((MINVALUE|'?(-?\\d+)'?)\\) TO \\((MAXVALUE|'?(-?\\d+)'?)\\)");
+
+    /** Matches the upper bound of the CHECK constraint that the migration adds, as printed by pg_get_constraintdef. */
+    private static final Pattern CUTOFF_PATTERN = Pattern.compile("expires_at < '?(-?\\d+)");
+
+    private static class Partition {
+        private final String name;
+        private final long fromMillis;
+        private final long toMillis;
+
+        private Partition(String name, long fromMillis, long toMillis) {
+            this.name = name;
+            this.fromMillis = fromMillis;
+            this.toMillis = toMillis;
+        }
+    }
+
+    interface TransactionLogic {
+        void run(Connection con) throws SQLException, StorageQueryException;
+    }
+
+    /**
+     * The indexes of the table, by name. They are created on the partitioned table, which creates them on every
+     * partition.
+     */
+    private static Map<String, String> getIndexColumns() {
+        Map<String, String> indexColumns = new LinkedHashMap<>();
+        indexColumns.put("session_expiry_index", "(expires_at)");
+        indexColumns.put("session_info_user_id_app_id_index", "(user_id, app_id)");
+        indexColumns.put("session_info_tenant_id_index", "(app_id, tenant_id)");
+        return indexColumns;
+    }
+
+    static String getQueryToCreateDefaultPartition(Start start) {
+        String tableName = Config.getConfig(start).getSessionInfoTable();
+        return "CREATE TABLE IF NOT EXISTS " + tableName + "_default PARTITION OF " + tableName + " DEFAULT;";
+    }
+
+    /**
+     * DDL to create the partitions of the current month and the next {@link #PREMAKE_MONTHS} months along with the
+     * table, when the DEFAULT partition is still empty.
+     */
+    static List<String> getQueriesToCreateUpcomingMonthPartitions(Start start) {
+        String tableName = Config.getConfig(start).getSessionInfoTable();
+        List<String> queries = new ArrayList<>();
+        YearMonth thisMonth = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= PREMAKE_MONTHS; i++) {
+            YearMonth month = thisMonth.plusMonths(i);
+            queries.add("CREATE TABLE IF NOT EXISTS " + getPartitionName(tableName, month) + " PARTITION OF "
+                    + tableName + " FOR VALUES FROM (" + monthStartMillis(month) + ") TO ("
+                    + monthStartMillis(month.plusMonths(1)) + ");");
+        }
+        return queries;
+    }
+
+    /**
+     * Migrates the table first if it is not partitioned yet. Then pre-creates the upcoming months' partitions, drops
+     * the partitions in which every session has expired, and deletes the expired sessions of the partitions that can
+     * hold them: the current month's, the DEFAULT partition, and the partition of the migrated table until it is
+     * dropped. These are swept one at a time, see {@link ExpirySweeper}.
+     */
+    static void deleteAllExpiredSessions(Start start) throws SQLException, StorageQueryException {
+        if (!isPartitioned(start)) {
+            migrateToPartitionedTable(start);
+        }
+
+        String tableName = Config.getConfig(start).getSessionInfoTable();
+        long now = currentTimeMillis();
+        PreparedStatementValueSetter expiredSetter = pst -> pst.setLong(1, now);
+        createUpcomingMonthPartitions(start, now);
+        for (Partition partition : getPartitions(start)) {
+            if (partition.toMillis <= now) {
+                dropPartition(start, partition);
+            } else if (partition.fromMillis <= now) {
+                ExpirySweeper.sweep(start, tableName, partition.name, "expires_at <= ?", expiredSetter);
+            }
+        }
+        ExpirySweeper.sweep(start, tableName, tableName + "_default", "expires_at <= ?", expiredSetter);
+    }
+
+    private static boolean isPartitioned(Start start) throws SQLException, StorageQueryException {
+        return execute(start, "SELECT relkind FROM pg_class WHERE oid = to_regclass(?)", pst -> {
+            pst.setString(1, Config.getConfig(start).getSessionInfoTable());
+        }, result -> result.next() && "p".equals(result.getString(1)));
+    }
+
+    /**
+     * The range partitions of the table, schema qualified. The DEFAULT partition is not included.
+     */
+    private static List<Partition> getPartitions(Start start) throws SQLException, StorageQueryException {
+        String QUERY = "SELECT n.nspname AS schema_name, c.relname AS partition_name,"
+                + " pg_get_expr(c.relpartbound, c.oid) AS partition_bound"
+                + " FROM pg_inherits i"
+                + " JOIN pg_class c ON c.oid = i.inhrelid"
+                + " JOIN pg_namespace n ON n.oid = c.relnamespace"
+                + " WHERE i.inhparent = ?::regclass";
+
+        return execute(start, QUERY, pst -> {
+            pst.setString(1, Config.getConfig(start).getSessionInfoTable());
+        }, result -> {
+            List<Partition> partitions = new ArrayList<>();
+            while (result.next()) {
+                Matcher matcher = PARTITION_BOUND_PATTERN.matcher(result.getString("partition_bound"));
+                if (!matcher.find()) {
+                    continue;
+                }
+                long fromMillis = matcher.group(2) == null ? Long.MIN_VALUE : Long.parseLong(matcher.group(2));
+                long toMillis = matcher.group(4) == null ? Long.MAX_VALUE : Long.parseLong(matcher.group(4));
+                partitions.add(new Partition(result.getString("schema_name") + "."
+                        + result.getString("partition_name"), fromMillis, toMillis));
+            }
+            return partitions;
+        });
+    }
+
+    private static void dropPartition(Start start, Partition partition) throws SQLException, StorageQueryException {
+        try {
+            runInTransaction(start, con -> {
+                update(con, "SET LOCAL lock_timeout = '" + MIGRATION_LOCK_TIMEOUT + "'", NO_OP_SETTER);
+                update(con, "DROP TABLE IF EXISTS " + partition.name + ";", NO_OP_SETTER);
+            });
+        } catch (SQLException e) {
+            if (!isLockNotAvailable(e)) {
+                throw e;
+            }
+            Logging.debug(start, "Timed out waiting to drop " + partition.name + ", leaving it to the next run");
+        }
+    }
+
+    private static void createUpcomingMonthPartitions(Start start, long now)
+            throws SQLException, StorageQueryException {
+        List<Partition> partitions = getPartitions(start);
+        YearMonth thisMonth = YearMonth.from(Instant.ofEpochMilli(now).atZone(ZoneOffset.UTC));
+        for (int i = 0; i <= PREMAKE_MONTHS; i++) {
+            YearMonth month = thisMonth.plusMonths(i);
+            long fromMillis = monthStartMillis(month);
+            long toMillis = monthStartMillis(month.plusMonths(1));
+            // months already covered, for example by the partition of a migrated table
+            boolean overlaps = partitions.stream().anyMatch(
+                    partition -> partition.fromMillis < toMillis && fromMillis < partition.toMillis);
+            if (!overlaps) {
+                createMonthPartition(start, month);
+            }
+        }
+    }
+
+    /**
+     * Creates the partition of a month, moving the sessions of that month out of the DEFAULT partition, as a
+     * partition cannot be added while the DEFAULT partition has rows that belong in it.
+     */
+    private static void createMonthPartition(Start start, YearMonth month)
+            throws SQLException, StorageQueryException {
+        String tableName = Config.getConfig(start).getSessionInfoTable();
+        String partitionName = getPartitionName(tableName, month);
+        long fromMillis = monthStartMillis(month);
+        long toMillis = monthStartMillis(month.plusMonths(1));
+
+        try {
+            runInTransaction(start, con -> {
+                update(con, "SET LOCAL lock_timeout = '" + MIGRATION_LOCK_TIMEOUT + "'", NO_OP_SETTER);
+                // other instances run this too
+                takeTableLock(con, tableName);
+                boolean exists = execute(con, "SELECT to_regclass(?) IS NOT NULL", pst -> {
+                    pst.setString(1, partitionName);
+                }, result -> result.next() && result.getBoolean(1));
+                if (exists) {
+                    return;
+                }
+                update(con, "CREATE TABLE " + partitionName + " (LIKE " + tableName + " INCLUDING DEFAULTS);",
+                        NO_OP_SETTER);
+                update(con, "WITH moved AS (DELETE FROM " + tableName + "_default"
+                        + " WHERE expires_at >= ? AND expires_at < ? RETURNING *)"
+                        + " INSERT INTO " + partitionName + " SELECT * FROM moved", pst -> {
+                    pst.setLong(1, fromMillis);
+                    pst.setLong(2, toMillis);
+                });
+                update(con, "ALTER TABLE " + tableName + " ATTACH PARTITION " + partitionName
+                        + " FOR VALUES FROM (" + fromMillis + ") TO (" + toMillis + ");", NO_OP_SETTER);
+            });
+        } catch (SQLException e) {
+            if (!isLockNotAvailable(e)) {
+                throw e;
+            }
+            // until then, the sessions of that month are stored in the DEFAULT partition
+            Logging.debug(start, "Timed out waiting to create " + partitionName + ", leaving it to the next run");
+        }
+    }
+
+    /**
+     * Turns the existing table into the first partition of a new partitioned table, without copying it, and without
+     * blocking the sessions' queries for longer than a few catalog changes:
+     *
+     * 1. A CHECK constraint that bounds expires_at by a cutoff is added as NOT VALID, which only applies it to new
+     * rows. The cutoff is {@link #MIGRATION_CUTOFF_MONTHS} months after the later of the latest expiry and the
+     * current month, so that no session that is created or refreshed while the constraint is on the table is
+     * beyond it.
+     * 2. The constraint is validated, which scans the table without blocking its reads and writes.
+     * 3. The indexes that the partitioned table needs are built CONCURRENTLY: a unique index that includes
+     * expires_at, for its primary key, and the table's other indexes, if an older table lacks them.
+     * 4. In one transaction, the table and its indexes are renamed to *_legacy, the partitioned table is created, and
+     * the renamed table is attached to it as the partition of (MINVALUE, cutoff). The validated constraint spares the
+     * attach from scanning the table, and the existing indexes are attached instead of being built.
+     *
+     * Steps 2 and 3 can take much longer than the pool's socketTimeout on a big table, so they run on connections
+     * without a network timeout, see {@link #updateWithoutNetworkTimeout}. Every step is skipped if it is already
+     * done, so a migration that fails, for example on a lock timeout, is continued by the next run, which also waits
+     * for an index that is still being built by an earlier run. The constraint is dropped when a migration fails,
+     * and added again by the next run. New months' partitions can only start at the cutoff, so until then new
+     * sessions are stored in the legacy partition, which is dropped as a whole once the cutoff has passed.
+     */
+    static void migrateToPartitionedTable(Start start) throws SQLException, StorageQueryException {
+        PostgreSQLConfig config = Config.getConfig(start);
+        String schema = config.getTableSchema();
+        String tableName = config.getSessionInfoTable();
+        String checkName = Utils.getConstraintName(schema, tableName, "expires_at", "check");
+        String uniqueIndexName = Utils.getConstraintName(schema, tableName, null, "legacy_key");
+
+        // 1.
+        Long cutoff = getMigrationCutoff(start, tableName, checkName);
+        if (cutoff == null) {
+            long latestExpiry = execute(start, "SELECT COALESCE(MAX(expires_at), 0) FROM " + tableName, NO_OP_SETTER,
+                    result -> result.next() ? result.getLong(1) : 0L);
+            YearMonth latestMonth = YearMonth.from(
+                    Instant.ofEpochMilli(Math.max(latestExpiry, currentTimeMillis())).atZone(ZoneOffset.UTC));
+            long newCutoff = monthStartMillis(latestMonth.plusMonths(MIGRATION_CUTOFF_MONTHS));
+            runInTransaction(start, con -> {
+                update(con, "SET LOCAL lock_timeout = '" + MIGRATION_LOCK_TIMEOUT + "'", NO_OP_SETTER);
+                update(con, "ALTER TABLE " + tableName + " ADD CONSTRAINT " + checkName
+                        + " CHECK (expires_at < " + newCutoff + ") NOT VALID;", NO_OP_SETTER);
+            });
+            cutoff = newCutoff;
+        }
+
+        try {
+            // 2.
+            updateWithoutNetworkTimeout(start, "ALTER TABLE " + tableName + " VALIDATE CONSTRAINT " + checkName
+                    + ";");
+
+            // 3.
+            boolean isIndexed = createIndexConcurrently(start, schema, uniqueIndexName,
+                    "CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS " + uniqueIndexName + " ON " + tableName
+                            + "(app_id, tenant_id, session_handle, expires_at);");
+            for (Map.Entry<String, String> index : getIndexColumns().entrySet()) {
+                isIndexed &= createIndexConcurrently(start, schema, index.getKey(),
+                        "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index.getKey() + " ON " + tableName
+                                + index.getValue() + ";");
+            }
+            if (!isIndexed) {
+                // an earlier run is still building an index, the next run continues after it
+                return;
+            }
+
+            // 4.
+            long finalCutoff = cutoff;
+            runInTransaction(start, con -> {
+                update(con, "SET LOCAL lock_timeout = '" + MIGRATION_LOCK_TIMEOUT + "'", NO_OP_SETTER);
+                // another instance may have migrated the table meanwhile
+                takeTableLock(con, tableName);
+                boolean isPartitioned = execute(con, "SELECT relkind FROM pg_class WHERE oid = to_regclass(?)",
+                        pst -> {
+                            pst.setString(1, tableName);
+                        }, result -> result.next() && "p".equals(result.getString(1)));
+                if (isPartitioned) {
+                    return;
+                }
+                // without it, the attach would scan the table, and another instance drops it if its migration fails
+                boolean isValidated = execute(con, "SELECT convalidated FROM pg_constraint"
+                        + " WHERE conrelid = ?::regclass AND conname = ?", pst -> {
+                    pst.setString(1, tableName);
+                    pst.setString(2, checkName);
+                }, result -> result.next() && result.getBoolean(1));
+                if (!isValidated) {
+                    return;
+                }
+
+                String legacyTableName = tableName + "_legacy";
+                String pkeyName = Utils.getConstraintName(schema, tableName, null, "pkey");
+                update(con, "ALTER TABLE " + tableName + " RENAME TO "
+                        + Utils.getConstraintName(schema, tableName, null, "legacy") + ";", NO_OP_SETTER);
+                update(con, "ALTER TABLE " + legacyTableName + " RENAME CONSTRAINT " + pkeyName + " TO "
+                        + Utils.getConstraintName(schema, tableName, null, "legacy_pkey") + ";", NO_OP_SETTER);
+                update(con, "ALTER TABLE " + legacyTableName + " ADD CONSTRAINT " + uniqueIndexName
+                        + " UNIQUE USING INDEX " + uniqueIndexName + ";", NO_OP_SETTER);
+                for (String indexName : getIndexColumns().keySet()) {
+                    update(con, "ALTER INDEX " + schema + "." + indexName + " RENAME TO " + indexName + "_legacy;",
+                            NO_OP_SETTER);
+                }
+                // left by postgresql_session_info_hot_updates, and maybe still written by cores that have it enabled.
+                // A partition must have the columns of its table, so the new table gets it too
+                boolean hasExpiryBucket = execute(con, "SELECT 1 FROM pg_attribute WHERE attrelid = ?::regclass"
+                        + " AND attname = 'expiry_bucket' AND NOT attisdropped",
+                        pst -> pst.setString(1, legacyTableName), ResultSet::next);
+
+                update(con, SessionQueries.getQueryToCreateSessionInfoTable(start, true), NO_OP_SETTER);
+                if (hasExpiryBucket) {
+                    update(con, "ALTER TABLE " + tableName + " ADD COLUMN expiry_bucket BIGINT;", NO_OP_SETTER);
+                }
+                update(con, "ALTER TABLE " + tableName + " ATTACH PARTITION " + legacyTableName
+                        + " FOR VALUES FROM (MINVALUE) TO (" + finalCutoff + ");", NO_OP_SETTER);
+                for (Map.Entry<String, String> index : getIndexColumns().entrySet()) {
+                    update(con, "CREATE INDEX IF NOT EXISTS " + index.getKey() + " ON " + tableName
+                            + index.getValue() + ";", NO_OP_SETTER);
+                }
+                update(con, getQueryToCreateDefaultPartition(start), NO_OP_SETTER);
+            });
+        } catch (SQLException | StorageQueryException | RuntimeException e) {
+            // so that the sessions are not bound by the cutoff while the table is not being migrated
+            try {
+                runInTransaction(start, con -> {
+                    update(con, "SET LOCAL lock_timeout = '" + MIGRATION_LOCK_TIMEOUT + "'", NO_OP_SETTER);
+                    update(con, "ALTER TABLE " + tableName + " DROP CONSTRAINT IF EXISTS " + checkName + ";",
+                            NO_OP_SETTER);
+                });
+            } catch (SQLException | StorageQueryException | RuntimeException dropFailure) {
+                e.addSuppressed(dropFailure);
+            }
+            throw e;
+        }
+    }
+
+    private static Long getMigrationCutoff(Start start, String tableName, String checkName)
+            throws SQLException, StorageQueryException {
+        String QUERY = "SELECT pg_get_constraintdef(oid) FROM pg_constraint WHERE conrelid = ?::regclass"
+                + " AND conname = ?";
+        return execute(start, QUERY, pst -> {
+            pst.setString(1, tableName);
+            pst.setString(2, checkName);
+        }, result -> {
+            if (result.next()) {
+                Matcher matcher = CUTOFF_PATTERN.matcher(result.getString(1));
+                if (matcher.find()) {
+                    return Long.parseLong(matcher.group(1));
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Builds an index CONCURRENTLY, unless another session is still building it, for example a run whose instance
+     * has stopped meanwhile, in which case it returns false. A CONCURRENTLY built index that failed is left behind as
+     * invalid, and IF NOT EXISTS would keep it, so it is dropped first. But an index is invalid while it is being
+     * built too, so it is only dropped if its build is not in progress (see pg_stat_progress_create_index, which
+     * PostgreSQL 11 lacks, where the build is looked for in pg_stat_activity instead).
+     */
+    static boolean createIndexConcurrently(Start start, String schema, String indexName, String createQuery)
+            throws SQLException, StorageQueryException {
+        String qualifiedIndexName = schema + "." + indexName;
+        boolean isInvalid;
+        boolean isBeingBuilt;
+        try (Connection con = ConnectionPool.getConnection(start)) {
+            isInvalid = execute(con, "SELECT NOT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)",
+                    pst -> {
+                        pst.setString(1, qualifiedIndexName);
+                    }, result -> result.next() && result.getBoolean(1));
+            if (!isInvalid) {
+                isBeingBuilt = false;
+            } else if (con.getMetaData().getDatabaseMajorVersion() >= 12) {
+                isBeingBuilt = execute(con, "SELECT EXISTS (SELECT 1 FROM pg_stat_progress_create_index"
+                        + " WHERE index_relid = to_regclass(?))", pst -> {
+                    pst.setString(1, qualifiedIndexName);
+                }, result -> result.next() && result.getBoolean(1));
+            } else {
+                isBeingBuilt = execute(con, "SELECT EXISTS (SELECT 1 FROM pg_stat_activity"
+                        + " WHERE pid <> pg_backend_pid() AND state = 'active' AND query ILIKE ?)", pst -> {
+                    pst.setString(1, "%INDEX CONCURRENTLY%" + indexName + "%");
+                }, result -> result.next() && result.getBoolean(1));
+            }
+        }
+        if (isBeingBuilt) {
+            Logging.debug(start, "The index " + qualifiedIndexName
+                    + " is still being built, leaving it to the next run");
+            return false;
+        }
+        if (isInvalid) {
+            updateWithoutNetworkTimeout(start, "DROP INDEX CONCURRENTLY IF EXISTS " + qualifiedIndexName + ";");
+        }
+        updateWithoutNetworkTimeout(start, createQuery);
+        return true;
+    }
+
+    /**
+     * Runs a statement that can take much longer than the pool's socketTimeout, such as the build of an index on a
+     * big table, on a connection of the pool whose network timeout is disabled until the statement is done. If the
+     * client gave up on it, the server would keep working on it regardless.
+     */
+    static void updateWithoutNetworkTimeout(Start start, String query) throws SQLException, StorageQueryException {
+        try (Connection con = ConnectionPool.getConnection(start)) {
+            int networkTimeout = con.getNetworkTimeout();
+            con.setNetworkTimeout(DIRECT_EXECUTOR, 0);
+            try {
+                update(con, query, NO_OP_SETTER);
+            } finally {
+                con.setNetworkTimeout(DIRECT_EXECUTOR, networkTimeout);
+            }
+        }
+    }
+
+    static boolean isLockNotAvailable(SQLException e) {
+        return "55P03".equals(e.getSQLState());
+    }
+
+    private static void takeTableLock(Connection con, String tableName) throws SQLException, StorageQueryException {
+        execute(con, "SELECT pg_advisory_xact_lock(hashtext(?))", pst -> {
+            pst.setString(1, tableName);
+        }, result -> null);
+    }
+
+    static void runInTransaction(Start start, TransactionLogic logic)
+            throws SQLException, StorageQueryException {
+        try (Connection con = ConnectionPool.getConnection(start)) {
+            con.setAutoCommit(false);
+            try {
+                logic.run(con);
+                con.commit();
+            } catch (SQLException | StorageQueryException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static String getPartitionName(String tableName, YearMonth month) {
+        return tableName + "_p" + month.format(MONTH_SUFFIX_FORMAT);
+    }
+
+    private static long monthStartMillis(YearMonth month) {
+        return month.atDay(1).toEpochDay() * MILLIS_PER_DAY;
+    }
+}
@@ -19,13 +19,14 @@ package io.supertokens.storage.postgresql.queries;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import io.supertokens.pluginInterface.KeyValueInfo;
-import io.supertokens.pluginInterface.RowMapper;
 import io.supertokens.pluginInterface.exceptions.StorageQueryException;
 import io.supertokens.pluginInterface.multitenancy.AppIdentifier;
 import io.supertokens.pluginInterface.multitenancy.TenantIdentifier;
 import io.supertokens.pluginInterface.session.SessionInfo;
+import io.supertokens.storage.postgresql.ExpirySweeper;
 import io.supertokens.storage.postgresql.Start;
 import io.supertokens.storage.postgresql.config.Config;
+import io.supertokens.storage.postgresql.config.PostgreSQLConfig;
 import io.supertokens.storage.postgresql.utils.Utils;
 
 import javax.annotation.Nullable;
@@ -33,20 +34,34 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.executeRead;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.update;
 import static io.supertokens.storage.postgresql.config.Config.getConfig;
+import static io.supertokens.storage.postgresql.queries.QueryRegistry.getQuery;
 import static java.lang.System.currentTimeMillis;
 
 public class SessionQueries {
 
     public static String getQueryToCreateSessionInfoTable(Start start) {
+        return getQueryToCreateSessionInfoTable(start, Config.getConfig(start).isSessionInfoPartitioned());
+    }
+
+    /**
+     * If partitioned, the table is range partitioned by expires_at (see {@link SessionInfoPartitionQueries}), and
+     * its primary key includes expires_at, as the primary key of a partitioned table must include its partition key.
+     * Otherwise, if postgresql_session_info_hot_updates is enabled, it has the layout described in
+     * {@link SessionInfoHotUpdateQueries}.
+     */
+    static String getQueryToCreateSessionInfoTable(Start start, boolean partitioned) {
         String schema = Config.getConfig(start).getTableSchema();
         String sessionInfoTable = Config.getConfig(start).getSessionInfoTable();
+        boolean hotUpdates = !partitioned && Config.getConfig(start).isSessionInfoHotUpdatesEnabled();
         // @formatter:off
         return "CREATE TABLE IF NOT EXISTS " + sessionInfoTable + " ("
                 + "app_id VARCHAR(64) DEFAULT 'public',"
@@ -59,12 +74,15 @@ public class SessionQueries {
                 + "created_at_time BIGINT NOT NULL,"
                 + "jwt_user_payload TEXT,"
                 + "use_static_key BOOLEAN NOT NULL,"
+                + (hotUpdates ? "expiry_bucket BIGINT," : "")
                 + "CONSTRAINT " + Utils.getConstraintName(schema, sessionInfoTable, null, "pkey")
-                + " PRIMARY KEY(app_id, tenant_id, session_handle),"
+                + (partitioned ? " PRIMARY KEY(app_id, tenant_id, session_handle, expires_at),"
+                        : " PRIMARY KEY(app_id, tenant_id, session_handle),")
                 + "CONSTRAINT " + Utils.getConstraintName(schema, sessionInfoTable, "tenant_id", "fkey")
                 + " FOREIGN KEY (app_id, tenant_id)"
                 + " REFERENCES " + Config.getConfig(start).getTenantsTable() + "(app_id, tenant_id) ON DELETE CASCADE"
-                + ");";
+                + ")" + (partitioned ? " PARTITION BY RANGE (expires_at);"
+                        : hotUpdates ? " WITH (fillfactor = " + SessionInfoHotUpdateQueries.FILLFACTOR + ");" : ";");
         // @formatter:on
     }
 
@@ -108,14 +126,26 @@ public class SessionQueries {
                 + Config.getConfig(start).getSessionInfoTable() + "(user_id, app_id);";
     }
 
+    static String createNewSessionQuery(PostgreSQLConfig config, boolean expiryBucket) {
+        if (expiryBucket) {
+            return "INSERT INTO " + config.getSessionInfoTable()
+                    + "(app_id, tenant_id, session_handle, user_id, refresh_token_hash_2, session_data, expires_at,"
+                    + " jwt_user_payload, created_at_time, use_static_key, expiry_bucket)"
+                    + " VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        }
+        return "INSERT INTO " + config.getSessionInfoTable()
+                + "(app_id, tenant_id, session_handle, user_id, refresh_token_hash_2, session_data, expires_at,"
+                + " jwt_user_payload, created_at_time, use_static_key)" + " VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    }
+
     public static void createNewSession(Start start, TenantIdentifier tenantIdentifier, String sessionHandle,
                                         String userId, String refreshTokenHash2,
                                         JsonObject userDataInDatabase, long expiry, JsonObject userDataInJWT,
                                         long createdAtTime, boolean useStaticKey)
             throws SQLException, StorageQueryException {
-        String QUERY = "INSERT INTO " + getConfig(start).getSessionInfoTable()
-                + "(app_id, tenant_id, session_handle, user_id, refresh_token_hash_2, session_data, expires_at,"
-                + " jwt_user_payload, created_at_time, use_static_key)" + " VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        boolean hotUpdates = SessionInfoHotUpdateQueries.isExpiryBucketWritten(start);
+        String QUERY = getQuery(start,
+                hotUpdates ? QueryId.SESSION_CREATE_WITH_EXPIRY_BUCKET : QueryId.SESSION_CREATE);
 
         update(start, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
@@ -128,6 +158,9 @@ public class SessionQueries {
             pst.setString(8, userDataInJWT.toString());
             pst.setLong(9, createdAtTime);
             pst.setBoolean(10, useStaticKey);
+            if (hotUpdates) {
+                pst.setLong(11, SessionInfoHotUpdateQueries.getExpiryBucket(expiry));
+            }
         });
     }
 
@@ -145,7 +178,7 @@ public class SessionQueries {
                                                                   String sessionHandle)
             throws SQLException, StorageQueryException {
         return getSessionInfo_Transaction_impl(start, con, tenantIdentifier, sessionHandle,
-                getConfig(start).getUsersTable());
+                QueryId.SESSION_GET_INFO_FOR_UPDATE_LEGACY);
     }
 
     private static SessionInfo getSessionInfo_Transaction_new(Start start, Connection con,
@@ -153,97 +186,89 @@ public class SessionQueries {
                                                                String sessionHandle)
             throws SQLException, StorageQueryException {
         return getSessionInfo_Transaction_impl(start, con, tenantIdentifier, sessionHandle,
-                getConfig(start).getAppIdToUserIdTable());
+                QueryId.SESSION_GET_INFO_FOR_UPDATE);
+    }
+
+    /**
+     * Locks the session's row and resolves its user id in the same statement. The user id of the session is resolved,
+     * through the user id mapping, to the primary user of its recipe user, and that to its external user id if it has
+     * one. If the user is not found, the session's own user id is returned.
+     */
+    static String getSessionInfoForUpdateQuery(PostgreSQLConfig config, String userIdTable) {
+        // the supertokens user id of the session's user id, and the user id itself
+        String sessionUserIds = "SELECT um1.supertokens_user_id FROM " + config.getUserIdMappingTable() + " um1 " +
+                "WHERE um1.app_id = sess.app_id AND um1.external_user_id = sess.user_id " +
+                "UNION ALL SELECT sess.user_id";
+        return "SELECT " + SessionInfoRowMapper.getInstance().columns("sess") + ", " +
+                "COALESCE(uid.user_id, sess.user_id) " +
+                "FROM " + config.getSessionInfoTable() + " AS sess " +
+                "LEFT JOIN LATERAL (" +
+                    "SELECT um2.external_user_id AS user_id, 0 AS o " +
+                    "FROM " + userIdTable + " users " +
+                    "JOIN " + config.getUserIdMappingTable() + " um2 " +
+                    "ON um2.app_id = users.app_id AND um2.supertokens_user_id = users.primary_or_recipe_user_id " +
+                    "WHERE users.app_id = sess.app_id AND users.user_id IN (" + sessionUserIds + ") " +
+                    "UNION ALL " +
+                    "SELECT users.primary_or_recipe_user_id AS user_id, 1 AS o " +
+                    "FROM " + userIdTable + " users " +
+                    "WHERE users.app_id = sess.app_id AND users.user_id IN (" + sessionUserIds + ") " +
+                    "ORDER BY o ASC " +
+                    "LIMIT 1" +
+                ") uid ON TRUE " +
+                "WHERE sess.app_id = ? AND sess.tenant_id = ? AND sess.session_handle = ? " +
+                "FOR UPDATE OF sess";
     }
 
     private static SessionInfo getSessionInfo_Transaction_impl(Start start, Connection con,
                                                                 TenantIdentifier tenantIdentifier,
-                                                                String sessionHandle, String userIdTable)
+                                                                String sessionHandle, QueryId sessionInfoQuery)
             throws SQLException, StorageQueryException {
-        String QUERY =
-                "SELECT session_handle, user_id, refresh_token_hash_2, session_data, " +
-                        "expires_at, created_at_time, jwt_user_payload, use_static_key FROM " +
-                        getConfig(start).getSessionInfoTable()
-                        + " WHERE app_id = ? AND tenant_id = ? AND session_handle = ? FOR UPDATE";
-        SessionInfo sessionInfo = execute(con, QUERY, pst -> {
+        String QUERY = getQuery(start, sessionInfoQuery);
+        return execute(con, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
             pst.setString(2, tenantIdentifier.getTenantId());
             pst.setString(3, sessionHandle);
         }, result -> {
             if (result.next()) {
-                return SessionInfoRowMapper.getInstance().mapOrThrow(result, false);
+                return SessionInfoRowMapper.getInstance().mapOrThrow(result, true);
             }
             return null;
         });
+    }
 
-        if (sessionInfo == null) {
-            return null;
-        }
-
-        QUERY = "SELECT external_user_id, 0 as o " +
-                "FROM " + getConfig(start).getUserIdMappingTable() + " um2 " +
-                "WHERE um2.app_id = ? AND um2.supertokens_user_id IN (" +
-                    "SELECT primary_or_recipe_user_id " +
-                    "FROM " + userIdTable + " " +
-                    "WHERE app_id = ? AND user_id IN (" +
-                        "SELECT user_id FROM (" +
-                            "SELECT um1.supertokens_user_id as user_id, 0 as o1 " +
-                            "FROM " + getConfig(start).getUserIdMappingTable() + " um1 " +
-                            "WHERE um1.app_id = ? AND um1.external_user_id = ? " +
-                            "UNION " +
-                            "SELECT ?, 1 as o1 " +
-                            "ORDER BY o1 ASC " +
-                        ") uid1" +
-                    ")" +
-                ") " +
-                "UNION " +
-                "SELECT primary_or_recipe_user_id, 1 as o " +
-                "FROM " + userIdTable + " " +
-                "WHERE app_id = ? AND user_id IN (" +
-                    "SELECT user_ID FROM (" +
-                        "SELECT um1.supertokens_user_id as user_id, 0 as o2 " +
-                        "FROM " + getConfig(start).getUserIdMappingTable() + " um1 " +
-                        "WHERE um1.app_id = ? AND um1.external_user_id = ? " +
-                        "UNION " +
-                        "SELECT ?, 1 as o2 " +
-                        "ORDER BY o2 ASC " +
-                    ") uid2 " +
-                ") " +
-                "ORDER BY o ASC " +
-                "LIMIT 1";
-
-        String finalUserId = execute(con, QUERY, pst -> {
-            pst.setString(1, tenantIdentifier.getAppId());
-            pst.setString(2, tenantIdentifier.getAppId());
-            pst.setString(3, tenantIdentifier.getAppId());
-            pst.setString(4, sessionInfo.recipeUserId);
-            pst.setString(5, sessionInfo.recipeUserId);
-            pst.setString(6, tenantIdentifier.getAppId());
-            pst.setString(7, tenantIdentifier.getAppId());
-            pst.setString(8, sessionInfo.recipeUserId);
-            pst.setString(9, sessionInfo.recipeUserId);
-        }, result -> {
-            if (result.next()) {
-                return result.getString(1);
-            }
-            return sessionInfo.recipeUserId;
-        });
-
-        if (finalUserId != null) {
-            sessionInfo.userId = finalUserId;
+    /**
+     * With expiryBucket, for postgresql_session_info_hot_updates, this also sets expiry_bucket, which only changes if
+     * the session's expiry moves to another day, see {@link SessionInfoHotUpdateQueries}.
+     */
+    static String updateSessionInfoQuery(PostgreSQLConfig config, boolean expiryBucket) {
+        if (expiryBucket) {
+            return "UPDATE " + config.getSessionInfoTable()
+                    + " SET refresh_token_hash_2 = ?, expires_at = ?, use_static_key = ?, expiry_bucket = ?"
+                    + " WHERE app_id = ? AND tenant_id = ? AND session_handle = ?";
         }
-
-        return sessionInfo;
+        return "UPDATE " + config.getSessionInfoTable()
+                + " SET refresh_token_hash_2 = ?, expires_at = ?, use_static_key = ?"
+                + " WHERE app_id = ? AND tenant_id = ? AND session_handle = ?";
     }
 
     public static void updateSessionInfo_Transaction(Start start, Connection con, TenantIdentifier tenantIdentifier,
                                                      String sessionHandle,
                                                      String refreshTokenHash2, long expiry, boolean useStaticKey)
             throws SQLException, StorageQueryException {
-        String QUERY = "UPDATE " + getConfig(start).getSessionInfoTable()
-                + " SET refresh_token_hash_2 = ?, expires_at = ?, use_static_key = ?"
-                + " WHERE app_id = ? AND tenant_id = ? AND session_handle = ?";
-
+        if (SessionInfoHotUpdateQueries.isExpiryBucketWritten(start)) {
+            String QUERY = getQuery(start, QueryId.SESSION_UPDATE_INFO_WITH_EXPIRY_BUCKET);
+            update(con, QUERY, pst -> {
+                pst.setString(1, refreshTokenHash2);
+                pst.setLong(2, expiry);
+                pst.setBoolean(3, useStaticKey);
+                pst.setLong(4, SessionInfoHotUpdateQueries.getExpiryBucket(expiry));
+                pst.setString(5, tenantIdentifier.getAppId());
+                pst.setString(6, tenantIdentifier.getTenantId());
+                pst.setString(7, sessionHandle);
+            });
+            return;
+        }
+        String QUERY = getQuery(start, QueryId.SESSION_UPDATE_INFO);
         update(con, QUERY, pst -> {
             pst.setString(1, refreshTokenHash2);
             pst.setLong(2, expiry);
@@ -254,10 +279,14 @@ public class SessionQueries {
         });
     }
 
+    static String getNumberOfSessionsQuery(PostgreSQLConfig config) {
+        return "SELECT count(*) as num FROM " + config.getSessionInfoTable()
+                + " WHERE app_id = ? AND tenant_id = ?";
+    }
+
     public static int getNumberOfSessions(Start start, TenantIdentifier tenantIdentifier)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT count(*) as num FROM " + getConfig(start).getSessionInfoTable()
-                + " WHERE app_id = ? AND tenant_id = ?";
+        String QUERY = getQuery(start, QueryId.SESSION_COUNT);
 
         return execute(start, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
@@ -270,37 +299,35 @@ public class SessionQueries {
         });
     }
 
+    static String deleteSessionsQuery(PostgreSQLConfig config) {
+        return "DELETE FROM " + config.getSessionInfoTable()
+                + " WHERE app_id = ? AND tenant_id = ? AND session_handle = ANY(?)";
+    }
+
     public static int deleteSession(Start start, TenantIdentifier tenantIdentifier, String[] sessionHandles)
             throws SQLException, StorageQueryException {
         if (sessionHandles.length == 0) {
             return 0;
         }
-        StringBuilder QUERY = new StringBuilder(
-                "DELETE FROM " + Config.getConfig(start).getSessionInfoTable()
-                        + " WHERE app_id = ? AND tenant_id = ? AND session_handle IN (");
-        for (int i = 0; i < sessionHandles.length; i++) {
-            if (i == sessionHandles.length - 1) {
-                QUERY.append("?)");
-            } else {
-                QUERY.append("?, ");
-            }
-        }
+        String QUERY = getQuery(start, QueryId.SESSION_DELETE);
 
-        return update(start, QUERY.toString(), pst -> {
+        return update(start, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
             pst.setString(2, tenantIdentifier.getTenantId());
-            for (int i = 0; i < sessionHandles.length; i++) {
-                pst.setString(i + 3, sessionHandles[i]);
-            }
+            Utils.setStringArray(pst, 3, Arrays.asList(sessionHandles));
         });
     }
 
+    static String deleteSessionsOfUserInAppQuery(PostgreSQLConfig config) {
+        return "DELETE FROM " + config.getSessionInfoTable()
+                + " WHERE app_id = ? AND user_id = ?";
+    }
+
     public static void deleteSessionsOfUser(Start start, AppIdentifier appIdentifier, String userId)
             throws SQLException, StorageQueryException {
-        String QUERY = "DELETE FROM " + getConfig(start).getSessionInfoTable()
-                + " WHERE app_id = ? AND user_id = ?";
+        String QUERY = getQuery(start, QueryId.SESSION_DELETE_OF_USER_IN_APP);
 
-        update(start, QUERY.toString(), pst -> {
+        update(start, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
             pst.setString(2, userId);
         });
@@ -309,21 +336,24 @@ public class SessionQueries {
     public static void deleteSessionsOfUser_Transaction(Connection sqlCon, Start start, AppIdentifier appIdentifier,
                                                         String userId)
             throws SQLException, StorageQueryException {
-        String QUERY = "DELETE FROM " + getConfig(start).getSessionInfoTable()
-                + " WHERE app_id = ? AND user_id = ?";
+        String QUERY = getQuery(start, QueryId.SESSION_DELETE_OF_USER_IN_APP);
 
-        update(sqlCon, QUERY.toString(), pst -> {
+        update(sqlCon, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
             pst.setString(2, userId);
         });
     }
 
+    static String deleteSessionsOfUserInTenantQuery(PostgreSQLConfig config) {
+        return "DELETE FROM " + config.getSessionInfoTable()
+                + " WHERE app_id = ? AND tenant_id = ? AND user_id = ?";
+    }
+
     public static boolean deleteSessionsOfUser(Start start, TenantIdentifier tenantIdentifier, String userId)
             throws SQLException, StorageQueryException {
-        String QUERY = "DELETE FROM " + getConfig(start).getSessionInfoTable()
-                + " WHERE app_id = ? AND tenant_id = ? AND user_id = ?";
+        String QUERY = getQuery(start, QueryId.SESSION_DELETE_OF_USER_IN_TENANT);
 
-        int numRows = update(start, QUERY.toString(), pst -> {
+        int numRows = update(start, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
             pst.setString(2, tenantIdentifier.getTenantId());
             pst.setString(3, userId);
@@ -331,11 +361,15 @@ public class SessionQueries {
         return numRows > 0;
     }
 
+    static String getNonExpiredSessionHandlesOfUserInTenantQuery(PostgreSQLConfig config) {
+        return "SELECT session_handle FROM " + config.getSessionInfoTable()
+                + " WHERE app_id = ? AND tenant_id = ? AND user_id = ? AND expires_at >= ?";
+    }
+
     public static String[] getAllNonExpiredSessionHandlesForUser(Start start, TenantIdentifier tenantIdentifier,
                                                                  String userId)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT session_handle FROM " + getConfig(start).getSessionInfoTable()
-                + " WHERE app_id = ? AND tenant_id = ? AND user_id = ? AND expires_at >= ?";
+        String QUERY = getQuery(start, QueryId.SESSION_GET_NON_EXPIRED_HANDLES_OF_USER_IN_TENANT);
 
         return execute(start, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
@@ -355,11 +389,15 @@ public class SessionQueries {
         });
     }
 
+    static String getNonExpiredSessionHandlesOfUserInAppQuery(PostgreSQLConfig config) {
+        return "SELECT session_handle FROM " + config.getSessionInfoTable()
+                + " WHERE app_id = ? AND user_id = ? AND expires_at >= ?";
+    }
+
     public static String[] getAllNonExpiredSessionHandlesForUser(Start start, AppIdentifier appIdentifier,
                                                                  String userId)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT session_handle FROM " + getConfig(start).getSessionInfoTable()
-                + " WHERE app_id = ? AND user_id = ? AND expires_at >= ?";
+        String QUERY = getQuery(start, QueryId.SESSION_GET_NON_EXPIRED_HANDLES_OF_USER_IN_APP);
 
         return execute(start, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
@@ -378,21 +416,23 @@ public class SessionQueries {
         });
     }
 
+    static String getAllNonExpiredSessionHandlesForUsersQuery(PostgreSQLConfig config) {
+        return "SELECT user_id, session_handle FROM " + config.getSessionInfoTable()
+                + " WHERE app_id = ? AND expires_at >= ? AND user_id = ANY(?)";
+    }
+
     public static Map<String, List<String>> getAllNonExpiredSessionHandlesForUsers(Start start, AppIdentifier appIdentifier,
                                                                           List<String> userIds)
             throws SQLException, StorageQueryException {
         if(userIds == null || userIds.isEmpty()){
             return new HashMap<>();
         }
-        String QUERY = "SELECT user_id, session_handle FROM " + getConfig(start).getSessionInfoTable()
-                + " WHERE app_id = ? AND expires_at >= ? AND user_id IN ( " + Utils.generateCommaSeperatedQuestionMarks(userIds.size()) + " )";
+        String QUERY = getQuery(start, QueryId.SESSION_GET_NON_EXPIRED_HANDLES_OF_USERS);
 
         return execute(start, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
             pst.setLong(2, currentTimeMillis());
-            for(int i = 0; i < userIds.size() ; i++){
-                pst.setString(3 + i, userIds.get(i));
-            }
+            Utils.setStringArray(pst, 3, userIds);
         }, result -> {
             Map<String, List<String>> temp = new HashMap<>();
             while (result.next()) {
@@ -407,9 +447,34 @@ public class SessionQueries {
     }
 
     public static void deleteAllExpiredSessions(Start start) throws SQLException, StorageQueryException {
-        String QUERY = "DELETE FROM " + getConfig(start).getSessionInfoTable() + " WHERE expires_at <= ?";
+        if (Config.getConfig(start).isSessionInfoPartitioned()) {
+            SessionInfoPartitionQueries.deleteAllExpiredSessions(start);
+            return;
+        }
+        SessionInfoHotUpdateQueries.updateIndexes(start);
+        long now = currentTimeMillis();
+        if (SessionInfoHotUpdateQueries.isExpiryBucketWritten(start)) {
+            ExpirySweeper.sweep(start, Config.getConfig(start).getSessionInfoTable(),
+                    SessionInfoHotUpdateQueries.getExpiredCondition(),
+                    pst -> SessionInfoHotUpdateQueries.setExpiredParameters(pst, now));
+            return;
+        }
+        ExpirySweeper.sweep(start, Config.getConfig(start).getSessionInfoTable(), "expires_at <= ?",
+                pst -> pst.setLong(1, now));
+    }
 
-        update(start, QUERY, pst -> pst.setLong(1, currentTimeMillis()));
+    static String updateSessionQuery(PostgreSQLConfig config, boolean sessionData, boolean jwtPayload) {
+        String QUERY = "UPDATE " + config.getSessionInfoTable() + " SET";
+        boolean somethingBefore = false;
+        if (sessionData) {
+            QUERY += " session_data = ?";
+            somethingBefore = true;
+        }
+        if (jwtPayload) {
+            QUERY += (somethingBefore ? "," : "") + " jwt_user_payload = ?";
+        }
+        QUERY += " WHERE app_id = ? AND tenant_id = ? AND session_handle = ?";
+        return QUERY;
     }
 
     public static int updateSession(Start start, TenantIdentifier tenantIdentifier, String sessionHandle,
@@ -420,16 +485,14 @@ public class SessionQueries {
             throw new SQLException("sessionData and jwtPayload are null when updating session info");
         }
 
-        String QUERY = "UPDATE " + Config.getConfig(start).getSessionInfoTable() + " SET";
-        boolean somethingBefore = false;
-        if (sessionData != null) {
-            QUERY += " session_data = ?";
-            somethingBefore = true;
+        String QUERY;
+        if (sessionData == null) {
+            QUERY = getQuery(start, QueryId.SESSION_UPDATE_JWT_PAYLOAD);
+        } else if (jwtPayload == null) {
+            QUERY = getQuery(start, QueryId.SESSION_UPDATE_DATA);
+        } else {
+            QUERY = getQuery(start, QueryId.SESSION_UPDATE_DATA_AND_JWT_PAYLOAD);
         }
-        if (jwtPayload != null) {
-            QUERY += (somethingBefore ? "," : "") + " jwt_user_payload = ?";
-        }
-        QUERY += " WHERE app_id = ? AND tenant_id = ? AND session_handle = ?";
 
         return update(start, QUERY, pst -> {
             int currIndex = 1;
@@ -457,29 +520,29 @@ public class SessionQueries {
 
     private static SessionInfo getSession_legacy(Start start, TenantIdentifier tenantIdentifier, String sessionHandle)
             throws SQLException, StorageQueryException {
-        return getSession_impl(start, tenantIdentifier, sessionHandle, getConfig(start).getUsersTable());
+        return getSession_impl(start, tenantIdentifier, sessionHandle, QueryId.SESSION_GET_LEGACY);
     }
 
     private static SessionInfo getSession_new(Start start, TenantIdentifier tenantIdentifier, String sessionHandle)
             throws SQLException, StorageQueryException {
-        return getSession_impl(start, tenantIdentifier, sessionHandle, getConfig(start).getAppIdToUserIdTable());
+        return getSession_impl(start, tenantIdentifier, sessionHandle, QueryId.SESSION_GET);
+    }
+
+    static String getSessionQuery(PostgreSQLConfig config, String userIdTable) {
+        return "SELECT " + SessionInfoRowMapper.getInstance().columns("sess") + ", users" +
+                ".primary_or_recipe_user_id FROM " +
+                config.getSessionInfoTable()
+                + " AS sess LEFT JOIN " + userIdTable +
+                " as users ON sess.app_id = users.app_id AND sess.user_id = users.user_id WHERE sess.app_id =" +
+                " ? AND " +
+                "sess.tenant_id = ? AND sess.session_handle = ?";
     }
 
     private static SessionInfo getSession_impl(Start start, TenantIdentifier tenantIdentifier, String sessionHandle,
-                                                String userIdTable)
+                                                QueryId sessionQuery)
             throws SQLException, StorageQueryException {
-        String QUERY =
-                "SELECT sess.session_handle, sess.user_id, sess.refresh_token_hash_2, sess.session_data, sess" +
-                        ".expires_at, "
-                        +
-                        "sess.created_at_time, sess.jwt_user_payload, sess.use_static_key, users" +
-                        ".primary_or_recipe_user_id FROM " +
-                        getConfig(start).getSessionInfoTable()
-                        + " AS sess LEFT JOIN " + userIdTable +
-                        " as users ON sess.app_id = users.app_id AND sess.user_id = users.user_id WHERE sess.app_id =" +
-                        " ? AND " +
-                        "sess.tenant_id = ? AND sess.session_handle = ?";
-        return execute(start, QUERY, pst -> {
+        String QUERY = getQuery(start, sessionQuery);
+        return executeRead(start, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
             pst.setString(2, tenantIdentifier.getTenantId());
             pst.setString(3, sessionHandle);
@@ -491,12 +554,16 @@ public class SessionQueries {
         });
     }
 
+    static String addAccessTokenSigningKeyQuery(PostgreSQLConfig config) {
+        return "INSERT INTO " + config.getAccessTokenSigningKeysTable()
+                + "(app_id, created_at_time, value)"
+                + " VALUES(?, ?, ?)";
+    }
+
     public static void addAccessTokenSigningKey_Transaction(Start start, Connection con, AppIdentifier appIdentifier,
                                                             long createdAtTime,
                                                             String value) throws SQLException, StorageQueryException {
-        String QUERY = "INSERT INTO " + getConfig(start).getAccessTokenSigningKeysTable()
-                + "(app_id, created_at_time, value)"
-                + " VALUES(?, ?, ?)";
+        String QUERY = getQuery(start, QueryId.ACCESS_TOKEN_SIGNING_KEY_ADD);
 
         update(con, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
@@ -505,11 +572,15 @@ public class SessionQueries {
         });
     }
 
+    static String getAccessTokenSigningKeysForUpdateQuery(PostgreSQLConfig config) {
+        return "SELECT " + AccessTokenSigningKeyRowMapper.getInstance().columns() + " FROM "
+                + config.getAccessTokenSigningKeysTable() + " WHERE app_id = ? FOR UPDATE";
+    }
+
     public static KeyValueInfo[] getAccessTokenSigningKeys_Transaction(Start start, Connection con,
                                                                        AppIdentifier appIdentifier)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM " + getConfig(start).getAccessTokenSigningKeysTable()
-                + " WHERE app_id = ? FOR UPDATE";
+        String QUERY = getQuery(start, QueryId.ACCESS_TOKEN_SIGNING_KEY_GET_ALL_FOR_UPDATE);
 
         return execute(con, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
@@ -526,51 +597,80 @@ public class SessionQueries {
         });
     }
 
-    public static void removeAccessTokenSigningKeysBefore(Start start, AppIdentifier appIdentifier, long time)
-            throws SQLException, StorageQueryException {
-        String QUERY = "DELETE FROM " + getConfig(start).getAccessTokenSigningKeysTable()
+    static String removeAccessTokenSigningKeysBeforeQuery(PostgreSQLConfig config) {
+        return "DELETE FROM " + config.getAccessTokenSigningKeysTable()
                 + " WHERE app_id = ? AND created_at_time < ?";
+    }
 
-        update(start, QUERY, pst -> {
+    public static int removeAccessTokenSigningKeysBefore(Start start, AppIdentifier appIdentifier, long time)
+            throws SQLException, StorageQueryException {
+        String QUERY = getQuery(start, QueryId.ACCESS_TOKEN_SIGNING_KEY_REMOVE_BEFORE);
+
+        return update(start, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
             pst.setLong(2, time);
         });
     }
 
-    static class SessionInfoRowMapper {
+    static class SessionInfoRowMapper extends ColumnOrdinalRowMapper<SessionInfo> {
         public static final SessionInfoRowMapper INSTANCE = new SessionInfoRowMapper();
 
+        private final int sessionHandle = ordinal("session_handle");
+        private final int userId = ordinal("user_id");
+        private final int refreshTokenHash2 = ordinal("refresh_token_hash_2");
+        private final int sessionData = ordinal("session_data");
+        private final int expiresAt = ordinal("expires_at");
+        private final int createdAtTime = ordinal("created_at_time");
+        private final int jwtUserPayload = ordinal("jwt_user_payload");
+        private final int useStaticKey = ordinal("use_static_key");
+
         private SessionInfoRowMapper() {
+            super("session_handle", "user_id", "refresh_token_hash_2", "session_data", "expires_at",
+                    "created_at_time", "jwt_user_payload", "use_static_key");
         }
 
-        private static SessionInfoRowMapper getInstance() {
+        static SessionInfoRowMapper getInstance() {
             return INSTANCE;
         }
 
-        public SessionInfo mapOrThrow(ResultSet result, boolean hasPrimaryOrRecipeUserId) throws StorageQueryException {
+        @Override
+        public SessionInfo map(ResultSet result) throws Exception {
+            return map(result, false);
+        }
+
+        /**
+         * If hasPrimaryOrRecipeUserId, the row has the primary_or_recipe_user_id right after the session's columns.
+         */
+        SessionInfo map(ResultSet result, boolean hasPrimaryOrRecipeUserId) throws Exception {
             JsonParser jp = new JsonParser();
-            // if result.getString("primary_or_recipe_user_id") is null, it will be handled by SessionInfo
-            // constructor
+            // if primary_or_recipe_user_id is null, it will be handled by SessionInfo constructor
+            return new SessionInfo(result.getString(sessionHandle),
+                    hasPrimaryOrRecipeUserId ? result.getString(nextColumn()) : result.getString(userId),
+                    result.getString(userId),
+                    result.getString(refreshTokenHash2),
+                    jp.parse(result.getString(sessionData)).getAsJsonObject(),
+                    result.getLong(expiresAt),
+                    jp.parse(result.getString(jwtUserPayload)).getAsJsonObject(),
+                    result.getLong(createdAtTime), result.getBoolean(useStaticKey));
+        }
+
+        public SessionInfo mapOrThrow(ResultSet result, boolean hasPrimaryOrRecipeUserId) throws StorageQueryException {
             try {
-                return new SessionInfo(result.getString("session_handle"),
-                        hasPrimaryOrRecipeUserId ? result.getString("primary_or_recipe_user_id") :
-                                result.getString("user_id"),
-                        result.getString("user_id"),
-                        result.getString("refresh_token_hash_2"),
-                        jp.parse(result.getString("session_data")).getAsJsonObject(),
-                        result.getLong("expires_at"),
-                        jp.parse(result.getString("jwt_user_payload")).getAsJsonObject(),
-                        result.getLong("created_at_time"), result.getBoolean("use_static_key"));
+                return map(result, hasPrimaryOrRecipeUserId);
             } catch (Exception e) {
                 throw new StorageQueryException(e);
             }
         }
     }
 
-    private static class AccessTokenSigningKeyRowMapper implements RowMapper<KeyValueInfo, ResultSet> {
+    private static class AccessTokenSigningKeyRowMapper extends ColumnOrdinalRowMapper<KeyValueInfo> {
         private static final AccessTokenSigningKeyRowMapper INSTANCE = new AccessTokenSigningKeyRowMapper();
 
+        private final int value = ordinal("value");
+        private final int createdAtTime = ordinal("created_at_time");
+
         private AccessTokenSigningKeyRowMapper() {
+            super("value", "created_at_time");
         }
 
         private static AccessTokenSigningKeyRowMapper getInstance() {
@@ -579,7 +679,7 @@ public class SessionQueries {
 
         @Override
         public KeyValueInfo map(ResultSet result) throws Exception {
-            return new KeyValueInfo(result.getString("value"), result.getLong("created_at_time"));
+            return new KeyValueInfo(result.getString(value), result.getLong(createdAtTime));
         }
     }
 }
@@ -1,11 +1,11 @@
 package io.supertokens.storage.postgresql.queries;
 
-import io.supertokens.pluginInterface.RowMapper;
 import io.supertokens.pluginInterface.exceptions.StorageQueryException;
 import io.supertokens.pluginInterface.multitenancy.AppIdentifier;
 import io.supertokens.pluginInterface.multitenancy.TenantIdentifier;
 import io.supertokens.pluginInterface.totp.TOTPDevice;
 import io.supertokens.pluginInterface.totp.TOTPUsedCode;
+import io.supertokens.storage.postgresql.ExpirySweeper;
 import io.supertokens.storage.postgresql.PreparedStatementValueSetter;
 import io.supertokens.storage.postgresql.Start;
 import io.supertokens.storage.postgresql.config.Config;
@@ -193,7 +193,8 @@ public class TOTPQueries {
     public static TOTPDevice getDeviceByName_Transaction(Start start, Connection sqlCon, AppIdentifier appIdentifier,
                                                          String userId, String deviceName)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM " + Config.getConfig(start).getTotpUserDevicesTable()
+        String QUERY = "SELECT " + TOTPDeviceRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getTotpUserDevicesTable()
                 + " WHERE app_id = ? AND user_id = ? AND device_name = ? FOR UPDATE;";
 
         return execute(sqlCon, QUERY, pst -> {
@@ -273,7 +274,8 @@ public class TOTPQueries {
 
     public static TOTPDevice[] getDevices(Start start, AppIdentifier appIdentifier, String userId)
             throws StorageQueryException, SQLException {
-        String QUERY = "SELECT * FROM " + Config.getConfig(start).getTotpUserDevicesTable()
+        String QUERY = "SELECT " + TOTPDeviceRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getTotpUserDevicesTable()
                 + " WHERE app_id = ? AND user_id = ?;";
 
         return execute(start, QUERY, pst -> {
@@ -294,22 +296,21 @@ public class TOTPQueries {
         if(userIds == null || userIds.isEmpty()){
             return new HashMap<>();
         }
-        String QUERY = "SELECT * FROM " + Config.getConfig(start).getTotpUserDevicesTable()
-                + " WHERE app_id = ? AND user_id IN (" + Utils.generateCommaSeperatedQuestionMarks(userIds.size()) + ");";
+        String QUERY = "SELECT " + TOTPDeviceRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getTotpUserDevicesTable()
+                + " WHERE app_id = ? AND user_id = ANY(?);";
 
         return execute(start, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
-            for(int i = 0; i < userIds.size(); i++) {
-                pst.setString(2+i, userIds.get(i));
-            }
+            Utils.setStringArray(pst, 2, userIds);
         }, result -> {
             Map<String, List<TOTPDevice>> devicesByUserIds = new HashMap<>();
             while (result.next()) {
-                String userId = result.getString("user_id");
-                if (!devicesByUserIds.containsKey(userId)){
-                    devicesByUserIds.put(userId, new ArrayList<>());
+                TOTPDevice device = TOTPDeviceRowMapper.getInstance().map(result);
+                if (!devicesByUserIds.containsKey(device.userId)){
+                    devicesByUserIds.put(device.userId, new ArrayList<>());
                 }
-                devicesByUserIds.get(userId).add(TOTPDeviceRowMapper.getInstance().map(result));
+                devicesByUserIds.get(device.userId).add(device);
             }
 
             return devicesByUserIds;
@@ -320,7 +321,8 @@ public class TOTPQueries {
                                                       String userId)
             throws StorageQueryException, SQLException {
         // Note: FOR UPDATE removed - caller should obtain user lock via UserLockingStorage before calling this method
-        String QUERY = "SELECT * FROM " + Config.getConfig(start).getTotpUserDevicesTable()
+        String QUERY = "SELECT " + TOTPDeviceRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getTotpUserDevicesTable()
                 + " WHERE app_id = ? AND user_id = ?;";
 
         return execute(con, QUERY, pst -> {
@@ -364,7 +366,7 @@ public class TOTPQueries {
                                                                       TenantIdentifier tenantIdentifier, String userId)
             throws SQLException, StorageQueryException {
         // Take a lock based on the user id:
-        String QUERY = "SELECT * FROM " +
+        String QUERY = "SELECT " + TOTPUsedCodeRowMapper.getInstance().columns() + " FROM " +
                 Config.getConfig(start).getTotpUsedCodesTable()
                 + " WHERE app_id = ? AND tenant_id = ? AND user_id = ? ORDER BY created_time_ms DESC FOR UPDATE;";
         return execute(con, QUERY, pst -> {
@@ -383,43 +385,57 @@ public class TOTPQueries {
 
     public static int removeExpiredCodes(Start start, TenantIdentifier tenantIdentifier, long expiredBefore)
             throws StorageQueryException, SQLException {
-        String QUERY = "DELETE FROM " + Config.getConfig(start).getTotpUsedCodesTable()
-                + " WHERE app_id = ? AND tenant_id = ? AND expiry_time_ms < ?;";
-
-        return update(start, QUERY, pst -> {
-            pst.setString(1, tenantIdentifier.getAppId());
-            pst.setString(2, tenantIdentifier.getTenantId());
-            pst.setLong(3, expiredBefore);
-        });
+        return ExpirySweeper.sweep(start, Config.getConfig(start).getTotpUsedCodesTable(),
+                "app_id = ? AND tenant_id = ? AND expiry_time_ms < ?", pst -> {
+                    pst.setString(1, tenantIdentifier.getAppId());
+                    pst.setString(2, tenantIdentifier.getTenantId());
+                    pst.setLong(3, expiredBefore);
+                });
     }
 
-    private static class TOTPDeviceRowMapper implements RowMapper<TOTPDevice, ResultSet> {
+    static class TOTPDeviceRowMapper extends ColumnOrdinalRowMapper<TOTPDevice> {
         private static final TOTPDeviceRowMapper INSTANCE = new TOTPDeviceRowMapper();
 
+        private final int userId = ordinal("user_id");
+        private final int deviceName = ordinal("device_name");
+        private final int secretKey = ordinal("secret_key");
+        private final int period = ordinal("period");
+        private final int skew = ordinal("skew");
+        private final int verified = ordinal("verified");
+        private final int createdAt = ordinal("created_at");
+
         private TOTPDeviceRowMapper() {
+            super("user_id", "device_name", "secret_key", "period", "skew", "verified", "created_at");
         }
 
-        private static TOTPDeviceRowMapper getInstance() {
+        static TOTPDeviceRowMapper getInstance() {
             return INSTANCE;
         }
 
         @Override
         public TOTPDevice map(ResultSet result) throws SQLException {
             return new TOTPDevice(
-                    result.getString("user_id"),
-                    result.getString("device_name"),
-                    result.getString("secret_key"),
-                    result.getInt("period"),
-                    result.getInt("skew"),
-                    result.getBoolean("verified"),
-                    result.getLong("created_at"));
+                    result.getString(userId),
+                    result.getString(deviceName),
+                    result.getString(secretKey),
+                    result.getInt(period),
+                    result.getInt(skew),
+                    result.getBoolean(verified),
+                    result.getLong(createdAt));
         }
     }
 
-    private static class TOTPUsedCodeRowMapper implements RowMapper<TOTPUsedCode, ResultSet> {
+    private static class TOTPUsedCodeRowMapper extends ColumnOrdinalRowMapper<TOTPUsedCode> {
         private static final TOTPUsedCodeRowMapper INSTANCE = new TOTPUsedCodeRowMapper();
 
+        private final int userId = ordinal("user_id");
+        private final int code = ordinal("code");
+        private final int isValid = ordinal("is_valid");
+        private final int expiryTimeMs = ordinal("expiry_time_ms");
+        private final int createdTimeMs = ordinal("created_time_ms");
+
         private TOTPUsedCodeRowMapper() {
+            super("user_id", "code", "is_valid", "expiry_time_ms", "created_time_ms");
         }
 
         private static TOTPUsedCodeRowMapper getInstance() {
@@ -429,11 +445,11 @@ public class TOTPQueries {
         @Override
         public TOTPUsedCode map(ResultSet result) throws SQLException {
             return new TOTPUsedCode(
-                    result.getString("user_id"),
-                    result.getString("code"),
-                    result.getBoolean("is_valid"),
-                    result.getLong("expiry_time_ms"),
-                    result.getLong("created_time_ms"));
+                    result.getString(userId),
+                    result.getString(code),
+                    result.getBoolean(isValid),
+                    result.getLong(expiryTimeMs),
+                    result.getLong(createdTimeMs));
         }
     }
 }
@@ -30,7 +30,6 @@ import java.util.stream.Collectors;
 
 import static io.supertokens.pluginInterface.RECIPE_ID.THIRD_PARTY;
 import io.supertokens.pluginInterface.MigrationMode;
-import io.supertokens.pluginInterface.RowMapper;
 import io.supertokens.pluginInterface.authRecipe.ACCOUNT_INFO_TYPE;
 import io.supertokens.pluginInterface.authRecipe.AuthRecipeUserInfo;
 import io.supertokens.pluginInterface.authRecipe.LoginMethod;
@@ -44,6 +43,7 @@ import io.supertokens.storage.postgresql.ConnectionPool;
 import io.supertokens.storage.postgresql.PreparedStatementValueSetter;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.executeBatch;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.executeCopy;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.update;
 import io.supertokens.storage.postgresql.Start;
 import io.supertokens.storage.postgresql.config.Config;
@@ -244,17 +244,12 @@ public class ThirdPartyQueries {
                                                             AppIdentifier appIdentifier)
             throws SQLException, StorageQueryException {
         if (ids != null && !ids.isEmpty()) {
-            String QUERY = "SELECT user_id, third_party_id, third_party_user_id, email, time_joined "
-                    + "FROM " + getConfig(start).getThirdPartyUsersTable() + " WHERE user_id IN (" +
-                    Utils.generateCommaSeperatedQuestionMarks(ids.size()) + ") AND app_id = ?";
+            String QUERY = "SELECT " + UserInfoRowMapper.getInstance().columns() + " FROM "
+                    + getConfig(start).getThirdPartyUsersTable() + " WHERE user_id = ANY(?) AND app_id = ?";
 
             List<UserInfoPartial> userInfos = execute(start, QUERY, pst -> {
-                int index = 1;
-                for (String id : ids) {
-                    pst.setString(index, id);
-                    index++;
-                }
-                pst.setString(index, appIdentifier.getAppId());
+                Utils.setStringArray(pst, 1, ids);
+                pst.setString(2, appIdentifier.getAppId());
             }, result -> {
                 List<UserInfoPartial> finalResult = new ArrayList<>();
                 while (result.next()) {
@@ -276,17 +271,12 @@ public class ThirdPartyQueries {
                                                                         AppIdentifier appIdentifier)
             throws SQLException, StorageQueryException {
         if (ids != null && !ids.isEmpty()) {
-            String QUERY = "SELECT user_id, third_party_id, third_party_user_id, email, time_joined "
-                    + "FROM " + getConfig(start).getThirdPartyUsersTable() + " WHERE user_id IN (" +
-                    Utils.generateCommaSeperatedQuestionMarks(ids.size()) + ") AND app_id = ?";
+            String QUERY = "SELECT " + UserInfoRowMapper.getInstance().columns() + " FROM "
+                    + getConfig(start).getThirdPartyUsersTable() + " WHERE user_id = ANY(?) AND app_id = ?";
 
             List<UserInfoPartial> userInfos = execute(con, QUERY, pst -> {
-                int index = 1;
-                for (String id : ids) {
-                    pst.setString(index, id);
-                    index++;
-                }
-                pst.setString(index, appIdentifier.getAppId());
+                Utils.setStringArray(pst, 1, ids);
+                pst.setString(2, appIdentifier.getAppId());
             }, result -> {
                 List<UserInfoPartial> finalResult = new ArrayList<>();
                 while (result.next()) {
@@ -361,21 +351,12 @@ public class ThirdPartyQueries {
                 + "FROM " + getConfig(start).getThirdPartyUsersTable() + " AS tp" +
                 " JOIN " + getConfig(start).getUsersTable() + " AS all_users" +
                 " ON tp.app_id = all_users.app_id AND tp.user_id = all_users.user_id" +
-                " WHERE tp.app_id = ? AND tp.third_party_id IN ( " + Utils.generateCommaSeperatedQuestionMarks(
-                thirdPartyUserIdToThirdPartyId.size()) + " ) AND tp.third_party_user_id IN ( " + Utils.generateCommaSeperatedQuestionMarks(
-                thirdPartyUserIdToThirdPartyId.size()) + " )";
+                " WHERE tp.app_id = ? AND tp.third_party_id = ANY(?) AND tp.third_party_user_id = ANY(?)";
 
         return execute(con, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
-            int counter = 2;
-            for (String thirdpartId : thirdPartyUserIdToThirdPartyId.values()){
-                pst.setString(counter, thirdpartId);
-                counter++;
-            }
-            for (String thirdparyUserId : thirdPartyUserIdToThirdPartyId.keySet()){
-                pst.setString(counter, thirdparyUserId);
-                counter++;
-            }
+            Utils.setStringArray(pst, 2, thirdPartyUserIdToThirdPartyId.values());
+            Utils.setStringArray(pst, 3, thirdPartyUserIdToThirdPartyId.keySet());
         }, result -> {
             List<String> userIds = new ArrayList<>();
             while (result.next()) {
@@ -460,7 +441,7 @@ public class ThirdPartyQueries {
 
         // we don't need a LOCK here because this is already part of a transaction, and locked on app_id_to_user_id
         // table
-        String QUERY = "SELECT user_id, third_party_id, third_party_user_id, email, time_joined FROM "
+        String QUERY = "SELECT " + UserInfoRowMapper.getInstance().columns() + " FROM "
                 + getConfig(start).getThirdPartyUsersTable()
                 + " WHERE app_id = ?  AND user_id = ?";
         return execute(con, QUERY, pst -> {
@@ -752,17 +733,17 @@ public class ThirdPartyQueries {
         }
 
         if (mode.writesToNewTables()) {
-            executeBatch(sqlConnection, AccountInfoQueries.getRecipeUserAccountInfoBatchQuery(start), recipeUserAccountInfoBatch);
-            executeBatch(sqlConnection, AccountInfoQueries.getRecipeUserTenantBatchQuery(start), recipeUserTenantsBatch);
+            executeCopy(sqlConnection, AccountInfoQueries.getRecipeUserAccountInfoBatchQuery(start), recipeUserAccountInfoBatch);
+            executeCopy(sqlConnection, AccountInfoQueries.getRecipeUserTenantBatchQuery(start), recipeUserTenantsBatch);
         }
 
-        executeBatch(sqlConnection, app_id_userid_QUERY, appIdToUserIdBatch);
+        executeCopy(sqlConnection, app_id_userid_QUERY, appIdToUserIdBatch);
         if (mode.writesToOldTables()) {
-            executeBatch(sqlConnection, all_auth_recipe_users_QUERY, allAuthRecipeUsersBatch);
+            executeCopy(sqlConnection, all_auth_recipe_users_QUERY, allAuthRecipeUsersBatch);
         }
-        executeBatch(sqlConnection, thirdparty_users_QUERY, thirdPartyUsersBatch);
+        executeCopy(sqlConnection, thirdparty_users_QUERY, thirdPartyUsersBatch);
         if (mode.writesToOldTables()) {
-            executeBatch(sqlConnection, thirdparty_user_to_tenant_QUERY, thirdPartyUsersToTenantBatch);
+            executeCopy(sqlConnection, thirdparty_user_to_tenant_QUERY, thirdPartyUsersToTenantBatch);
         }
     }
 
@@ -846,10 +827,17 @@ public class ThirdPartyQueries {
         }
     }
 
-    private static class UserInfoRowMapper implements RowMapper<UserInfoPartial, ResultSet> {
+    private static class UserInfoRowMapper extends ColumnOrdinalRowMapper<UserInfoPartial> {
         private static final UserInfoRowMapper INSTANCE = new UserInfoRowMapper();
 
+        private final int userId = ordinal("user_id");
+        private final int thirdPartyId = ordinal("third_party_id");
+        private final int thirdPartyUserId = ordinal("third_party_user_id");
+        private final int email = ordinal("email");
+        private final int timeJoined = ordinal("time_joined");
+
         private UserInfoRowMapper() {
+            super("user_id", "third_party_id", "third_party_user_id", "email", "time_joined");
         }
 
         private static UserInfoRowMapper getInstance() {
@@ -857,11 +845,10 @@ public class ThirdPartyQueries {
         }
 
         @Override
-        public UserInfoPartial map(ResultSet result) throws Exception {
-            return new UserInfoPartial(result.getString("user_id"), result.getString("email"),
-                    new LoginMethod.ThirdParty(result.getString("third_party_id"),
-                            result.getString("third_party_user_id")),
-                    result.getLong("time_joined"));
+        public UserInfoPartial map(ResultSet result) throws SQLException {
+            return new UserInfoPartial(result.getString(userId), result.getString(email),
+                    new LoginMethod.ThirdParty(result.getString(thirdPartyId), result.getString(thirdPartyUserId)),
+                    result.getLong(timeJoined));
         }
     }
 
@@ -16,7 +16,6 @@
 
 package io.supertokens.storage.postgresql.queries;
 
-import io.supertokens.pluginInterface.RowMapper;
 import io.supertokens.pluginInterface.exceptions.StorageQueryException;
 import io.supertokens.pluginInterface.multitenancy.AppIdentifier;
 import io.supertokens.pluginInterface.useridmapping.UserIdMapping;
@@ -104,7 +103,8 @@ public class UserIdMappingQueries {
     public static UserIdMapping getuseraIdMappingWithSuperTokensUserId(Start start, AppIdentifier appIdentifier,
                                                                        String userId)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM " + Config.getConfig(start).getUserIdMappingTable()
+        String QUERY = "SELECT " + UserIdMappingRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getUserIdMappingTable()
                 + " WHERE app_id = ? AND supertokens_user_id = ?";
         return execute(start, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
@@ -120,7 +120,8 @@ public class UserIdMappingQueries {
     public static UserIdMapping getUserIdMappingWithExternalUserId(Start start, AppIdentifier appIdentifier,
                                                                    String userId)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM " + Config.getConfig(start).getUserIdMappingTable()
+        String QUERY = "SELECT " + UserIdMappingRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getUserIdMappingTable()
                 + " WHERE app_id = ? AND external_user_id = ?";
 
         return execute(start, QUERY, pst -> {
@@ -138,10 +139,12 @@ public class UserIdMappingQueries {
                                                                                               AppIdentifier appIdentifier,
                                                                                               String userId)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM " + Config.getConfig(start).getUserIdMappingTable()
+        String QUERY = "SELECT " + UserIdMappingRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getUserIdMappingTable()
                 + " WHERE app_id = ? AND supertokens_user_id = ?"
                 + " UNION ALL "
-                + "SELECT * FROM " + Config.getConfig(start).getUserIdMappingTable()
+                + "SELECT " + UserIdMappingRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getUserIdMappingTable()
                 + " WHERE app_id = ? AND external_user_id = ?";
 
         return execute(start, QUERY, pst -> {
@@ -168,23 +171,12 @@ public class UserIdMappingQueries {
         }
 
         // No need to filter based on tenantId because the id list is already filtered for a tenant
-        StringBuilder QUERY = new StringBuilder(
-                "SELECT * FROM " + Config.getConfig(start).getUserIdMappingTable() + " WHERE app_id = ? AND " +
-                        "supertokens_user_id IN (");
-        for (int i = 0; i < userIds.size(); i++) {
-            QUERY.append("?");
-            if (i != userIds.size() - 1) {
-                // not the last element
-                QUERY.append(",");
-            }
-        }
-        QUERY.append(")");
-        return execute(start, QUERY.toString(), pst -> {
+        String QUERY = "SELECT " + UserIdMappingRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getUserIdMappingTable()
+                + " WHERE app_id = ? AND supertokens_user_id = ANY(?)";
+        return execute(start, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
-            for (int i = 0; i < userIds.size(); i++) {
-                // i+2 cause this starts with 1 and not 0, and 1 is appId
-                pst.setString(i + 2, userIds.get(i));
-            }
+            Utils.setStringArray(pst, 2, userIds);
         }, result -> {
             HashMap<String, String> userIdMappings = new HashMap<>();
             while (result.next()) {
@@ -205,23 +197,12 @@ public class UserIdMappingQueries {
         }
 
         // No need to filter based on tenantId because the id list is already filtered for a tenant
-        StringBuilder QUERY = new StringBuilder(
-                "SELECT * FROM " + Config.getConfig(start).getUserIdMappingTable() + " WHERE app_id = ? AND " +
-                        "supertokens_user_id IN (");
-        for (int i = 0; i < userIds.size(); i++) {
-            QUERY.append("?");
-            if (i != userIds.size() - 1) {
-                // not the last element
-                QUERY.append(",");
-            }
-        }
-        QUERY.append(")");
-        return execute(sqlCon, QUERY.toString(), pst -> {
+        String QUERY = "SELECT " + UserIdMappingRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getUserIdMappingTable()
+                + " WHERE app_id = ? AND supertokens_user_id = ANY(?)";
+        return execute(sqlCon, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
-            for (int i = 0; i < userIds.size(); i++) {
-                // i+2 cause this starts with 1 and not 0, and 1 is appId
-                pst.setString(i + 2, userIds.get(i));
-            }
+            Utils.setStringArray(pst, 2, userIds);
         }, result -> {
             HashMap<String, String> userIdMappings = new HashMap<>();
             while (result.next()) {
@@ -298,7 +279,8 @@ public class UserIdMappingQueries {
                                                                                    AppIdentifier appIdentifier,
                                                                                    String userId)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM " + Config.getConfig(start).getUserIdMappingTable()
+        String QUERY = "SELECT " + UserIdMappingRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getUserIdMappingTable()
                 + " WHERE app_id = ? AND supertokens_user_id = ?";
         return execute(sqlCon, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
@@ -315,7 +297,8 @@ public class UserIdMappingQueries {
                                                                                AppIdentifier appIdentifier,
                                                                                String userId)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM " + Config.getConfig(start).getUserIdMappingTable()
+        String QUERY = "SELECT " + UserIdMappingRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getUserIdMappingTable()
                 + " WHERE app_id = ? AND external_user_id = ?";
 
         return execute(sqlCon, QUERY, pst -> {
@@ -336,15 +319,13 @@ public class UserIdMappingQueries {
         if(userId == null || userId.isEmpty()){
             return new ArrayList<>();
         }
-        String QUERY = "SELECT * FROM " + Config.getConfig(start).getUserIdMappingTable()
-                + " WHERE app_id = ? AND external_user_id IN ( "+ Utils.generateCommaSeperatedQuestionMarks(
-                userId.size()) + " )";
+        String QUERY = "SELECT " + UserIdMappingRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getUserIdMappingTable()
+                + " WHERE app_id = ? AND external_user_id = ANY(?)";
 
         return execute(sqlCon, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
-            for(int i = 0; i < userId.size(); i++) {
-                pst.setString(2 + i, userId.get(i));
-            }
+            Utils.setStringArray(pst, 2, userId);
         }, result -> {
             List<UserIdMapping> results =  new ArrayList<>();
             while (result.next()) {
@@ -361,15 +342,13 @@ public class UserIdMappingQueries {
         if(userId == null || userId.isEmpty()){
             return new ArrayList<>();
         }
-        String QUERY = "SELECT * FROM " + Config.getConfig(start).getUserIdMappingTable()
-                + " WHERE app_id = ? AND supertokens_user_id IN ( "+ Utils.generateCommaSeperatedQuestionMarks(
-                userId.size()) + " )";
+        String QUERY = "SELECT " + UserIdMappingRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getUserIdMappingTable()
+                + " WHERE app_id = ? AND supertokens_user_id = ANY(?)";
 
         return execute(sqlCon, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
-            for(int i = 0; i < userId.size(); i++) {
-                pst.setString(2 + i, userId.get(i));
-            }
+            Utils.setStringArray(pst, 2, userId);
         }, result -> {
             List<UserIdMapping> results =  new ArrayList<>();
             while (result.next()) {
@@ -384,10 +363,12 @@ public class UserIdMappingQueries {
                                                                                                           AppIdentifier appIdentifier,
                                                                                                           String userId)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM " + Config.getConfig(start).getUserIdMappingTable()
+        String QUERY = "SELECT " + UserIdMappingRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getUserIdMappingTable()
                 + " WHERE app_id = ? AND supertokens_user_id = ?"
                 + " UNION ALL "
-                + "SELECT * FROM " + Config.getConfig(start).getUserIdMappingTable()
+                + "SELECT " + UserIdMappingRowMapper.getInstance().columns() + " FROM "
+                + Config.getConfig(start).getUserIdMappingTable()
                 + " WHERE app_id = ? AND external_user_id = ?";
 
         return execute(sqlCon, QUERY, pst -> {
@@ -404,10 +385,15 @@ public class UserIdMappingQueries {
         });
     }
 
-    private static class UserIdMappingRowMapper implements RowMapper<UserIdMapping, ResultSet> {
+    private static class UserIdMappingRowMapper extends ColumnOrdinalRowMapper<UserIdMapping> {
         private static final UserIdMappingRowMapper INSTANCE = new UserIdMappingRowMapper();
 
+        private final int supertokensUserId = ordinal("supertokens_user_id");
+        private final int externalUserId = ordinal("external_user_id");
+        private final int externalUserIdInfo = ordinal("external_user_id_info");
+
         private UserIdMappingRowMapper() {
+            super("supertokens_user_id", "external_user_id", "external_user_id_info");
         }
 
         private static UserIdMappingRowMapper getInstance() {
@@ -416,8 +402,8 @@ public class UserIdMappingQueries {
 
         @Override
         public UserIdMapping map(ResultSet rs) throws Exception {
-            return new UserIdMapping(rs.getString("supertokens_user_id"), rs.getString("external_user_id"),
-                    rs.getString("external_user_id_info"));
+            return new UserIdMapping(rs.getString(supertokensUserId), rs.getString(externalUserId),
+                    rs.getString(externalUserIdInfo));
         }
     }
 
@@ -23,7 +23,7 @@ import io.supertokens.pluginInterface.useridmapping.LockedUserPair;
 import io.supertokens.pluginInterface.useridmapping.UserNotFoundForLockingException;
 import io.supertokens.storage.postgresql.LockedUserImpl;
 import io.supertokens.storage.postgresql.Start;
-import io.supertokens.storage.postgresql.config.Config;
+import io.supertokens.storage.postgresql.config.PostgreSQLConfig;
 
 import java.sql.Array;
 import java.sql.Connection;
@@ -32,6 +32,7 @@ import java.sql.Types;
 import java.util.*;
 
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
+import static io.supertokens.storage.postgresql.queries.QueryRegistry.getQuery;
 
 public class UserLockingQueries {
 
@@ -44,6 +45,21 @@ public class UserLockingQueries {
         return lockUsers(start, con, appIdentifier, List.of(userId)).get(0);
     }
 
+    static String findPrimaryUserIdsQuery(PostgreSQLConfig config) {
+        return "SELECT primary_or_recipe_user_id FROM " + config.getAppIdToUserIdTable()
+                + " WHERE app_id = ? AND user_id = ANY(?)"
+                + "   AND is_linked_or_is_a_primary_user = TRUE"
+                + "   AND primary_or_recipe_user_id <> user_id";
+    }
+
+    static String lockUsersQuery(PostgreSQLConfig config) {
+        return "SELECT u.user_id, u.primary_or_recipe_user_id, u.is_linked_or_is_a_primary_user, u.recipe_id"
+                + " FROM " + config.getAppIdToUserIdTable() + " u"
+                + " WHERE u.app_id = ? AND u.user_id = ANY(?)"
+                + " ORDER BY u.user_id"
+                + " FOR UPDATE";
+    }
+
     /**
      * Locks multiple users (and their primaries) with a single query.
      * Uses ORDER BY user_id to acquire locks in consistent order, preventing deadlocks.
@@ -56,7 +72,6 @@ public class UserLockingQueries {
             return Collections.emptyList();
         }
 
-        String table = Config.getConfig(start).getAppIdToUserIdTable();
         String appId = appIdentifier.getAppId();
 
         // Two-query approach: first discover primary IDs, then lock everything.
@@ -77,11 +92,7 @@ public class UserLockingQueries {
         // Pure read, no lock. Uses PK (app_id, user_id) for the WHERE, returns
         // primary_or_recipe_user_id for linked users whose primary differs from
         // themselves. Typical result: 0-2 rows.
-        String FIND_PRIMARIES =
-                "SELECT primary_or_recipe_user_id FROM " + table
-                + " WHERE app_id = ? AND user_id = ANY(?)"
-                + "   AND is_linked_or_is_a_primary_user = TRUE"
-                + "   AND primary_or_recipe_user_id <> user_id";
+        String FIND_PRIMARIES = getQuery(start, QueryId.USER_LOCKING_FIND_PRIMARY_USER_IDS);
 
         Array userIdsArray = con.createArrayOf("VARCHAR", userIds.toArray(new String[0]));
 
@@ -119,11 +130,7 @@ public class UserLockingQueries {
 
         final int MAX_LOCK_EXPANSION_ATTEMPTS = 3;
 
-        String LOCK_QUERY = "SELECT u.user_id, u.primary_or_recipe_user_id, u.is_linked_or_is_a_primary_user, u.recipe_id"
-                + " FROM " + table + " u"
-                + " WHERE u.app_id = ? AND u.user_id = ANY(?)"
-                + " ORDER BY u.user_id"
-                + " FOR UPDATE";
+        String LOCK_QUERY = getQuery(start, QueryId.USER_LOCKING_LOCK_USERS);
 
         Map<String, LockedUser> lockedByUserId = null;
         for (int attempt = 0; attempt < MAX_LOCK_EXPANSION_ATTEMPTS; attempt++) {
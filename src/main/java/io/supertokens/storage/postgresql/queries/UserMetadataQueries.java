@@ -32,6 +32,7 @@ import io.supertokens.pluginInterface.multitenancy.AppIdentifier;
 import io.supertokens.storage.postgresql.PreparedStatementValueSetter;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.executeBatch;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.executeRead;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.update;
 import io.supertokens.storage.postgresql.Start;
 import io.supertokens.storage.postgresql.config.Config;
@@ -148,13 +149,10 @@ public class UserMetadataQueries {
         }
         // Note: FOR UPDATE removed - caller should obtain user locks via UserLockingStorage before calling this method
         String QUERY = "SELECT user_id, user_metadata FROM " + getConfig(start).getUserMetadataTable()
-                + " WHERE app_id = ? AND user_id IN (" + Utils.generateCommaSeperatedQuestionMarks(userIds.size())
-                + ")";
+                + " WHERE app_id = ? AND user_id = ANY(?)";
         return execute(con, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
-            for (int i = 0; i< userIds.size(); i++){
-                pst.setString(2+i, userIds.get(i));
-            }
+            Utils.setStringArray(pst, 2, userIds);
         }, result -> {
             Map<String, JsonObject> userMetadataByUserId = new HashMap<>();
             JsonParser jp = new JsonParser();
@@ -171,7 +169,7 @@ public class UserMetadataQueries {
             throws SQLException, StorageQueryException {
         String QUERY = "SELECT user_metadata FROM " + getConfig(start).getUserMetadataTable()
                 + " WHERE app_id = ? AND user_id = ?";
-        return execute(start, QUERY, pst -> {
+        return executeRead(start, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
             pst.setString(2, userId);
         }, result -> {
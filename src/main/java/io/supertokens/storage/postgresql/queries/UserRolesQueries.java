@@ -243,7 +243,7 @@ public class UserRolesQueries {
         String QUERY = "SELECT role FROM " + getConfig(start).getUserRolesTable()
                 + " WHERE app_id = ? AND tenant_id = ? AND user_id = ? ;";
 
-        return execute(start, QUERY, pst -> {
+        return executeRead(start, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
             pst.setString(2, tenantIdentifier.getTenantId());
             pst.setString(3, userId);
@@ -279,13 +279,11 @@ public class UserRolesQueries {
             return new HashMap<>();
         }
         String QUERY = "SELECT user_id, role FROM " + getConfig(start).getUserRolesTable()
-                + " WHERE app_id = ? AND user_id IN ("+Utils.generateCommaSeperatedQuestionMarks(userIds.size())+") ;";
+                + " WHERE app_id = ? AND user_id = ANY(?);";
 
         return execute(start, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
-            for(int i = 0; i < userIds.size(); i++) {
-                pst.setString(2+i, userIds.get(i));
-            }
+            Utils.setStringArray(pst, 2, userIds);
         }, result -> {
             Map<String, List<String>> rolesByUserId = new HashMap<>();
             while (result.next()) {
@@ -331,13 +329,10 @@ public class UserRolesQueries {
             throws SQLException, StorageQueryException {
         if(roles != null && !roles.isEmpty()) {
             String QUERY = "SELECT role FROM " + getConfig(start).getRolesTable()
-                    + " WHERE app_id = ? AND role IN (" + Utils.generateCommaSeperatedQuestionMarks(roles.size()) +
-                    ") FOR UPDATE";
+                    + " WHERE app_id = ? AND role = ANY(?) FOR UPDATE";
             return execute(con, QUERY, pst -> {
                 pst.setString(1, appIdentifier.getAppId());
-                for (int i = 0; i < roles.size(); i++) {
-                    pst.setString(2 + i, roles.get(i));
-                }
+                Utils.setStringArray(pst, 2, roles);
             }, result -> {
                 List<String> rolesFound = new ArrayList<>();
                 while (result.next()) {
@@ -33,7 +33,6 @@ import org.jetbrains.annotations.Nullable;
 import io.supertokens.pluginInterface.MigrationMode;
 import io.supertokens.pluginInterface.authRecipe.ACCOUNT_INFO_TYPE;
 import static io.supertokens.pluginInterface.RECIPE_ID.WEBAUTHN;
-import io.supertokens.pluginInterface.RowMapper;
 import io.supertokens.pluginInterface.authRecipe.AuthRecipeUserInfo;
 import io.supertokens.pluginInterface.authRecipe.LoginMethod;
 import io.supertokens.pluginInterface.exceptions.StorageQueryException;
@@ -44,6 +43,7 @@ import io.supertokens.pluginInterface.webauthn.AccountRecoveryTokenInfo;
 import io.supertokens.pluginInterface.webauthn.WebAuthNOptions;
 import io.supertokens.pluginInterface.webauthn.WebAuthNStoredCredential;
 import io.supertokens.storage.postgresql.ConnectionPool;
+import io.supertokens.storage.postgresql.ExpirySweeper;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.update;
 import io.supertokens.storage.postgresql.Start;
@@ -218,7 +218,8 @@ public class WebAuthNQueries {
 
     public static WebAuthNOptions loadOptionsById(Start start, TenantIdentifier tenantIdentifier, String optionsId)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM " + getConfig(start).getWebAuthNGeneratedOptionsTable()
+        String QUERY = "SELECT " + WebAuthNOptionsRowMapper.getInstance().columns() + " FROM "
+                + getConfig(start).getWebAuthNGeneratedOptionsTable()
                 + " WHERE app_id = ? AND tenant_id = ? and id = ?";
         return execute(start, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
@@ -234,7 +235,8 @@ public class WebAuthNQueries {
 
     public static WebAuthNStoredCredential loadCredentialByIdForUser(Start start, TenantIdentifier tenantIdentifier, String credentialId, String recipeUserId)
             throws StorageQueryException, SQLException {
-        String QUERY = "SELECT * FROM " + getConfig(start).getWebAuthNCredentialsTable()
+        String QUERY = "SELECT " + WebAuthnStoredCredentialRowMapper.getInstance().columns() + " FROM "
+                + getConfig(start).getWebAuthNCredentialsTable()
                 + " WHERE app_id = ? AND id = ? AND user_id = ?";
         return execute(start, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
@@ -250,7 +252,8 @@ public class WebAuthNQueries {
 
     public static WebAuthNStoredCredential loadCredentialById_Transaction(Start start, Connection sqlConnection, TenantIdentifier tenantIdentifier, String credentialId)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM " + getConfig(start).getWebAuthNCredentialsTable()
+        String QUERY = "SELECT " + WebAuthnStoredCredentialRowMapper.getInstance().columns() + " FROM "
+                + getConfig(start).getWebAuthNCredentialsTable()
                 + " WHERE app_id = ? AND id = ?";
         return execute(sqlConnection, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
@@ -570,14 +573,11 @@ public class WebAuthNQueries {
                 + "FROM " + getConfig(start).getWebAuthNUserToTenantTable() + " AS ep"
                 + " JOIN " + getConfig(start).getUsersTable() + " AS all_users"
                 + " ON ep.app_id = all_users.app_id AND ep.user_id = all_users.user_id"
-                + " WHERE ep.app_id = ? AND ep.email IN (" + Utils.generateCommaSeperatedQuestionMarks(emails.size()) + ")";
+                + " WHERE ep.app_id = ? AND ep.email = ANY(?)";
 
         return execute(sqlConnection, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
-            int i = 2;
-            for(String email : emails) {
-                pst.setString(i++, email);
-            }
+            Utils.setStringArray(pst, 2, emails);
         }, result -> {
             List<String> idResult = new ArrayList<>();
             if (result.next()) {
@@ -595,15 +595,12 @@ public class WebAuthNQueries {
                 + " JOIN " + getConfig(start).getAppIdToUserIdTable() + " AS auid"
                 + " ON ruai.app_id = auid.app_id AND ruai.recipe_user_id = auid.user_id"
                 + " WHERE ruai.app_id = ? AND ruai.account_info_type = 'email'"
-                + " AND ruai.account_info_value IN (" + Utils.generateCommaSeperatedQuestionMarks(emails.size()) + ")"
+                + " AND ruai.account_info_value = ANY(?)"
                 + " AND ruai.recipe_id = 'webauthn'";
 
         return execute(sqlConnection, QUERY, pst -> {
             pst.setString(1, appIdentifier.getAppId());
-            int i = 2;
-            for(String email : emails) {
-                pst.setString(i++, email);
-            }
+            Utils.setStringArray(pst, 2, emails);
         }, result -> {
             List<String> idResult = new ArrayList<>();
             if (result.next()) {
@@ -661,14 +658,11 @@ public class WebAuthNQueries {
                 "LEFT JOIN " + emailVerificationTable + " as email_verification ON webauthn.app_id = " +
                 "email_verification.app_id AND (user_id_mapping.external_user_id = email_verification.user_id OR user_id_mapping.supertokens_user_id = email_verification.user_id OR webauthn.user_id = email_verification.user_id OR webauthn.user_id = email_verification.user_id) " +
                 " AND email_verification.email = webauthn.email " +
-                "WHERE webauthn.app_id = ? AND webauthn.user_id IN (" + Utils.generateCommaSeperatedQuestionMarks(ids.size()) + ")";
+                "WHERE webauthn.app_id = ? AND webauthn.user_id = ANY(?)";
 
         return execute(connection, queryAll, pst -> {
             pst.setString(1, appIdentifier.getAppId());
-            int index = 2;
-            for (String id : ids) {
-                pst.setString(index++, id);
-            }
+            Utils.setStringArray(pst, 2, ids);
         }, result -> {
             Map<String, LoginMethod> users = new HashMap<>();
             while (result.next()) {
@@ -750,7 +744,8 @@ public class WebAuthNQueries {
     public static WebAuthNOptions loadOptionsById_Transaction(Start start, Connection sqlCon,
                                                               TenantIdentifier tenantIdentifier, String optionsId)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM " + getConfig(start).getWebAuthNGeneratedOptionsTable()
+        String QUERY = "SELECT " + WebAuthNOptionsRowMapper.getInstance().columns() + " FROM "
+                + getConfig(start).getWebAuthNGeneratedOptionsTable()
                 + " WHERE app_id = ? AND id = ?";
         return execute(sqlCon, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
@@ -802,8 +797,8 @@ public class WebAuthNQueries {
 
     public static List<WebAuthNStoredCredential> listCredentials(Start start, TenantIdentifier tenantIdentifier,
                                                                  String recipeUserId) throws SQLException, StorageQueryException {
-        String LIST_QUERY =  "SELECT * FROM " + getConfig(start).getWebAuthNCredentialsTable() +
-                " WHERE app_id = ? AND user_id = ?";
+        String LIST_QUERY = "SELECT " + WebAuthnStoredCredentialRowMapper.getInstance().columns() + " FROM "
+                + getConfig(start).getWebAuthNCredentialsTable() + " WHERE app_id = ? AND user_id = ?";
         return execute(start, LIST_QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
             pst.setString(2, recipeUserId);
@@ -860,9 +855,24 @@ public class WebAuthNQueries {
         }
     }
 
-    private static class WebAuthnStoredCredentialRowMapper implements RowMapper<WebAuthNStoredCredential, ResultSet> {
+    private static class WebAuthnStoredCredentialRowMapper extends ColumnOrdinalRowMapper<WebAuthNStoredCredential> {
         private static final WebAuthnStoredCredentialRowMapper INSTANCE = new WebAuthnStoredCredentialRowMapper();
 
+        private final int id = ordinal("id");
+        private final int appId = ordinal("app_id");
+        private final int rpId = ordinal("rp_id");
+        private final int userId = ordinal("user_id");
+        private final int counter = ordinal("counter");
+        private final int publicKey = ordinal("public_key");
+        private final int transports = ordinal("transports");
+        private final int createdAt = ordinal("created_at");
+        private final int updatedAt = ordinal("updated_at");
+
+        private WebAuthnStoredCredentialRowMapper() {
+            super("id", "app_id", "rp_id", "user_id", "counter", "public_key", "transports", "created_at",
+                    "updated_at");
+        }
+
         public static WebAuthnStoredCredentialRowMapper getInstance() {
             return INSTANCE;
         }
@@ -870,22 +880,38 @@ public class WebAuthNQueries {
         @Override
         public WebAuthNStoredCredential map(ResultSet rs) throws Exception {
             WebAuthNStoredCredential result = new WebAuthNStoredCredential();
-            result.id = rs.getString("id");
-            result.appId = rs.getString("app_id");
-            result.rpId = rs.getString("rp_id");
-            result.userId = rs.getString("user_id");
-            result.counter = rs.getLong("counter");
-            result.publicKey = rs.getBytes("public_key");
-            result.transports = rs.getString("transports");
-            result.createdAt = rs.getLong("created_at");
-            result.updatedAt = rs.getLong("updated_at");
+            result.id = rs.getString(id);
+            result.appId = rs.getString(appId);
+            result.rpId = rs.getString(rpId);
+            result.userId = rs.getString(userId);
+            result.counter = rs.getLong(counter);
+            result.publicKey = rs.getBytes(publicKey);
+            result.transports = rs.getString(transports);
+            result.createdAt = rs.getLong(createdAt);
+            result.updatedAt = rs.getLong(updatedAt);
             return result;
         }
     }
 
-    private static class WebAuthNOptionsRowMapper implements RowMapper<WebAuthNOptions, ResultSet> {
+    private static class WebAuthNOptionsRowMapper extends ColumnOrdinalRowMapper<WebAuthNOptions> {
         private static final WebAuthNOptionsRowMapper INSTANCE = new WebAuthNOptionsRowMapper();
 
+        private final int id = ordinal("id");
+        private final int challenge = ordinal("challenge");
+        private final int email = ordinal("email");
+        private final int rpId = ordinal("rp_id");
+        private final int rpName = ordinal("rp_name");
+        private final int origin = ordinal("origin");
+        private final int expiresAt = ordinal("expires_at");
+        private final int createdAt = ordinal("created_at");
+        private final int userPresenceRequired = ordinal("user_presence_required");
+        private final int userVerification = ordinal("user_verification");
+
+        private WebAuthNOptionsRowMapper() {
+            super("id", "challenge", "email", "rp_id", "rp_name", "origin", "expires_at", "created_at",
+                    "user_presence_required", "user_verification");
+        }
+
         public static WebAuthNOptionsRowMapper getInstance() {
             return INSTANCE;
         }
@@ -893,17 +919,17 @@ public class WebAuthNQueries {
         @Override
         public WebAuthNOptions map(ResultSet rs) throws Exception {
             WebAuthNOptions result = new WebAuthNOptions();
-            result.timeout = rs.getLong("expires_at") - rs.getLong("created_at");
-            result.expiresAt = rs.getLong("expires_at");
-            result.createdAt = rs.getLong("created_at");
-            result.relyingPartyId = rs.getString("rp_id");
-            result.origin = rs.getString("origin");
-            result.challenge = rs.getString("challenge");
-            result.userEmail = rs.getString("email");
-            result.generatedOptionsId = rs.getString("id");
-            result.relyingPartyName = rs.getString("rp_name");
-            result.userPresenceRequired = rs.getBoolean("user_presence_required");
-            result.userVerification = rs.getString("user_verification");
+            result.timeout = rs.getLong(expiresAt) - rs.getLong(createdAt);
+            result.expiresAt = rs.getLong(expiresAt);
+            result.createdAt = rs.getLong(createdAt);
+            result.relyingPartyId = rs.getString(rpId);
+            result.origin = rs.getString(origin);
+            result.challenge = rs.getString(challenge);
+            result.userEmail = rs.getString(email);
+            result.generatedOptionsId = rs.getString(id);
+            result.relyingPartyName = rs.getString(rpName);
+            result.userPresenceRequired = rs.getBoolean(userPresenceRequired);
+            result.userVerification = rs.getString(userVerification);
             return result;
         }
     }
@@ -923,7 +949,8 @@ public class WebAuthNQueries {
 
     public static AccountRecoveryTokenInfo getAccountRecoveryTokenInfoByToken_Transaction(Start start, TenantIdentifier tenantIdentifier, Connection con, String token)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT * FROM " + getConfig(start).getWebAuthNAccountRecoveryTokenTable() + " WHERE app_id = ? AND tenant_id = ? AND token = ?";
+        String QUERY = "SELECT " + AccountRecoveryTokenInfoRowMapper.getInstance().columns() + " FROM "
+                + getConfig(start).getWebAuthNAccountRecoveryTokenTable() + " WHERE app_id = ? AND tenant_id = ? AND token = ?";
         return execute(con, QUERY, pst -> {
             pst.setString(1, tenantIdentifier.getAppId());
             pst.setString(2, tenantIdentifier.getTenantId());
@@ -936,9 +963,18 @@ public class WebAuthNQueries {
         });
     }
 
-    private static class AccountRecoveryTokenInfoRowMapper implements RowMapper<AccountRecoveryTokenInfo, ResultSet> {
+    private static class AccountRecoveryTokenInfoRowMapper extends ColumnOrdinalRowMapper<AccountRecoveryTokenInfo> {
         private static final AccountRecoveryTokenInfoRowMapper INSTANCE = new AccountRecoveryTokenInfoRowMapper();
 
+        private final int userId = ordinal("user_id");
+        private final int email = ordinal("email");
+        private final int token = ordinal("token");
+        private final int expiresAt = ordinal("expires_at");
+
+        private AccountRecoveryTokenInfoRowMapper() {
+            super("user_id", "email", "token", "expires_at");
+        }
+
         public static AccountRecoveryTokenInfoRowMapper getInstance() {
             return INSTANCE;
         }
@@ -946,10 +982,10 @@ public class WebAuthNQueries {
         @Override
         public AccountRecoveryTokenInfo map(ResultSet rs) throws Exception {
             AccountRecoveryTokenInfo result = new AccountRecoveryTokenInfo(
-                    rs.getString("user_id"),
-                    rs.getString("email"),
-                    rs.getString("token"),
-                    rs.getLong("expires_at")
+                    rs.getString(userId),
+                    rs.getString(email),
+                    rs.getString(token),
+                    rs.getLong(expiresAt)
             );
             return result;
         }
@@ -967,18 +1003,16 @@ public class WebAuthNQueries {
 
     public static void deleteExpiredAccountRecoveryTokens(Start start)
             throws SQLException, StorageQueryException {
-        String DELETE = "DELETE FROM " + getConfig(start).getWebAuthNAccountRecoveryTokenTable() + " WHERE expires_at < ?";
-        update(start, DELETE, pst -> {
-            pst.setLong(1, System.currentTimeMillis());
-        });
+        long now = System.currentTimeMillis();
+        ExpirySweeper.sweep(start, getConfig(start).getWebAuthNAccountRecoveryTokenTable(), "expires_at < ?",
+                pst -> pst.setLong(1, now));
     }
 
     public static void deleteExpiredGeneratedOptions(Start start)
             throws SQLException, StorageQueryException {
-        String DELETE = "DELETE FROM " + getConfig(start).getWebAuthNGeneratedOptionsTable() + " WHERE expires_at < ?";
-        update(start, DELETE, pst -> {
-            pst.setLong(1, System.currentTimeMillis());
-        });
+        long now = System.currentTimeMillis();
+        ExpirySweeper.sweep(start, getConfig(start).getWebAuthNGeneratedOptionsTable(), "expires_at < ?",
+                pst -> pst.setLong(1, now));
     }
 
 }
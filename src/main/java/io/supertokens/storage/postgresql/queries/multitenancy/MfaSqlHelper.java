@@ -24,7 +24,8 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.*;
 
-import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.STREAMING_FETCH_SIZE;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.executeStreaming;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.update;
 import static io.supertokens.storage.postgresql.config.Config.getConfig;
 
@@ -32,55 +33,45 @@ public class MfaSqlHelper {
     public static HashMap<TenantIdentifier, String[]> selectAllFirstFactors(Start start)
             throws SQLException, StorageQueryException {
         String QUERY = "SELECT connection_uri_domain, app_id, tenant_id, factor_id FROM "
-                + getConfig(start).getTenantFirstFactorsTable() + ";";
-        return execute(start, QUERY, pst -> {
-        }, result -> {
-            HashMap<TenantIdentifier, List<String>> firstFactors = new HashMap<>();
-
-            while (result.next()) {
-                TenantIdentifier tenantIdentifier = new TenantIdentifier(result.getString("connection_uri_domain"),
-                        result.getString("app_id"), result.getString("tenant_id"));
-                if (!firstFactors.containsKey(tenantIdentifier)) {
-                    firstFactors.put(tenantIdentifier, new ArrayList<>());
-                }
-
-                firstFactors.get(tenantIdentifier).add(result.getString("factor_id"));
-            }
-
-            HashMap<TenantIdentifier, String[]> finalResult = new HashMap<>();
-            for (TenantIdentifier tenantIdentifier : firstFactors.keySet()) {
-                finalResult.put(tenantIdentifier, firstFactors.get(tenantIdentifier).toArray(new String[0]));
+                + getConfig(start).getTenantFirstFactorsTable();
+        HashMap<TenantIdentifier, List<String>> firstFactors = new HashMap<>();
+        executeStreaming(start, QUERY, null, STREAMING_FETCH_SIZE, result -> {
+            TenantIdentifier tenantIdentifier = new TenantIdentifier(result.getString("connection_uri_domain"),
+                    result.getString("app_id"), result.getString("tenant_id"));
+            if (!firstFactors.containsKey(tenantIdentifier)) {
+                firstFactors.put(tenantIdentifier, new ArrayList<>());
             }
 
-            return finalResult;
+            firstFactors.get(tenantIdentifier).add(result.getString("factor_id"));
         });
+
+        HashMap<TenantIdentifier, String[]> finalResult = new HashMap<>();
+        for (TenantIdentifier tenantIdentifier : firstFactors.keySet()) {
+            finalResult.put(tenantIdentifier, firstFactors.get(tenantIdentifier).toArray(new String[0]));
+        }
+        return finalResult;
     }
 
     public static HashMap<TenantIdentifier, String[]> selectAllRequiredSecondaryFactors(Start start)
             throws SQLException, StorageQueryException {
         String QUERY = "SELECT connection_uri_domain, app_id, tenant_id, factor_id FROM "
-                + getConfig(start).getTenantRequiredSecondaryFactorsTable() + ";";
-        return execute(start, QUERY, pst -> {
-        }, result -> {
-            HashMap<TenantIdentifier, List<String>> defaultRequiredFactors = new HashMap<>();
-
-            while (result.next()) {
-                TenantIdentifier tenantIdentifier = new TenantIdentifier(result.getString("connection_uri_domain"),
-                        result.getString("app_id"), result.getString("tenant_id"));
-                if (!defaultRequiredFactors.containsKey(tenantIdentifier)) {
-                    defaultRequiredFactors.put(tenantIdentifier, new ArrayList<>());
-                }
-
-                defaultRequiredFactors.get(tenantIdentifier).add(result.getString("factor_id"));
-            }
-
-            HashMap<TenantIdentifier, String[]> finalResult = new HashMap<>();
-            for (TenantIdentifier tenantIdentifier : defaultRequiredFactors.keySet()) {
-                finalResult.put(tenantIdentifier, defaultRequiredFactors.get(tenantIdentifier).toArray(new String[0]));
+                + getConfig(start).getTenantRequiredSecondaryFactorsTable();
+        HashMap<TenantIdentifier, List<String>> defaultRequiredFactors = new HashMap<>();
+        executeStreaming(start, QUERY, null, STREAMING_FETCH_SIZE, result -> {
+            TenantIdentifier tenantIdentifier = new TenantIdentifier(result.getString("connection_uri_domain"),
+                    result.getString("app_id"), result.getString("tenant_id"));
+            if (!defaultRequiredFactors.containsKey(tenantIdentifier)) {
+                defaultRequiredFactors.put(tenantIdentifier, new ArrayList<>());
             }
 
-            return finalResult;
+            defaultRequiredFactors.get(tenantIdentifier).add(result.getString("factor_id"));
         });
+
+        HashMap<TenantIdentifier, String[]> finalResult = new HashMap<>();
+        for (TenantIdentifier tenantIdentifier : defaultRequiredFactors.keySet()) {
+            finalResult.put(tenantIdentifier, defaultRequiredFactors.get(tenantIdentifier).toArray(new String[0]));
+        }
+        return finalResult;
     }
 
     public static void createFirstFactors(Start start, Connection sqlCon, TenantIdentifier tenantIdentifier,
@@ -16,10 +16,10 @@
 
 package io.supertokens.storage.postgresql.queries.multitenancy;
 
-import io.supertokens.pluginInterface.RowMapper;
 import io.supertokens.pluginInterface.exceptions.StorageQueryException;
 import io.supertokens.pluginInterface.multitenancy.*;
 import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storage.postgresql.queries.ColumnOrdinalRowMapper;
 import io.supertokens.storage.postgresql.queries.utils.JsonUtils;
 
 import java.sql.Connection;
@@ -29,44 +29,77 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
-import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.STREAMING_FETCH_SIZE;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.executeStreaming;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.update;
 import static io.supertokens.storage.postgresql.config.Config.getConfig;
 
 public class TenantConfigSQLHelper {
-    public static class TenantConfigRowMapper implements RowMapper<TenantConfig, ResultSet> {
-        ThirdPartyConfig.Provider[] providers;
-        String[] firstFactors;
-        String[] requiredSecondaryFactors;
-
-        private TenantConfigRowMapper(ThirdPartyConfig.Provider[] providers, String[] firstFactors,
-                                      String[] requiredSecondaryFactors) {
-            this.providers = providers;
-            this.firstFactors = firstFactors;
-            this.requiredSecondaryFactors = requiredSecondaryFactors;
+    /**
+     * Maps the rows of one selectAll. The providers and factors of each tenant are read beforehand from their own
+     * tables, and looked up by the tenant of the row.
+     */
+    public static class TenantConfigRowMapper extends ColumnOrdinalRowMapper<TenantConfig> {
+        private final HashMap<TenantIdentifier, HashMap<String, ThirdPartyConfig.Provider>> providerMap;
+        private final HashMap<TenantIdentifier, String[]> firstFactorsMap;
+        private final HashMap<TenantIdentifier, String[]> requiredSecondaryFactorsMap;
+
+        private final int connectionUriDomain = ordinal("connection_uri_domain");
+        private final int appId = ordinal("app_id");
+        private final int tenantId = ordinal("tenant_id");
+        private final int coreConfig = ordinal("core_config");
+        private final int emailPasswordEnabled = ordinal("email_password_enabled");
+        private final int passwordlessEnabled = ordinal("passwordless_enabled");
+        private final int thirdPartyEnabled = ordinal("third_party_enabled");
+        private final int isFirstFactorsNull = ordinal("is_first_factors_null");
+
+        private TenantConfigRowMapper(
+                HashMap<TenantIdentifier, HashMap<String, ThirdPartyConfig.Provider>> providerMap,
+                HashMap<TenantIdentifier, String[]> firstFactorsMap,
+                HashMap<TenantIdentifier, String[]> requiredSecondaryFactorsMap) {
+            super("connection_uri_domain", "app_id", "tenant_id", "core_config", "email_password_enabled",
+                    "passwordless_enabled", "third_party_enabled", "is_first_factors_null");
+            this.providerMap = providerMap;
+            this.firstFactorsMap = firstFactorsMap;
+            this.requiredSecondaryFactorsMap = requiredSecondaryFactorsMap;
         }
 
-        public static TenantConfigSQLHelper.TenantConfigRowMapper getInstance(ThirdPartyConfig.Provider[] providers,
-                                                                              String[] firstFactors,
-                                                                              String[] requiredSecondaryFactors) {
-            return new TenantConfigSQLHelper.TenantConfigRowMapper(providers, firstFactors, requiredSecondaryFactors);
+        public static TenantConfigSQLHelper.TenantConfigRowMapper getInstance(
+                HashMap<TenantIdentifier, HashMap<String, ThirdPartyConfig.Provider>> providerMap,
+                HashMap<TenantIdentifier, String[]> firstFactorsMap,
+                HashMap<TenantIdentifier, String[]> requiredSecondaryFactorsMap) {
+            return new TenantConfigSQLHelper.TenantConfigRowMapper(providerMap, firstFactorsMap,
+                    requiredSecondaryFactorsMap);
         }
 
         @Override
         public TenantConfig map(ResultSet result) throws StorageQueryException {
             try {
-                boolean isFirstFactorsNull = result.getBoolean("is_first_factors_null");
+                TenantIdentifier tenantIdentifier = new TenantIdentifier(result.getString(connectionUriDomain),
+                        result.getString(appId), result.getString(tenantId));
+                ThirdPartyConfig.Provider[] providers;
+                if (providerMap.containsKey(tenantIdentifier)) {
+                    providers = providerMap.get(tenantIdentifier).values().toArray(new ThirdPartyConfig.Provider[0]);
+                } else {
+                    providers = new ThirdPartyConfig.Provider[0];
+                }
+                String[] firstFactors =
+                        firstFactorsMap.containsKey(tenantIdentifier) ? firstFactorsMap.get(tenantIdentifier) :
+                                new String[0];
+
+                String[] requiredSecondaryFactors = requiredSecondaryFactorsMap.containsKey(tenantIdentifier) ?
+                        requiredSecondaryFactorsMap.get(tenantIdentifier) : new String[0];
+
                 return new TenantConfig(
-                        new TenantIdentifier(result.getString("connection_uri_domain"), result.getString("app_id"),
-                                result.getString("tenant_id")),
-                        new EmailPasswordConfig(result.getBoolean("email_password_enabled")),
+                        tenantIdentifier,
+                        new EmailPasswordConfig(result.getBoolean(emailPasswordEnabled)),
                         new ThirdPartyConfig(
-                                result.getBoolean("third_party_enabled"),
+                                result.getBoolean(thirdPartyEnabled),
                                 providers),
-                        new PasswordlessConfig(result.getBoolean("passwordless_enabled")),
-                        firstFactors.length == 0 && isFirstFactorsNull ? null : firstFactors,
+                        new PasswordlessConfig(result.getBoolean(passwordlessEnabled)),
+                        firstFactors.length == 0 && result.getBoolean(isFirstFactorsNull) ? null : firstFactors,
                         requiredSecondaryFactors.length == 0 ? null : requiredSecondaryFactors,
-                        JsonUtils.stringToJsonObject(result.getString("core_config"))
+                        JsonUtils.stringToJsonObject(result.getString(coreConfig))
                 );
             } catch (Exception e) {
                 throw new StorageQueryException(e);
@@ -79,40 +112,15 @@ public class TenantConfigSQLHelper {
                                            HashMap<TenantIdentifier, String[]> firstFactorsMap,
                                            HashMap<TenantIdentifier, String[]> requiredSecondaryFactorsMap)
             throws SQLException, StorageQueryException {
-        String QUERY = "SELECT connection_uri_domain, app_id, tenant_id, core_config,"
-                + " email_password_enabled, passwordless_enabled, third_party_enabled, "
-                + " is_first_factors_null FROM "
-                + getConfig(start).getTenantConfigsTable() + ";";
-
-        TenantConfig[] tenantConfigs = execute(start, QUERY, pst -> {
-        }, result -> {
-            List<TenantConfig> temp = new ArrayList<>();
-            while (result.next()) {
-                TenantIdentifier tenantIdentifier = new TenantIdentifier(result.getString("connection_uri_domain"),
-                        result.getString("app_id"), result.getString("tenant_id"));
-                ThirdPartyConfig.Provider[] providers;
-                if (providerMap.containsKey(tenantIdentifier)) {
-                    providers = providerMap.get(tenantIdentifier).values().toArray(new ThirdPartyConfig.Provider[0]);
-                } else {
-                    providers = new ThirdPartyConfig.Provider[0];
-                }
-                String[] firstFactors =
-                        firstFactorsMap.containsKey(tenantIdentifier) ? firstFactorsMap.get(tenantIdentifier) :
-                                new String[0];
+        TenantConfigRowMapper mapper = TenantConfigSQLHelper.TenantConfigRowMapper.getInstance(providerMap,
+                firstFactorsMap, requiredSecondaryFactorsMap);
+        String QUERY = "SELECT " + mapper.columns() + " FROM " + getConfig(start).getTenantConfigsTable();
 
-                String[] requiredSecondaryFactors = requiredSecondaryFactorsMap.containsKey(tenantIdentifier) ?
-                        requiredSecondaryFactorsMap.get(tenantIdentifier) : new String[0];
-
-                temp.add(TenantConfigSQLHelper.TenantConfigRowMapper.getInstance(providers, firstFactors,
-                        requiredSecondaryFactors).mapOrThrow(result));
-            }
-            TenantConfig[] finalResult = new TenantConfig[temp.size()];
-            for (int i = 0; i < temp.size(); i++) {
-                finalResult[i] = temp.get(i);
-            }
-            return finalResult;
+        List<TenantConfig> tenantConfigs = new ArrayList<>();
+        executeStreaming(start, QUERY, null, STREAMING_FETCH_SIZE, result -> {
+            tenantConfigs.add(mapper.mapOrThrow(result));
         });
-        return tenantConfigs;
+        return tenantConfigs.toArray(new TenantConfig[0]);
     }
 
     public static void create(Start start, Connection sqlCon, TenantConfig tenantConfig)
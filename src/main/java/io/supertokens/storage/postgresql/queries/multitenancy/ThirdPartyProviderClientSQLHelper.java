@@ -28,7 +28,8 @@ import java.sql.*;
 import java.util.HashMap;
 import java.util.Objects;
 
-import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.STREAMING_FETCH_SIZE;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.executeStreaming;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.update;
 import static io.supertokens.storage.postgresql.config.Config.getConfig;
 
@@ -86,28 +87,24 @@ public class ThirdPartyProviderClientSQLHelper {
         String QUERY =
                 "SELECT connection_uri_domain, app_id, tenant_id, third_party_id, client_type, client_id, " +
                         "client_secret, scope, force_pkce, additional_config FROM "
-                        + getConfig(start).getTenantThirdPartyProviderClientsTable() + ";";
-
-        execute(start, QUERY, pst -> {
-        }, result -> {
-            while (result.next()) {
-                TenantIdentifier tenantIdentifier = new TenantIdentifier(result.getString("connection_uri_domain"),
-                        result.getString("app_id"), result.getString("tenant_id"));
-                ThirdPartyConfig.ProviderClient providerClient =
-                        ThirdPartyProviderClientSQLHelper.TenantThirdPartyProviderClientRowMapper.getInstance()
-                                .mapOrThrow(result);
-                if (!providerClientsMap.containsKey(tenantIdentifier)) {
-                    providerClientsMap.put(tenantIdentifier, new HashMap<>());
-                }
-
-                if (!providerClientsMap.get(tenantIdentifier).containsKey(result.getString("third_party_id"))) {
-                    providerClientsMap.get(tenantIdentifier).put(result.getString("third_party_id"), new HashMap<>());
-                }
+                        + getConfig(start).getTenantThirdPartyProviderClientsTable();
+
+        executeStreaming(start, QUERY, null, STREAMING_FETCH_SIZE, result -> {
+            TenantIdentifier tenantIdentifier = new TenantIdentifier(result.getString("connection_uri_domain"),
+                    result.getString("app_id"), result.getString("tenant_id"));
+            ThirdPartyConfig.ProviderClient providerClient =
+                    ThirdPartyProviderClientSQLHelper.TenantThirdPartyProviderClientRowMapper.getInstance()
+                            .mapOrThrow(result);
+            if (!providerClientsMap.containsKey(tenantIdentifier)) {
+                providerClientsMap.put(tenantIdentifier, new HashMap<>());
+            }
 
-                providerClientsMap.get(tenantIdentifier).get(result.getString("third_party_id"))
-                        .put(providerClient.clientType, providerClient);
+            if (!providerClientsMap.get(tenantIdentifier).containsKey(result.getString("third_party_id"))) {
+                providerClientsMap.get(tenantIdentifier).put(result.getString("third_party_id"), new HashMap<>());
             }
-            return null;
+
+            providerClientsMap.get(tenantIdentifier).get(result.getString("third_party_id"))
+                    .put(providerClient.clientType, providerClient);
         });
         return providerClientsMap;
     }
@@ -27,7 +27,8 @@ import io.supertokens.storage.postgresql.queries.utils.JsonUtils;
 import java.sql.*;
 import java.util.HashMap;
 
-import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.STREAMING_FETCH_SIZE;
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.executeStreaming;
 import static io.supertokens.storage.postgresql.QueryExecutorTemplate.update;
 import static io.supertokens.storage.postgresql.config.Config.getConfig;
 
@@ -97,29 +98,25 @@ public class ThirdPartyProviderSQLHelper {
                         "user_info_map_from_id_token_payload_email_verified, " +
                         "user_info_map_from_user_info_endpoint_user_id, user_info_map_from_user_info_endpoint_email, " +
                         "user_info_map_from_user_info_endpoint_email_verified FROM "
-                        + getConfig(start).getTenantThirdPartyProvidersTable() + ";";
+                        + getConfig(start).getTenantThirdPartyProvidersTable();
 
-        execute(start, QUERY, pst -> {
-        }, result -> {
-            while (result.next()) {
-                TenantIdentifier tenantIdentifier = new TenantIdentifier(result.getString("connection_uri_domain"),
-                        result.getString("app_id"), result.getString("tenant_id"));
-                ThirdPartyConfig.ProviderClient[] clients = null;
-                if (providerClientsMap.containsKey(tenantIdentifier) &&
-                        providerClientsMap.get(tenantIdentifier).containsKey(result.getString("third_party_id"))) {
-                    clients = providerClientsMap.get(tenantIdentifier).get(result.getString("third_party_id")).values()
-                            .toArray(new ThirdPartyConfig.ProviderClient[0]);
-                }
-                ThirdPartyConfig.Provider provider =
-                        ThirdPartyProviderSQLHelper.TenantThirdPartyProviderRowMapper.getInstance(
-                                clients).mapOrThrow(result);
+        executeStreaming(start, QUERY, null, STREAMING_FETCH_SIZE, result -> {
+            TenantIdentifier tenantIdentifier = new TenantIdentifier(result.getString("connection_uri_domain"),
+                    result.getString("app_id"), result.getString("tenant_id"));
+            ThirdPartyConfig.ProviderClient[] clients = null;
+            if (providerClientsMap.containsKey(tenantIdentifier) &&
+                    providerClientsMap.get(tenantIdentifier).containsKey(result.getString("third_party_id"))) {
+                clients = providerClientsMap.get(tenantIdentifier).get(result.getString("third_party_id")).values()
+                        .toArray(new ThirdPartyConfig.ProviderClient[0]);
+            }
+            ThirdPartyConfig.Provider provider =
+                    ThirdPartyProviderSQLHelper.TenantThirdPartyProviderRowMapper.getInstance(
+                            clients).mapOrThrow(result);
 
-                if (!providerMap.containsKey(tenantIdentifier)) {
-                    providerMap.put(tenantIdentifier, new HashMap<>());
-                }
-                providerMap.get(tenantIdentifier).put(provider.thirdPartyId, provider);
+            if (!providerMap.containsKey(tenantIdentifier)) {
+                providerMap.put(tenantIdentifier, new HashMap<>());
             }
-            return null;
+            providerMap.get(tenantIdentifier).put(provider.thirdPartyId, provider);
         });
         return providerMap;
     }
@@ -0,0 +1,97 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.utils;
+
+import com.google.gson.JsonObject;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed bucket histogram of durations that can be recorded into from many threads without locking. The durations are
+ * in milliseconds, unless another unit is given to the constructor, and the bounds, sum and max are in that same unit.
+ * Each bucket counts the values that are less than or equal to its upper bound and greater than the previous bucket's
+ * upper bound. Values above the last bound go into an overflow bucket.
+ */
+public class Histogram {
+
+    public static final long[] DEFAULT_BUCKET_UPPER_BOUNDS_MILLIS =
+            new long[]{1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final long[] bucketUpperBounds;
+    // suffix of the sum and max properties of toJson
+    private final String unit;
+    // one more than the number of bounds, for the values above the last bound
+    private final AtomicLongArray bucketCounts;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    public Histogram() {
+        this(DEFAULT_BUCKET_UPPER_BOUNDS_MILLIS);
+    }
+
+    public Histogram(long[] bucketUpperBounds) {
+        this(bucketUpperBounds, "Millis");
+    }
+
+    public Histogram(long[] bucketUpperBounds, String unit) {
+        this.bucketUpperBounds = bucketUpperBounds.clone();
+        this.unit = unit;
+        this.bucketCounts = new AtomicLongArray(bucketUpperBounds.length + 1);
+    }
+
+    public void record(long value) {
+        int bucket = 0;
+        while (bucket < bucketUpperBounds.length && value > bucketUpperBounds[bucket]) {
+            bucket++;
+        }
+        bucketCounts.incrementAndGet(bucket);
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public JsonObject toJson() {
+        JsonObject buckets = new JsonObject();
+        for (int i = 0; i < bucketUpperBounds.length; i++) {
+            buckets.addProperty("le_" + bucketUpperBounds[i], bucketCounts.get(i));
+        }
+        buckets.addProperty("le_inf", bucketCounts.get(bucketUpperBounds.length));
+
+        JsonObject result = new JsonObject();
+        result.addProperty("count", count.sum());
+        result.addProperty("sum" + unit, sum.sum());
+        result.addProperty("max" + unit, max.get());
+        result.add("buckets", buckets);
+        return result;
+    }
+}
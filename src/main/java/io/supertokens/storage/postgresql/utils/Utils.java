@@ -21,6 +21,9 @@ import com.google.gson.Gson;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -47,15 +50,14 @@ public class Utils {
         return constraintName.toString();
     }
 
-    public static String generateCommaSeperatedQuestionMarks(int size) {
-        StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < size; i++) {
-            builder.append("?");
-            if (i != size - 1) {
-                builder.append(",");
-            }
-        }
-        return builder.toString();
+    /**
+     * Sets the values as a single VARCHAR[] parameter, to be used as "column = ANY(?)". Unlike an IN list with one
+     * question mark per value, the SQL is the same for any number of values, so the statement and its plan can be
+     * reused by the driver and the database.
+     */
+    public static void setStringArray(PreparedStatement pst, int parameterIndex, Collection<String> values)
+            throws SQLException {
+        pst.setArray(parameterIndex, pst.getConnection().createArrayOf("VARCHAR", values.toArray(new String[0])));
     }
 
     public static String[] getStringArrayFromJsonString(String input) {
@@ -0,0 +1,150 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import io.supertokens.ProcessState;
+import io.supertokens.storage.postgresql.AdaptiveConnectionPoolSizer;
+import io.supertokens.storage.postgresql.ConnectionPool;
+import io.supertokens.storage.postgresql.ConnectionPoolTestContent;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.sql.Connection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveConnectionPoolTest {
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    /**
+     * A synthetic load of `demand` concurrent requests: whatever does not fit in the pool waits, and the pool is
+     * fully used if the demand is at least its size.
+     */
+    private static AdaptiveConnectionPoolSizer.Sample simulate(int poolSize, int demand, double databaseRatio) {
+        int pending = Math.max(0, demand - poolSize);
+        return new AdaptiveConnectionPoolSizer.Sample(pending, 0, pending > 0 ? 50 : 0, Math.min(demand, poolSize),
+                databaseRatio);
+    }
+
+    private static int runUntilStable(int poolSize, int minSize, int maxSize, int demand, double databaseRatio,
+                                      int maxIntervals) {
+        for (int i = 0; i < maxIntervals; i++) {
+            int next = AdaptiveConnectionPoolSizer.getNextPoolSize(poolSize, minSize, maxSize,
+                    simulate(poolSize, demand, databaseRatio));
+            if (next == poolSize) {
+                return poolSize;
+            }
+            poolSize = next;
+        }
+        fail("pool size did not converge within " + maxIntervals + " intervals, last size: " + poolSize);
+        return -1;
+    }
+
+    @Test
+    public void poolSizeConvergesUnderSyntheticLoad() {
+        // grows to cover the demand, then settles with one spare connection
+        int size = runUntilStable(2, 2, 50, 20, 0.1, 30);
+        assertEquals(21, size);
+
+        // the load drops, and the pool shrinks back
+        size = runUntilStable(size, 2, 50, 5, 0.1, 30);
+        assertEquals(6, size);
+
+        // it never goes below the minimum or above the maximum
+        assertEquals(2, runUntilStable(size, 2, 50, 0, 0.1, 30));
+        assertEquals(50, runUntilStable(2, 2, 50, 500, 0.1, 30));
+    }
+
+    @Test
+    public void poolDoesNotGrowWhileDatabaseIsBusy() {
+        assertEquals(4, AdaptiveConnectionPoolSizer.getNextPoolSize(5, 2, 50, simulate(5, 20, 0.95)));
+        assertEquals(2, runUntilStable(10, 2, 50, 20, 0.95, 30));
+        // if the database cannot be queried, the pool still grows
+        assertEquals(7, AdaptiveConnectionPoolSizer.getNextPoolSize(5, 2, 50, simulate(5, 20, -1)));
+    }
+
+    @Test
+    public void poolGrowsUnderLoadAndShrinksWhenIdle() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_connection_pool_size", "10");
+        Utils.setValueInConfig("postgresql_adaptive_connection_pool", "true");
+        Utils.setValueInConfig("postgresql_adaptive_connection_pool_min_size", "1");
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args, false);
+        process.getProcess().waitToInitStorageModule();
+        process.startProcess();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.WAITING_TO_INIT_STORAGE_MODULE));
+        ConnectionPoolTestContent.getInstance((Start) StorageLayer.getStorage(process.getProcess()))
+                .setKeyValue(ConnectionPoolTestContent.ADAPTIVE_POOL_SIZING_INTERVAL, 200);
+        process.getProcess().proceedWithInitingStorageModule();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        assertEquals(1, start.getConnectionPoolMetrics().get("maximumPoolSize").getAsInt());
+
+        AtomicBoolean stop = new AtomicBoolean(false);
+        ExecutorService es = Executors.newFixedThreadPool(6);
+        for (int i = 0; i < 6; i++) {
+            es.execute(() -> {
+                while (!stop.get()) {
+                    try (Connection ignored = ConnectionPool.getConnection(start)) {
+                        Thread.sleep(100);
+                    } catch (Exception ignored) {
+                        // timeouts are expected while the pool is too small
+                    }
+                }
+            });
+        }
+        Thread.sleep(3000);
+        int sizeUnderLoad = start.getConnectionPoolMetrics().get("maximumPoolSize").getAsInt();
+        stop.set(true);
+        es.shutdown();
+        assertTrue(es.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertTrue(sizeUnderLoad >= 6);
+        assertTrue(sizeUnderLoad <= 10);
+
+        Thread.sleep(4000);
+        assertEquals(1, start.getConnectionPoolMetrics().get("maximumPoolSize").getAsInt());
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import com.google.gson.JsonObject;
+import io.supertokens.ProcessState;
+import io.supertokens.pluginInterface.multitenancy.TenantIdentifier;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storage.postgresql.queries.QueryId;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ArrayBindingTest {
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    @Test
+    public void multiIdQueriesHaveOneShapeForAnyNumberOfIds() throws Exception {
+        String[] args = {"../"};
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+
+        for (QueryId id : new QueryId[]{QueryId.SESSION_DELETE, QueryId.SESSION_GET_NON_EXPIRED_HANDLES_OF_USERS,
+                QueryId.USERS_GET_PRIMARY_USER_INFO_FOR_USER_IDS,
+                QueryId.USERS_GET_PRIMARY_USER_INFO_FOR_USER_IDS_LEGACY,
+                QueryId.USERS_GET_PRIMARY_USER_INFO_FOR_USER_IDS_LEGACY_TRANSACTION}) {
+            String query = start.getQueryRegistry().get(id);
+            assertTrue(id.name(), query.contains("= ANY(?)"));
+            assertFalse(id.name(), query.contains(" IN (?"));
+        }
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void arraysOfDifferentSizesMatchTheSameRows() throws Exception {
+        String[] args = {"../"};
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+
+        // handles with characters that are special in the text form of an array
+        String[] handles = new String[12];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = i % 3 == 0 ? "handle, \"" + i + "\" {}" : "handle" + i;
+            start.createNewSession(TenantIdentifier.BASE_TENANT, handles[i], "user", "hash", new JsonObject(),
+                    System.currentTimeMillis() + 100000, new JsonObject(), System.currentTimeMillis(), false);
+        }
+        assertEquals(new HashSet<>(Arrays.asList(handles)), new HashSet<>(Arrays.asList(
+                start.getAllNonExpiredSessionHandlesForUser(TenantIdentifier.BASE_TENANT, "user"))));
+
+        // a handle that does not exist is not counted
+        assertEquals(1, start.deleteSession(TenantIdentifier.BASE_TENANT, new String[]{handles[0], "unknown"}));
+        assertEquals(3, start.deleteSession(TenantIdentifier.BASE_TENANT,
+                Arrays.copyOfRange(handles, 1, 4)));
+        assertEquals(8, start.deleteSession(TenantIdentifier.BASE_TENANT,
+                Arrays.copyOfRange(handles, 0, handles.length)));
+
+        Set<String> remaining = new HashSet<>(Arrays.asList(
+                start.getAllNonExpiredSessionHandlesForUser(TenantIdentifier.BASE_TENANT, "user")));
+        assertTrue(remaining.isEmpty());
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import com.google.gson.JsonObject;
+import io.supertokens.ProcessState;
+import io.supertokens.pluginInterface.bulkimport.exceptions.BulkImportTransactionRolledBackException;
+import io.supertokens.pluginInterface.exceptions.StorageQueryException;
+import io.supertokens.pluginInterface.exceptions.StorageTransactionLogicException;
+import io.supertokens.pluginInterface.multitenancy.TenantIdentifier;
+import io.supertokens.storage.postgresql.BulkImportProxyStorage;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BulkImportSavepointTest {
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    private static BulkImportProxyStorage createProxyStorage(TestingProcessManager.TestingProcess process)
+            throws Exception {
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        BulkImportProxyStorage proxyStorage = (BulkImportProxyStorage) start.createBulkImportProxyStorageInstance();
+        proxyStorage.constructor(process.getProcess().getProcessId(), true, true);
+
+        JsonObject config = new JsonObject();
+        config.addProperty("postgresql_host", DatabaseTestHelper.getHost());
+        config.addProperty("postgresql_port", Integer.parseInt(DatabaseTestHelper.getPort()));
+        config.addProperty("postgresql_user", DatabaseTestHelper.getUser());
+        config.addProperty("postgresql_password", DatabaseTestHelper.getPassword());
+        config.addProperty("postgresql_database_name", DatabaseTestHelper.getCurrentTestDatabase());
+        proxyStorage.loadConfig(config, new HashSet<>(), new TenantIdentifier(null, null, null));
+        proxyStorage.initStorage(false, new ArrayList<>(List.of(new TenantIdentifier(null, null, null))));
+        return proxyStorage;
+    }
+
+    private static void insert(Connection con, int id) throws SQLException {
+        try (Statement statement = con.createStatement()) {
+            statement.executeUpdate("INSERT INTO savepoint_test (id) VALUES (" + id + ")");
+        }
+    }
+
+    @Test
+    public void failedTransactionIsRolledBackWithoutAbortingTheImport() throws Exception {
+        String[] args = {"../"};
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        BulkImportProxyStorage proxyStorage = createProxyStorage(process);
+        try {
+            // every transaction of the proxy storage runs on the same connection, so the temporary table is
+            // visible to all of them
+            proxyStorage.startTransaction(con -> {
+                try (Statement statement = ((Connection) con.getConnection()).createStatement()) {
+                    statement.execute("CREATE TEMPORARY TABLE savepoint_test (id int PRIMARY KEY)");
+                }
+                insert((Connection) con.getConnection(), 1);
+                return null;
+            });
+
+            // the second insert fails, which must undo the first one, but nothing else
+            try {
+                proxyStorage.startTransaction(con -> {
+                    insert((Connection) con.getConnection(), 2);
+                    insert((Connection) con.getConnection(), 1);
+                    return null;
+                });
+                fail();
+            } catch (StorageQueryException e) {
+                assertEquals("23505", ((SQLException) e.getCause()).getSQLState());
+            }
+
+            // without the savepoint, the import transaction would now be aborted
+            proxyStorage.startTransaction(con -> {
+                insert((Connection) con.getConnection(), 3);
+                return null;
+            });
+
+            // the logic may end the import transaction itself, after which its savepoint no longer exists
+            proxyStorage.startTransaction(con -> {
+                insert((Connection) con.getConnection(), 4);
+                proxyStorage.commitTransactionForBulkImportProxyStorage();
+                return null;
+            });
+
+            List<Integer> ids = proxyStorage.startTransaction(con -> {
+                List<Integer> result = new ArrayList<>();
+                try (Statement statement = ((Connection) con.getConnection()).createStatement();
+                     ResultSet rs = statement.executeQuery("SELECT id FROM savepoint_test ORDER BY id")) {
+                    while (rs.next()) {
+                        result.add(rs.getInt(1));
+                    }
+                }
+                return result;
+            });
+            assertEquals(List.of(1, 3, 4), ids);
+        } finally {
+            proxyStorage.closeConnectionForBulkImportProxyStorage();
+        }
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void onlyLockFailuresAreRetriedWithinTheImport() throws Exception {
+        String[] args = {"../"};
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        BulkImportProxyStorage proxyStorage = createProxyStorage(process);
+        try {
+            AtomicInteger attempts = new AtomicInteger(0);
+            String result = proxyStorage.startTransaction(con -> {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new SQLException("deadlock detected", "40P01");
+                }
+                return "done";
+            });
+            assertEquals("done", result);
+            assertEquals(2, attempts.get());
+
+            // the import transaction keeps its snapshot, so a serialization failure still needs the whole import to
+            // be retried
+            try {
+                proxyStorage.startTransaction(con -> {
+                    throw new SQLException("could not serialize access", "40001");
+                });
+                fail();
+            } catch (StorageTransactionLogicException e) {
+                assertTrue(e.actualException instanceof BulkImportTransactionRolledBackException);
+            }
+        } finally {
+            proxyStorage.closeConnectionForBulkImportProxyStorage();
+        }
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import com.google.gson.JsonObject;
+import io.supertokens.ProcessState;
+import io.supertokens.emailpassword.EmailPassword;
+import io.supertokens.pluginInterface.KeyValueInfo;
+import io.supertokens.pluginInterface.authRecipe.AuthRecipeUserInfo;
+import io.supertokens.pluginInterface.multitenancy.AppIdentifier;
+import io.supertokens.pluginInterface.multitenancy.TenantIdentifier;
+import io.supertokens.pluginInterface.session.SessionInfo;
+import io.supertokens.pluginInterface.useridmapping.UserIdMapping;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import static org.junit.Assert.*;
+
+public class ColumnOrdinalRowMapperTest {
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    @Test
+    public void rowsAreMappedByPosition() throws Exception {
+        String[] args = {"../"};
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        AppIdentifier appIdentifier = new AppIdentifier(null, null);
+        TenantIdentifier tenantIdentifier = new TenantIdentifier(null, null, null);
+
+        AuthRecipeUserInfo user = EmailPassword.signUp(process.getProcess(), "test@example.com", "pass1234");
+        start.createUserIdMapping(appIdentifier, user.getSupertokensUserId(), "external-id", "info");
+
+        UserIdMapping[] mappings = start.getUserIdMapping(appIdentifier, user.getSupertokensUserId());
+        assertEquals(1, mappings.length);
+        assertEquals(user.getSupertokensUserId(), mappings[0].superTokensUserId);
+        assertEquals("external-id", mappings[0].externalUserId);
+        assertEquals("info", mappings[0].externalUserIdInfo);
+
+        JsonObject sessionData = new JsonObject();
+        sessionData.addProperty("key", "data");
+        JsonObject jwtPayload = new JsonObject();
+        jwtPayload.addProperty("key", "payload");
+        start.createNewSession(tenantIdentifier, "handle", user.getSupertokensUserId(), "hash", sessionData, 2000L,
+                jwtPayload, 1000L, true);
+
+        // the session's columns come first, and the primary user id after them
+        SessionInfo session = start.getSession(tenantIdentifier, "handle");
+        assertEquals("handle", session.sessionHandle);
+        assertEquals(user.getSupertokensUserId(), session.userId);
+        assertEquals(user.getSupertokensUserId(), session.recipeUserId);
+        assertEquals("hash", session.refreshTokenHash2);
+        assertEquals(sessionData, session.userDataInDatabase);
+        assertEquals(2000L, session.expiry);
+        assertEquals(jwtPayload, session.userDataInJWT);
+        assertEquals(1000L, session.timeCreated);
+        assertTrue(session.useStaticKey);
+
+        SessionInfo sessionForUpdate = start.startTransaction(
+                con -> start.getSessionInfo_Transaction(tenantIdentifier, con, "handle"));
+        assertEquals("hash", sessionForUpdate.refreshTokenHash2);
+        assertEquals(jwtPayload, sessionForUpdate.userDataInJWT);
+        // the user id is resolved to the external user id of the mapping
+        assertEquals("external-id", sessionForUpdate.userId);
+
+        KeyValueInfo[] keys = start.startTransaction(con -> {
+            start.addAccessTokenSigningKey_Transaction(appIdentifier, con, new KeyValueInfo("key", 3000L));
+            return start.getAccessTokenSigningKeys_Transaction(appIdentifier, con);
+        });
+        assertEquals(1, keys.length);
+        assertEquals("key", keys[0].value);
+        assertEquals(3000L, keys[0].createdAtTime);
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import com.google.gson.JsonObject;
+import io.supertokens.ProcessState;
+import io.supertokens.storage.postgresql.ConnectionPool;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+
+public class ConnectionPoolMetricsTest {
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    @Test
+    public void metricsReflectSaturationAndTimeouts() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_connection_pool_size", "1");
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+
+        try (Connection ignored = ConnectionPool.getConnection(start)) {
+            JsonObject metrics = start.getConnectionPoolMetrics();
+            assertFalse(metrics.get("shared").getAsBoolean());
+            assertEquals(1, metrics.get("maximumPoolSize").getAsInt());
+            assertEquals(1, metrics.get("activeConnections").getAsInt());
+            assertEquals(0, metrics.get("idleConnections").getAsInt());
+
+            try (Connection con = ConnectionPool.getConnection(start)) {
+                fail();
+            } catch (SQLException e) {
+                // the only connection is in use, so this times out
+            }
+        }
+
+        JsonObject metrics = start.getConnectionPoolMetrics();
+        assertEquals(1, metrics.get("connectionTimeouts").getAsLong());
+        assertEquals(0, metrics.get("activeConnections").getAsInt());
+        assertTrue(metrics.getAsJsonObject("connectionAcquisitionWaitMillis").get("count").getAsLong() > 0);
+        assertTrue(metrics.getAsJsonObject("connectionUsageMillis").get("count").getAsLong() > 0);
+        // the first connection was held for as long as the second acquisition waited before timing out
+        assertTrue(metrics.getAsJsonObject("connectionUsageMillis").get("maxMillis").getAsLong() >= 5000);
+        assertFalse(metrics.get("poolName").getAsString().contains("|db_pass|"));
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import io.supertokens.ProcessState;
+import io.supertokens.storage.postgresql.PreparedStatementValueSetter;
+import io.supertokens.storage.postgresql.QueryExecutorTemplate;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CopyIngestTest {
+
+    private static final String INSERT_QUERY = "INSERT INTO copy_test(id, name, flag, time_joined) VALUES(?, ?, ?, ?)";
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    private static String nameFor(int i) {
+        // values that need escaping in COPY's text format, and nulls
+        switch (i % 5) {
+            case 0:
+                return null;
+            case 1:
+                return "tab\there";
+            case 2:
+                return "line\nbreak\r\n";
+            case 3:
+                return "back\\slash \\N";
+            default:
+                return "ünïcödé " + i;
+        }
+    }
+
+    private static List<PreparedStatementValueSetter> rows(int count, int duplicateAt) {
+        List<PreparedStatementValueSetter> setters = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int id = i == duplicateAt ? 0 : i;
+            String name = nameFor(i);
+            setters.add(pst -> {
+                pst.setString(1, "user" + id);
+                pst.setString(2, name);
+                pst.setBoolean(3, id % 2 == 0);
+                pst.setLong(4, 1000L * id);
+            });
+        }
+        return setters;
+    }
+
+    private static void createTable(Connection con) throws SQLException {
+        try (Statement statement = con.createStatement()) {
+            statement.execute("CREATE TEMPORARY TABLE copy_test (id VARCHAR(128) PRIMARY KEY, name TEXT, "
+                    + "flag BOOLEAN NOT NULL, time_joined BIGINT NOT NULL)");
+        }
+    }
+
+    @Test
+    public void rowsAreCopiedWithTheSameValuesAsInserted() throws Exception {
+        String[] args = {"../"};
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+
+        int count = QueryExecutorTemplate.MIN_ROWS_FOR_COPY * 3;
+        start.startTransaction(con -> {
+            Connection sqlCon = (Connection) con.getConnection();
+            createTable(sqlCon);
+            QueryExecutorTemplate.executeCopy(sqlCon, INSERT_QUERY, rows(count, -1));
+
+            try (Statement statement = sqlCon.createStatement();
+                 ResultSet result = statement.executeQuery(
+                         "SELECT id, name, flag, time_joined FROM copy_test ORDER BY time_joined")) {
+                for (int i = 0; i < count; i++) {
+                    assertTrue(result.next());
+                    assertEquals("user" + i, result.getString("id"));
+                    assertEquals(nameFor(i), result.getString("name"));
+                    assertEquals(i % 2 == 0, result.getBoolean("flag"));
+                    assertEquals(1000L * i, result.getLong("time_joined"));
+                }
+                assertFalse(result.next());
+            }
+            start.commitTransaction(con);
+            return null;
+        });
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void failedCopyIsReportedLikeAFailedBatch() throws Exception {
+        String[] args = {"../"};
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+
+        int count = QueryExecutorTemplate.MIN_ROWS_FOR_COPY * 2;
+        start.startTransaction(con -> {
+            Connection sqlCon = (Connection) con.getConnection();
+            createTable(sqlCon);
+            try {
+                // the row at 150 has the same id as the first row
+                QueryExecutorTemplate.executeCopy(sqlCon, INSERT_QUERY, rows(count, 150));
+                fail();
+            } catch (BatchUpdateException e) {
+                // the import callers find the failing user from the batch entry in the message
+                assertTrue(e.getMessage().contains("Batch entry "));
+                assertEquals("23505", e.getNextException().getSQLState());
+            }
+            sqlCon.rollback();
+            return null;
+        });
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import com.google.gson.JsonObject;
+import io.supertokens.ProcessState;
+import io.supertokens.pluginInterface.multitenancy.TenantIdentifier;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storage.postgresql.config.Config;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class ExpirySweeperTest {
+
+    private static final TenantIdentifier TENANT = TenantIdentifier.BASE_TENANT;
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    private static void createSessions(Start start, int count, long expiry) throws Exception {
+        for (int i = 0; i < count; i++) {
+            start.createNewSession(TENANT, UUID.randomUUID().toString(), "userId", "refreshTokenHash",
+                    new JsonObject(), expiry, new JsonObject(), System.currentTimeMillis(), false);
+        }
+    }
+
+    private static JsonObject getMetrics(Start start) {
+        return start.getExpirySweeperMetrics().get(Config.getConfig(start).getSessionInfoTable()).getAsJsonObject();
+    }
+
+    @Test
+    public void expiredRowsAreDeletedInBatches() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_expiry_sweep_batch_size", "10");
+        Utils.setValueInConfig("postgresql_expiry_sweep_pause", "0");
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        createSessions(start, 35, System.currentTimeMillis() - 1000);
+        createSessions(start, 5, System.currentTimeMillis() + 3600000);
+
+        start.deleteAllExpiredSessions();
+
+        assertEquals(5, start.getNumberOfSessions(TENANT));
+        JsonObject metrics = getMetrics(start);
+        assertEquals(1, metrics.get("runs").getAsLong());
+        assertEquals(0, metrics.get("runsStoppedAtMaxRuntime").getAsLong());
+        // three full batches, and one with the last 5 rows
+        assertEquals(4, metrics.get("batches").getAsLong());
+        assertEquals(35, metrics.get("deletedRows").getAsLong());
+        assertEquals(4, metrics.get("batchLatencyMillis").getAsJsonObject().get("count").getAsLong());
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void runStopsAtMaxRuntimeAndIsContinuedByTheNextRun() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_expiry_sweep_batch_size", "10");
+        // shorter than the pause, so that a run stops after its first batch
+        Utils.setValueInConfig("postgresql_expiry_sweep_pause", "100");
+        Utils.setValueInConfig("postgresql_expiry_sweep_max_runtime", "1");
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        createSessions(start, 25, System.currentTimeMillis() - 1000);
+
+        start.deleteAllExpiredSessions();
+        assertEquals(15, start.getNumberOfSessions(TENANT));
+        assertEquals(1, getMetrics(start).get("runsStoppedAtMaxRuntime").getAsLong());
+
+        start.deleteAllExpiredSessions();
+        start.deleteAllExpiredSessions();
+        assertEquals(0, start.getNumberOfSessions(TENANT));
+        JsonObject metrics = getMetrics(start);
+        assertEquals(3, metrics.get("runs").getAsLong());
+        assertEquals(2, metrics.get("runsStoppedAtMaxRuntime").getAsLong());
+        assertEquals(25, metrics.get("deletedRows").getAsLong());
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+}
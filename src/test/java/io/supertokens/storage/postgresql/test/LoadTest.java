@@ -0,0 +1,329 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import com.google.gson.JsonObject;
+import io.supertokens.Main;
+import io.supertokens.ProcessState;
+import io.supertokens.authRecipe.AuthRecipe;
+import io.supertokens.featureflag.EE_FEATURES;
+import io.supertokens.featureflag.FeatureFlagTestContent;
+import io.supertokens.pluginInterface.MigrationMode;
+import io.supertokens.pluginInterface.authRecipe.AuthRecipeUserInfo;
+import io.supertokens.pluginInterface.dashboard.DashboardSearchTags;
+import io.supertokens.pluginInterface.multitenancy.AppIdentifier;
+import io.supertokens.pluginInterface.multitenancy.TenantIdentifier;
+import io.supertokens.pluginInterface.session.SessionInfo;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storage.postgresql.config.Config;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+import static io.supertokens.storage.postgresql.test.LoadTestUtils.*;
+import static org.junit.Assert.*;
+
+/**
+ * Load scenarios that drive the storage with {@link LoadTestUtils#LOAD_TEST_WORKERS} concurrent workers, and print
+ * the throughput and latency percentiles of each operation (lines starting with "LOAD TEST"). See
+ * {@link LoadTestUtils} for how to size them.
+ *
+ * The operations are the storage calls that the core makes for them, so that a change to a query shows up in
+ * these numbers. Making users primary and linking them go through the core's AuthRecipe, as the storage calls for
+ * them only make sense within its transaction logic.
+ */
+public class LoadTest {
+
+    private static final TenantIdentifier TENANT = TenantIdentifier.BASE_TENANT;
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    private static TestingProcessManager.TestingProcess startProcess() throws Exception {
+        String[] args = {"../"};
+
+        // one connection per worker, so that the workers do not wait for each other in the pool
+        Utils.setValueInConfig("postgresql_connection_pool_size", String.valueOf(Math.max(10, LOAD_TEST_WORKERS)));
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args, false);
+        FeatureFlagTestContent.getInstance(process.getProcess())
+                .setKeyValue(FeatureFlagTestContent.ENABLED_FEATURES,
+                        new EE_FEATURES[]{EE_FEATURES.ACCOUNT_LINKING, EE_FEATURES.MULTI_TENANCY});
+        process.startProcess();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+        return process;
+    }
+
+    private static int operationsPerWorkerFor(int total) {
+        return (total + LOAD_TEST_WORKERS - 1) / LOAD_TEST_WORKERS;
+    }
+
+    /**
+     * Signs up the given number of emailpassword users, spread over the workers, and returns their ids.
+     */
+    private static String[] signUpUsers(Start start, int count) throws Exception {
+        String[] userIds = new String[count];
+        long timeJoined = System.currentTimeMillis();
+        int operationsPerWorker = operationsPerWorkerFor(count);
+        run("emailpassword signUp", LOAD_TEST_WORKERS, operationsPerWorker, (worker, iteration) -> {
+            int index = worker * operationsPerWorker + iteration;
+            if (index >= count) {
+                return;
+            }
+            String userId = UUID.randomUUID().toString();
+            start.signUp(TENANT, userId, "user" + index + "@example.com", "$2a$10$passwordhash", timeJoined + index);
+            userIds[index] = userId;
+        });
+        return userIds;
+    }
+
+    @Test
+    public void emailPasswordSignUp() throws Exception {
+        TestingProcessManager.TestingProcess process = startProcess();
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+
+        signUpUsers(start, LOAD_TEST_USERS);
+        assertEquals(LOAD_TEST_USERS, start.getUsersCount(TENANT, null));
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void sessionCreateAndRefresh() throws Exception {
+        TestingProcessManager.TestingProcess process = startProcess();
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+
+        String[] userIds = signUpUsers(start, LOAD_TEST_USERS);
+        String[][] sessionHandles = new String[LOAD_TEST_WORKERS][LOAD_TEST_OPERATIONS];
+        long expiry = System.currentTimeMillis() + 3600000;
+
+        run("session create", LOAD_TEST_WORKERS, LOAD_TEST_OPERATIONS, (worker, iteration) -> {
+            String sessionHandle = UUID.randomUUID().toString();
+            String userId = userIds[(worker * LOAD_TEST_OPERATIONS + iteration) % userIds.length];
+            start.createNewSession(TENANT, sessionHandle, userId, "refreshTokenHash", new JsonObject(), expiry,
+                    new JsonObject(), System.currentTimeMillis(), false);
+            sessionHandles[worker][iteration] = sessionHandle;
+        });
+
+        // as the core refreshes a session: read it and update its refresh token in one transaction
+        run("session refresh", LOAD_TEST_WORKERS, LOAD_TEST_OPERATIONS, (worker, iteration) -> {
+            String sessionHandle = sessionHandles[worker][iteration];
+            start.startTransaction(con -> {
+                SessionInfo sessionInfo = start.getSessionInfo_Transaction(TENANT, con, sessionHandle);
+                start.updateSessionInfo_Transaction(TENANT, con, sessionHandle, "refreshTokenHash" + iteration,
+                        expiry, sessionInfo.useStaticKey);
+                start.commitTransaction(con);
+                return null;
+            });
+        });
+
+        assertEquals(LOAD_TEST_WORKERS * LOAD_TEST_OPERATIONS, start.getNumberOfSessions(TENANT));
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void sessionRefreshWithMovingExpiry() throws Exception {
+        refreshSessionsWithMovingExpiry("session refresh");
+    }
+
+    @Test
+    public void sessionRefreshWithMovingExpiryAndHotUpdates() throws Exception {
+        Utils.setValueInConfig("postgresql_session_info_hot_updates", "true");
+        refreshSessionsWithMovingExpiry("session refresh (hot updates)");
+    }
+
+    /**
+     * Refreshes sessions as the core does, moving their expiry forward every time, and prints the WAL that the
+     * refreshes wrote, per refresh, and how many of them were HOT updates, next to their latencies. The WAL is that of
+     * the whole database while they run, and the HOT count is taken from the statistics, which may lag a little.
+     */
+    private static void refreshSessionsWithMovingExpiry(String scenario) throws Exception {
+        TestingProcessManager.TestingProcess process = startProcess();
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+
+        String[] userIds = signUpUsers(start, LOAD_TEST_USERS);
+        String[][] sessionHandles = new String[LOAD_TEST_WORKERS][LOAD_TEST_OPERATIONS];
+        long refreshTokenValidity = 100L * 24 * 60 * 60 * 1000;
+
+        run("session create", LOAD_TEST_WORKERS, LOAD_TEST_OPERATIONS, (worker, iteration) -> {
+            String sessionHandle = UUID.randomUUID().toString();
+            String userId = userIds[(worker * LOAD_TEST_OPERATIONS + iteration) % userIds.length];
+            start.createNewSession(TENANT, sessionHandle, userId, "refreshTokenHash", new JsonObject(),
+                    System.currentTimeMillis() + refreshTokenValidity, new JsonObject(), System.currentTimeMillis(),
+                    false);
+            sessionHandles[worker][iteration] = sessionHandle;
+        });
+
+        String walBefore = queryForString(start, "SELECT pg_current_wal_lsn()::text");
+        long hotUpdatesBefore = getHotUpdates(start);
+        run(scenario, LOAD_TEST_WORKERS, LOAD_TEST_OPERATIONS, (worker, iteration) -> {
+            String sessionHandle = sessionHandles[worker][iteration];
+            start.startTransaction(con -> {
+                SessionInfo sessionInfo = start.getSessionInfo_Transaction(TENANT, con, sessionHandle);
+                start.updateSessionInfo_Transaction(TENANT, con, sessionHandle, "refreshTokenHash" + iteration,
+                        System.currentTimeMillis() + refreshTokenValidity, sessionInfo.useStaticKey);
+                start.commitTransaction(con);
+                return null;
+            });
+        });
+        long walBytes = Long.parseLong(queryForString(start,
+                "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '" + walBefore + "')::bigint::text"));
+        // the statistics of a transaction are flushed up to a second after it ends
+        Thread.sleep(1500);
+        long hotUpdates = getHotUpdates(start) - hotUpdatesBefore;
+
+        int refreshes = LOAD_TEST_WORKERS * LOAD_TEST_OPERATIONS;
+        System.out.println(String.format("LOAD TEST %s: refreshes=%d wal=%d bytes wal/refresh=%.1f bytes "
+                + "hot updates=%d (%.1f%%)", scenario, refreshes, walBytes, (double) walBytes / refreshes, hotUpdates,
+                100.0 * hotUpdates / refreshes));
+        assertEquals(refreshes, start.getNumberOfSessions(TENANT));
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    private static long getHotUpdates(Start start) throws Exception {
+        return Long.parseLong(queryForString(start, "SELECT pg_stat_get_tuples_hot_updated('"
+                + Config.getConfig(start).getSessionInfoTable() + "'::regclass)::text"));
+    }
+
+    private static String queryForString(Start start, String sql) throws Exception {
+        return start.startTransaction(con -> {
+            Connection sqlCon = (Connection) con.getConnection();
+            String value;
+            try (Statement statement = sqlCon.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+                result.next();
+                value = result.getString(1);
+            }
+            start.commitTransaction(con);
+            return value;
+        });
+    }
+
+    @Test
+    public void makePrimaryAndLinkAccounts() throws Exception {
+        TestingProcessManager.TestingProcess process = startProcess();
+        Main main = process.getProcess();
+        Start start = (Start) StorageLayer.getStorage(main);
+
+        // a primary user and a user to link to it per operation
+        int pairs = LOAD_TEST_WORKERS * LOAD_TEST_OPERATIONS;
+        String[] userIds = signUpUsers(start, Math.max(LOAD_TEST_USERS, pairs * 2));
+
+        run("makePrimary", LOAD_TEST_WORKERS, LOAD_TEST_OPERATIONS, (worker, iteration) -> {
+            int pair = worker * LOAD_TEST_OPERATIONS + iteration;
+            AuthRecipe.createPrimaryUser(main, userIds[pair * 2]);
+        });
+
+        run("linkAccounts", LOAD_TEST_WORKERS, LOAD_TEST_OPERATIONS, (worker, iteration) -> {
+            int pair = worker * LOAD_TEST_OPERATIONS + iteration;
+            AuthRecipe.linkAccounts(main, userIds[pair * 2 + 1], userIds[pair * 2]);
+        });
+
+        AuthRecipeUserInfo user = start.getPrimaryUserById(TENANT.toAppIdentifier(), userIds[1]);
+        assertEquals(userIds[0], user.getSupertokensUserId());
+        assertEquals(2, user.loginMethods.length);
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void dashboardSearch() throws Exception {
+        TestingProcessManager.TestingProcess process = startProcess();
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+
+        signUpUsers(start, LOAD_TEST_USERS);
+
+        // searches by email prefix, which match from one user ("user1@") to many ("user")
+        run("dashboard search", LOAD_TEST_WORKERS, LOAD_TEST_OPERATIONS, (worker, iteration) -> {
+            String emailPrefix = "user" + (iteration % 10 == 0 ? "" : String.valueOf(iteration % LOAD_TEST_USERS));
+            start.getUsers(TENANT, 10, "ASC", null, null, null,
+                    new DashboardSearchTags(List.of(emailPrefix), null, null));
+        });
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void backfill() throws Exception {
+        TestingProcessManager.TestingProcess process = startProcess();
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        AppIdentifier appIdentifier = TENANT.toAppIdentifier();
+
+        // backfill reads the legacy tables, which are written in this mode
+        Config.getConfig(start).setMigrationModeForTesting(MigrationMode.DUAL_WRITE_READ_OLD);
+        signUpUsers(start, LOAD_TEST_USERS);
+
+        // make every user look like it was created before the reservation tables existed
+        start.startTransaction(con -> {
+            Connection sqlCon = (Connection) con.getConnection();
+            try (Statement statement = sqlCon.createStatement()) {
+                statement.executeUpdate("DELETE FROM " + Config.getConfig(start).getRecipeUserTenantsTable());
+                statement.executeUpdate("DELETE FROM " + Config.getConfig(start).getPrimaryUserTenantsTable());
+                statement.executeUpdate("DELETE FROM " + Config.getConfig(start).getRecipeUserAccountInfosTable());
+                statement.executeUpdate("UPDATE " + Config.getConfig(start).getAppIdToUserIdTable()
+                        + " SET time_joined = 0, primary_or_recipe_user_time_joined = 0");
+            }
+            start.commitTransaction(con);
+            return null;
+        });
+        assertEquals(LOAD_TEST_USERS, start.getBackfillPendingUsersCount(appIdentifier));
+
+        // the workers take batches concurrently, as several core instances would
+        int batchSize = 100;
+        run("backfill batch of " + batchSize, LOAD_TEST_WORKERS, operationsPerWorkerFor(
+                (LOAD_TEST_USERS + batchSize - 1) / batchSize), (worker, iteration) -> {
+            start.backfillUsersBatch(appIdentifier, batchSize);
+        });
+
+        // batches that waited for each other's locks may have left some users to a later batch
+        int processed;
+        do {
+            processed = start.backfillUsersBatch(appIdentifier, batchSize);
+        } while (processed > 0);
+        assertEquals(0, start.getBackfillPendingUsersCount(appIdentifier));
+        assertEquals(0, start.verifyBackfillCompleteness(appIdentifier));
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+}
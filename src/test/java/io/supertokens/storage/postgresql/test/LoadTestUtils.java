@@ -0,0 +1,166 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs an operation from a number of concurrent workers and reports the throughput and latency percentiles of the
+ * operation, for the scenarios in {@link LoadTest}.
+ *
+ * The defaults are small, so that the scenarios run as a quick check with the other tests. For a real load test,
+ * start the database with startDb.sh and raise them, for example:
+ * -Dsupertokens.loadTestWorkers=20 -Dsupertokens.loadTestUsers=100000 -Dsupertokens.loadTestOperations=5000
+ */
+public class LoadTestUtils {
+
+    /**
+     * Number of concurrent workers (virtual users). Override via -Dsupertokens.loadTestWorkers=N
+     */
+    public static final int LOAD_TEST_WORKERS = Integer.parseInt(
+            System.getProperty("supertokens.loadTestWorkers", "4"));
+
+    /**
+     * Number of users created before a scenario runs. Override via -Dsupertokens.loadTestUsers=N
+     */
+    public static final int LOAD_TEST_USERS = Integer.parseInt(
+            System.getProperty("supertokens.loadTestUsers", "200"));
+
+    /**
+     * Number of operations each worker runs in a scenario. Override via -Dsupertokens.loadTestOperations=N
+     */
+    public static final int LOAD_TEST_OPERATIONS = Integer.parseInt(
+            System.getProperty("supertokens.loadTestOperations", "25"));
+
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * @param worker    index of the worker running the operation, from 0
+         * @param iteration index of the operation within the worker, from 0
+         */
+        void run(int worker, int iteration) throws Exception;
+    }
+
+    public static class Result {
+        public final String scenario;
+        public final int workers;
+        public final int operations;
+        public final int errors;
+        public final long elapsedMillis;
+        // sorted, in microseconds, of the operations that succeeded
+        private final long[] latenciesMicros;
+
+        private Result(String scenario, int workers, int operations, int errors, long elapsedMillis,
+                       long[] latenciesMicros) {
+            this.scenario = scenario;
+            this.workers = workers;
+            this.operations = operations;
+            this.errors = errors;
+            this.elapsedMillis = elapsedMillis;
+            this.latenciesMicros = latenciesMicros;
+        }
+
+        public double getThroughputPerSecond() {
+            return elapsedMillis == 0 ? operations : operations * 1000.0 / elapsedMillis;
+        }
+
+        /**
+         * Returns the latency, in microseconds, below which the given percentage of operations finished (nearest
+         * rank), or 0 if no operation succeeded.
+         */
+        public long getPercentileMicros(double percentile) {
+            if (latenciesMicros.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * latenciesMicros.length);
+            return latenciesMicros[Math.max(0, Math.min(latenciesMicros.length, rank) - 1)];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("LOAD TEST %s: workers=%d operations=%d errors=%d elapsed=%d ms throughput=%.1f/s "
+                            + "p50=%.2f ms p95=%.2f ms p99=%.2f ms max=%.2f ms", scenario, workers, operations,
+                    errors, elapsedMillis, getThroughputPerSecond(), getPercentileMicros(50) / 1000.0,
+                    getPercentileMicros(95) / 1000.0, getPercentileMicros(99) / 1000.0,
+                    getPercentileMicros(100) / 1000.0);
+        }
+    }
+
+    /**
+     * Runs the operation operationsPerWorker times from each of the workers, which all start at the same time, and
+     * prints the result. A failed operation is counted as an error, and the worker goes on with its next operation.
+     * The first failure is rethrown once all workers are done, so that a scenario that is broken does not go
+     * unnoticed.
+     */
+    public static Result run(String scenario, int workers, int operationsPerWorker, Operation operation)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        AtomicReference<Exception> firstFailure = new AtomicReference<>();
+        List<Future<long[]>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            for (int w = 0; w < workers; w++) {
+                int worker = w;
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[operationsPerWorker];
+                    for (int i = 0; i < operationsPerWorker; i++) {
+                        long operationStart = System.nanoTime();
+                        try {
+                            operation.run(worker, i);
+                            latencies[i] = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - operationStart);
+                        } catch (Exception e) {
+                            firstFailure.compareAndSet(null, e);
+                            latencies[i] = -1;
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+
+            long[] all = new long[workers * operationsPerWorker];
+            int succeeded = 0;
+            for (Future<long[]> future : futures) {
+                for (long latency : future.get()) {
+                    if (latency >= 0) {
+                        all[succeeded++] = latency;
+                    }
+                }
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            long[] latencies = Arrays.copyOf(all, succeeded);
+            Arrays.sort(latencies);
+
+            Result result = new Result(scenario, workers, all.length, all.length - succeeded, elapsedMillis,
+                    latencies);
+            System.out.println(result);
+            if (firstFailure.get() != null) {
+                throw new Exception(result.toString(), firstFailure.get());
+            }
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import io.supertokens.ProcessState;
+import io.supertokens.pluginInterface.sqlStorage.SQLStorage;
+import io.supertokens.storage.postgresql.ConnectionPool;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.postgresql.PGConnection;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class PgBouncerModeTest {
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    private static String showSetting(Connection con, String setting) throws SQLException {
+        try (Statement statement = con.createStatement();
+             ResultSet result = statement.executeQuery("SHOW " + setting)) {
+            result.next();
+            return result.getString(1);
+        }
+    }
+
+    @Test
+    public void isolationLevelIsScopedToTheTransaction() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_pgbouncer_mode", "true");
+        Utils.setValueInConfig("postgresql_connection_pool_size", "1");
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+
+        String isolationInTransaction = start.startTransaction(
+                con -> showSetting((Connection) con.getConnection(), "transaction_isolation"),
+                SQLStorage.TransactionIsolationLevel.SERIALIZABLE);
+        assertEquals("serializable", isolationInTransaction);
+
+        // the pool has a single connection, so this is the connection that ran the transaction above. Nothing
+        // about the transaction may have leaked into its session.
+        try (Connection con = ConnectionPool.getConnection(start)) {
+            assertEquals("read committed", showSetting(con, "transaction_isolation"));
+            assertEquals("read committed", showSetting(con, "default_transaction_isolation"));
+            assertEquals(0, con.unwrap(PGConnection.class).getPrepareThreshold());
+        }
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+}
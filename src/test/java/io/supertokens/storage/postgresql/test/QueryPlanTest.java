@@ -0,0 +1,257 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.supertokens.ProcessState;
+import io.supertokens.featureflag.EE_FEATURES;
+import io.supertokens.featureflag.FeatureFlagTestContent;
+import io.supertokens.pluginInterface.MigrationMode;
+import io.supertokens.pluginInterface.multitenancy.TenantIdentifier;
+import io.supertokens.storage.postgresql.PreparedStatementValueSetter;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storage.postgresql.config.Config;
+import io.supertokens.storage.postgresql.config.PostgreSQLConfig;
+import io.supertokens.storage.postgresql.queries.QueryId;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static io.supertokens.storage.postgresql.QueryExecutorTemplate.execute;
+import static org.junit.Assert.*;
+
+/**
+ * Checks the plans of the hot queries, so that a schema change that leaves one of them without its index fails
+ * here instead of showing up as latency in production.
+ *
+ * Each query is planned with EXPLAIN (FORMAT JSON), with parameters like the ones it runs with, and with
+ * enable_seqscan turned off: the tables of the test are small enough for a sequential scan to be the cheapest plan
+ * anyway, but with it turned off the planner only falls back to one if no index can serve the query.
+ */
+public class QueryPlanTest {
+
+    private static final String APP_ID = "public";
+    private static final String TENANT_ID = "public";
+    private static final int USERS = 200;
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    private static class Plan {
+        private final String json;
+        private final List<JsonObject> nodes = new ArrayList<>();
+
+        private Plan(String json) {
+            this.json = json;
+            JsonArray plans = new JsonParser().parse(json).getAsJsonArray();
+            addNodes(plans.get(0).getAsJsonObject().getAsJsonObject("Plan"));
+        }
+
+        private void addNodes(JsonObject node) {
+            nodes.add(node);
+            if (node.has("Plans")) {
+                for (JsonElement child : node.getAsJsonArray("Plans")) {
+                    addNodes(child.getAsJsonObject());
+                }
+            }
+        }
+
+        /**
+         * Asserts that the table is read, and not with a sequential scan, and that the plan uses one of the indexes.
+         */
+        void assertTableReadWithIndex(String table, Set<String> indexes) {
+            boolean isRead = false;
+            for (JsonObject node : nodes) {
+                if (node.has("Relation Name") && node.get("Relation Name").getAsString().equals(table)) {
+                    isRead = true;
+                    assertNotEquals("Sequential scan on " + table + ": " + json, "Seq Scan",
+                            node.get("Node Type").getAsString());
+                }
+            }
+            assertTrue(table + " is not read: " + json, isRead);
+            for (JsonObject node : nodes) {
+                if (node.has("Index Name") && indexes.contains(node.get("Index Name").getAsString())) {
+                    return;
+                }
+            }
+            fail("None of " + indexes + " is used: " + json);
+        }
+    }
+
+    private static Plan explain(Start start, QueryId id, PreparedStatementValueSetter setter) throws Exception {
+        String QUERY = start.getQueryRegistry().get(id);
+        return start.startTransaction(con -> {
+            Connection sqlCon = (Connection) con.getConnection();
+            try (Statement statement = sqlCon.createStatement()) {
+                statement.execute("SET LOCAL enable_seqscan = off");
+            }
+            String plan = execute(sqlCon, "EXPLAIN (FORMAT JSON) " + QUERY, setter, result -> {
+                assertTrue(result.next());
+                return result.getString(1);
+            });
+            sqlCon.rollback();
+            return new Plan(plan);
+        });
+    }
+
+    private static void analyze(Start start) throws Exception {
+        start.startTransaction(con -> {
+            Connection sqlCon = (Connection) con.getConnection();
+            try (Statement statement = sqlCon.createStatement()) {
+                statement.execute("ANALYZE");
+            }
+            start.commitTransaction(con);
+            return null;
+        });
+    }
+
+    private static String pkey(String table) {
+        return table + "_pkey";
+    }
+
+    @Test
+    public void hotQueriesUseTheirIndexes() throws Exception {
+        String[] args = {"../"};
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args, false);
+        FeatureFlagTestContent.getInstance(process.getProcess())
+                .setKeyValue(FeatureFlagTestContent.ENABLED_FEATURES,
+                        new EE_FEATURES[]{EE_FEATURES.ACCOUNT_LINKING, EE_FEATURES.MULTI_TENANCY});
+        process.startProcess();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        if (StorageLayer.isInMemDb(process.getProcess())) {
+            return;
+        }
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        // the reservation tables are only written in this mode
+        Config.getConfig(start).setMigrationModeForTesting(MigrationMode.MIGRATED);
+        PostgreSQLConfig config = Config.getConfig(start);
+
+        String[] userIds = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = UUID.randomUUID().toString();
+            start.signUp(TenantIdentifier.BASE_TENANT, userIds[i], "user" + i + "@example.com", "hash",
+                    System.currentTimeMillis());
+        }
+        String sessionHandle = UUID.randomUUID().toString();
+        start.createNewSession(TenantIdentifier.BASE_TENANT, sessionHandle, userIds[0], "hash", new JsonObject(),
+                System.currentTimeMillis() + 100000, new JsonObject(), System.currentTimeMillis(), false);
+        analyze(start);
+
+        String appIdToUserIdTable = config.getAppIdToUserIdTable();
+        Set<String> appIdToUserIdByUserId = Set.of(pkey(appIdToUserIdTable), "app_id_to_user_id_user_id_index");
+
+        // the session lookup of every session verification that goes to the database
+        Plan plan = explain(start, QueryId.SESSION_GET, pst -> {
+            pst.setString(1, APP_ID);
+            pst.setString(2, TENANT_ID);
+            pst.setString(3, sessionHandle);
+        });
+        plan.assertTableReadWithIndex(config.getSessionInfoTable(), Set.of(pkey(config.getSessionInfoTable())));
+        plan.assertTableReadWithIndex(appIdToUserIdTable, appIdToUserIdByUserId);
+
+        // both rounds of lockUsers, with the two users of a linking
+        PreparedStatementValueSetter lockUsersSetter = pst -> {
+            pst.setString(1, APP_ID);
+            pst.setArray(2, pst.getConnection().createArrayOf("VARCHAR", new String[]{userIds[1], userIds[2]}));
+        };
+        explain(start, QueryId.USER_LOCKING_FIND_PRIMARY_USER_IDS, lockUsersSetter)
+                .assertTableReadWithIndex(appIdToUserIdTable, appIdToUserIdByUserId);
+        explain(start, QueryId.USER_LOCKING_LOCK_USERS, lockUsersSetter)
+                .assertTableReadWithIndex(appIdToUserIdTable, appIdToUserIdByUserId);
+
+        // listPrimaryUserIdsByEmail, of every sign in and sign up
+        plan = explain(start, QueryId.ACCOUNT_INFO_LIST_PRIMARY_USER_IDS_BY_EMAIL, pst -> {
+            pst.setString(1, APP_ID);
+            pst.setString(2, TENANT_ID);
+            pst.setString(3, "email");
+            pst.setString(4, "user3@example.com");
+        });
+        plan.assertTableReadWithIndex(config.getRecipeUserTenantsTable(),
+                Set.of("idx_recipe_user_tenants_account_info", pkey(config.getRecipeUserTenantsTable())));
+        plan.assertTableReadWithIndex(appIdToUserIdTable, appIdToUserIdByUserId);
+
+        // the conflict check of the reservation tables when a user is made primary
+        plan = explain(start, QueryId.ACCOUNT_INFO_GET_CONFLICTING_PRIMARY_USER, pst -> {
+            pst.setString(1, APP_ID);
+            pst.setString(2, userIds[4]);
+            pst.setString(3, userIds[4]);
+        });
+        plan.assertTableReadWithIndex(config.getRecipeUserTenantsTable(),
+                Set.of("idx_recipe_user_tenants_recipe_user_id"));
+        plan.assertTableReadWithIndex(config.getPrimaryUserTenantsTable(),
+                Set.of(pkey(config.getPrimaryUserTenantsTable())));
+
+        // the pages of the dashboard's user list, first and after a cursor
+        Set<String> appIdToUserIdByApp = Set.of("app_id_to_user_id_pagination_index1",
+                "app_id_to_user_id_pagination_index2", "app_id_to_user_id_app_id_index", pkey(appIdToUserIdTable));
+        Set<String> recipeUserTenantsByTenant = Set.of("idx_recipe_user_tenants_tenant",
+                "idx_recipe_user_tenants_recipe_user_id", "idx_recipe_user_tenants_account_info",
+                pkey(config.getRecipeUserTenantsTable()));
+        for (QueryId id : new QueryId[]{QueryId.USERS_GET_PAGE_ASC, QueryId.USERS_GET_PAGE_DESC}) {
+            plan = explain(start, id, pst -> {
+                pst.setString(1, APP_ID);
+                pst.setString(2, TENANT_ID);
+                pst.setInt(3, 20);
+            });
+            plan.assertTableReadWithIndex(appIdToUserIdTable, appIdToUserIdByApp);
+            plan.assertTableReadWithIndex(config.getRecipeUserTenantsTable(), recipeUserTenantsByTenant);
+        }
+        for (QueryId id : new QueryId[]{QueryId.USERS_GET_PAGE_AFTER_CURSOR_ASC,
+                QueryId.USERS_GET_PAGE_AFTER_CURSOR_DESC}) {
+            plan = explain(start, id, pst -> {
+                pst.setString(1, APP_ID);
+                pst.setString(2, TENANT_ID);
+                pst.setLong(3, System.currentTimeMillis());
+                pst.setLong(4, System.currentTimeMillis());
+                pst.setString(5, userIds[5]);
+                pst.setInt(6, 20);
+            });
+            plan.assertTableReadWithIndex(appIdToUserIdTable, appIdToUserIdByApp);
+            plan.assertTableReadWithIndex(config.getRecipeUserTenantsTable(), recipeUserTenantsByTenant);
+        }
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import io.supertokens.ProcessState;
+import io.supertokens.pluginInterface.KeyValueInfo;
+import io.supertokens.pluginInterface.multitenancy.TenantIdentifier;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storage.postgresql.config.Config;
+import io.supertokens.storage.postgresql.queries.QueryId;
+import io.supertokens.storage.postgresql.queries.QueryRegistry;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import static org.junit.Assert.*;
+
+public class QueryRegistryTest {
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    @Test
+    public void queriesAreBuiltOnceFromTheConfig() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_table_names_prefix", "\"registry\"");
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        QueryRegistry registry = start.getQueryRegistry();
+
+        for (QueryId id : QueryId.values()) {
+            assertNotNull(id.name(), registry.get(id));
+            // the same string every time, nothing is built per call
+            assertSame(registry.get(id), registry.get(id));
+        }
+        assertTrue(registry.get(QueryId.SESSION_CREATE)
+                .startsWith("INSERT INTO " + Config.getConfig(start).getSessionInfoTable() + "("));
+        assertTrue(registry.get(QueryId.SESSION_CREATE).contains("registry_session_info"));
+        assertTrue(registry.get(QueryId.SESSION_GET).contains(Config.getConfig(start).getAppIdToUserIdTable()));
+        assertTrue(registry.get(QueryId.SESSION_GET_LEGACY).contains(Config.getConfig(start).getUsersTable()));
+
+        // the registered queries run against the prefixed tables
+        start.setKeyValue(TenantIdentifier.BASE_TENANT, "registry_test", new KeyValueInfo("value"));
+        assertEquals("value", start.getKeyValue(TenantIdentifier.BASE_TENANT, "registry_test").value);
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void registryIsNotAvailableBeforeTheConfigIsLoaded() {
+        try {
+            new Start().getQueryRegistry();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("Please call loadConfig() before calling getQueryRegistry()", e.getMessage());
+        }
+    }
+}
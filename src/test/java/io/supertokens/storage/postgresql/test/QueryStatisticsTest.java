@@ -0,0 +1,155 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import com.google.gson.JsonObject;
+import io.supertokens.ProcessState;
+import io.supertokens.pluginInterface.KeyValueInfo;
+import io.supertokens.pluginInterface.multitenancy.TenantIdentifier;
+import io.supertokens.storage.postgresql.QueryExecutorTemplate;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+
+public class QueryStatisticsTest {
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    @Test
+    public void queriesAreRecordedByTheirQueryIdOrTheMethodThatRanThem() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_query_statistics_enabled", "true");
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        // the key values read and written by the core at startup share these QueryIds
+        JsonObject getKeyValueBefore = start.getQueryStatistics().getAsJsonObject("KEY_VALUE_GET");
+        JsonObject setKeyValueBefore = start.getQueryStatistics().getAsJsonObject("KEY_VALUE_SET");
+
+        start.setKeyValue(TenantIdentifier.BASE_TENANT, "statistics_test", new KeyValueInfo("value"));
+        assertEquals("value", start.getKeyValue(TenantIdentifier.BASE_TENANT, "statistics_test").value);
+        assertNull(start.getKeyValue(TenantIdentifier.BASE_TENANT, "statistics_test_missing"));
+
+        JsonObject getKeyValue = start.getQueryStatistics().getAsJsonObject("KEY_VALUE_GET");
+        assertEquals(2, getCount(getKeyValue) - getCount(getKeyValueBefore));
+        assertEquals(1, getRows(getKeyValue) - getRows(getKeyValueBefore));
+        assertEquals(0, getKeyValue.get("errors").getAsLong());
+        assertEquals(1, getRows(start.getQueryStatistics().getAsJsonObject("KEY_VALUE_SET"))
+                - getRows(setKeyValueBefore));
+
+        // queries without a QueryId run from a lambda count for the method that declares it
+        int count = start.startTransaction(con -> QueryExecutorTemplate.execute(start,
+                "SELECT generate_series(1, 3)", null, result -> {
+                    int rows = 0;
+                    while (result.next()) {
+                        rows++;
+                    }
+                    return rows;
+                }));
+        assertEquals(3, count);
+        try {
+            QueryExecutorTemplate.execute(start, "SELECT 1/0", null, result -> null);
+            fail();
+        } catch (SQLException e) {
+            assertEquals("22012", e.getSQLState());
+        }
+
+        JsonObject test = start.getQueryStatistics()
+                .getAsJsonObject("QueryStatisticsTest.queriesAreRecordedByTheirQueryIdOrTheMethodThatRanThem");
+        assertEquals(2, test.getAsJsonObject("latencyMicros").get("count").getAsLong());
+        assertEquals(3, test.get("rows").getAsLong());
+        assertEquals(1, test.get("errors").getAsLong());
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void onlyQueriesOnTheStoragesConnectionsAreRecorded() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_query_statistics_enabled", "true");
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        QueryExecutorTemplate.execute(start, "SELECT 1", null, result -> null);
+
+        // this thread has just used the storage, but the connection did not come from its pool
+        try (Connection con = DriverManager.getConnection(DatabaseTestHelper.getTestDatabaseUrl(),
+                DatabaseTestHelper.getUser(), DatabaseTestHelper.getPassword())) {
+            QueryExecutorTemplate.execute(con, "SELECT generate_series(1, 3)", null, result -> null);
+        }
+
+        JsonObject test = start.getQueryStatistics()
+                .getAsJsonObject("QueryStatisticsTest.onlyQueriesOnTheStoragesConnectionsAreRecorded");
+        assertEquals(1, test.getAsJsonObject("latencyMicros").get("count").getAsLong());
+        assertEquals(0, test.get("rows").getAsLong());
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void nothingIsRecordedByDefault() throws Exception {
+        String[] args = {"../"};
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        assertNull(start.getKeyValue(TenantIdentifier.BASE_TENANT, "statistics_test"));
+        assertNull(start.getQueryStatistics());
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    private static long getCount(JsonObject query) {
+        return query == null ? 0 : query.getAsJsonObject("latencyMicros").get("count").getAsLong();
+    }
+
+    private static long getRows(JsonObject query) {
+        return query == null ? 0 : query.get("rows").getAsLong();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import io.supertokens.ProcessState;
+import io.supertokens.emailpassword.EmailPassword;
+import io.supertokens.featureflag.EE_FEATURES;
+import io.supertokens.featureflag.FeatureFlagTestContent;
+import io.supertokens.pluginInterface.MigrationMode;
+import io.supertokens.pluginInterface.authRecipe.AuthRecipeUserInfo;
+import io.supertokens.pluginInterface.authRecipe.CanBecomePrimaryResult;
+import io.supertokens.pluginInterface.exceptions.StorageQueryException;
+import io.supertokens.pluginInterface.exceptions.StorageTransactionLogicException;
+import io.supertokens.pluginInterface.multitenancy.AppIdentifier;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storage.postgresql.config.Config;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.*;
+
+public class ReadOnlyTransactionTest {
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    private static String showSetting(Connection con, String setting) throws SQLException {
+        try (Statement statement = con.createStatement();
+             ResultSet result = statement.executeQuery("SHOW " + setting)) {
+            result.next();
+            return result.getString(1);
+        }
+    }
+
+    @Test
+    public void readOnlyTransactionsDoNotGetATransactionIdAndCannotWrite() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_connection_pool_size", "1");
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+
+        start.startReadOnlyTransaction(con -> {
+            Connection sqlCon = (Connection) con.getConnection();
+            assertEquals("on", showSetting(sqlCon, "transaction_read_only"));
+            assertEquals("read committed", showSetting(sqlCon, "transaction_isolation"));
+            try (Statement statement = sqlCon.createStatement();
+                 ResultSet result = statement.executeQuery("SELECT txid_current_if_assigned()")) {
+                assertTrue(result.next());
+                assertNull(result.getObject(1));
+            }
+            return null;
+        });
+
+        try {
+            start.startReadOnlyTransaction(con -> {
+                try (Statement statement = ((Connection) con.getConnection()).createStatement()) {
+                    statement.execute("CREATE TEMPORARY TABLE read_only_test (id int)");
+                }
+                return null;
+            });
+            fail();
+        } catch (StorageQueryException | StorageTransactionLogicException e) {
+            Throwable cause = e instanceof StorageTransactionLogicException
+                    ? ((StorageTransactionLogicException) e).actualException : e.getCause();
+            assertEquals("25006", ((SQLException) cause).getSQLState());
+        }
+
+        // the pool has a single connection. The transactions above must not have left it read only.
+        assertEquals("off", start.startTransaction(
+                con -> showSetting((Connection) con.getConnection(), "transaction_read_only")));
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void accountLinkingChecksSeeAUserCreatedJustBeforeWhileAReplicaIsConfigured() throws Exception {
+        String[] args = {"../"};
+
+        // with the primary as the replica, the replica pool is there (and read only)
+        Utils.setValueInConfig("postgresql_read_replica_hosts",
+                "\"" + System.getProperty("ST_POSTGRESQL_PLUGIN_SERVER_HOST", "localhost") + "\"");
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args, false);
+        FeatureFlagTestContent.getInstance(process.getProcess())
+                .setKeyValue(FeatureFlagTestContent.ENABLED_FEATURES, new EE_FEATURES[]{
+                        EE_FEATURES.ACCOUNT_LINKING});
+        process.startProcess();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        Config.getConfig(start).setMigrationModeForTesting(MigrationMode.MIGRATED);
+
+        // read only transactions run on the primary unless the caller accepts stale reads
+        assertFalse(start.startReadOnlyTransaction(con -> ((Connection) con.getConnection()).isReadOnly()));
+
+        AppIdentifier appIdentifier = new AppIdentifier(null, null);
+        for (int i = 0; i < 10; i++) {
+            AuthRecipeUserInfo user = EmailPassword.signUp(process.getProcess(), "test" + i + "@example.com",
+                    "pass1234");
+            // throws UnknownUserIdException if the check does not see the new user
+            CanBecomePrimaryResult result = start.checkIfLoginMethodCanBecomePrimary(appIdentifier,
+                    user.getSupertokensUserId());
+            assertNotEquals(CanBecomePrimaryResult.RESULT.CONFLICTING_ACCOUNT_INFO, result.status);
+            assertNull(result.conflictingPrimaryUserId);
+        }
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import com.google.gson.JsonObject;
+import io.supertokens.ProcessState;
+import io.supertokens.pluginInterface.multitenancy.TenantIdentifier;
+import io.supertokens.pluginInterface.session.SessionInfo;
+import io.supertokens.pluginInterface.session.SessionStorage;
+import io.supertokens.session.Session;
+import io.supertokens.session.info.SessionInformationHolder;
+import io.supertokens.storage.postgresql.ConnectionPool;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storageLayer.StorageLayer;
+import junit.framework.TestCase;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.sql.Connection;
+
+import static org.junit.Assert.*;
+
+public class ReadReplicaTest {
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    private static String getPrimaryHost() {
+        return System.getProperty("ST_POSTGRESQL_PLUGIN_SERVER_HOST", "localhost");
+    }
+
+    /**
+     * The primary is not in recovery, so pointing the replica pool at it gives a "replica" that does not stream from
+     * any primary, and whose freshness cannot be established. Reads must then come from the primary.
+     */
+    @Test
+    public void readsFallBackToPrimaryWhenReplicaIsNotStreaming() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_read_replica_hosts", "\"" + getPrimaryHost() + "\"");
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        try (Connection con = ConnectionPool.getReadConnection(start)) {
+            assertFalse(con.isReadOnly());
+        }
+
+        SessionInformationHolder sessionInfo = Session.createNewSession(process.getProcess(), "userId",
+                new JsonObject(), new JsonObject());
+        SessionInfo fromStorage = ((SessionStorage) start).getSession(new TenantIdentifier(null, null, null),
+                sessionInfo.session.handle);
+        assertNotNull(fromStorage);
+        TestCase.assertEquals("userId", fromStorage.recipeUserId);
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void readsFallBackToPrimaryWhenReplicaIsUnreachable() throws Exception {
+        String[] args = {"../"};
+
+        // nothing listens on port 1, so the replica pool can never hand out a connection
+        Utils.setValueInConfig("postgresql_read_replica_hosts", "\"" + getPrimaryHost() + ":1\"");
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        try (Connection con = ConnectionPool.getReadConnection(start)) {
+            assertFalse(con.isReadOnly());
+        }
+
+        SessionInformationHolder sessionInfo = Session.createNewSession(process.getProcess(), "userId",
+                new JsonObject(), new JsonObject());
+        assertNotNull(((SessionStorage) start).getSession(new TenantIdentifier(null, null, null),
+                sessionInfo.session.handle));
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void testThatInvalidReplicaPoolSizeThrowsRightError() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_read_replica_hosts", "\"" + getPrimaryHost() + "\"");
+        Utils.setValueInConfig("postgresql_read_replica_connection_pool_size", "0");
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+
+        ProcessState.EventAndException e = process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.INIT_FAILURE);
+        assertNotNull(e);
+        TestCase.assertEquals(e.exception.getCause().getMessage(),
+                "'postgresql_read_replica_connection_pool_size' in the config.yaml file must be > 0");
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+}
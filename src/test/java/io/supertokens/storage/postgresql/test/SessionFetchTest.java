@@ -0,0 +1,141 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import com.google.gson.JsonObject;
+import io.supertokens.Main;
+import io.supertokens.ProcessState;
+import io.supertokens.authRecipe.AuthRecipe;
+import io.supertokens.emailpassword.EmailPassword;
+import io.supertokens.featureflag.EE_FEATURES;
+import io.supertokens.featureflag.FeatureFlagTestContent;
+import io.supertokens.pluginInterface.MigrationMode;
+import io.supertokens.pluginInterface.multitenancy.AppIdentifier;
+import io.supertokens.pluginInterface.multitenancy.TenantIdentifier;
+import io.supertokens.pluginInterface.session.SessionInfo;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storage.postgresql.config.Config;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * getSessionInfo_Transaction locks the session and resolves its user id in one statement. These check that the user
+ * id is resolved like it was with the separate query: to the external user id of the primary user, else to the
+ * primary user, else to the session's own user id.
+ */
+public class SessionFetchTest {
+
+    private static final TenantIdentifier TENANT = TenantIdentifier.BASE_TENANT;
+    private static final AppIdentifier APP = TENANT.toAppIdentifier();
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    private static String createSession(Start start, String userId) throws Exception {
+        String sessionHandle = UUID.randomUUID().toString();
+        start.createNewSession(TENANT, sessionHandle, userId, "refreshTokenHash", new JsonObject(),
+                System.currentTimeMillis() + 100000, new JsonObject(), System.currentTimeMillis(), false);
+        return sessionHandle;
+    }
+
+    private static SessionInfo getSessionInfo(Start start, String sessionHandle) throws Exception {
+        return start.startTransaction(con -> {
+            SessionInfo sessionInfo = start.getSessionInfo_Transaction(TENANT, con, sessionHandle);
+            start.commitTransaction(con);
+            return sessionInfo;
+        });
+    }
+
+    private static void assertUserIds(SessionInfo sessionInfo, String userId, String recipeUserId) {
+        assertNotNull(sessionInfo);
+        assertEquals(userId, sessionInfo.userId);
+        assertEquals(recipeUserId, sessionInfo.recipeUserId);
+    }
+
+    private void runScenario(MigrationMode mode) throws Exception {
+        String[] args = {"../"};
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args, false);
+        FeatureFlagTestContent.getInstance(process.getProcess())
+                .setKeyValue(FeatureFlagTestContent.ENABLED_FEATURES, new EE_FEATURES[]{EE_FEATURES.ACCOUNT_LINKING});
+        process.startProcess();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Main main = process.getProcess();
+        Start start = (Start) StorageLayer.getStorage(main);
+        Config.getConfig(start).setMigrationModeForTesting(mode);
+
+        // a user that is not linked
+        String plainUserId = EmailPassword.signUp(main, "plain@example.com", "password123").getSupertokensUserId();
+        String plainSession = createSession(start, plainUserId);
+        assertUserIds(getSessionInfo(start, plainSession), plainUserId, plainUserId);
+
+        // a user linked to a primary user
+        String primaryUserId = EmailPassword.signUp(main, "primary@example.com", "password123")
+                .getSupertokensUserId();
+        String linkedUserId = EmailPassword.signUp(main, "linked@example.com", "password123").getSupertokensUserId();
+        AuthRecipe.createPrimaryUser(main, primaryUserId);
+        AuthRecipe.linkAccounts(main, linkedUserId, primaryUserId);
+        String linkedSession = createSession(start, linkedUserId);
+        assertUserIds(getSessionInfo(start, linkedSession), primaryUserId, linkedUserId);
+
+        // with external user ids, the session's user id is the external one, and so is the resolved user id
+        start.createUserIdMapping(APP, primaryUserId, "external-primary", null);
+        start.createUserIdMapping(APP, linkedUserId, "external-linked", null);
+        String externalLinkedSession = createSession(start, "external-linked");
+        assertUserIds(getSessionInfo(start, externalLinkedSession), "external-primary", "external-linked");
+        assertUserIds(getSessionInfo(start, linkedSession), "external-primary", linkedUserId);
+
+        // a user that does not exist
+        String unknownSession = createSession(start, "unknown-user");
+        assertUserIds(getSessionInfo(start, unknownSession), "unknown-user", "unknown-user");
+
+        assertNull(getSessionInfo(start, "unknown-session"));
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void userIdIsResolvedWithTheSessionInLegacyMode() throws Exception {
+        runScenario(MigrationMode.LEGACY);
+    }
+
+    @Test
+    public void userIdIsResolvedWithTheSessionInMigratedMode() throws Exception {
+        runScenario(MigrationMode.MIGRATED);
+    }
+}
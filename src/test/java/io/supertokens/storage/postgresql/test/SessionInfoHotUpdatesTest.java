@@ -0,0 +1,236 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import com.google.gson.JsonObject;
+import io.supertokens.ProcessState;
+import io.supertokens.pluginInterface.multitenancy.TenantIdentifier;
+import io.supertokens.pluginInterface.session.SessionInfo;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storage.postgresql.config.Config;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class SessionInfoHotUpdatesTest {
+
+    private static final TenantIdentifier TENANT = TenantIdentifier.BASE_TENANT;
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    /**
+     * With postgresql_session_info_hot_updates, the table is created with expiry_bucket, a lower fillfactor, and
+     * without an index on expires_at, so a refresh that keeps the expiry in the same day is a HOT update, and
+     * deleteAllExpiredSessions still finds the expired sessions.
+     */
+    @Test
+    public void newTableAllowsHotRefreshes() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_session_info_hot_updates", "true");
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        String table = Config.getConfig(start).getSessionInfoTable();
+        String schema = Config.getConfig(start).getTableSchema();
+
+        assertTrue(hasExpiryBucketColumn(start, table));
+        assertEquals("{fillfactor=70}", getReloptions(start, table));
+        assertTrue(indexExists(start, schema + ".session_info_expiry_bucket_index"));
+        assertFalse(indexExists(start, schema + ".session_expiry_index"));
+
+        // an hour into the next day, so that moving it by an hour keeps it in the same day
+        long expiry = (System.currentTimeMillis() / MILLIS_PER_DAY + 1) * MILLIS_PER_DAY + 3600000;
+        String session = createSession(start, expiry);
+        String expiredSession = createSession(start, System.currentTimeMillis() - 1000);
+
+        long hotUpdates = start.startTransaction(con -> {
+            SessionInfo sessionInfo = start.getSessionInfo_Transaction(TENANT, con, session);
+            start.updateSessionInfo_Transaction(TENANT, con, session, "newRefreshTokenHash", expiry + 3600000,
+                    sessionInfo.useStaticKey);
+            long result = queryForLong((Connection) con.getConnection(),
+                    "SELECT pg_stat_get_xact_tuples_hot_updated('" + table + "'::regclass)");
+            start.commitTransaction(con);
+            return result;
+        });
+        assertEquals(1, hotUpdates);
+
+        SessionInfo refreshed = start.getSession(TENANT, session);
+        assertEquals(expiry + 3600000, refreshed.expiry);
+        assertEquals("newRefreshTokenHash", refreshed.refreshTokenHash2);
+
+        start.deleteAllExpiredSessions();
+        assertNull(start.getSession(TENANT, expiredSession));
+        assertNotNull(start.getSession(TENANT, session));
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    /**
+     * An existing table gets expiry_bucket and the fillfactor at startup once the config is enabled, and
+     * deleteAllExpiredSessions fills in the buckets and swaps the indexes. Disabling the config again rebuilds
+     * session_expiry_index, and leaves expiry_bucket for the cores that may still write it.
+     */
+    @Test
+    public void existingTableIsConvertedAndBack() throws Exception {
+        String[] args = {"../"};
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        String table = Config.getConfig(start).getSessionInfoTable();
+        String schema = Config.getConfig(start).getTableSchema();
+        assertFalse(hasExpiryBucketColumn(start, table));
+
+        String expiredSession = createSession(start, System.currentTimeMillis() - 1000);
+        String validSession = createSession(start, System.currentTimeMillis() + 3600000);
+
+        process.kill(false);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+        StorageLayer.close();
+
+        Utils.setValueInConfig("postgresql_session_info_hot_updates", "true");
+        process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+        Start hotStart = (Start) StorageLayer.getStorage(process.getProcess());
+
+        assertTrue(hasExpiryBucketColumn(hotStart, table));
+        assertEquals("{fillfactor=70}", getReloptions(hotStart, table));
+        // the indexes are only changed by the cron
+        assertTrue(indexExists(hotStart, schema + ".session_expiry_index"));
+        assertEquals(2, countWithoutExpiryBucket(hotStart, table));
+
+        // sessions created now have their bucket
+        String newSession = createSession(hotStart, System.currentTimeMillis() + 3600000);
+        assertEquals(2, countWithoutExpiryBucket(hotStart, table));
+
+        hotStart.deleteAllExpiredSessions();
+
+        assertEquals(0, countWithoutExpiryBucket(hotStart, table));
+        assertTrue(indexExists(hotStart, schema + ".session_info_expiry_bucket_index"));
+        assertFalse(indexExists(hotStart, schema + ".session_expiry_index"));
+        assertNull(hotStart.getSession(TENANT, expiredSession));
+        assertNotNull(hotStart.getSession(TENANT, validSession));
+        assertNotNull(hotStart.getSession(TENANT, newSession));
+
+        process.kill(false);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+        StorageLayer.close();
+
+        Utils.setValueInConfig("postgresql_session_info_hot_updates", "false");
+        process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+        Start revertedStart = (Start) StorageLayer.getStorage(process.getProcess());
+
+        revertedStart.deleteAllExpiredSessions();
+
+        assertTrue(hasExpiryBucketColumn(revertedStart, table));
+        assertTrue(indexExists(revertedStart, schema + ".session_expiry_index"));
+        assertEquals(2, revertedStart.getNumberOfSessions(TENANT));
+
+        // sessions created now have no bucket, and running it again changes nothing
+        createSession(revertedStart, System.currentTimeMillis() + 3600000);
+        assertEquals(1, countWithoutExpiryBucket(revertedStart, table));
+        revertedStart.deleteAllExpiredSessions();
+        assertTrue(hasExpiryBucketColumn(revertedStart, table));
+        assertEquals(3, revertedStart.getNumberOfSessions(TENANT));
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    private static String createSession(Start start, long expiry) throws Exception {
+        String sessionHandle = UUID.randomUUID().toString();
+        start.createNewSession(TENANT, sessionHandle, "userId", "refreshTokenHash", new JsonObject(), expiry,
+                new JsonObject(), System.currentTimeMillis(), false);
+        return sessionHandle;
+    }
+
+    private static long queryForLong(Connection sqlCon, String query) throws Exception {
+        try (PreparedStatement pst = sqlCon.prepareStatement(query); ResultSet rs = pst.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static long countWithoutExpiryBucket(Start start, String table) throws Exception {
+        return start.startTransaction(con -> {
+            return queryForLong((Connection) con.getConnection(),
+                    "SELECT count(*) FROM " + table + " WHERE expiry_bucket IS NULL");
+        });
+    }
+
+    private static boolean hasExpiryBucketColumn(Start start, String table) throws Exception {
+        return start.startTransaction(con -> {
+            return queryForLong((Connection) con.getConnection(), "SELECT count(*) FROM pg_attribute"
+                    + " WHERE attrelid = '" + table + "'::regclass AND attname = 'expiry_bucket'"
+                    + " AND NOT attisdropped") == 1;
+        });
+    }
+
+    private static String getReloptions(Start start, String table) throws Exception {
+        return start.startTransaction(con -> {
+            Connection sqlCon = (Connection) con.getConnection();
+            try (PreparedStatement pst = sqlCon.prepareStatement(
+                    "SELECT reloptions::text FROM pg_class WHERE oid = to_regclass(?)")) {
+                pst.setString(1, table);
+                try (ResultSet rs = pst.executeQuery()) {
+                    return rs.next() ? rs.getString(1) : null;
+                }
+            }
+        });
+    }
+
+    private static boolean indexExists(Start start, String qualifiedIndexName) throws Exception {
+        return start.startTransaction(con -> {
+            Connection sqlCon = (Connection) con.getConnection();
+            try (PreparedStatement pst = sqlCon.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+                pst.setString(1, qualifiedIndexName);
+                try (ResultSet rs = pst.executeQuery()) {
+                    rs.next();
+                    return rs.getBoolean(1);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import com.google.gson.JsonObject;
+import io.supertokens.ProcessState;
+import io.supertokens.pluginInterface.multitenancy.TenantIdentifier;
+import io.supertokens.pluginInterface.session.SessionInfo;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storage.postgresql.config.Config;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class SessionInfoPartitionTest {
+
+    private static final TenantIdentifier TENANT = TenantIdentifier.BASE_TENANT;
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    private static final DateTimeFormatter MONTH_SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    /**
+     * With postgresql_session_info_partitioned, the table is created partitioned, with the upcoming months'
+     * partitions, and deleteAllExpiredSessions drops the partitions that have expired as a whole, and deletes the
+     * other expired sessions, while the sessions that have not expired stay readable.
+     */
+    @Test
+    public void newTableIsPartitionedAndExpiredPartitionsAreDropped() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_session_info_partitioned", "true");
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        String table = Config.getConfig(start).getSessionInfoTable();
+        YearMonth thisMonth = YearMonth.now(ZoneOffset.UTC);
+        YearMonth oldMonth = thisMonth.minusMonths(3);
+
+        assertEquals("p", getRelkind(start, table));
+        assertTrue(tableExists(start, partitionName(table, thisMonth)));
+        assertTrue(tableExists(start, partitionName(table, thisMonth.plusMonths(4))));
+        assertTrue(tableExists(start, table + "_default"));
+
+        // a month that has passed, with a session in it
+        runUpdate(start, "CREATE TABLE " + partitionName(table, oldMonth) + " PARTITION OF " + table
+                + " FOR VALUES FROM (" + monthStartMillis(oldMonth) + ") TO ("
+                + monthStartMillis(oldMonth.plusMonths(1)) + ")");
+        String oldSession = createSession(start, monthStartMillis(oldMonth) + 1000);
+        String expiredSession = createSession(start, System.currentTimeMillis() - 1000);
+        String validSession = createSession(start, System.currentTimeMillis() + 3600000);
+        // after the pre-created months, so in the DEFAULT partition
+        String farFutureSession = createSession(start, monthStartMillis(thisMonth.plusMonths(12)));
+
+        start.deleteAllExpiredSessions();
+
+        assertFalse(tableExists(start, partitionName(table, oldMonth)));
+        assertNull(start.getSession(TENANT, oldSession));
+        assertNull(start.getSession(TENANT, expiredSession));
+        assertNotNull(start.getSession(TENANT, validSession));
+        assertNotNull(start.getSession(TENANT, farFutureSession));
+
+        // a refresh that moves the session to the partition of another month
+        long newExpiry = monthStartMillis(thisMonth.plusMonths(2)) + 1000;
+        start.startTransaction(con -> {
+            SessionInfo sessionInfo = start.getSessionInfo_Transaction(TENANT, con, validSession);
+            start.updateSessionInfo_Transaction(TENANT, con, validSession, "newRefreshTokenHash", newExpiry,
+                    sessionInfo.useStaticKey);
+            start.commitTransaction(con);
+            return null;
+        });
+        SessionInfo refreshed = start.getSession(TENANT, validSession);
+        assertEquals(newExpiry, refreshed.expiry);
+        assertEquals("newRefreshTokenHash", refreshed.refreshTokenHash2);
+
+        // running it again changes nothing
+        start.deleteAllExpiredSessions();
+        assertEquals(2, start.getNumberOfSessions(TENANT));
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    /**
+     * An existing table is migrated by deleteAllExpiredSessions once the config is enabled: it becomes the legacy
+     * partition of the new partitioned table, with its sessions in place.
+     */
+    @Test
+    public void existingTableIsMigrated() throws Exception {
+        String[] args = {"../"};
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        String table = Config.getConfig(start).getSessionInfoTable();
+        assertEquals("r", getRelkind(start, table));
+
+        String expiredSession = createSession(start, System.currentTimeMillis() - 1000);
+        String validSession = createSession(start, System.currentTimeMillis() + 3600000);
+
+        process.kill(false);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+        StorageLayer.close();
+
+        Utils.setValueInConfig("postgresql_session_info_partitioned", "true");
+        process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+        Start migratedStart = (Start) StorageLayer.getStorage(process.getProcess());
+
+        // the existing table is only migrated by the cron
+        assertEquals("r", getRelkind(migratedStart, table));
+
+        migratedStart.deleteAllExpiredSessions();
+
+        assertEquals("p", getRelkind(migratedStart, table));
+        assertEquals("r", getRelkind(migratedStart, table + "_legacy"));
+        assertTrue(tableExists(migratedStart, table + "_default"));
+        assertNull(migratedStart.getSession(TENANT, expiredSession));
+        assertNotNull(migratedStart.getSession(TENANT, validSession));
+
+        // new sessions are stored, and read with their user id, after the migration
+        String newSession = createSession(migratedStart, System.currentTimeMillis() + 3600000);
+        SessionInfo sessionInfo = migratedStart.startTransaction(con -> {
+            SessionInfo result = migratedStart.getSessionInfo_Transaction(TENANT, con, newSession);
+            migratedStart.commitTransaction(con);
+            return result;
+        });
+        assertEquals("userId", sessionInfo.userId);
+
+        // the cutoff of the legacy partition is beyond the expiry of any refresh token
+        createSession(migratedStart, System.currentTimeMillis() + 200L * 24 * 3600000);
+
+        // running it again changes nothing
+        migratedStart.deleteAllExpiredSessions();
+        assertEquals(3, migratedStart.getNumberOfSessions(TENANT));
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    private static String createSession(Start start, long expiry) throws Exception {
+        String sessionHandle = UUID.randomUUID().toString();
+        start.createNewSession(TENANT, sessionHandle, "userId", "refreshTokenHash", new JsonObject(), expiry,
+                new JsonObject(), System.currentTimeMillis(), false);
+        return sessionHandle;
+    }
+
+    private static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(MONTH_SUFFIX_FORMAT);
+    }
+
+    private static long monthStartMillis(YearMonth month) {
+        return month.atDay(1).toEpochDay() * MILLIS_PER_DAY;
+    }
+
+    private static void runUpdate(Start start, String query) throws Exception {
+        start.startTransaction(con -> {
+            Connection sqlCon = (Connection) con.getConnection();
+            try (PreparedStatement pst = sqlCon.prepareStatement(query)) {
+                pst.executeUpdate();
+            }
+            sqlCon.commit();
+            return null;
+        });
+    }
+
+    private static String getRelkind(Start start, String table) throws Exception {
+        return start.startTransaction(con -> {
+            Connection sqlCon = (Connection) con.getConnection();
+            try (PreparedStatement pst = sqlCon.prepareStatement(
+                    "SELECT relkind FROM pg_class WHERE oid = to_regclass(?)")) {
+                pst.setString(1, table);
+                try (ResultSet rs = pst.executeQuery()) {
+                    return rs.next() ? rs.getString(1) : null;
+                }
+            }
+        });
+    }
+
+    private static boolean tableExists(Start start, String table) throws Exception {
+        return getRelkind(start, table) != null;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import io.supertokens.ProcessState;
+import io.supertokens.config.Config;
+import io.supertokens.featureflag.EE_FEATURES;
+import io.supertokens.featureflag.FeatureFlagTestContent;
+import io.supertokens.pluginInterface.multitenancy.*;
+import io.supertokens.storage.postgresql.ConnectionPool;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.*;
+
+public class SharedConnectionPoolTest {
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    private static String querySingleValue(Connection con, String query) throws SQLException {
+        try (Statement statement = con.createStatement(); ResultSet result = statement.executeQuery(query)) {
+            assertTrue(result.next());
+            return result.getString(1);
+        }
+    }
+
+    private static TestingProcessManager.TestingProcess startWithTenant(String[] args, JsonObject tenantConfig)
+            throws Exception {
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args, false);
+        FeatureFlagTestContent.getInstance(process.getProcess())
+                .setKeyValue(FeatureFlagTestContent.ENABLED_FEATURES, new EE_FEATURES[]{EE_FEATURES.MULTI_TENANCY});
+        process.startProcess();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        TenantConfig[] tenants = new TenantConfig[]{
+                new TenantConfig(new TenantIdentifier("abc", null, null), new EmailPasswordConfig(false),
+                        new ThirdPartyConfig(false, new ThirdPartyConfig.Provider[0]),
+                        new PasswordlessConfig(false),
+                        null, null,
+                        tenantConfig)};
+        Config.loadAllTenantConfig(process.getProcess(), tenants);
+        StorageLayer.loadAllTenantStorage(process.getProcess(), tenants);
+        return process;
+    }
+
+    @Test
+    public void storagesWithDifferentSchemasShareOnePhysicalPool() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_shared_connection_pool", "true");
+        Utils.setValueInConfig("postgresql_shared_connection_pool_size", "1");
+
+        JsonObject tenantConfig = new JsonObject();
+        tenantConfig.add("postgresql_table_names_prefix", new JsonPrimitive("shared"));
+        tenantConfig.add("postgresql_table_schema", new JsonPrimitive("sharedschema"));
+        TestingProcessManager.TestingProcess process = startWithTenant(args, tenantConfig);
+
+        Start baseStorage = (Start) StorageLayer.getStorage(new TenantIdentifier(null, null, null),
+                process.getProcess());
+        Start tenantStorage = (Start) StorageLayer.getStorage(new TenantIdentifier("abc", null, null),
+                process.getProcess());
+        assertNotSame(baseStorage, tenantStorage);
+
+        // with a single physical connection, both storages must be served by the same backend, each with its
+        // own search_path applied on checkout
+        String baseBackend;
+        try (Connection con = ConnectionPool.getConnection(baseStorage)) {
+            baseBackend = querySingleValue(con, "SELECT pg_backend_pid()");
+            assertEquals("\"$user\", public", querySingleValue(con, "SHOW search_path"));
+        }
+        try (Connection con = ConnectionPool.getConnection(tenantStorage)) {
+            assertEquals(baseBackend, querySingleValue(con, "SELECT pg_backend_pid()"));
+            assertEquals("sharedschema, public", querySingleValue(con, "SHOW search_path"));
+        }
+        try (Connection con = ConnectionPool.getConnection(baseStorage)) {
+            assertEquals("\"$user\", public", querySingleValue(con, "SHOW search_path"));
+        }
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void storageCannotTakeMoreThanItsFairShare() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_connection_pool_size", "1");
+        Utils.setValueInConfig("postgresql_shared_connection_pool", "true");
+        Utils.setValueInConfig("postgresql_shared_connection_pool_size", "2");
+
+        JsonObject tenantConfig = new JsonObject();
+        tenantConfig.add("postgresql_table_names_prefix", new JsonPrimitive("shared"));
+        TestingProcessManager.TestingProcess process = startWithTenant(args, tenantConfig);
+
+        Start baseStorage = (Start) StorageLayer.getStorage(new TenantIdentifier(null, null, null),
+                process.getProcess());
+        Start tenantStorage = (Start) StorageLayer.getStorage(new TenantIdentifier("abc", null, null),
+                process.getProcess());
+
+        try (Connection ignored = ConnectionPool.getConnection(baseStorage)) {
+            try (Connection con = ConnectionPool.getConnection(baseStorage)) {
+                fail();
+            } catch (SQLException e) {
+                assertTrue(e.getMessage().contains("storage fair share exhausted"));
+            }
+
+            // the other storage still gets the remaining connection of the shared pool
+            try (Connection con = ConnectionPool.getConnection(tenantStorage)) {
+                assertEquals("1", querySingleValue(con, "SELECT 1"));
+            }
+        }
+
+        // once released, the permit is usable again
+        try (Connection con = ConnectionPool.getConnection(baseStorage)) {
+            assertEquals("1", querySingleValue(con, "SELECT 1"));
+        }
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void sharedPoolCannotBeUsedWithPgBouncerMode() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_shared_connection_pool", "true");
+        Utils.setValueInConfig("postgresql_pgbouncer_mode", "true");
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+
+        ProcessState.EventAndException e = process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.INIT_FAILURE);
+        assertNotNull(e);
+        assertEquals("'postgresql_shared_connection_pool' cannot be used with 'postgresql_pgbouncer_mode'",
+                e.exception.getCause().getMessage());
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+}
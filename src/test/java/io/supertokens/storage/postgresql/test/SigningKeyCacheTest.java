@@ -0,0 +1,206 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import io.supertokens.ProcessState;
+import io.supertokens.pluginInterface.KeyValueInfo;
+import io.supertokens.pluginInterface.multitenancy.AppIdentifier;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storage.postgresql.config.Config;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class SigningKeyCacheTest {
+
+    // created_at_time of the keys added by the tests, far older than the keys that the core creates
+    private static final long KEY_CREATED_AT = 1L;
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    private static Set<Long> getKeys(Start start) throws Exception {
+        AppIdentifier appIdentifier = new AppIdentifier(null, null);
+        return start.startTransaction(con -> {
+            Set<Long> keys = new HashSet<>();
+            for (KeyValueInfo key : start.getAccessTokenSigningKeys_Transaction(appIdentifier, con)) {
+                keys.add(key.createdAtTime);
+            }
+            start.commitTransaction(con);
+            return keys;
+        });
+    }
+
+    private static void addKey(Start start, long createdAt) throws Exception {
+        AppIdentifier appIdentifier = new AppIdentifier(null, null);
+        start.startTransaction(con -> {
+            start.addAccessTokenSigningKey_Transaction(appIdentifier, con, new KeyValueInfo("key", createdAt));
+            start.commitTransaction(con);
+            return null;
+        });
+    }
+
+    // runs the statement without going through the storage, so that the cache does not hear about it
+    private static void runBehindTheCachesBack(Start start, String sql) throws Exception {
+        start.startTransaction(con -> {
+            Connection sqlCon = (Connection) con.getConnection();
+            try (Statement statement = sqlCon.createStatement()) {
+                statement.execute(sql);
+            }
+            start.commitTransaction(con);
+            return null;
+        });
+    }
+
+    private static void deleteKeyBehindTheCachesBack(Start start) throws Exception {
+        runBehindTheCachesBack(start, "DELETE FROM " + Config.getConfig(start).getAccessTokenSigningKeysTable()
+                + " WHERE app_id = 'public' AND created_at_time = " + KEY_CREATED_AT);
+    }
+
+    private static void waitUntilListening(Start start) throws Exception {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!start.getSigningKeyCacheMetrics().get("listening").getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void keysAreCachedUntilAChangeIsNotified() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_signing_key_cache_ttl", "60000");
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        waitUntilListening(start);
+
+        addKey(start, KEY_CREATED_AT);
+        assertTrue(getKeys(start).contains(KEY_CREATED_AT));
+
+        long hits = start.getSigningKeyCacheMetrics().get("hits").getAsLong();
+        deleteKeyBehindTheCachesBack(start);
+        assertTrue(getKeys(start).contains(KEY_CREATED_AT));
+        assertEquals(hits + 1, start.getSigningKeyCacheMetrics().get("hits").getAsLong());
+
+        // what another core sends when it changes the keys of the app
+        runBehindTheCachesBack(start, "SELECT pg_notify('supertokens_signing_keys', '"
+                + Config.getConfig(start).getTableSchema() + "|public')");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (getKeys(start).contains(KEY_CREATED_AT)) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(50);
+        }
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void changesMadeThroughTheStorageAreSeenRightAway() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_signing_key_cache_ttl", "60000");
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        waitUntilListening(start);
+
+        addKey(start, KEY_CREATED_AT);
+        assertTrue(getKeys(start).contains(KEY_CREATED_AT));
+
+        addKey(start, KEY_CREATED_AT + 1);
+        Set<Long> keys = getKeys(start);
+        assertTrue(keys.contains(KEY_CREATED_AT));
+        assertTrue(keys.contains(KEY_CREATED_AT + 1));
+
+        start.removeAccessTokenSigningKeysBefore(new AppIdentifier(null, null), KEY_CREATED_AT + 2);
+        keys = getKeys(start);
+        assertFalse(keys.contains(KEY_CREATED_AT));
+        assertFalse(keys.contains(KEY_CREATED_AT + 1));
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void cachedKeysExpireAfterTheTtl() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_signing_key_cache_ttl", "500");
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        waitUntilListening(start);
+
+        addKey(start, KEY_CREATED_AT);
+        assertTrue(getKeys(start).contains(KEY_CREATED_AT));
+
+        deleteKeyBehindTheCachesBack(start);
+        assertTrue(getKeys(start).contains(KEY_CREATED_AT));
+
+        Thread.sleep(1000);
+        assertFalse(getKeys(start).contains(KEY_CREATED_AT));
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void keysAreNotCachedByDefault() throws Exception {
+        String[] args = {"../"};
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        assertNull(start.getSigningKeyCacheMetrics());
+
+        addKey(start, KEY_CREATED_AT);
+        assertTrue(getKeys(start).contains(KEY_CREATED_AT));
+
+        deleteKeyBehindTheCachesBack(start);
+        assertFalse(getKeys(start).contains(KEY_CREATED_AT));
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+}
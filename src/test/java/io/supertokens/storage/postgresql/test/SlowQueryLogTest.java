@@ -0,0 +1,135 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import io.supertokens.ProcessState;
+import io.supertokens.config.Config;
+import io.supertokens.storage.postgresql.QueryExecutorTemplate;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+import static org.junit.Assert.*;
+
+public class SlowQueryLogTest {
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    private static List<String> getSlowQueryLines(TestingProcessManager.TestingProcess process) throws Exception {
+        File errorLog = new File(Config.getConfig(process.getProcess()).getErrorLogPath(process.getProcess()));
+        List<String> lines = new ArrayList<>();
+        try (Scanner scanner = new Scanner(errorLog, StandardCharsets.UTF_8)) {
+            while (scanner.hasNextLine()) {
+                String line = scanner.nextLine();
+                if (line.contains(process.getProcess().getProcessId())
+                        && line.contains("Slow query SlowQueryLogTest.")) {
+                    lines.add(line);
+                }
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    public void slowQueriesAreLoggedWithTheShapesOfTheirParametersAndTheirPlan() throws Exception {
+        Assume.assumeTrue("Skipping - file logging is disabled", Utils.isFileLoggingEnabled());
+        String[] args = {"../"};
+
+        // every query is slow
+        Utils.setValueInConfig("postgresql_slow_query_threshold", "0");
+        Utils.setValueInConfig("postgresql_slow_query_explain", "true");
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+
+        String value = QueryExecutorTemplate.execute(start, "SELECT ? || ?::BIGINT", pst -> {
+            pst.setString(1, "secret-value");
+            pst.setLong(2, 42);
+        }, result -> {
+            result.next();
+            return result.getString(1);
+        });
+        assertEquals("secret-value42", value);
+        try {
+            QueryExecutorTemplate.execute(start, "SELECT 1/0", null, result -> null);
+            fail();
+        } catch (SQLException e) {
+            assertEquals("22012", e.getSQLState());
+        }
+
+        List<String> lines = getSlowQueryLines(process);
+        assertEquals(2, lines.size());
+
+        String slowQuery = lines.get(0);
+        assertTrue(slowQuery.contains(" took "));
+        assertTrue(slowQuery.contains("parameters: [String(12), Long]"));
+        assertTrue(slowQuery.contains("Plan"));
+        // values of parameters are never logged
+        assertFalse(slowQuery.contains("secret-value"));
+
+        // the plan of a failed query is not captured
+        String failedQuery = lines.get(1);
+        assertTrue(failedQuery.contains(" failed after "));
+        assertFalse(failedQuery.contains("plan: "));
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void nothingIsLoggedWithoutAThreshold() throws Exception {
+        Assume.assumeTrue("Skipping - file logging is disabled", Utils.isFileLoggingEnabled());
+        String[] args = {"../"};
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        QueryExecutorTemplate.execute(start, "SELECT pg_sleep(0.01)", null, result -> null);
+
+        assertEquals(0, getSlowQueryLines(process).size());
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import io.supertokens.ProcessState;
+import io.supertokens.pluginInterface.sqlStorage.SQLStorage;
+import io.supertokens.storage.postgresql.ConnectionPool;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storage.postgresql.StatementCachingConnection;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StatementCachingConnectionTest {
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    @Test
+    public void statementsAreReusedWithinATransactionAndClosedAtTheEnd() throws Exception {
+        String[] args = {"../"};
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+        String QUERY = "SELECT ?::int AS v";
+        List<PreparedStatement> seen = new ArrayList<>();
+
+        start.startTransaction(con -> {
+            Connection sqlCon = (Connection) con.getConnection();
+            for (int i = 0; i < 3; i++) {
+                try (PreparedStatement pst = sqlCon.prepareStatement(QUERY)) {
+                    pst.setInt(1, i);
+                    try (ResultSet result = pst.executeQuery()) {
+                        assertTrue(result.next());
+                        assertEquals(i, result.getInt("v"));
+                    }
+                    seen.add(pst);
+                }
+            }
+            // the same statement object was handed out every time
+            assertSame(seen.get(0), seen.get(1));
+            assertSame(seen.get(1), seen.get(2));
+            assertTrue(seen.get(0).isClosed());
+
+            // while a statement is in use, preparing the same query again gives a separate statement
+            try (PreparedStatement outer = sqlCon.prepareStatement(QUERY)) {
+                try (PreparedStatement inner = sqlCon.prepareStatement(QUERY)) {
+                    assertNotSame(outer, inner);
+                    inner.setInt(1, 2);
+                    outer.setInt(1, 1);
+                    try (ResultSet innerResult = inner.executeQuery(); ResultSet outerResult = outer.executeQuery()) {
+                        assertTrue(innerResult.next());
+                        assertTrue(outerResult.next());
+                        assertEquals(2, innerResult.getInt("v"));
+                        assertEquals(1, outerResult.getInt("v"));
+                    }
+                }
+            }
+            start.commitTransaction(con);
+            return null;
+        });
+
+        // after the transaction, the underlying statement is really closed
+        assertTrue(seen.get(0).unwrap(PreparedStatement.class).isClosed());
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void knownSessionStateIsNotSetOrReadAgain() throws Exception {
+        List<String> calls = new ArrayList<>();
+        Connection recorder = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, methodArgs) -> {
+                    calls.add(method.getName());
+                    switch (method.getName()) {
+                        case "getAutoCommit":
+                            return true;
+                        case "getTransactionIsolation":
+                            return Connection.TRANSACTION_READ_COMMITTED;
+                    }
+                    return null;
+                });
+
+        Connection con = new StatementCachingConnection(recorder, true, Connection.TRANSACTION_READ_COMMITTED);
+        con.setAutoCommit(true);
+        con.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        assertTrue(con.getAutoCommit());
+        assertEquals(Connection.TRANSACTION_READ_COMMITTED, con.getTransactionIsolation());
+        assertTrue(calls.isEmpty());
+
+        con.setAutoCommit(false);
+        con.setAutoCommit(false);
+        con.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        assertEquals(Connection.TRANSACTION_SERIALIZABLE, con.getTransactionIsolation());
+        assertEquals(List.of("setAutoCommit", "setTransactionIsolation"), calls);
+
+        // if the state is not known, it is read once from the connection
+        calls.clear();
+        con = new StatementCachingConnection(recorder);
+        assertEquals(Connection.TRANSACTION_READ_COMMITTED, con.getTransactionIsolation());
+        assertEquals(Connection.TRANSACTION_READ_COMMITTED, con.getTransactionIsolation());
+        assertEquals(List.of("getTransactionIsolation"), calls);
+    }
+
+    @Test
+    public void transactionsRunWithTheRequestedIsolationLevel() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_connection_pool_size", "1");
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+
+        assertEquals("read committed", start.startTransaction(
+                con -> showTransactionIsolation((Connection) con.getConnection())));
+        assertEquals("serializable", start.startTransaction(
+                con -> showTransactionIsolation((Connection) con.getConnection()),
+                SQLStorage.TransactionIsolationLevel.SERIALIZABLE));
+        assertEquals("repeatable read", start.startTransaction(
+                con -> showTransactionIsolation((Connection) con.getConnection()),
+                SQLStorage.TransactionIsolationLevel.REPEATABLE_READ));
+
+        // the connection reports the level set for the transaction, rather than the pool's default
+        assertEquals(Connection.TRANSACTION_SERIALIZABLE, (int) start.startTransaction(
+                con -> ((Connection) con.getConnection()).getTransactionIsolation(),
+                SQLStorage.TransactionIsolationLevel.SERIALIZABLE));
+        assertEquals(Connection.TRANSACTION_READ_COMMITTED, (int) start.startTransaction(
+                con -> ((Connection) con.getConnection()).getTransactionIsolation()));
+
+        // the pool has a single connection, which ran the transactions above. The level was scoped to the
+        // transaction, so the session still has the pool's default.
+        try (Connection con = ConnectionPool.getConnection(start)) {
+            assertTrue(con.getAutoCommit());
+            assertEquals("read committed", showTransactionIsolation(con));
+        }
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    private static String showTransactionIsolation(Connection con) throws SQLException {
+        try (Statement statement = con.createStatement();
+             ResultSet result = statement.executeQuery("SHOW transaction_isolation")) {
+            result.next();
+            return result.getString(1);
+        }
+    }
+}
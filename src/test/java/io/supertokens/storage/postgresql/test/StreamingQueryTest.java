@@ -0,0 +1,105 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import io.supertokens.ProcessState;
+import io.supertokens.pluginInterface.multitenancy.TenantConfig;
+import io.supertokens.storage.postgresql.ConnectionPool;
+import io.supertokens.storage.postgresql.QueryExecutorTemplate;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class StreamingQueryTest {
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    @Test
+    public void allRowsAreHandledInOrder() throws Exception {
+        String[] args = {"../"};
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+
+        AtomicInteger next = new AtomicInteger(1);
+        QueryExecutorTemplate.executeStreaming(start, "SELECT i FROM generate_series(1, ?) AS i ORDER BY i",
+                pst -> pst.setInt(1, 2500), 100, row -> assertEquals(next.getAndIncrement(), row.getInt("i")));
+        assertEquals(2501, next.get());
+
+        // the connection went back to the pool in auto-commit mode
+        try (Connection con = ConnectionPool.getConnection(start)) {
+            assertTrue(con.getAutoCommit());
+        }
+
+        // the tenant listing is streamed as well
+        TenantConfig[] tenants = start.getAllTenants();
+        assertTrue(tenants.length >= 1);
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+
+    @Test
+    public void rowsAreHandledBeforeTheWholeResultIsRead() throws Exception {
+        String[] args = {"../"};
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+
+        // the query fails at row 1500. If the result was read at once, no row would reach the handler.
+        AtomicInteger handled = new AtomicInteger(0);
+        try {
+            QueryExecutorTemplate.executeStreaming(start,
+                    "SELECT 1 / (1500 - i) AS v FROM generate_series(1, 3000) AS i", null, 100,
+                    row -> handled.incrementAndGet());
+            fail();
+        } catch (SQLException e) {
+            assertEquals("22012", e.getSQLState());
+        }
+        assertTrue(handled.get() > 0);
+        assertTrue(handled.get() < 1500);
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ *    Copyright (c) 2026, VRAI Labs and/or its affiliates. All rights reserved.
+ *
+ *    This software is licensed under the Apache License, Version 2.0 (the
+ *    "License") as published by the Apache Software Foundation.
+ *
+ *    You may not use this file except in compliance with the License. You may
+ *    obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *    License for the specific language governing permissions and limitations
+ *    under the License.
+ *
+ */
+
+package io.supertokens.storage.postgresql.test;
+
+import com.google.gson.JsonObject;
+import io.supertokens.ProcessState;
+import io.supertokens.pluginInterface.exceptions.StorageQueryException;
+import io.supertokens.pluginInterface.exceptions.StorageTransactionLogicException;
+import io.supertokens.storage.postgresql.LockFailure;
+import io.supertokens.storage.postgresql.Start;
+import io.supertokens.storage.postgresql.TransactionRetryPolicy;
+import io.supertokens.storage.postgresql.TransactionRetryPolicy.FailureClass;
+import io.supertokens.storageLayer.StorageLayer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TransactionRetryPolicyTest {
+
+    @Rule
+    public TestRule watchman = Utils.getOnFailure();
+
+    @AfterClass
+    public static void afterTesting() {
+        Utils.afterTesting();
+    }
+
+    @Before
+    public void beforeEach() {
+        Utils.reset();
+    }
+
+    @Test
+    public void failuresAreClassifiedBySQLState() {
+        TransactionRetryPolicy policy = new TransactionRetryPolicy(1000);
+
+        assertEquals(FailureClass.SERIALIZATION_FAILURE, policy.classify(new SQLException("", "40001")));
+        assertEquals(FailureClass.DEADLOCK_DETECTED, policy.classify(new SQLException("", "40P01")));
+        assertEquals(FailureClass.LOCK_NOT_AVAILABLE, policy.classify(new SQLException("", "55P03")));
+        assertEquals(FailureClass.TRANSACTION_ROLLBACK, policy.classify(new SQLException("", "40000")));
+        assertEquals(FailureClass.LOCK_FAILURE, policy.classify(new StorageQueryException(new LockFailure())));
+
+        // wrapped failures are found through the cause chain
+        assertEquals(FailureClass.DEADLOCK_DETECTED,
+                policy.classify(new StorageQueryException(new SQLException("", "40P01"))));
+
+        // it is not known whether a 40003 committed, and other errors are not caused by concurrency
+        assertNull(policy.classify(new SQLException("", "40003")));
+        assertNull(policy.classify(new SQLException("", "23505")));
+        assertNull(policy.classify(new SQLException("could not serialize access due to concurrent update")));
+        assertNull(policy.classify(new RuntimeException()));
+    }
+
+    @Test
+    public void backoffStaysWithinBounds() {
+        TransactionRetryPolicy policy = new TransactionRetryPolicy(1000);
+        long backoff = 0;
+        for (int i = 0; i < 1000; i++) {
+            long next = policy.getNextBackoffMillis(backoff);
+            assertTrue(next >= 10);
+            assertTrue(next <= 1000);
+            assertTrue(next <= Math.max(10, backoff) * 3);
+            backoff = next;
+        }
+    }
+
+    @Test
+    public void retriesStopOnceTheTimeBudgetIsUsedUp() throws Exception {
+        String[] args = {"../"};
+
+        Utils.setValueInConfig("postgresql_transaction_retry_time_budget", "500");
+
+        TestingProcessManager.TestingProcess process = TestingProcessManager.start(args);
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STARTED));
+
+        Start start = (Start) StorageLayer.getStorage(process.getProcess());
+
+        AtomicInteger attempts = new AtomicInteger(0);
+        long before = System.currentTimeMillis();
+        try {
+            start.startTransaction(con -> {
+                attempts.incrementAndGet();
+                throw new SQLException("could not serialize access", "40001");
+            });
+            fail();
+        } catch (StorageQueryException | StorageTransactionLogicException e) {
+            // expected
+        }
+        long elapsed = System.currentTimeMillis() - before;
+
+        assertTrue(attempts.get() > 1);
+        assertTrue(elapsed < 2000);
+        assertNotNull(process.checkOrWaitForEventInPlugin(
+                io.supertokens.storage.postgresql.ProcessState.PROCESS_STATE.DEADLOCK_NOT_RESOLVED));
+
+        JsonObject metrics = start.getTransactionRetryMetrics();
+        assertEquals(attempts.get() - 1,
+                metrics.getAsJsonObject("SERIALIZATION_FAILURE").get("retries").getAsInt());
+        assertEquals(1, metrics.getAsJsonObject("SERIALIZATION_FAILURE").get("exhausted").getAsInt());
+
+        // failures that are not retryable are returned straight away
+        attempts.set(0);
+        try {
+            start.startTransaction(con -> {
+                attempts.incrementAndGet();
+                throw new SQLException("duplicate key", "23505");
+            });
+            fail();
+        } catch (StorageQueryException | StorageTransactionLogicException e) {
+            // expected
+        }
+        assertEquals(1, attempts.get());
+
+        process.kill();
+        assertNotNull(process.checkOrWaitForEvent(ProcessState.PROCESS_STATE.STOPPED));
+    }
+}